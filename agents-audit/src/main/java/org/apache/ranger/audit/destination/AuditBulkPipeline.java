@@ -0,0 +1,459 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.audit.destination;
+
+import org.apache.hadoop.thirdparty.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.ranger.audit.model.AuditEventBase;
+import org.apache.ranger.audit.provider.MiscUtil;
+import org.apache.ranger.audit.queue.AuditFileSpool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sends documents to an index (Solr, ElasticSearch) as bulk requests from a pool of threads, with up to
+ * bulk.max.inflight requests outstanding at a time; submit() returns once the requests are queued, and blocks only when
+ * that many requests are in flight.
+ *
+ * Documents given to submit() are split into batches capped by document count and by bytes. The document count is
+ * adjusted after each request: halved when the request fails or takes longer than bulk.target.latency.ms, and
+ * increased when a full batch completes within half of it. Documents rejected with a retryable error are sent again,
+ * without the documents that were indexed, up to bulk.max.retries times. Documents still not indexed after that are
+ * written to the file spool of the queue in front of the destination, if there is one, to be sent again later.
+ */
+public class AuditBulkPipeline<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(AuditBulkPipeline.class);
+
+    public static final String PROP_BULK_MAX_INFLIGHT      = "bulk.max.inflight";
+    public static final String PROP_BULK_MIN_DOCS          = "bulk.min.docs";
+    public static final String PROP_BULK_MAX_DOCS          = "bulk.max.docs";
+    public static final String PROP_BULK_MAX_BYTES         = "bulk.max.bytes";
+    public static final String PROP_BULK_TARGET_LATENCY_MS = "bulk.target.latency.ms";
+    public static final String PROP_BULK_MAX_RETRIES       = "bulk.max.retries";
+    public static final String PROP_BULK_RETRY_BACKOFF_MS  = "bulk.retry.backoff.ms";
+
+    private static final long STOP_WAIT_MS = 30 * 1000L;
+
+    private final AuditDestination  handler;
+    private final BulkSender<T>     sender;
+    private final ToLongFunction<T> sizeEstimator;
+    private final int               maxInFlight;
+    private final int               minDocs;
+    private final int               maxDocs;
+    private final long              maxBytes;
+    private final long              targetLatencyMs;
+    private final int               maxRetries;
+    private final long              retryBackoffMs;
+    private final Semaphore         permits;
+    private final ExecutorService   executor;
+    private final AtomicInteger     inFlightCount    = new AtomicInteger();
+    private final LongAdder         bulkCount        = new LongAdder();
+    private final LongAdder         bulkTimeNanos    = new LongAdder();
+    private final AtomicLong        maxBulkTimeNanos = new AtomicLong();
+    private final LongAdder         rejectedCount    = new LongAdder();
+    private final LongAdder         retriedCount     = new LongAdder();
+
+    private volatile int batchDocs;
+
+    /**
+     * Sends one bulk request. Documents that were not indexed must be marked in the result; an exception marks all
+     * documents as rejected with a retryable error.
+     */
+    public interface BulkSender<T> {
+        void send(List<T> docs, BulkResult result) throws Exception;
+    }
+
+    public AuditBulkPipeline(AuditDestination handler, Properties props, String propPrefix, BulkSender<T> sender, ToLongFunction<T> sizeEstimator) {
+        this.handler         = handler;
+        this.sender          = sender;
+        this.sizeEstimator   = sizeEstimator;
+        this.maxInFlight     = Math.max(1, MiscUtil.getIntProperty(props, propPrefix + "." + PROP_BULK_MAX_INFLIGHT, 4));
+        this.maxDocs         = Math.max(1, MiscUtil.getIntProperty(props, propPrefix + "." + PROP_BULK_MAX_DOCS, 1000));
+        this.minDocs         = Math.min(maxDocs, Math.max(1, MiscUtil.getIntProperty(props, propPrefix + "." + PROP_BULK_MIN_DOCS, 10)));
+        this.maxBytes        = Math.max(1, MiscUtil.getLongProperty(props, propPrefix + "." + PROP_BULK_MAX_BYTES, 5 * 1024 * 1024L));
+        this.targetLatencyMs = MiscUtil.getLongProperty(props, propPrefix + "." + PROP_BULK_TARGET_LATENCY_MS, 1000L);
+        this.maxRetries      = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_BULK_MAX_RETRIES, 3);
+        this.retryBackoffMs  = MiscUtil.getLongProperty(props, propPrefix + "." + PROP_BULK_RETRY_BACKOFF_MS, 1000L);
+        this.permits         = new Semaphore(maxInFlight);
+        this.executor        = Executors.newFixedThreadPool(maxInFlight, new ThreadFactoryBuilder().setNameFormat("AuditBulkPipeline-" + handler.getName() + "-%d").setDaemon(true).build());
+        this.batchDocs       = maxDocs;
+
+        LOG.info("AuditBulkPipeline(name={}): maxInFlight={}, minDocs={}, maxDocs={}, maxBytes={}, targetLatencyMs={}, maxRetries={}, retryBackoffMs={}",
+                handler.getName(), maxInFlight, minDocs, maxDocs, maxBytes, targetLatencyMs, maxRetries, retryBackoffMs);
+    }
+
+    public static boolean isEnabled(Properties props, String propPrefix) {
+        return MiscUtil.getIntProperty(props, propPrefix + "." + PROP_BULK_MAX_INFLIGHT, 0) > 0;
+    }
+
+    /**
+     * Queues the documents to be sent; events.get(i) is the audit event of docs.get(i). Blocks while maxInFlight
+     * requests are outstanding.
+     */
+    public void submit(List<AuditEventBase> events, List<T> docs) {
+        Batch<T> batch = new Batch<>();
+        int      limit = batchDocs;
+
+        for (int i = 0; i < docs.size(); i++) {
+            T    doc  = docs.get(i);
+            long size = sizeEstimator.applyAsLong(doc);
+
+            if (!batch.docs.isEmpty() && (batch.docs.size() >= limit || batch.bytes + size > maxBytes)) {
+                if (!dispatch(batch)) {
+                    onDeferred(events.subList(i, events.size()), "interrupted");
+
+                    return;
+                }
+
+                batch = new Batch<>();
+                limit = batchDocs;
+            }
+
+            batch.add(events.get(i), doc, size);
+        }
+
+        if (!batch.docs.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * Waits for the requests in flight, including their retries, to complete.
+     */
+    public void flush() {
+        try {
+            permits.acquire(maxInFlight);
+            permits.release(maxInFlight);
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void stop() {
+        flush();
+
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(STOP_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                LOG.warn("AuditBulkPipeline(name={}): bulk requests still in flight after {}ms", handler.getName(), STOP_WAIT_MS);
+            }
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void logStatus() {
+        LOG.info("AuditBulkPipeline(name={}): inFlightBatches={}, maxInFlight={}, batchDocs={}, bulkCount={}, avgBulkLatencyMs={}, maxBulkLatencyMs={}, rejectedCount={}, retriedCount={}",
+                handler.getName(), getInFlightBatches(), maxInFlight, getBatchDocs(), getBulkCount(), getAvgBulkLatencyMs(), getMaxBulkLatencyMs(), getRejectedCount(), getRetriedCount());
+    }
+
+    public int getInFlightBatches() {
+        return inFlightCount.get();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return current limit on the number of documents in a bulk request
+     */
+    public int getBatchDocs() {
+        return batchDocs;
+    }
+
+    public long getBulkCount() {
+        return bulkCount.sum();
+    }
+
+    public long getAvgBulkLatencyMs() {
+        long count = bulkCount.sum();
+
+        return count > 0 ? TimeUnit.NANOSECONDS.toMillis(bulkTimeNanos.sum() / count) : 0;
+    }
+
+    public long getMaxBulkLatencyMs() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBulkTimeNanos.get());
+    }
+
+    /**
+     * @return number of documents rejected by bulk requests, including those sent again later
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.sum();
+    }
+
+    private boolean dispatch(Batch<T> batch) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            onDeferred(batch.events, "interrupted");
+
+            return false;
+        }
+
+        inFlightCount.incrementAndGet();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    send(batch);
+                } finally {
+                    inFlightCount.decrementAndGet();
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException excp) {
+            inFlightCount.decrementAndGet();
+            permits.release();
+
+            onDeferred(batch.events, "pipeline stopped");
+        }
+
+        return true;
+    }
+
+    private void send(Batch<T> batch) {
+        for (int attempt = 0; ; attempt++) {
+            BulkResult result    = new BulkResult(batch.docs.size());
+            long       startTime = System.nanoTime();
+            boolean    isFailed  = false;
+
+            try {
+                sender.send(batch.docs, result);
+            } catch (Exception excp) {
+                isFailed = true;
+
+                result.rejectAll(excp.toString(), true);
+            }
+
+            long elapsed = System.nanoTime() - startTime;
+
+            updateLatency(elapsed);
+            adjustBatchDocs(batch.docs.size(), TimeUnit.NANOSECONDS.toMillis(elapsed), isFailed);
+
+            int rejected = result.getRejectedCount();
+
+            rejectedCount.add(rejected);
+
+            if (rejected < batch.docs.size()) {
+                onSuccess(batch.docs.size() - rejected);
+            }
+
+            if (rejected == 0) {
+                break;
+            }
+
+            Batch<T>             retry          = new Batch<>();
+            List<AuditEventBase> deferredEvents = new ArrayList<>();
+            List<AuditEventBase> failedEvents   = new ArrayList<>();
+            String               deferredReason = null;
+            String               failedReason   = null;
+
+            for (int i = 0; i < batch.docs.size(); i++) {
+                if (!result.isRejected(i)) {
+                    continue;
+                }
+
+                if (result.isRetryable(i)) {
+                    if (attempt < maxRetries) {
+                        retry.add(batch.events.get(i), batch.docs.get(i), 0);
+                    } else {
+                        deferredEvents.add(batch.events.get(i));
+
+                        if (deferredReason == null) {
+                            deferredReason = result.getReason(i);
+                        }
+                    }
+                } else {
+                    failedEvents.add(batch.events.get(i));
+
+                    if (failedReason == null) {
+                        failedReason = result.getReason(i);
+                    }
+                }
+            }
+
+            if (!failedEvents.isEmpty()) {
+                onFailure(failedEvents, failedReason);
+            }
+
+            if (!deferredEvents.isEmpty()) {
+                LOG.warn("AuditBulkPipeline(name={}): {} documents not indexed after {} attempts: {}", handler.getName(), deferredEvents.size(), attempt + 1, deferredReason);
+
+                onDeferred(deferredEvents, deferredReason);
+            }
+
+            if (retry.docs.isEmpty()) {
+                break;
+            }
+
+            LOG.debug("AuditBulkPipeline(name={}): sending {} rejected documents again. attempt={}", handler.getName(), retry.docs.size(), attempt + 1);
+
+            retriedCount.add(retry.docs.size());
+
+            try {
+                Thread.sleep(retryBackoffMs * (attempt + 1));
+            } catch (InterruptedException excp) {
+                onDeferred(retry.events, "interrupted");
+
+                Thread.currentThread().interrupt();
+
+                break;
+            }
+
+            batch = retry;
+        }
+    }
+
+    private void adjustBatchDocs(int docCount, long elapsedMs, boolean isFailed) {
+        int current = batchDocs;
+
+        if (isFailed || elapsedMs > targetLatencyMs) {
+            batchDocs = Math.max(minDocs, current / 2);
+        } else if (docCount >= current && elapsedMs < targetLatencyMs / 2) {
+            batchDocs = Math.min(maxDocs, current + Math.max(1, current / 4));
+        }
+    }
+
+    private void updateLatency(long elapsedNanos) {
+        bulkCount.increment();
+        bulkTimeNanos.add(elapsedNanos);
+
+        for (long currMax = maxBulkTimeNanos.get(); elapsedNanos > currMax; currMax = maxBulkTimeNanos.get()) {
+            if (maxBulkTimeNanos.compareAndSet(currMax, elapsedNanos)) {
+                break;
+            }
+        }
+    }
+
+    // counters in BaseAuditHandler are not thread-safe; the handler synchronizes its own updates on itself
+    private void onSuccess(int count) {
+        synchronized (handler) {
+            handler.addSuccessCount(count);
+        }
+    }
+
+    private void onFailure(List<AuditEventBase> events, String reason) {
+        synchronized (handler) {
+            handler.addFailedCount(events.size());
+        }
+
+        handler.logFailedEvent(events, reason);
+    }
+
+    // documents not indexed due to a retryable error: without a file spool to send them again later, these are lost
+    private void onDeferred(List<AuditEventBase> events, String reason) {
+        AuditFileSpool fileSpooler = handler.getFileSpooler();
+
+        if (fileSpooler == null) {
+            onFailure(events, reason);
+
+            return;
+        }
+
+        fileSpooler.stashLogs(events);
+
+        synchronized (handler) {
+            handler.addStashedCount(events.size());
+        }
+    }
+
+    /**
+     * Outcome of a bulk request: documents not indexed, and whether sending them again could succeed.
+     */
+    public static class BulkResult {
+        private final boolean[] rejected;
+        private final boolean[] retryable;
+        private final String[]  reasons;
+        private       int       rejectedCount;
+
+        BulkResult(int docCount) {
+            rejected  = new boolean[docCount];
+            retryable = new boolean[docCount];
+            reasons   = new String[docCount];
+        }
+
+        public void reject(int index, String reason, boolean isRetryable) {
+            if (!rejected[index]) {
+                rejected[index] = true;
+
+                rejectedCount++;
+            }
+
+            retryable[index] = isRetryable;
+            reasons[index]   = reason;
+        }
+
+        public void rejectAll(String reason, boolean isRetryable) {
+            for (int i = 0; i < rejected.length; i++) {
+                reject(i, reason, isRetryable);
+            }
+        }
+
+        public boolean isRejected(int index) {
+            return rejected[index];
+        }
+
+        public boolean isRetryable(int index) {
+            return retryable[index];
+        }
+
+        public int getRejectedCount() {
+            return rejectedCount;
+        }
+
+        public String getReason(int index) {
+            return reasons[index];
+        }
+    }
+
+    private static class Batch<T> {
+        final List<AuditEventBase> events = new ArrayList<>();
+        final List<T>              docs   = new ArrayList<>();
+        long                       bytes;
+
+        void add(AuditEventBase event, T doc, long size) {
+            events.add(event);
+            docs.add(doc);
+
+            bytes += size;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package org.apache.ranger.audit.destination;
 
 import org.apache.ranger.audit.provider.BaseAuditHandler;
+import org.apache.ranger.audit.queue.AuditFileSpool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +33,8 @@
 public abstract class AuditDestination extends BaseAuditHandler {
     private static final Logger logger = LoggerFactory.getLogger(AuditDestination.class);
 
+    private volatile AuditFileSpool fileSpooler;
+
     public AuditDestination() {
         logger.info("AuditDestination() enter");
     }
@@ -72,4 +75,16 @@ public void waitToComplete(long timeout) {
     @Override
     public void flush() {
     }
+
+    /**
+     * @return file spool of the queue in front of this destination, for events that the destination accepted but could
+     * not send; null if the queue has no file spool
+     */
+    public AuditFileSpool getFileSpooler() {
+        return fileSpooler;
+    }
+
+    public void setFileSpooler(AuditFileSpool fileSpooler) {
+        this.fileSpooler = fileSpooler;
+    }
 }
@@ -42,6 +42,7 @@
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.rest.RestStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,6 +57,7 @@
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
@@ -79,13 +81,14 @@ public class ElasticSearchAuditDestination extends AuditDestination {
     private final AtomicReference<RestHighLevelClient> clientRef    = new AtomicReference<>(null);
     private final AtomicLong                           lastLoggedAt = new AtomicLong(0);
 
-    private String  index = CONFIG_INDEX;
-    private String  protocol;
-    private String  user;
-    private int     port;
-    private String  password;
-    private String  hosts;
-    private Subject subject;
+    private String                          index = CONFIG_INDEX;
+    private String                          protocol;
+    private String                          user;
+    private int                             port;
+    private String                          password;
+    private String                          hosts;
+    private Subject                         subject;
+    private AuditBulkPipeline<IndexRequest> bulkPipeline;
 
     public ElasticSearchAuditDestination() {
         propPrefix = CONFIG_PREFIX;
@@ -147,15 +150,32 @@ public void init(Properties props, String propPrefix) {
         LOG.info("Connecting to ElasticSearch: {}", connectionString());
 
         getClient(); // Initialize client
+
+        if (AuditBulkPipeline.isEnabled(props, propPrefix)) {
+            bulkPipeline = new AuditBulkPipeline<>(this, props, propPrefix, this::sendBulk, request -> request.source().length());
+        }
     }
 
     @Override
     public void stop() {
         super.stop();
 
+        if (bulkPipeline != null) {
+            bulkPipeline.stop();
+        }
+
         logStatus();
     }
 
+    @Override
+    public synchronized void logStatus() {
+        super.logStatus();
+
+        if (bulkPipeline != null && isStatusLogEnabled()) {
+            bulkPipeline.logStatus();
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -163,7 +183,9 @@ public void stop() {
      */
     @Override
     public void flush() {
-        // Empty flush method
+        if (bulkPipeline != null) {
+            bulkPipeline.flush();
+        }
     }
 
     @Override
@@ -171,18 +193,30 @@ public boolean log(Collection<AuditEventBase> events) {
         boolean ret = false;
 
         try {
-            logStatusIfRequired();
-            addTotalCount(events.size());
+            synchronized (this) {
+                logStatusIfRequired();
+                addTotalCount(events.size());
+            }
 
             RestHighLevelClient client = getClient();
 
             if (null == client) {
                 // ElasticSearch is still not initialized. So need return error
-                addDeferredCount(events.size());
+                synchronized (this) {
+                    addDeferredCount(events.size());
+                }
 
                 return ret;
             }
 
+            if (bulkPipeline != null) {
+                // success and failure counts are updated as the bulk requests complete; documents not indexed after
+                // retries are written to the file spool of the queue
+                submitToPipeline(events);
+
+                return true;
+            }
+
             ArrayList<AuditEventBase> eventList   = new ArrayList<>(events);
             BulkRequest               bulkRequest = new BulkRequest();
 
@@ -225,13 +259,19 @@ public boolean log(Collection<AuditEventBase> events) {
                 }
             }
         } catch (Throwable t) {
-            addDeferredCount(events.size());
+            synchronized (this) {
+                addDeferredCount(events.size());
+            }
 
             logError("Error sending message to ElasticSearch", t);
         }
         return ret;
     }
 
+    public AuditBulkPipeline<IndexRequest> getBulkPipeline() {
+        return bulkPipeline;
+    }
+
     public boolean isAsync() {
         return true;
     }
@@ -315,6 +355,59 @@ Map<String, Object> toDoc(AuthzAuditEvent auditEvent) {
         return doc;
     }
 
+    private void submitToPipeline(Collection<AuditEventBase> events) {
+        List<AuditEventBase> eventList = new ArrayList<>(events.size());
+        List<IndexRequest>   requests  = new ArrayList<>(events.size());
+
+        for (AuditEventBase event : events) {
+            try {
+                AuthzAuditEvent authzEvent = (AuthzAuditEvent) event;
+
+                requests.add(new IndexRequest(index).id(authzEvent.getEventId()).source(toDoc(authzEvent)));
+                eventList.add(event);
+            } catch (Exception ex) {
+                synchronized (this) {
+                    addFailedCount(1);
+                }
+
+                logFailedEvent(event, ex);
+            }
+        }
+
+        bulkPipeline.submit(eventList, requests);
+    }
+
+    private void sendBulk(List<IndexRequest> requests, AuditBulkPipeline.BulkResult result) throws IOException {
+        RestHighLevelClient client = getClient();
+
+        if (client == null) {
+            throw new IOException("ElasticSearch is not initialized: " + connectionString());
+        }
+
+        BulkRequest bulkRequest = new BulkRequest();
+
+        requests.forEach(bulkRequest::add);
+
+        BulkResponse response = client.bulk(bulkRequest, RequestOptions.DEFAULT);
+        int          status   = response.status().getStatus();
+
+        if (status >= 400) {
+            result.rejectAll("HTTP " + status, isRetryable(status));
+        } else {
+            BulkItemResponse[] items = response.getItems();
+
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].isFailed()) {
+                    result.reject(i, items[i].getFailureMessage(), isRetryable(items[i].status().getStatus()));
+                }
+            }
+        }
+    }
+
+    private static boolean isRetryable(int httpStatus) {
+        return httpStatus == RestStatus.TOO_MANY_REQUESTS.getStatus() || httpStatus >= 500;
+    }
+
     private String connectionString() {
         return String.format(Locale.ROOT, "User:%s, %s://%s:%s/%s", user, protocol, hosts, port, index);
     }
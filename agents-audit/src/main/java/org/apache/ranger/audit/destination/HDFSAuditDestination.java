@@ -22,7 +22,9 @@
 import org.apache.ranger.audit.model.AuditEventBase;
 import org.apache.ranger.audit.provider.AuditWriterFactory;
 import org.apache.ranger.audit.provider.MiscUtil;
+import org.apache.ranger.audit.utils.AsyncAuditWriter;
 import org.apache.ranger.audit.utils.RangerAuditWriter;
+import org.apache.ranger.audit.utils.RangerORCAuditWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +45,7 @@ public class HDFSAuditDestination extends AuditDestination {
     private Map<String, String> auditConfigs;
     private String              auditProviderName;
     private RangerAuditWriter   auditWriter;
+    private boolean             isEventWriter; // auditWriter takes events directly, without conversion to JSON
     private boolean             initDone;
     private boolean             isStopped;
 
@@ -54,8 +57,18 @@ public void init(Properties prop, String propPrefix) {
         this.auditConfigs      = configProps;
 
         try {
-            this.auditWriter = getWriter();
-            this.initDone    = true;
+            RangerAuditWriter writer = getWriter();
+
+            if (MiscUtil.getBooleanProperty(props, propPrefix + "." + AsyncAuditWriter.PROP_ASYNC_WRITE, false)) {
+                writer = new AsyncAuditWriter(writer);
+
+                writer.init(props, propPrefix, auditProviderName, auditConfigs);
+                writer.start();
+            }
+
+            this.auditWriter   = writer;
+            this.isEventWriter = writer instanceof AsyncAuditWriter || writer instanceof RangerORCAuditWriter;
+            this.initDone      = true;
         } catch (Exception e) {
             logger.error("Error while getting Audit writer", e);
         }
@@ -81,6 +94,15 @@ public synchronized void stop() {
         isStopped = true;
     }
 
+    @Override
+    public synchronized void logStatus() {
+        super.logStatus();
+
+        if (auditWriter instanceof AsyncAuditWriter && isStatusLogEnabled()) {
+            ((AsyncAuditWriter) auditWriter).logStatus();
+        }
+    }
+
     @Override
     public void flush() {
         logger.debug("==> HDFSAuditDestination.flush() called. name={}", getName());
@@ -196,6 +218,10 @@ public boolean log(Collection<AuditEventBase> events) {
             return false;
         }
 
+        if (isEventWriter) {
+            return logEvents(events);
+        }
+
         List<String> jsonList = new ArrayList<>();
 
         for (AuditEventBase event : events) {
@@ -213,6 +239,38 @@ public boolean log(Collection<AuditEventBase> events) {
         return logJSON(jsonList);
     }
 
+    private synchronized boolean logEvents(Collection<AuditEventBase> events) {
+        logStatusIfRequired();
+        addTotalCount(events.size());
+
+        if (!initDone) {
+            addDeferredCount(events.size());
+
+            return false;
+        }
+
+        // no flush() here: ORC writer closes the file after each write, AsyncAuditWriter flushes in its writer thread
+        try {
+            boolean ret = auditWriter.logEvents(events);
+
+            if (!ret) {
+                addDeferredCount(events.size());
+
+                return false;
+            }
+        } catch (Throwable t) {
+            addDeferredCount(events.size());
+
+            logError("Error writing to log file.", t);
+
+            return false;
+        }
+
+        addSuccessCount(events.size());
+
+        return true;
+    }
+
     public RangerAuditWriter getWriter() throws Exception {
         AuditWriterFactory auditWriterFactory = AuditWriterFactory.getInstance();
 
@@ -36,6 +36,8 @@
 import org.apache.solr.client.solrj.response.UpdateResponse;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.SolrInputField;
+import org.apache.solr.common.util.NamedList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,7 +64,9 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 
@@ -76,8 +80,11 @@ public class SolrAuditDestination extends AuditDestination {
     public static final String DEFAULT_COLLECTION_NAME                  = "ranger_audits";
     public static final String PROP_JAVA_SECURITY_AUTH_LOGIN_CONFIG     = "java.security.auth.login.config";
 
-    private volatile SolrClient   solrClient;
-    private volatile KerberosUser kerberosUser;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private volatile SolrClient                           solrClient;
+    private volatile KerberosUser                         kerberosUser;
+    private          AuditBulkPipeline<SolrInputDocument> bulkPipeline;
 
     public SolrAuditDestination() {
     }
@@ -90,12 +97,20 @@ public void init(Properties props, String propPrefix) {
 
         init();
         connect();
+
+        if (AuditBulkPipeline.isEnabled(props, propPrefix)) {
+            bulkPipeline = new AuditBulkPipeline<>(this, props, propPrefix, this::sendBulk, SolrAuditDestination::estimateSize);
+        }
     }
 
     @Override
     public void stop() {
         LOG.info("SolrAuditDestination.stop() called..");
 
+        if (bulkPipeline != null) {
+            bulkPipeline.stop();
+        }
+
         logStatus();
 
         SolrClient solrClient = this.solrClient;
@@ -130,6 +145,18 @@ public void stop() {
      */
     @Override
     public void flush() {
+        if (bulkPipeline != null) {
+            bulkPipeline.flush();
+        }
+    }
+
+    @Override
+    public synchronized void logStatus() {
+        super.logStatus();
+
+        if (bulkPipeline != null && isStatusLogEnabled()) {
+            bulkPipeline.logStatus();
+        }
     }
 
     @Override
@@ -137,8 +164,10 @@ public boolean log(Collection<AuditEventBase> events) {
         boolean ret = false;
 
         try {
-            logStatusIfRequired();
-            addTotalCount(events.size());
+            synchronized (this) {
+                logStatusIfRequired();
+                addTotalCount(events.size());
+            }
 
             SolrClient solrClient = this.solrClient;
 
@@ -149,13 +178,15 @@ public boolean log(Collection<AuditEventBase> events) {
 
                 if (solrClient == null) {
                     // Solr is still not initialized. So need return error
-                    addDeferredCount(events.size());
+                    synchronized (this) {
+                        addDeferredCount(events.size());
+                    }
 
                     return ret;
                 }
             }
 
-            final Collection<SolrInputDocument> docs = new ArrayList<>();
+            final List<SolrInputDocument> docs = new ArrayList<>();
 
             for (AuditEventBase event : events) {
                 AuthzAuditEvent authzEvent = (AuthzAuditEvent) event;
@@ -166,6 +197,14 @@ public boolean log(Collection<AuditEventBase> events) {
                 docs.add(document);
             }
 
+            if (bulkPipeline != null) {
+                // success and failure counts are updated as the bulk requests complete; documents not indexed after
+                // retries are written to the file spool of the queue
+                bulkPipeline.submit(new ArrayList<>(events), docs);
+
+                return true;
+            }
+
             try {
                 final UpdateResponse response = addDocsToSolr(solrClient, docs);
 
@@ -183,7 +222,9 @@ public boolean log(Collection<AuditEventBase> events) {
                 logFailedEvent(events, ex);
             }
         } catch (Throwable t) {
-            addDeferredCount(events.size());
+            synchronized (this) {
+                addDeferredCount(events.size());
+            }
 
             logError("Error sending message to Solr", t);
         }
@@ -195,6 +236,10 @@ public boolean isAsync() {
         return true;
     }
 
+    public AuditBulkPipeline<SolrInputDocument> getBulkPipeline() {
+        return bulkPipeline;
+    }
+
     synchronized void connect() {
         SolrClient me = solrClient;
 
@@ -497,6 +542,74 @@ private UpdateResponse addDocsToSolr(final SolrClient solrClient, final Collecti
         return ret;
     }
 
+    private void sendBulk(List<SolrInputDocument> docs, AuditBulkPipeline.BulkResult result) throws Exception {
+        SolrClient solrClient = this.solrClient;
+
+        if (solrClient == null) {
+            connect();
+
+            solrClient = this.solrClient;
+
+            if (solrClient == null) {
+                throw new IOException("Solr is not initialized");
+            }
+        }
+
+        try {
+            final UpdateResponse response = addDocsToSolr(solrClient, docs);
+
+            if (response.getStatus() != 0) {
+                result.rejectAll(response.toString(), false);
+            } else {
+                rejectToleratedErrors(docs, response, result);
+            }
+        } catch (SolrException ex) {
+            result.rejectAll(ex.toString(), ex.code() == HTTP_TOO_MANY_REQUESTS || ex.code() >= 500);
+        }
+    }
+
+    /*
+    With TolerantUpdateProcessor configured for the collection, Solr indexes the valid documents of a request and
+    lists the rest in the "errors" entry of the response header. These are failures of the document itself, like a
+    schema mismatch, so sending them again wouldn't help.
+     */
+    private void rejectToleratedErrors(List<SolrInputDocument> docs, UpdateResponse response, AuditBulkPipeline.BulkResult result) {
+        NamedList<Object> header = response.getResponseHeader();
+        Object            errors = header != null ? header.get("errors") : null;
+
+        if (errors instanceof List && !((List<?>) errors).isEmpty()) {
+            Map<Object, Integer> idToIndex = new HashMap<>();
+
+            for (int i = 0; i < docs.size(); i++) {
+                idToIndex.put(docs.get(i).getFieldValue("id"), i);
+            }
+
+            for (Object error : (List<?>) errors) {
+                if (error instanceof NamedList) {
+                    Integer index = idToIndex.get(((NamedList<?>) error).get("id"));
+
+                    if (index != null) {
+                        result.reject(index, String.valueOf(((NamedList<?>) error).get("message")), false);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long estimateSize(SolrInputDocument doc) {
+        long ret = 0;
+
+        for (SolrInputField field : doc) {
+            ret += field.getName().length();
+
+            for (Object value : field) {
+                ret += value instanceof String ? ((String) value).length() : 8;
+            }
+        }
+
+        return ret;
+    }
+
     private InputStream getFileInputStream(String fileName) throws IOException {
         InputStream in = null;
 
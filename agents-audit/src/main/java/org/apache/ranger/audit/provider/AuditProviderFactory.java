@@ -32,6 +32,7 @@
 import org.apache.ranger.audit.queue.AuditBatchQueue;
 import org.apache.ranger.audit.queue.AuditFileQueue;
 import org.apache.ranger.audit.queue.AuditQueue;
+import org.apache.ranger.audit.queue.AuditRingBufferQueue;
 import org.apache.ranger.audit.queue.AuditSummaryQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +65,7 @@ public class AuditProviderFactory {
     public static final String AUDIT_IS_FILE_CACHE_PROVIDER_ENABLE_PROP = "xasecure.audit.provider.filecache.is.enabled";
     public static final String FILE_QUEUE_TYPE                          = "filequeue";
     public static final String DEFAULT_QUEUE_TYPE                       = "memoryqueue";
+    public static final String RING_BUFFER_QUEUE_TYPE                   = "ringbuffer";
     public static final int    AUDIT_SHUTDOWN_HOOK_MAX_WAIT_SEC_DEFAULT = 30;
     public static final int    AUDIT_ASYNC_MAX_QUEUE_SIZE_DEFAULT       = 10 * 1024;
     public static final int    AUDIT_ASYNC_MAX_FLUSH_INTERVAL_DEFAULT   = 5 * 1000;
@@ -266,10 +268,13 @@ public synchronized void init(Properties props, String appType) {
 
             if (!isAuditFileCacheProviderEnabled) {
                 // Create the AsysnQueue
-                AuditAsyncQueue asyncQueue = new AuditAsyncQueue(consumer);
-
                 propPrefix = BaseAuditHandler.PROP_DEFAULT_PREFIX + "." + "async";
 
+                String     asyncQueueType = MiscUtil.getStringProperty(props, propPrefix + "." + "queuetype", DEFAULT_QUEUE_TYPE);
+                AuditQueue asyncQueue     = RING_BUFFER_QUEUE_TYPE.equalsIgnoreCase(asyncQueueType) ? new AuditRingBufferQueue(consumer) : new AuditAsyncQueue(consumer);
+
+                LOG.info("Using {} for {}", asyncQueue.getClass().getSimpleName(), propPrefix);
+
                 asyncQueue.init(props, propPrefix);
                 asyncQueue.setParentPath(componentAppType);
 
@@ -426,6 +431,8 @@ private AuditHandler getProviderFromConfig(Properties props, String propPrefix,
                 provider = getAuditProvider(props, propPrefix, consumer);
             } else if (providerName.equalsIgnoreCase("async")) {
                 provider = new AuditAsyncQueue(consumer);
+            } else if (providerName.equalsIgnoreCase(RING_BUFFER_QUEUE_TYPE)) {
+                provider = new AuditRingBufferQueue(consumer);
             } else {
                 LOG.error("Provider name doesn't have any class associated with it. providerName={}, propertyPrefix={}", providerName, propPrefix);
             }
@@ -455,6 +462,8 @@ private AuditHandler getAuditProvider(Properties props, String propPrefix, Audit
             auditFileQueue.init(props, propPrefixFileQueue);
 
             ret = new AuditBatchQueue(auditFileQueue);
+        } else if (RING_BUFFER_QUEUE_TYPE.equalsIgnoreCase(queueType)) {
+            ret = new AuditRingBufferQueue(consumer);
         } else {
             ret = new AuditBatchQueue(consumer);
         }
@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.audit.queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.apache.ranger.audit.queue.AuditBinarySpoolWriter.BLOCK_HEADER_SIZE;
+import static org.apache.ranger.audit.queue.AuditBinarySpoolWriter.CODEC_DEFLATE;
+import static org.apache.ranger.audit.queue.AuditBinarySpoolWriter.CODEC_NONE;
+import static org.apache.ranger.audit.queue.AuditBinarySpoolWriter.FILE_HEADER_SIZE;
+import static org.apache.ranger.audit.queue.AuditBinarySpoolWriter.MAGIC;
+import static org.apache.ranger.audit.queue.AuditBinarySpoolWriter.MAX_BLOCK_LENGTH;
+import static org.apache.ranger.audit.queue.AuditBinarySpoolWriter.VERSION;
+
+/**
+ * Reads a spool file written by AuditBinarySpoolWriter. Records of a block that fails checksum verification are
+ * skipped, and counted in the position, so that positions stay the same as when the records were written. Reading
+ * stops at a block that was not completely written.
+ */
+class AuditBinarySpoolReader implements AuditSpoolReader {
+    private static final Logger logger = LoggerFactory.getLogger(AuditBinarySpoolReader.class);
+
+    private final File        file;
+    private final FileChannel channel;
+    private final Inflater    inflater    = new Inflater();
+    private final CRC32       crc         = new CRC32();
+    private final ByteBuffer  blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+    private       ByteBuffer  stored      = ByteBuffer.allocate(AuditBinarySpoolWriter.BLOCK_SIZE);
+    private       ByteBuffer  block;                      // records of the current block, not yet returned
+    private       int         blockRemainingCount;
+    private       int         position;
+    private       boolean     isEof;
+
+    AuditBinarySpoolReader(File file) throws IOException {
+        this.file    = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+
+            if (!readFully(channel, header) || header.getInt() != MAGIC) {
+                throw new IOException(file + ": not an audit binary spool file");
+            }
+
+            int version = header.getInt();
+
+            if (version != VERSION) {
+                throw new IOException(file + ": unsupported audit binary spool version " + version);
+            }
+        } catch (IOException excp) {
+            channel.close();
+
+            throw excp;
+        }
+    }
+
+    static boolean isBinarySpoolFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+
+            return readFully(channel, header) && header.getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * @return length of the data in the given channel that ends with a completely written block
+     */
+    static long getValidLength(FileChannel channel) throws IOException {
+        long       size   = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+
+        if (size < FILE_HEADER_SIZE) {
+            return 0;
+        }
+
+        long ret = FILE_HEADER_SIZE;
+
+        while (ret + BLOCK_HEADER_SIZE <= size) {
+            ((Buffer) header).clear();
+
+            channel.position(ret);
+
+            if (!readFully(channel, header)) {
+                break;
+            }
+
+            int  recordCount  = header.getInt();
+            int  rawLength    = header.getInt();
+            int  storedLength = header.getInt();
+            long blockEnd     = ret + BLOCK_HEADER_SIZE + storedLength;
+
+            if (!isValidBlockHeader(recordCount, rawLength, storedLength) || blockEnd > size) {
+                break;
+            }
+
+            ret = blockEnd;
+        }
+
+        return ret;
+    }
+
+    @Override
+    public String next() throws IOException {
+        while (blockRemainingCount == 0) {
+            if (!loadBlock(false)) {
+                return null;
+            }
+        }
+
+        int    length = block.getInt();
+        String ret    = new String(block.array(), block.arrayOffset() + block.position(), length, StandardCharsets.UTF_8);
+
+        ((Buffer) block).position(block.position() + length);
+
+        blockRemainingCount--;
+        position++;
+
+        return ret;
+    }
+
+    @Override
+    public int skip(int count) throws IOException {
+        int startPosition  = position;
+        int targetPosition = position + count;
+
+        while (position < targetPosition) {
+            if (blockRemainingCount == 0) {
+                long blockStart = channel.position();
+
+                // skip entire blocks without reading/decompressing them
+                if (!loadBlock(true)) {
+                    break;
+                }
+
+                if (position + blockRemainingCount <= targetPosition) {
+                    position           += blockRemainingCount;
+                    blockRemainingCount = 0;
+                } else { // records to skip end within this block; read it
+                    channel.position(blockStart);
+
+                    if (!loadBlock(false)) {
+                        break;
+                    }
+                }
+
+                continue;
+            }
+
+            int length = block.getInt();
+
+            ((Buffer) block).position(block.position() + length);
+
+            blockRemainingCount--;
+            position++;
+        }
+
+        return position - startPosition;
+    }
+
+    @Override
+    public int getPosition() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    /**
+     * Reads the next block, and sets blockRemainingCount to the number of records in it. With headerOnly=true,
+     * the block content is skipped and block is set to null.
+     *
+     * @return false at the end of the file
+     */
+    private boolean loadBlock(boolean headerOnly) throws IOException {
+        block               = null;
+        blockRemainingCount = 0;
+
+        if (isEof) {
+            return false;
+        }
+
+        long blockStart = channel.position();
+
+        ((Buffer) blockHeader).clear();
+
+        if (!readFully(channel, blockHeader)) {
+            return setEof(blockStart, blockStart < channel.size());
+        }
+
+        int  recordCount  = blockHeader.getInt();
+        int  rawLength    = blockHeader.getInt();
+        int  storedLength = blockHeader.getInt();
+        byte codec        = blockHeader.get();
+        int  checksum     = blockHeader.getInt();
+
+        if (!isValidBlockHeader(recordCount, rawLength, storedLength) || channel.position() + storedLength > channel.size()) {
+            return setEof(blockStart, true);
+        }
+
+        if (headerOnly) {
+            channel.position(channel.position() + storedLength);
+
+            blockRemainingCount = recordCount;
+
+            return true;
+        }
+
+        if (stored.capacity() < storedLength) {
+            stored = ByteBuffer.allocate(storedLength);
+        }
+
+        ((Buffer) stored).clear().limit(storedLength);
+
+        if (!readFully(channel, stored)) {
+            return setEof(blockStart, true);
+        }
+
+        crc.reset();
+        crc.update(stored.array(), 0, storedLength);
+
+        ByteBuffer raw = null;
+
+        if ((int) crc.getValue() != checksum) {
+            logger.error("Checksum mismatch in audit spool file. Skipping {} records. file={}, offset={}", recordCount, file, blockStart);
+        } else if (codec == CODEC_NONE && storedLength == rawLength) {
+            raw = ByteBuffer.wrap(stored.array(), 0, rawLength).slice();
+        } else if (codec == CODEC_DEFLATE) {
+            raw = inflate(rawLength, storedLength, blockStart);
+        } else {
+            logger.error("Unknown codec {} in audit spool file. Skipping {} records. file={}, offset={}", codec, recordCount, file, blockStart);
+        }
+
+        if (raw == null) {
+            // records of this block are lost; count them in position, so that positions of later records don't change
+            position += recordCount;
+        } else {
+            block               = raw;
+            blockRemainingCount = recordCount;
+        }
+
+        return true;
+    }
+
+    private ByteBuffer inflate(int rawLength, int storedLength, long blockStart) {
+        byte[] raw = new byte[rawLength];
+
+        try {
+            inflater.reset();
+            inflater.setInput(stored.array(), 0, storedLength);
+
+            int length = 0;
+
+            while (length < rawLength && !inflater.finished()) {
+                int count = inflater.inflate(raw, length, rawLength - length);
+
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+
+                length += count;
+            }
+
+            if (length == rawLength) {
+                return ByteBuffer.wrap(raw);
+            }
+
+            logger.error("Incomplete block in audit spool file. file={}, offset={}, expectedLength={}, actualLength={}", file, blockStart, rawLength, length);
+        } catch (DataFormatException excp) {
+            logger.error("Failed to decompress block in audit spool file. file={}, offset={}", file, blockStart, excp);
+        }
+
+        return null;
+    }
+
+    private boolean setEof(long blockStart, boolean isTruncated) {
+        if (isTruncated) {
+            logger.warn("Incomplete block at the end of audit spool file; ignoring rest of the file. file={}, offset={}", file, blockStart);
+        }
+
+        isEof = true;
+
+        return false;
+    }
+
+    private static boolean isValidBlockHeader(int recordCount, int rawLength, int storedLength) {
+        return recordCount > 0 && rawLength > 0 && rawLength <= MAX_BLOCK_LENGTH && storedLength > 0 && storedLength <= MAX_BLOCK_LENGTH;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+
+        ((Buffer) buffer).flip();
+
+        return true;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.audit.queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes audit records to a spool file in binary format:
+ * <pre>
+ *   file   : magic(int) version(int) block*
+ *   block  : recordCount(int) rawLength(int) storedLength(int) codec(byte) crc32(int) stored-bytes
+ *   raw    : (recordLength(int) UTF-8 bytes)*
+ * </pre>
+ * Records are collected in a block of about BLOCK_SIZE bytes, which is deflated (or stored as is, when that is not
+ * smaller) and written with its checksum on flush() or when it is full. A block that is corrupt, or not completely
+ * written when the process died, is detected by the reader from its checksum or length.
+ */
+class AuditBinarySpoolWriter implements AuditSpoolWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AuditBinarySpoolWriter.class);
+
+    static final int  MAGIC             = 0x52415342; // "RASB"
+    static final int  VERSION           = 1;
+    static final int  FILE_HEADER_SIZE  = 8;
+    static final int  BLOCK_HEADER_SIZE = 17;
+    static final int  BLOCK_SIZE        = 64 * 1024;
+    static final int  MAX_BLOCK_LENGTH  = 64 * 1024 * 1024;
+    static final byte CODEC_NONE        = 0;
+    static final byte CODEC_DEFLATE     = 1;
+
+    private final FileChannel channel;
+    private final Deflater    deflater    = new Deflater(Deflater.BEST_SPEED);
+    private final CRC32       crc         = new CRC32();
+    private final ByteBuffer  blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+    private       byte[]      rawBlock    = new byte[BLOCK_SIZE];
+    private       byte[]      storedBlock = new byte[BLOCK_SIZE];
+    private       int         rawLength;
+    private       int         recordCount;
+
+    AuditBinarySpoolWriter(File file, boolean append) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            long validLength = append ? AuditBinarySpoolReader.getValidLength(channel) : 0;
+
+            if (validLength < channel.size()) {
+                logger.warn("Truncating incomplete data at the end of spool file. file={}, validLength={}, fileLength={}", file, validLength, channel.size());
+
+                channel.truncate(validLength);
+            }
+
+            channel.position(validLength);
+
+            if (validLength == 0) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+
+                header.putInt(MAGIC).putInt(VERSION);
+                ((Buffer) header).flip();
+
+                writeFully(header);
+            }
+        } catch (IOException excp) {
+            channel.close();
+
+            throw excp;
+        }
+    }
+
+    @Override
+    public void write(String record) throws IOException {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+
+        if (rawLength > 0 && rawLength + 4 + bytes.length > BLOCK_SIZE) {
+            writeBlock();
+        }
+
+        if (4 + bytes.length > MAX_BLOCK_LENGTH) {
+            throw new IOException("audit record too large to spool: length=" + bytes.length);
+        }
+
+        ensureRawCapacity(rawLength + 4 + bytes.length);
+
+        rawBlock[rawLength++] = (byte) (bytes.length >>> 24);
+        rawBlock[rawLength++] = (byte) (bytes.length >>> 16);
+        rawBlock[rawLength++] = (byte) (bytes.length >>> 8);
+        rawBlock[rawLength++] = (byte) bytes.length;
+
+        System.arraycopy(bytes, 0, rawBlock, rawLength, bytes.length);
+
+        rawLength += bytes.length;
+        recordCount++;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (recordCount > 0) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        deflater.reset();
+        deflater.setInput(rawBlock, 0, rawLength);
+        deflater.finish();
+
+        int storedLength = 0;
+
+        while (!deflater.finished() && storedLength < rawLength) {
+            if (storedLength == storedBlock.length) {
+                storedBlock = Arrays.copyOf(storedBlock, storedBlock.length * 2);
+            }
+
+            storedLength += deflater.deflate(storedBlock, storedLength, storedBlock.length - storedLength);
+        }
+
+        final byte   codec;
+        final byte[] stored;
+
+        if (deflater.finished() && storedLength < rawLength) {
+            codec  = CODEC_DEFLATE;
+            stored = storedBlock;
+        } else { // compression didn't help, e.g. for very small blocks
+            codec        = CODEC_NONE;
+            stored       = rawBlock;
+            storedLength = rawLength;
+        }
+
+        crc.reset();
+        crc.update(stored, 0, storedLength);
+
+        ((Buffer) blockHeader).clear();
+        blockHeader.putInt(recordCount).putInt(rawLength).putInt(storedLength).put(codec).putInt((int) crc.getValue());
+        ((Buffer) blockHeader).flip();
+
+        writeFully(blockHeader);
+        writeFully(ByteBuffer.wrap(stored, 0, storedLength));
+
+        rawLength   = 0;
+        recordCount = 0;
+    }
+
+    private void ensureRawCapacity(int capacity) {
+        if (capacity > rawBlock.length) {
+            rawBlock = Arrays.copyOf(rawBlock, Math.max(capacity, rawBlock.length * 2));
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
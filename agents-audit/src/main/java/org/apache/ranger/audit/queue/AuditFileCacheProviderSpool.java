@@ -88,7 +88,7 @@ public class AuditFileCacheProviderSpool implements Runnable {
     boolean          isPending;
     long             lastAttemptTime;
     boolean          initDone;
-    PrintWriter      logWriter;
+    AuditSpoolWriter logWriter;
     AuditIndexRecord currentWriterIndexRecord;
     AuditIndexRecord currentConsumerIndexRecord;
     Thread           destinationThread;
@@ -99,6 +99,7 @@ public class AuditFileCacheProviderSpool implements Runnable {
     int              maxArchiveFiles      = 100;
     int              errorLogIntervalMS   = 30 * 1000; // Every 30 seconds
     int              auditBatchSize       = 1000;
+    String           spoolFormat          = AuditSpoolFiles.FORMAT_JSON;
     boolean          isWriting            = true;
     boolean          isSpoolingSuccessful = true;
 
@@ -269,6 +270,7 @@ public boolean init(Properties props, String basePropertyName) {
         }
 
         auditBatchSize = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_BATCH_SIZE, auditBatchSize);
+        spoolFormat    = AuditSpoolFiles.toFormat(MiscUtil.getStringProperty(props, propPrefix + "." + AuditSpoolFiles.PROP_FILE_SPOOL_FORMAT));
         initDone       = true;
 
         logger.debug("<== AuditFileCacheProviderSpool.init()");
@@ -307,7 +309,7 @@ public void stop() {
 
         flush();
 
-        PrintWriter out = getOpenLogFileStream();
+        AuditSpoolWriter out = getOpenLogFileStream();
 
         if (out != null) {
             // If write is still going on, then let's give it enough time to
@@ -354,10 +356,14 @@ public void flush() {
             return;
         }
 
-        PrintWriter out = getOpenLogFileStream();
+        AuditSpoolWriter out = getOpenLogFileStream();
 
         if (out != null) {
-            out.flush();
+            try {
+                out.flush();
+            } catch (IOException excp) {
+                logger.error("Error flushing spool file. queueName={}", FILE_CACHE_PROVIDER_NAME, excp);
+            }
         }
     }
 
@@ -401,10 +407,10 @@ public synchronized void stashLogs(AuditEventBase event) {
         try {
             isWriting = true;
 
-            PrintWriter logOut  = getLogFileStream();
-            String      jsonStr = MiscUtil.stringify(event); // Convert event to json
+            AuditSpoolWriter logOut  = getLogFileStream();
+            String           jsonStr = MiscUtil.stringify(event); // Convert event to json
 
-            logOut.println(jsonStr);
+            logOut.write(jsonStr);
             logOut.flush();
 
             isPending            = true;
@@ -437,9 +443,9 @@ public synchronized void stashLogsString(String event) {
         try {
             isWriting = true;
 
-            PrintWriter logOut = getLogFileStream();
+            AuditSpoolWriter logOut = getLogFileStream();
 
-            logOut.println(event);
+            logOut.write(event);
         } catch (Exception ex) {
             logger.error("Error writing to file. event={}", event, ex);
         } finally {
@@ -514,24 +520,21 @@ public void runLogAudit() {
                     isRemoveIndex = true;
                 } else {
                     // Let's open the file to write
-                    try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(currentConsumerIndexRecord.filePath), StandardCharsets.UTF_8))) {
+                    try (AuditSpoolReader reader = AuditSpoolFiles.openReader(consumerFile)) {
                         int                  startLine = currentConsumerIndexRecord.linePosition;
-                        int                  currLine  = 0;
                         List<AuditEventBase> events    = new ArrayList<>();
 
-                        for (String line = br.readLine(); line != null; line = br.readLine()) {
-                            currLine++;
-
-                            if (currLine < startLine) {
-                                continue;
-                            }
+                        if (startLine > 1) {
+                            reader.skip(startLine - 1);
+                        }
 
+                        for (String line = reader.next(); line != null; line = reader.next()) {
                             AuditEventBase event = MiscUtil.fromJson(line, AuthzAuditEvent.class);
 
                             events.add(event);
 
                             if (events.size() == auditBatchSize) {
-                                boolean ret = sendEvent(events, currentConsumerIndexRecord, currLine);
+                                boolean ret = sendEvent(events, currentConsumerIndexRecord, reader.getPosition());
 
                                 if (!ret) {
                                     throw new Exception("Destination down");
@@ -542,7 +545,7 @@ public void runLogAudit() {
                         }
 
                         if (!events.isEmpty()) {
-                            boolean ret = sendEvent(events, currentConsumerIndexRecord, currLine);
+                            boolean ret = sendEvent(events, currentConsumerIndexRecord, reader.getPosition());
 
                             if (!ret) {
                                 throw new Exception("Destination down");
@@ -766,7 +769,7 @@ void logError(String msg) {
      *
      * @return
      */
-    private synchronized PrintWriter getOpenLogFileStream() {
+    private synchronized AuditSpoolWriter getOpenLogFileStream() {
         return logWriter;
     }
 
@@ -774,7 +777,7 @@ private synchronized PrintWriter getOpenLogFileStream() {
      * @return
      * @throws Exception
      */
-    private synchronized PrintWriter getLogFileStream() throws Exception {
+    private synchronized AuditSpoolWriter getLogFileStream() throws Exception {
         closeFileIfNeeded();
 
         // Either there are no open log file or the previous one has been rolled over
@@ -809,7 +812,7 @@ private synchronized PrintWriter getLogFileStream() throws Exception {
             logger.info("Creating new file. queueName={}, fileName={}", FILE_CACHE_PROVIDER_NAME, fileName);
 
             // Open the file
-            logWriter = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outLogFile), StandardCharsets.UTF_8)));
+            logWriter = AuditSpoolFiles.openWriter(outLogFile, spoolFormat, false);
 
             AuditIndexRecord tmpIndexRecord = new AuditIndexRecord();
 
@@ -829,7 +832,7 @@ private synchronized PrintWriter getLogFileStream() throws Exception {
                 // This means the process just started. We need to open the file in append mode.
                 logger.info("Opening existing file for append. queueName={}, fileName={}", FILE_CACHE_PROVIDER_NAME, currentWriterIndexRecord.filePath);
 
-                logWriter = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(currentWriterIndexRecord.filePath, true), StandardCharsets.UTF_8)));
+                logWriter = AuditSpoolFiles.openWriter(new File(currentWriterIndexRecord.filePath), spoolFormat, true);
             }
         }
 
@@ -60,6 +60,7 @@ public class AuditFileSpool implements Runnable {
     public static final String PROP_FILE_SPOOL_FILE_ROLLOVER           = "filespool.file.rollover.sec";
     public static final String PROP_FILE_SPOOL_INDEX_FILE              = "filespool.index.filename";
     public static final String PROP_FILE_SPOOL_DEST_RETRY_MS           = "filespool.destination.retry.ms";
+    public static final String PROP_FILE_SPOOL_REPLAY_THREADS          = "filespool.replay.threads";
     public static final String CONSUMER                                = ", consumer=";
 
     AuditQueue                      queueProvider;
@@ -78,6 +79,8 @@ public class AuditFileSpool implements Runnable {
     int    retryDestinationMS = 30 * 1000; // Default 30 seconds
     int    fileRolloverSec    = 24 * 60 * 60; // In seconds
     int    maxArchiveFiles    = 100;
+    String spoolFormat        = AuditSpoolFiles.FORMAT_JSON;
+    int    replayThreadCount  = 1;
 
     int  errorLogIntervalMS = 30 * 1000; // Every 30 seconds
     long lastErrorLogMS;
@@ -88,17 +91,18 @@ public class AuditFileSpool implements Runnable {
     long    lastAttemptTime;
     boolean initDone;
 
-    PrintWriter      logWriter;
+    AuditSpoolWriter logWriter;
     AuditIndexRecord currentWriterIndexRecord;
-    AuditIndexRecord currentConsumerIndexRecord;
 
-    BufferedReader logReader;
+    List<Thread> destinationThreads = new ArrayList<>();
 
-    Thread destinationThread;
+    // replay threads read and decode spool files in parallel, but send to the consumer one at a time: most destinations
+    // are not safe to call from multiple threads
+    private final Object consumerLock = new Object();
 
-    boolean isWriting  = true;
-    boolean isDrain;
-    boolean isDestDown;
+    boolean          isWriting = true;
+    volatile boolean isDrain;
+    volatile boolean isDestDown;
 
     public AuditFileSpool(AuditQueue queueProvider, AuditHandler consumerProvider) {
         this.queueProvider    = queueProvider;
@@ -132,10 +136,13 @@ public boolean init(Properties props, String basePropertyName) {
             retryDestinationMS = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_DEST_RETRY_MS, retryDestinationMS);
             fileRolloverSec    = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_FILE_ROLLOVER, fileRolloverSec);
             maxArchiveFiles    = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_ARCHIVE_MAX_FILES_COUNT, maxArchiveFiles);
+            spoolFormat        = AuditSpoolFiles.toFormat(MiscUtil.getStringProperty(props, propPrefix + "." + AuditSpoolFiles.PROP_FILE_SPOOL_FORMAT));
+            replayThreadCount  = Math.max(1, MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_REPLAY_THREADS, replayThreadCount));
 
             logger.info("retryDestinationMS={}, queueName={}", retryDestinationMS, queueProvider.getName());
             logger.info("fileRolloverSec={}, queueName={}", fileRolloverSec, queueProvider.getName());
             logger.info("maxArchiveFiles={}, queueName={}", maxArchiveFiles, queueProvider.getName());
+            logger.info("spoolFormat={}, replayThreadCount={}, queueName={}", spoolFormat, replayThreadCount, queueProvider.getName());
 
             if (logFolderProp == null || logFolderProp.isEmpty()) {
                 logger.error("Audit spool folder is not configured. Please set {}.{}.queueName={}", propPrefix, PROP_FILE_SPOOL_LOCAL_DIR, queueProvider.getName());
@@ -279,11 +286,15 @@ public void start() {
 
         logger.info("Starting writerThread, queueName={}, consumer={}", queueProvider.getName(), consumerProvider.getName());
 
-        // Let's start the thread to read
-        destinationThread = new Thread(this, queueProvider.getName() + "_" + consumerProvider.getName() + "_destWriter");
+        // Let's start the threads to read; each thread replays one file at a time
+        for (int i = 0; i < replayThreadCount; i++) {
+            Thread destinationThread = new Thread(this, queueProvider.getName() + "_" + consumerProvider.getName() + "_destWriter" + (i > 0 ? "_" + i : ""));
 
-        destinationThread.setDaemon(true);
-        destinationThread.start();
+            destinationThread.setDaemon(true);
+            destinationThread.start();
+
+            destinationThreads.add(destinationThread);
+        }
     }
 
     public void stop() {
@@ -298,7 +309,7 @@ public void stop() {
 
         flush();
 
-        PrintWriter out = getOpenLogFileStream();
+        AuditSpoolWriter out = getOpenLogFileStream();
 
         if (out != null) {
             // If write is still going on, then let's give it enough time to complete
@@ -326,11 +337,11 @@ public void stop() {
         }
 
         try {
-            if (destinationThread != null) {
+            for (Thread destinationThread : destinationThreads) {
                 destinationThread.interrupt();
             }
 
-            destinationThread = null;
+            destinationThreads.clear();
         } catch (Exception e) {
             // ignore
         }
@@ -342,10 +353,14 @@ public void flush() {
             return;
         }
 
-        PrintWriter out = getOpenLogFileStream();
+        AuditSpoolWriter out = getOpenLogFileStream();
 
         if (out != null) {
-            out.flush();
+            try {
+                out.flush();
+            } catch (IOException excp) {
+                logger.error("Error flushing spool file. queueName={}", queueProvider.getName(), excp);
+            }
         }
     }
 
@@ -389,10 +404,10 @@ public synchronized void stashLogs(AuditEventBase event) {
         try {
             isWriting = true;
 
-            PrintWriter logOut  = getLogFileStream();
-            String      jsonStr = MiscUtil.stringify(event); // Convert event to json
+            AuditSpoolWriter logOut  = getLogFileStream();
+            String           jsonStr = MiscUtil.stringify(event); // Convert event to json
 
-            logOut.println(jsonStr);
+            logOut.write(jsonStr);
 
             isPending = true;
         } catch (Exception ex) {
@@ -420,9 +435,9 @@ public synchronized void stashLogsString(String event) {
         try {
             isWriting = true;
 
-            PrintWriter logOut = getLogFileStream();
+            AuditSpoolWriter logOut = getLogFileStream();
 
-            logOut.println(event);
+            logOut.write(event);
         } catch (Exception ex) {
             logger.error("Error writing to file. event={}", event, ex);
         } finally {
@@ -455,6 +470,8 @@ public void run() {
     }
 
     public void runLogAudit() {
+        AuditIndexRecord currentConsumerIndexRecord = null;
+
         while (true) {
             try {
                 if (isDestDown) {
@@ -492,22 +509,19 @@ public void runLogAudit() {
                     isRemoveIndex = true;
                 } else {
                     // Let's open the file to write
-                    try (BufferedReader br = new BufferedReader(new FileReader(currentConsumerIndexRecord.getFilePath()))) {
+                    try (AuditSpoolReader reader = AuditSpoolFiles.openReader(consumerFile)) {
                         int          startLine = currentConsumerIndexRecord.getLinePosition();
-                        int          currLine  = 0;
                         List<String> lines     = new ArrayList<>();
 
-                        for (String line = br.readLine(); line != null; line = br.readLine()) {
-                            currLine++;
-
-                            if (currLine < startLine) {
-                                continue;
-                            }
+                        if (startLine > 1) {
+                            reader.skip(startLine - 1);
+                        }
 
+                        for (String line = reader.next(); line != null; line = reader.next()) {
                             lines.add(line);
 
                             if (lines.size() == queueProvider.getMaxBatchSize()) {
-                                boolean ret = sendEvent(lines, currentConsumerIndexRecord, currLine);
+                                boolean ret = sendEvent(lines, currentConsumerIndexRecord, reader.getPosition());
 
                                 if (!ret) {
                                     throw new Exception("Destination down");
@@ -518,7 +532,7 @@ public void runLogAudit() {
                         }
 
                         if (!lines.isEmpty()) {
-                            boolean ret = sendEvent(lines, currentConsumerIndexRecord, currLine);
+                            boolean ret = sendEvent(lines, currentConsumerIndexRecord, reader.getPosition());
 
                             if (!ret) {
                                 throw new Exception("Destination down");
@@ -730,7 +744,7 @@ void logError(String msg, Object... arguments) {
      *
      * @return
      */
-    private synchronized PrintWriter getOpenLogFileStream() {
+    private synchronized AuditSpoolWriter getOpenLogFileStream() {
         return logWriter;
     }
 
@@ -738,7 +752,7 @@ private synchronized PrintWriter getOpenLogFileStream() {
      * @return
      * @throws Exception
      */
-    private synchronized PrintWriter getLogFileStream() throws Exception {
+    private synchronized AuditSpoolWriter getLogFileStream() throws Exception {
         closeFileIfNeeded();
 
         // Either there are no open log file or the previous one has been rolled
@@ -774,7 +788,7 @@ private synchronized PrintWriter getLogFileStream() throws Exception {
             logger.info("Creating new file. queueName={}, filename={}", queueProvider.getName(), fileName);
 
             // Open the file
-            logWriter = new PrintWriter(new BufferedWriter(new FileWriter(outLogFile)));
+            logWriter = AuditSpoolFiles.openWriter(outLogFile, spoolFormat, false);
 
             AuditIndexRecord tmpIndexRecord = new AuditIndexRecord();
 
@@ -794,7 +808,7 @@ private synchronized PrintWriter getLogFileStream() throws Exception {
                 // This means the process just started. We need to open the file
                 // in append mode.
                 logger.info("Opening existing file for append. queueName={}, filename={}", queueProvider.getName(), currentWriterIndexRecord.getFilePath());
-                logWriter = new PrintWriter(new BufferedWriter(new FileWriter(currentWriterIndexRecord.getFilePath(), true)));
+                logWriter = AuditSpoolFiles.openWriter(new File(currentWriterIndexRecord.getFilePath()), spoolFormat, true);
             }
         }
 
@@ -844,7 +858,9 @@ private boolean sendEvent(List<String> lines, AuditIndexRecord indexRecord, int
         boolean ret = true;
 
         try {
-            ret = consumerProvider.logJSON(lines);
+            synchronized (consumerLock) {
+                ret = consumerProvider.logJSON(lines);
+            }
 
             if (!ret) {
                 // Need to log error after fixed interval
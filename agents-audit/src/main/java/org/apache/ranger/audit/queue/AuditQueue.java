@@ -101,6 +101,8 @@ public void init(Properties props, String basePropertyName) {
                 fileSpoolerEnabled = false;
 
                 LOG.error("Couldn't initialize file spooler. Disabling it. queue={}, consumer={}", getName(), consumer.getName());
+            } else if (isConsumerDestination) {
+                ((AuditDestination) consumer).setFileSpooler(fileSpooler);
             }
         } else {
             LOG.info("File spool is disabled for {}", getName());
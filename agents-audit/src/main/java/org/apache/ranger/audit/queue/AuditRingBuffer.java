@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.audit.queue;
+
+import org.apache.ranger.audit.model.AuditEventBase;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free ring buffer of audit events. Any number of threads can add and remove events concurrently;
+ * each slot carries a sequence number that tells producers and consumers whether the slot is free or filled, so
+ * that neither side takes a lock. Capacity is rounded up to the next power of 2.
+ *
+ * The buffer also tracks how long events wait in it, measured from offer() to the drainTo() that removes them.
+ */
+class AuditRingBuffer {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int                                  capacity;
+    private final int                                  mask;
+    private final AtomicReferenceArray<AuditEventBase> events;
+    private final AtomicLongArray                      sequences;
+    private final long[]                               enqueueTimes;
+    private final AtomicLong                           tail             = new AtomicLong();
+    private final AtomicLong                           head             = new AtomicLong();
+    private final LongAdder                            waitTimeNanos    = new LongAdder();
+    private final LongAdder                            dequeuedCount    = new LongAdder();
+    private final AtomicLong                           maxWaitTimeNanos = new AtomicLong();
+
+    AuditRingBuffer(int minCapacity) {
+        if (minCapacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + minCapacity);
+        }
+
+        capacity     = toPowerOf2(minCapacity);
+        mask         = capacity - 1;
+        events       = new AtomicReferenceArray<>(capacity);
+        sequences    = new AtomicLongArray(capacity);
+        enqueueTimes = new long[capacity];
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    boolean offer(AuditEventBase event) {
+        long pos = tail.get();
+
+        while (true) {
+            int  idx  = (int) (pos & mask);
+            long diff = sequences.get(idx) - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    events.lazySet(idx, event);
+                    enqueueTimes[idx] = System.nanoTime();
+                    sequences.lazySet(idx, pos + 1); // publishes the event and its enqueue time to consumers
+
+                    return true;
+                }
+
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to maxEvents events, in the order they were added, to the given collection.
+     *
+     * @return number of events moved
+     */
+    int drainTo(Collection<AuditEventBase> to, int maxEvents) {
+        int  ret       = 0;
+        long now       = 0;
+        long totalWait = 0;
+        long maxWait   = 0;
+        long pos       = head.get();
+
+        while (ret < maxEvents) {
+            int  idx  = (int) (pos & mask);
+            long diff = sequences.get(idx) - (pos + 1);
+
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    AuditEventBase event       = events.get(idx);
+                    long           enqueueTime = enqueueTimes[idx];
+
+                    events.lazySet(idx, null);
+                    sequences.lazySet(idx, pos + capacity); // frees the slot for the producer that wraps around to it
+
+                    to.add(event);
+
+                    if (now == 0) {
+                        now = System.nanoTime();
+                    }
+
+                    long wait = now - enqueueTime;
+
+                    totalWait += wait;
+                    maxWait    = Math.max(maxWait, wait);
+
+                    ret++;
+                }
+
+                pos = head.get();
+            } else if (diff < 0) {
+                break; // empty
+            } else {
+                pos = head.get();
+            }
+        }
+
+        if (ret > 0) {
+            dequeuedCount.add(ret);
+            waitTimeNanos.add(totalWait);
+
+            for (long currMax = maxWaitTimeNanos.get(); maxWait > currMax; currMax = maxWaitTimeNanos.get()) {
+                if (maxWaitTimeNanos.compareAndSet(currMax, maxWait)) {
+                    break;
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    int size() {
+        long size = tail.get() - head.get();
+
+        return size < 0 ? 0 : (int) Math.min(size, capacity);
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long getAvgWaitTimeNanos() {
+        long count = dequeuedCount.sum();
+
+        return count > 0 ? waitTimeNanos.sum() / count : 0;
+    }
+
+    long getMaxWaitTimeNanos() {
+        return maxWaitTimeNanos.get();
+    }
+
+    private static int toPowerOf2(int minCapacity) {
+        int ret = 1;
+
+        while (ret < minCapacity && ret < MAX_CAPACITY) {
+            ret <<= 1;
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,589 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.audit.queue;
+
+import org.apache.ranger.audit.model.AuditEventBase;
+import org.apache.ranger.audit.provider.AuditHandler;
+import org.apache.ranger.audit.provider.MiscUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded queue, backed by a lock-free ring buffer, that dispatches events to the consumer in batches from one or
+ * more consumer threads. Handler threads logging audits don't contend on a lock; when the buffer is full the
+ * configured backpressure policy is applied:
+ * <ul>
+ *   <li>block: wait for space in the buffer</li>
+ *   <li>drop: discard the event and count it as failed</li>
+ *   <li>spool: write the event to the file spool, which sends it to the consumer later</li>
+ * </ul>
+ * Using more than one consumer thread requires the consumer to support concurrent log() calls; events can then be
+ * delivered out of order.
+ * <p>
+ * All slots of the buffer are allocated on init(), at about 24 bytes per slot (event reference, sequence number and
+ * enqueue time), in addition to the queued events. Hence the default capacity, {@link #RING_BUFFER_SIZE_DEFAULT}
+ * slots (about 1.5 MB), is much smaller than the default queue.size of other audit queues; queue.size overrides it.
+ */
+public class AuditRingBufferQueue extends AuditQueue implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(AuditRingBufferQueue.class);
+
+    public static final String PROP_BACKPRESSURE     = "backpressure";
+    public static final String PROP_BLOCK_TIMEOUT_MS = "backpressure.block.timeout.ms";
+    public static final String PROP_CONSUMER_THREADS = "consumer.threads";
+    public static final String BACKPRESSURE_BLOCK    = "block";
+    public static final String BACKPRESSURE_DROP     = "drop";
+    public static final String BACKPRESSURE_SPOOL    = "spool";
+
+    public static final int RING_BUFFER_SIZE_DEFAULT = 64 * 1024; // slots are preallocated, hence smaller than AUDIT_MAX_QUEUE_SIZE_DEFAULT
+
+    static final String DEFAULT_NAME             = "ringbuffer";
+    static final long   MAX_IDLE_WAIT_NS         = TimeUnit.MILLISECONDS.toNanos(10);
+    static final long   BLOCKED_PRODUCER_WAIT_NS = TimeUnit.MICROSECONDS.toNanos(100);
+    static       int    threadCount;
+
+    private final List<Thread>  consumerThreads       = new ArrayList<>();
+    private final AtomicInteger activeConsumerThreads = new AtomicInteger();
+    private final AtomicLong    inFlightCount         = new AtomicLong();
+    private final LongAdder     droppedCount          = new LongAdder();
+    private final LongAdder     spilledCount          = new LongAdder();
+    private final LongAdder     blockedCount          = new LongAdder();
+    private final LongAdder     dispatchCount         = new LongAdder();
+    private final LongAdder     dispatchTimeNanos     = new LongAdder();
+    private final AtomicInteger maxQueueDepth         = new AtomicInteger();
+
+    private volatile AuditRingBuffer ringBuffer;
+    private          String          backpressure        = BACKPRESSURE_DROP;
+    private          long            blockTimeoutMs      = -1;
+    private          int             consumerThreadCount = 1;
+    private          long            reportedDropped;
+    private          long            reportedSpilled;
+
+    public AuditRingBufferQueue(AuditHandler consumer) {
+        super(consumer);
+
+        setName(DEFAULT_NAME);
+        setMaxQueueSize(RING_BUFFER_SIZE_DEFAULT);
+    }
+
+    @Override
+    public void init(Properties props, String basePropertyName) {
+        super.init(props, basePropertyName);
+
+        String defaultBackpressure = fileSpoolerEnabled ? BACKPRESSURE_SPOOL : BACKPRESSURE_DROP;
+
+        backpressure        = MiscUtil.getStringProperty(props, propPrefix + "." + PROP_BACKPRESSURE, defaultBackpressure).trim().toLowerCase();
+        blockTimeoutMs      = MiscUtil.getLongProperty(props, propPrefix + "." + PROP_BLOCK_TIMEOUT_MS, blockTimeoutMs);
+        consumerThreadCount = Math.max(1, MiscUtil.getIntProperty(props, propPrefix + "." + PROP_CONSUMER_THREADS, consumerThreadCount));
+
+        if (BACKPRESSURE_SPOOL.equals(backpressure) && !fileSpoolerEnabled) {
+            logger.warn("{}.{}={}, but file spool is not enabled. Events will be dropped when the queue is full. name={}", propPrefix, PROP_BACKPRESSURE, backpressure, getName());
+
+            backpressure = BACKPRESSURE_DROP;
+        } else if (!BACKPRESSURE_BLOCK.equals(backpressure) && !BACKPRESSURE_DROP.equals(backpressure) && !BACKPRESSURE_SPOOL.equals(backpressure)) {
+            logger.warn("Invalid value {}.{}={}. Using {}. name={}", propPrefix, PROP_BACKPRESSURE, backpressure, defaultBackpressure, getName());
+
+            backpressure = defaultBackpressure;
+        }
+
+        ringBuffer = new AuditRingBuffer(getMaxQueueSize());
+
+        logger.info("AuditRingBufferQueue.init(name={}): capacity={}, backpressure={}, consumerThreads={}", getName(), ringBuffer.capacity(), backpressure, consumerThreadCount);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * org.apache.ranger.audit.provider.AuditProvider#log(org.apache.ranger.
+     * audit.model.AuditEventBase)
+     */
+    @Override
+    public boolean log(AuditEventBase event) {
+        AuditRingBuffer buffer = getRingBuffer();
+
+        if (buffer.offer(event)) {
+            updateMaxQueueDepth(buffer.size());
+
+            return true;
+        }
+
+        final boolean ret;
+
+        switch (backpressure) {
+            case BACKPRESSURE_BLOCK:
+                ret = waitAndOffer(buffer, event);
+                break;
+
+            case BACKPRESSURE_SPOOL:
+                fileSpooler.stashLogs(event);
+                spilledCount.increment();
+
+                ret = true;
+                break;
+
+            default:
+                ret = false;
+                break;
+        }
+
+        if (!ret) {
+            droppedCount.increment();
+        }
+
+        return ret;
+    }
+
+    @Override
+    public boolean log(Collection<AuditEventBase> events) {
+        boolean ret = true;
+
+        for (AuditEventBase event : events) {
+            ret = log(event);
+
+            if (!ret) {
+                break;
+            }
+        }
+
+        return ret;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.ranger.audit.provider.AuditProvider#start()
+     */
+    @Override
+    public synchronized void start() {
+        if (!consumerThreads.isEmpty()) {
+            logger.error("Provider is already started. name={}", getName());
+
+            return;
+        }
+
+        getRingBuffer();
+
+        if (consumer != null) {
+            consumer.start();
+        } else {
+            logger.error("consumer is not set. Nothing will be sent to any consumer. name={}", getName());
+        }
+
+        if (fileSpoolerEnabled) {
+            fileSpooler.start();
+        }
+
+        activeConsumerThreads.set(consumerThreadCount);
+
+        for (int i = 0; i < consumerThreadCount; i++) {
+            Thread consumerThread = new Thread(this, this.getClass().getName() + (threadCount++));
+
+            consumerThread.setDaemon(true);
+            consumerThread.start();
+
+            consumerThreads.add(consumerThread);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.ranger.audit.provider.AuditProvider#stop()
+     */
+    @Override
+    public synchronized void stop() {
+        logger.info("Stop called. name={}", getName());
+
+        setDrain(true);
+        flush();
+
+        for (Thread consumerThread : consumerThreads) {
+            try {
+                logger.info("Interrupting consumerThread. name={}, consumer={}", getName(), (consumer == null ? null : consumer.getName()));
+
+                consumerThread.interrupt();
+            } catch (Throwable t) {
+                // ignore any exception
+            }
+        }
+
+        consumerThreads.clear();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.ranger.audit.provider.AuditProvider#waitToComplete()
+     */
+    @Override
+    public void waitToComplete() {
+        int defaultTimeOut = -1;
+
+        waitToComplete(defaultTimeOut);
+
+        consumer.waitToComplete(defaultTimeOut);
+    }
+
+    @Override
+    public void waitToComplete(long timeout) {
+        setDrain(true);
+        flush();
+
+        long sleepTime       = 1000;
+        long startTime       = System.currentTimeMillis();
+        long prevPending     = -1;
+        int  staticLoopCount = 0;
+
+        while (getPendingCount() > 0) {
+            long pending = getPendingCount();
+
+            if (prevPending == pending) {
+                logger.error("Queue size is not changing. {}.size={}", getName(), pending);
+
+                staticLoopCount++;
+
+                if (staticLoopCount > 5) {
+                    logger.error("Aborting writing to consumer. Some logs will be discarded.{}.size={}", getName(), pending);
+
+                    break;
+                }
+            } else {
+                staticLoopCount = 0;
+                prevPending     = pending;
+            }
+
+            try {
+                Thread.sleep(sleepTime);
+
+                if (timeout > 0 && (System.currentTimeMillis() - startTime > timeout)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+
+        consumer.waitToComplete(timeout);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.ranger.audit.provider.AuditProvider#flush()
+     */
+    @Override
+    public void flush() {
+        if (fileSpoolerEnabled) {
+            fileSpooler.flush();
+        }
+
+        consumer.flush();
+    }
+
+    @Override
+    public synchronized void logStatus() {
+        // fold counts updated by handler threads into the counters reported by BaseAuditHandler
+        long dropped = droppedCount.sum();
+        long spilled = spilledCount.sum();
+
+        addTotalCount((int) (dropped - reportedDropped + spilled - reportedSpilled));
+        addFailedCount((int) (dropped - reportedDropped));
+        addStashedCount((int) (spilled - reportedSpilled));
+
+        reportedDropped = dropped;
+        reportedSpilled = spilled;
+
+        super.logStatus();
+
+        if (isStatusLogEnabled()) {
+            logger.info("AuditRingBufferQueue.log(name={}): queueDepth={}, maxQueueDepth={}, capacity={}, droppedCount={}, spilledCount={}, blockedCount={}, avgQueueLatencyMs={}, maxQueueLatencyMs={}, avgDispatchLatencyMs={}",
+                    getName(), getQueueDepth(), getMaxQueueDepth(), getRingBuffer().capacity(), dropped, spilled, getBlockedCount(), getAvgQueueLatencyMs(), getMaxQueueLatencyMs(), getAvgDispatchLatencyMs());
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+        try {
+            //This is done to clear the MDC context to avoid issue with Ranger Auditing for Knox
+            MDC.clear();
+            runLogAudit();
+        } catch (Throwable t) {
+            logger.error("Exited thread abnormaly. queue={}", getName(), t);
+        }
+    }
+
+    public int size() {
+        return getQueueDepth();
+    }
+
+    public int getQueueDepth() {
+        return getRingBuffer().size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.sum();
+    }
+
+    public long getBlockedCount() {
+        return blockedCount.sum();
+    }
+
+    /**
+     * @return average time, in milliseconds, events waited in the queue before being picked up by a consumer thread
+     */
+    public long getAvgQueueLatencyMs() {
+        return TimeUnit.NANOSECONDS.toMillis(getRingBuffer().getAvgWaitTimeNanos());
+    }
+
+    public long getMaxQueueLatencyMs() {
+        return TimeUnit.NANOSECONDS.toMillis(getRingBuffer().getMaxWaitTimeNanos());
+    }
+
+    /**
+     * @return average time, in milliseconds, taken by the consumer to process a batch
+     */
+    public long getAvgDispatchLatencyMs() {
+        long count = dispatchCount.sum();
+
+        return count > 0 ? TimeUnit.NANOSECONDS.toMillis(dispatchTimeNanos.sum() / count) : 0;
+    }
+
+    public String getBackpressure() {
+        return backpressure;
+    }
+
+    public int getCapacity() {
+        return getRingBuffer().capacity();
+    }
+
+    public int getConsumerThreadCount() {
+        return consumerThreadCount;
+    }
+
+    public void runLogAudit() {
+        AuditRingBuffer      buffer           = getRingBuffer();
+        List<AuditEventBase> localBatchBuffer = new ArrayList<>();
+        long                 lastDispatchTime = System.currentTimeMillis();
+
+        while (true) {
+            logStatusIfRequired();
+
+            // Time to next dispatch
+            long    nextDispatchDuration = lastDispatchTime - System.currentTimeMillis() + getMaxBatchInterval();
+            boolean isToSpool            = false;
+
+            if (fileSpoolerEnabled && fileSpooler.isPending()) {
+                long    percentUsed    = buffer.size() * 100L / buffer.capacity();
+                boolean fileSpoolDrain = fileSpooler.getLastAttemptTimeDelta() > fileSpoolMaxWaitTime;
+
+                // let the spooler catch up, while there is room in the queue
+                if (!isDrain() && !fileSpoolDrain && percentUsed < fileSpoolDrainThresholdPercent) {
+                    waitForEvents(getMaxBatchInterval());
+
+                    continue;
+                }
+
+                isToSpool = true;
+            }
+
+            int drainedCount = buffer.drainTo(localBatchBuffer, getMaxBatchSize() - localBatchBuffer.size());
+
+            inFlightCount.addAndGet(drainedCount);
+
+            if (drainedCount == 0 && localBatchBuffer.isEmpty()) {
+                lastDispatchTime = System.currentTimeMillis();
+            }
+
+            if (!localBatchBuffer.isEmpty() && (isToSpool || isDrain() || localBatchBuffer.size() >= getMaxBatchSize() || nextDispatchDuration <= 0)) {
+                if (isToSpool) {
+                    fileSpooler.stashLogs(localBatchBuffer);
+
+                    addDispatchedCounts(localBatchBuffer.size(), 0, 0, localBatchBuffer.size());
+                } else {
+                    dispatch(localBatchBuffer);
+                }
+
+                inFlightCount.addAndGet(-localBatchBuffer.size());
+
+                localBatchBuffer.clear();
+
+                lastDispatchTime = System.currentTimeMillis();
+            } else if (drainedCount == 0) {
+                if (isDrain()) {
+                    if (buffer.isEmpty() && localBatchBuffer.isEmpty()) {
+                        break;
+                    }
+                } else {
+                    waitForEvents(localBatchBuffer.isEmpty() ? getMaxBatchInterval() : nextDispatchDuration);
+                }
+            }
+        }
+
+        logger.info("Exiting consumerThread. Queue = {}, dest = {}", getName(), consumer.getName());
+
+        if (activeConsumerThreads.decrementAndGet() == 0) {
+            try {
+                // Call stop on the consumer
+                logger.info("Calling to stop consumer. name = {}, consumer.name = {}", getName(), consumer.getName());
+
+                consumer.stop();
+
+                if (fileSpoolerEnabled) {
+                    fileSpooler.stop();
+                }
+            } catch (Throwable t) {
+                logger.error("Error while calling stop on consumer.", t);
+            }
+
+            logStatus();
+        }
+
+        logger.info("Exiting consumerThread.run() method. name={}", getName());
+    }
+
+    private void dispatch(List<AuditEventBase> events) {
+        long    startTime = System.nanoTime();
+        boolean ret       = false;
+
+        try {
+            ret = consumer.log(events);
+        } catch (Throwable t) {
+            logger.error("Error while sending audits to consumer. name={}, consumer={}", getName(), consumer.getName(), t);
+        } finally {
+            dispatchTimeNanos.add(System.nanoTime() - startTime);
+            dispatchCount.increment();
+        }
+
+        if (ret) {
+            addDispatchedCounts(events.size(), events.size(), 0, 0);
+        } else if (fileSpoolerEnabled) {
+            logger.info("Switching to file spool. Queue = {}, dest = {}", getName(), consumer.getName());
+
+            // Transient error. Stash and move on
+            fileSpooler.stashLogs(events);
+
+            addDispatchedCounts(events.size(), 0, 0, events.size());
+        } else {
+            // We need to drop this event
+            addDispatchedCounts(events.size(), 0, events.size(), 0);
+
+            logFailedEvent(events);
+        }
+    }
+
+    // counters in BaseAuditHandler are not thread-safe; consumer threads update them one batch at a time
+    private synchronized void addDispatchedCounts(int total, int success, int failed, int stashed) {
+        addTotalCount(total);
+        addSuccessCount(success);
+        addFailedCount(failed);
+        addStashedCount(stashed);
+    }
+
+    private boolean waitAndOffer(AuditRingBuffer buffer, AuditEventBase event) {
+        boolean noTimeout = blockTimeoutMs < 0;
+        long    deadline  = noTimeout ? 0 : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+
+        blockedCount.increment();
+
+        while (!isDrain()) {
+            LockSupport.parkNanos(BLOCKED_PRODUCER_WAIT_NS);
+
+            if (buffer.offer(event)) {
+                updateMaxQueueDepth(buffer.size());
+
+                return true;
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                logger.warn("Interrupted while waiting for space in queue. name={}", getName());
+
+                break;
+            }
+
+            if (!noTimeout && System.nanoTime() - deadline > 0) {
+                break;
+            }
+        }
+
+        return false;
+    }
+
+    private void waitForEvents(long maxWaitMs) {
+        if (maxWaitMs > 0) {
+            LockSupport.parkNanos(Math.min(TimeUnit.MILLISECONDS.toNanos(maxWaitMs), MAX_IDLE_WAIT_NS));
+        }
+
+        // stop() interrupts consumer threads to wake them up; isDrain() tells them to exit
+        Thread.interrupted();
+    }
+
+    private void updateMaxQueueDepth(int depth) {
+        for (int currMax = maxQueueDepth.get(); depth > currMax; currMax = maxQueueDepth.get()) {
+            if (maxQueueDepth.compareAndSet(currMax, depth)) {
+                break;
+            }
+        }
+    }
+
+    private long getPendingCount() {
+        return getRingBuffer().size() + inFlightCount.get();
+    }
+
+    private AuditRingBuffer getRingBuffer() {
+        AuditRingBuffer ret = ringBuffer;
+
+        if (ret == null) {
+            synchronized (this) {
+                ret = ringBuffer;
+
+                if (ret == null) {
+                    ret        = new AuditRingBuffer(getMaxQueueSize());
+                    ringBuffer = ret;
+                }
+            }
+        }
+
+        return ret;
+    }
+}
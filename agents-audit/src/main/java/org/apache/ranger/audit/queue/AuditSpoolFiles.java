@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.audit.queue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Creates readers and writers for audit spool files. Two formats are supported:
+ * <ul>
+ *   <li>json: one JSON record per line</li>
+ *   <li>binary: length-prefixed records in compressed, checksummed blocks; see AuditBinarySpoolWriter</li>
+ * </ul>
+ * The format of an existing file is detected from its content, so files spooled before a format change are replayed
+ * as well.
+ */
+public final class AuditSpoolFiles {
+    public static final String PROP_FILE_SPOOL_FORMAT = "filespool.format";
+    public static final String FORMAT_JSON            = "json";
+    public static final String FORMAT_BINARY          = "binary";
+
+    private AuditSpoolFiles() {
+        // to block instantiation
+    }
+
+    public static String toFormat(String format) {
+        return FORMAT_BINARY.equalsIgnoreCase(format != null ? format.trim() : null) ? FORMAT_BINARY : FORMAT_JSON;
+    }
+
+    /**
+     * @param format format for a new or empty file; an existing file opened for append is written in its own format
+     */
+    public static AuditSpoolWriter openWriter(File file, String format, boolean append) throws IOException {
+        boolean isBinary = (append && file.length() > 0) ? AuditBinarySpoolReader.isBinarySpoolFile(file) : FORMAT_BINARY.equals(format);
+
+        return isBinary ? new AuditBinarySpoolWriter(file, append) : new JsonSpoolWriter(file, append);
+    }
+
+    public static AuditSpoolReader openReader(File file) throws IOException {
+        return AuditBinarySpoolReader.isBinarySpoolFile(file) ? new AuditBinarySpoolReader(file) : new JsonSpoolReader(file);
+    }
+
+    private static class JsonSpoolWriter implements AuditSpoolWriter {
+        private final BufferedWriter writer;
+
+        JsonSpoolWriter(File file, boolean append) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, append), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void write(String record) throws IOException {
+            writer.write(record);
+            writer.newLine();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static class JsonSpoolReader implements AuditSpoolReader {
+        private final BufferedReader reader;
+        private       int            position;
+
+        JsonSpoolReader(File file) throws IOException {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String next() throws IOException {
+            String ret = reader.readLine();
+
+            if (ret != null) {
+                position++;
+            }
+
+            return ret;
+        }
+
+        @Override
+        public int skip(int count) throws IOException {
+            int ret = 0;
+
+            while (ret < count && reader.readLine() != null) {
+                ret++;
+            }
+
+            position += ret;
+
+            return ret;
+        }
+
+        @Override
+        public int getPosition() {
+            return position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.audit.queue;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads audit records, each a JSON string, from a spool file in the order they were written.
+ */
+public interface AuditSpoolReader extends Closeable {
+    /**
+     * @return the next record, or null at the end of the file
+     */
+    String next() throws IOException;
+
+    /**
+     * Skips the given number of records.
+     *
+     * @return number of records skipped; less than count if the end of the file was reached
+     */
+    int skip(int count) throws IOException;
+
+    /**
+     * @return number of records read or skipped so far, i.e. the 1-based position of the last record returned by next()
+     */
+    int getPosition();
+}
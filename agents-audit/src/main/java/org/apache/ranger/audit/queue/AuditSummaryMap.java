@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.audit.queue;
+
+import org.apache.ranger.audit.model.AuditEventBase;
+import org.apache.ranger.audit.model.AuthzAuditEvent;
+import org.apache.ranger.audit.queue.AuditSummaryQueue.AuditSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressed (linear probing) map of audit summaries, holding at most maxEntries summaries.
+ *
+ * For AuthzAuditEvent, summaries are keyed by the configured fields of the event: the hash of the fields is computed
+ * once per event and compared before the fields themselves, so that no key string is built. Other events are keyed
+ * by AuditEventBase.getEventKey().
+ */
+class AuditSummaryMap {
+    private static final int INITIAL_CAPACITY = 64;
+
+    enum KeyField {
+        USER("user"),
+        RESOURCE("resource"),
+        RESOURCE_TYPE("resourceType"),
+        ACCESS("access"),
+        ACTION("action"),
+        RESULT("result"),
+        POLICY_ID("policyId"),
+        SESSION("session"),
+        CLIENT_IP("clientIP"),
+        REPOSITORY("repository");
+
+        // same fields as in AuthzAuditEvent.getEventKey()
+        static final KeyField[] DEFAULT_KEY_FIELDS = {USER, ACCESS, RESOURCE, RESOURCE_TYPE, ACTION, RESULT, SESSION, CLIENT_IP};
+
+        private final String name;
+
+        KeyField(String name) {
+            this.name = name;
+        }
+
+        static KeyField fromName(String name) {
+            for (KeyField field : values()) {
+                if (field.name.equalsIgnoreCase(name)) {
+                    return field;
+                }
+            }
+
+            return null;
+        }
+
+        static List<String> names() {
+            List<String> ret = new ArrayList<>();
+
+            for (KeyField field : values()) {
+                ret.add(field.name);
+            }
+
+            return ret;
+        }
+
+        Object getValue(AuthzAuditEvent event) {
+            switch (this) {
+                case USER:
+                    return event.getUser();
+                case RESOURCE:
+                    return event.getResourcePath();
+                case RESOURCE_TYPE:
+                    return event.getResourceType();
+                case ACCESS:
+                    return event.getAccessType();
+                case ACTION:
+                    return event.getAction();
+                case RESULT:
+                    return event.getAccessResult();
+                case POLICY_ID:
+                    return event.getPolicyId();
+                case SESSION:
+                    return event.getSessionId();
+                case CLIENT_IP:
+                    return event.getClientIP();
+                case REPOSITORY:
+                    return event.getRepositoryName();
+                default:
+                    return null;
+            }
+        }
+
+        int hash(AuthzAuditEvent event) {
+            switch (this) { // avoid boxing of primitive values
+                case RESULT:
+                    return event.getAccessResult();
+                case POLICY_ID:
+                    return Long.hashCode(event.getPolicyId());
+                default:
+                    return Objects.hashCode(getValue(event));
+            }
+        }
+
+        boolean isEqual(AuthzAuditEvent event1, AuthzAuditEvent event2) {
+            switch (this) { // avoid boxing of primitive values
+                case RESULT:
+                    return event1.getAccessResult() == event2.getAccessResult();
+                case POLICY_ID:
+                    return event1.getPolicyId() == event2.getPolicyId();
+                default:
+                    return Objects.equals(getValue(event1), getValue(event2));
+            }
+        }
+    }
+
+    private final KeyField[]     keyFields;
+    private final int            maxEntries;
+    private       int[]          hashes;
+    private       AuditSummary[] entries;
+    private       int            size;
+
+    AuditSummaryMap(Collection<KeyField> keyFields, int maxEntries) {
+        this.keyFields  = keyFields.toArray(new KeyField[0]);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.hashes     = new int[INITIAL_CAPACITY];
+        this.entries    = new AuditSummary[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the event to the summary having the same key.
+     *
+     * @return false if there is no summary for the key of the event and the map is full
+     */
+    boolean add(AuditEventBase event) {
+        AuthzAuditEvent authzEvent = event instanceof AuthzAuditEvent ? (AuthzAuditEvent) event : null;
+        String          eventKey   = authzEvent == null ? event.getEventKey() : null;
+        int             hash       = authzEvent != null ? hash(authzEvent) : Objects.hashCode(eventKey);
+        int             mask       = entries.length - 1;
+
+        for (int idx = hash & mask; ; idx = (idx + 1) & mask) {
+            AuditSummary summary = entries[idx];
+
+            if (summary == null) {
+                if (size >= maxEntries) {
+                    return false;
+                }
+
+                summary = new AuditSummary();
+
+                summary.event     = event;
+                summary.eventKey  = eventKey;
+                summary.startTime = event.getEventTime();
+                summary.endTime   = event.getEventTime();
+                summary.count     = 1;
+
+                hashes[idx]  = hash;
+                entries[idx] = summary;
+
+                size++;
+
+                if (size * 2 > entries.length) {
+                    resize(entries.length * 2);
+                }
+
+                return true;
+            }
+
+            if (hashes[idx] == hash && isSameKey(summary, authzEvent, eventKey)) {
+                summary.endTime = event.getEventTime();
+
+                summary.count++;
+
+                return true;
+            }
+        }
+    }
+
+    void forEach(Consumer<AuditSummary> action) {
+        for (AuditSummary summary : entries) {
+            if (summary != null) {
+                action.accept(summary);
+            }
+        }
+    }
+
+    void clear() {
+        if (entries.length > INITIAL_CAPACITY && size * 8 < entries.length) {
+            // release memory held after a burst of distinct keys
+            hashes  = new int[INITIAL_CAPACITY];
+            entries = new AuditSummary[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(entries, null);
+        }
+
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int hash(AuthzAuditEvent event) {
+        int ret = 1;
+
+        for (KeyField keyField : keyFields) {
+            ret = 31 * ret + keyField.hash(event);
+        }
+
+        return ret ^ (ret >>> 16); // spread higher bits, as only lower bits are used to index the table
+    }
+
+    private boolean isSameKey(AuditSummary summary, AuthzAuditEvent authzEvent, String eventKey) {
+        if (authzEvent == null || !(summary.event instanceof AuthzAuditEvent)) {
+            return authzEvent == null && summary.eventKey != null && summary.eventKey.equals(eventKey);
+        }
+
+        AuthzAuditEvent other = (AuthzAuditEvent) summary.event;
+
+        for (KeyField keyField : keyFields) {
+            if (!keyField.isEqual(authzEvent, other)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void resize(int newCapacity) {
+        int[]          oldHashes  = hashes;
+        AuditSummary[] oldEntries = entries;
+        int            mask       = newCapacity - 1;
+
+        hashes  = new int[newCapacity];
+        entries = new AuditSummary[newCapacity];
+
+        for (int i = 0; i < oldEntries.length; i++) {
+            if (oldEntries[i] != null) {
+                int idx = oldHashes[i] & mask;
+
+                while (entries[idx] != null) {
+                    idx = (idx + 1) & mask;
+                }
+
+                hashes[idx]  = oldHashes[i];
+                entries[idx] = oldEntries[i];
+            }
+        }
+    }
+}
@@ -22,26 +22,34 @@
 import org.apache.ranger.audit.model.AuditEventBase;
 import org.apache.ranger.audit.provider.AuditHandler;
 import org.apache.ranger.audit.provider.MiscUtil;
+import org.apache.ranger.audit.queue.AuditSummaryMap.KeyField;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * This is a non-blocking queue with no limit on capacity.
+ * This is a non-blocking queue that summarizes events: events with the same key, made of the fields listed in
+ * summary.keys, are sent downstream as one event with count and duration. At most summary.max.entries summaries are
+ * kept in memory; when that limit is reached, the summaries are sent before the end of the summary interval.
+ * Events waiting to be summarized are limited to queue.size; when that limit is reached, events are written to the
+ * file spool if enabled - to be sent to the consumer later without summarization - or dropped otherwise.
  */
 public class AuditSummaryQueue extends AuditQueue implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(AuditSummaryQueue.class);
 
-    public static final String PROP_SUMMARY_INTERVAL = "summary.interval.ms";
+    public static final String PROP_SUMMARY_INTERVAL    = "summary.interval.ms";
+    public static final String PROP_SUMMARY_KEYS        = "summary.keys";
+    public static final String PROP_SUMMARY_MAX_ENTRIES = "summary.max.entries";
 
     private static final int MAX_DRAIN = 100000;
 
@@ -49,10 +57,15 @@ public class AuditSummaryQueue extends AuditQueue implements Runnable {
     static       int    threadCount;
 
     Thread                              consumerThread;
-    LinkedBlockingQueue<AuditEventBase> queue      = new LinkedBlockingQueue<>();
-    HashMap<String, AuditSummary>       summaryMap = new HashMap<>();
+    LinkedBlockingQueue<AuditEventBase> queue = new LinkedBlockingQueue<>(getMaxQueueSize());
+    AuditSummaryMap                     summaryMap;
+
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder droppedCount  = new LongAdder();
+    private final LongAdder spilledCount  = new LongAdder();
 
     private int maxSummaryIntervalMs = 5000;
+    private int maxSummaryEntries    = 10000;
 
     public AuditSummaryQueue(AuditHandler consumer) {
         super(consumer);
@@ -65,8 +78,14 @@ public void init(Properties props, String propPrefix) {
         super.init(props, propPrefix);
 
         maxSummaryIntervalMs = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_SUMMARY_INTERVAL, maxSummaryIntervalMs);
+        maxSummaryEntries    = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_SUMMARY_MAX_ENTRIES, maxSummaryEntries);
+
+        List<KeyField> keyFields = getKeyFields(MiscUtil.getStringProperty(props, propPrefix + "." + PROP_SUMMARY_KEYS));
 
-        logger.info("maxSummaryInterval={}, name={}", maxSummaryIntervalMs, getName());
+        summaryMap = new AuditSummaryMap(keyFields, maxSummaryEntries);
+        queue      = new LinkedBlockingQueue<>(getMaxQueueSize());
+
+        logger.info("maxSummaryInterval={}, maxSummaryEntries={}, keys={}, queueSize={}, name={}", maxSummaryIntervalMs, maxSummaryEntries, keyFields, getMaxQueueSize(), getName());
     }
 
     /*
@@ -79,13 +98,20 @@ public void init(Properties props, String propPrefix) {
     @Override
     public boolean log(AuditEventBase event) {
         // Add to the queue and return ASAP
-        if (queue.size() >= getMaxQueueSize()) {
-            return false;
+        if (queue.offer(event)) {
+            return true;
         }
 
-        queue.add(event);
+        if (fileSpoolerEnabled) {
+            fileSpooler.stashLogs(event);
+            spilledCount.increment();
 
-        return true;
+            return true;
+        }
+
+        droppedCount.increment();
+
+        return false;
     }
 
     @Override
@@ -114,6 +140,10 @@ public void start() {
             consumer.start();
         }
 
+        if (fileSpoolerEnabled) {
+            fileSpooler.start();
+        }
+
         consumerThread = new Thread(this, this.getClass().getName() + (threadCount++));
 
         consumerThread.setDaemon(true);
@@ -161,13 +191,18 @@ public void run() {
     }
 
     public void runLogAudit() {
-        long lastDispatchTime = System.currentTimeMillis();
+        long                       lastDispatchTime = System.currentTimeMillis();
+        Collection<AuditEventBase> eventList        = new ArrayList<>();
+
+        if (summaryMap == null) { // init() not called
+            summaryMap = new AuditSummaryMap(Arrays.asList(KeyField.DEFAULT_KEY_FIELDS), maxSummaryEntries);
+        }
 
         while (true) {
             // Time to next dispatch
             long nextDispatchDuration = lastDispatchTime - System.currentTimeMillis() + maxSummaryIntervalMs;
 
-            Collection<AuditEventBase> eventList = new ArrayList<>();
+            eventList.clear();
 
             try {
                 final AuditEventBase event;
@@ -195,23 +230,15 @@ public void runLogAudit() {
             }
 
             for (AuditEventBase event : eventList) {
-                // Add to hash map
-                String       key          = event.getEventKey();
-                AuditSummary auditSummary = summaryMap.get(key);
+                if (!summaryMap.add(event)) {
+                    // summary map is full: send the summaries collected so far, to keep memory usage bounded
+                    evictionCount.increment();
 
-                if (auditSummary == null) {
-                    auditSummary = new AuditSummary();
+                    logger.debug("Summary map is full. Sending {} summaries before end of interval. name={}, evictionCount={}", summaryMap.size(), getName(), evictionCount.sum());
 
-                    auditSummary.event     = event;
-                    auditSummary.startTime = event.getEventTime();
-                    auditSummary.endTime   = event.getEventTime();
-                    auditSummary.count     = 1;
+                    dispatchSummaries();
 
-                    summaryMap.put(key, auditSummary);
-                } else {
-                    auditSummary.endTime = event.getEventTime();
-
-                    auditSummary.count++;
+                    summaryMap.add(event);
                 }
             }
 
@@ -219,26 +246,7 @@ public void runLogAudit() {
                 // Reset time just before sending the logs
                 lastDispatchTime = System.currentTimeMillis();
 
-                for (Map.Entry<String, AuditSummary> entry : summaryMap.entrySet()) {
-                    AuditSummary auditSummary = entry.getValue();
-
-                    auditSummary.event.setEventCount(auditSummary.count);
-
-                    long timeDiff = auditSummary.endTime.getTime() - auditSummary.startTime.getTime();
-
-                    timeDiff = timeDiff > 0 ? timeDiff : 1;
-
-                    auditSummary.event.setEventDurationMS(timeDiff);
-
-                    boolean ret = consumer.log(auditSummary.event);
-
-                    if (!ret) {
-                        // We need to drop this event
-                        logFailedEvent(auditSummary.event);
-                    }
-                }
-
-                summaryMap.clear();
+                dispatchSummaries();
             }
 
             if (isDrain()) {
@@ -259,16 +267,82 @@ public void runLogAudit() {
             logger.info("Calling to stop consumer. name={}, consumer.name={}", getName(), consumer.getName());
 
             consumer.stop();
+
+            if (fileSpoolerEnabled) {
+                fileSpooler.stop();
+            }
         } catch (Throwable t) {
             logger.error("Error while calling stop on consumer.", t);
         }
         logger.info("Exiting consumerThread.run() method. name={}", getName());
     }
 
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.sum();
+    }
+
+    private void dispatchSummaries() {
+        summaryMap.forEach(auditSummary -> {
+            auditSummary.event.setEventCount(auditSummary.count);
+
+            long timeDiff = auditSummary.endTime.getTime() - auditSummary.startTime.getTime();
+
+            timeDiff = timeDiff > 0 ? timeDiff : 1;
+
+            auditSummary.event.setEventDurationMS(timeDiff);
+
+            boolean ret = consumer.log(auditSummary.event);
+
+            if (!ret) {
+                // We need to drop this event
+                logFailedEvent(auditSummary.event);
+            }
+        });
+
+        summaryMap.clear();
+    }
+
+    private List<KeyField> getKeyFields(String keys) {
+        List<KeyField> ret = new ArrayList<>();
+
+        if (keys != null) {
+            for (String key : keys.split(",")) {
+                key = key.trim();
+
+                if (key.isEmpty()) {
+                    continue;
+                }
+
+                KeyField keyField = KeyField.fromName(key);
+
+                if (keyField == null) {
+                    logger.warn("Ignoring unknown summary key {} in {}.{}. Valid keys: {}", key, propPrefix, PROP_SUMMARY_KEYS, KeyField.names());
+                } else if (!ret.contains(keyField)) {
+                    ret.add(keyField);
+                }
+            }
+        }
+
+        if (ret.isEmpty()) {
+            ret.addAll(Arrays.asList(KeyField.DEFAULT_KEY_FIELDS));
+        }
+
+        return ret;
+    }
+
     static class AuditSummary {
         Date           startTime;
         Date           endTime;
         int            count;
         AuditEventBase event;
+        String         eventKey; // set only for events that aren't AuthzAuditEvent
     }
 }
@@ -49,6 +49,7 @@ public abstract class AbstractRangerAuditWriter implements RangerAuditWriter {
     public static final String  PROP_FILESYSTEM_SUBDIR           = "subdir";
     public static final String  PROP_FILESYSTEM_FILE_NAME_FORMAT = "filename.format";
     public static final String  PROP_FILESYSTEM_FILE_ROLLOVER    = "file.rollover.sec";
+    public static final String  PROP_FILESYSTEM_ROLLOVER_SIZE    = "file.rollover.size";
     public static final String  PROP_FILESYSTEM_ROLLOVER_PERIOD  = "file.rollover.period";
     public static final String  PROP_FILESYSTEM_FILE_EXTENSION   = ".log";
 
@@ -69,6 +70,7 @@ public abstract class AbstractRangerAuditWriter implements RangerAuditWriter {
     public String              fileSystemScheme;
     public Date                nextRollOverTime;
     public int                 fileRolloverSec = 24 * 60 * 60; // In seconds
+    public long                fileRolloverSize;               // In bytes; 0 to rollover only by time
     public boolean             rollOverByDuration;
 
     public volatile FSDataOutputStream  ostream;   // output stream wrapped in logWriter
@@ -216,6 +218,7 @@ public void init(Properties props, String propPrefix) {
 
         logFileNameFormat = MiscUtil.getStringProperty(props, propPrefix + "." + PROP_FILESYSTEM_FILE_NAME_FORMAT);
         fileRolloverSec   = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILESYSTEM_FILE_ROLLOVER, fileRolloverSec);
+        fileRolloverSize  = MiscUtil.getLongProperty(props, propPrefix + "." + PROP_FILESYSTEM_ROLLOVER_SIZE, fileRolloverSize);
 
         if (StringUtils.isEmpty(fileExtension)) {
             setFileExtension(PROP_FILESYSTEM_FILE_EXTENSION);
@@ -229,6 +232,7 @@ public void init(Properties props, String propPrefix) {
 
         logger.info("logFolder={}, destName={}", logFolder, auditProviderName);
         logger.info("logFileNameFormat={}, destName={}", logFileNameFormat, auditProviderName);
+        logger.info("fileRolloverSize={}, destName={}", fileRolloverSize, auditProviderName);
         logger.info("config={}", auditConfigs);
 
         rolloverPeriod  = MiscUtil.getStringProperty(props, propPrefix + "." + PROP_FILESYSTEM_ROLLOVER_PERIOD);
@@ -262,8 +266,10 @@ public void closeFileIfNeeded() {
             return;
         }
 
-        if (System.currentTimeMillis() >= nextRollOverTime.getTime()) {
-            logger.info("Closing file. Rolling over. name = {}, fileName = {}", auditProviderName, currentFileName);
+        boolean isRollOverTime = System.currentTimeMillis() >= nextRollOverTime.getTime();
+
+        if (isRollOverTime || isRollOverSizeReached()) {
+            logger.info("Closing file. Rolling over. name = {}, fileName = {}, byTime = {}", auditProviderName, currentFileName, isRollOverTime);
 
             logWriter.flush();
 
@@ -273,7 +279,10 @@ public void closeFileIfNeeded() {
             currentFileName  = null;
             reUseLastLogFile = false;
 
-            if (!rollOverByDuration) {
+            if (!isRollOverTime) {
+                // rolled over by size: next rollover by time remains the same
+                logger.debug("Rolled over by size. fileRolloverSize = {}", fileRolloverSize);
+            } else if (!rollOverByDuration) {
                 try {
                     if (StringUtils.isEmpty(rolloverPeriod)) {
                         rolloverPeriod = rollingTimeUtil.convertRolloverSecondsToRolloverPeriod(fileRolloverSec);
@@ -294,6 +303,23 @@ public void closeFileIfNeeded() {
         logger.debug("<== AbstractRangerAuditWriter.closeFileIfNeeded()");
     }
 
+    public boolean isRollOverSizeReached() {
+        FSDataOutputStream ostream = this.ostream;
+        boolean            ret     = false;
+
+        if (fileRolloverSize > 0 && ostream != null) {
+            try {
+                logWriter.flush(); // so that the position includes the content buffered in logWriter
+
+                ret = ostream.getPos() >= fileRolloverSize;
+            } catch (IOException e) {
+                logger.warn("Error getting size of file {}: {}", currentFileName, e.getMessage());
+            }
+        }
+
+        return ret;
+    }
+
     public Date rollOverByDuration() {
         long rollOverTime = rollingTimeUtil.computeNextRollingTime(fileRolloverSec, nextRollOverTime);
 
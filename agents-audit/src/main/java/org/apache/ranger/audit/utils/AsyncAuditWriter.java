@@ -0,0 +1,322 @@
+package org.apache.ranger.audit.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.ranger.audit.model.AuditEventBase;
+import org.apache.ranger.audit.provider.MiscUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Double-buffered writer: logEvents() adds the events to the active buffer and returns, while a writer thread writes
+ * the other buffer to the wrapped writer and flushes it. Buffers are swapped after each write, so the producer never
+ * waits for file writes, hflush or rollover; these happen in the writer thread.
+ *
+ * logEvents() returns false, without buffering the events, when the active buffer is full - for example while the
+ * writer thread retries a failed write; the caller can then defer or spool the events.
+ */
+public class AsyncAuditWriter implements RangerAuditWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAuditWriter.class);
+
+    public static final String PROP_ASYNC_WRITE             = "async.write";
+    public static final String PROP_ASYNC_BUFFER_SIZE       = "async.buffer.size";
+    public static final String PROP_ASYNC_FLUSH_INTERVAL_MS = "async.flush.interval.ms";
+
+    private static final long STOP_WAIT_MS = 60 * 1000L;
+
+    private final RangerAuditWriter writer;
+    private final Object            bufferLock        = new Object();
+    private final LongAdder         writtenCount      = new LongAdder();
+    private final LongAdder         writeCount        = new LongAdder();
+    private final LongAdder         writeTimeNanos    = new LongAdder();
+    private final AtomicLong        maxWriteTimeNanos = new AtomicLong();
+    private final LongAdder         failedWriteCount  = new LongAdder();
+
+    private String               auditProviderName;
+    private int                  bufferSize      = 10000;
+    private long                 flushIntervalMs = 1000L;
+    private List<AuditEventBase> activeBuffer    = new ArrayList<>();
+    private List<AuditEventBase> writeBuffer     = new ArrayList<>();
+    private Thread               writerThread;
+    private volatile boolean     isStopped;
+
+    public AsyncAuditWriter(RangerAuditWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void init(Properties props, String propPrefix, String auditProviderName, Map<String, String> auditConfigs) {
+        this.auditProviderName = auditProviderName;
+        this.bufferSize        = Math.max(1, MiscUtil.getIntProperty(props, propPrefix + "." + PROP_ASYNC_BUFFER_SIZE, bufferSize));
+        this.flushIntervalMs   = Math.max(1, MiscUtil.getLongProperty(props, propPrefix + "." + PROP_ASYNC_FLUSH_INTERVAL_MS, flushIntervalMs));
+
+        logger.info("AsyncAuditWriter(name={}): writer={}, bufferSize={}, flushIntervalMs={}", auditProviderName, writer.getClass().getName(), bufferSize, flushIntervalMs);
+    }
+
+    /**
+     * Writes synchronously: used for events replayed from spool files, which are not to be buffered again
+     */
+    @Override
+    public boolean log(Collection<String> events) throws Exception {
+        synchronized (writer) {
+            boolean ret = writer.log(events);
+
+            flushWriter();
+
+            return ret;
+        }
+    }
+
+    @Override
+    public boolean logEvents(Collection<AuditEventBase> events) {
+        synchronized (bufferLock) {
+            // a batch larger than bufferSize is accepted when the buffer is empty
+            if (isStopped || (!activeBuffer.isEmpty() && activeBuffer.size() + events.size() > bufferSize)) {
+                return false;
+            }
+
+            activeBuffer.addAll(events);
+
+            if (activeBuffer.size() >= bufferSize / 2) {
+                bufferLock.notifyAll();
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean logFile(File file) throws Exception {
+        synchronized (writer) {
+            return writer.logFile(file);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        writer.start();
+
+        if (writerThread == null) {
+            writerThread = new Thread(this::runWriter, "AsyncAuditWriter-" + auditProviderName);
+
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    /**
+     * Wakes up the writer thread; does not wait for the buffered events to be written
+     */
+    @Override
+    public void flush() {
+        synchronized (bufferLock) {
+            bufferLock.notifyAll();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        synchronized (bufferLock) {
+            isStopped = true;
+
+            bufferLock.notifyAll();
+        }
+
+        if (writerThread != null) {
+            try {
+                writerThread.join(STOP_WAIT_MS);
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (writerThread.isAlive()) {
+                logger.warn("AsyncAuditWriter(name={}): writer thread did not complete in {}ms. bufferedCount={}", auditProviderName, STOP_WAIT_MS, getBufferedCount());
+            }
+
+            writerThread = null;
+        }
+
+        synchronized (writer) {
+            writer.stop();
+        }
+
+        logStatus();
+    }
+
+    public void logStatus() {
+        logger.info("AsyncAuditWriter(name={}): bufferedCount={}, writtenCount={}, writeCount={}, failedWriteCount={}, avgWriteLatencyMs={}, maxWriteLatencyMs={}, writeThroughput={} events/sec",
+                auditProviderName, getBufferedCount(), getWrittenCount(), getWriteCount(), getFailedWriteCount(), getAvgWriteLatencyMs(), getMaxWriteLatencyMs(), getWriteThroughput());
+    }
+
+    public RangerAuditWriter getWriter() {
+        return writer;
+    }
+
+    public int getBufferedCount() {
+        synchronized (bufferLock) {
+            return activeBuffer.size() + writeBuffer.size();
+        }
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    public long getWriteCount() {
+        return writeCount.sum();
+    }
+
+    public long getFailedWriteCount() {
+        return failedWriteCount.sum();
+    }
+
+    /**
+     * @return average time, in milliseconds, to write and flush a buffer
+     */
+    public long getAvgWriteLatencyMs() {
+        long count = writeCount.sum();
+
+        return count > 0 ? TimeUnit.NANOSECONDS.toMillis(writeTimeNanos.sum() / count) : 0;
+    }
+
+    public long getMaxWriteLatencyMs() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWriteTimeNanos.get());
+    }
+
+    /**
+     * @return number of events written per second of time spent in writes
+     */
+    public long getWriteThroughput() {
+        long timeNanos = writeTimeNanos.sum();
+
+        return timeNanos > 0 ? writtenCount.sum() * TimeUnit.SECONDS.toNanos(1) / timeNanos : 0;
+    }
+
+    private void runWriter() {
+        while (true) {
+            List<AuditEventBase> events;
+
+            synchronized (bufferLock) {
+                if (activeBuffer.isEmpty()) {
+                    if (isStopped) {
+                        break;
+                    }
+
+                    try {
+                        bufferLock.wait(flushIntervalMs);
+                    } catch (InterruptedException excp) {
+                        logger.info("AsyncAuditWriter(name={}): writer thread interrupted", auditProviderName);
+
+                        isStopped = true;
+                    }
+
+                    continue;
+                }
+
+                // swap buffers: producers continue to add to the buffer just written
+                events       = activeBuffer;
+                activeBuffer = writeBuffer;
+                writeBuffer  = events;
+            }
+
+            writeWithRetry(events);
+
+            synchronized (bufferLock) {
+                writeBuffer.clear();
+            }
+        }
+
+        logger.info("AsyncAuditWriter(name={}): writer thread exiting", auditProviderName);
+    }
+
+    private void writeWithRetry(List<AuditEventBase> events) {
+        while (true) {
+            if (write(events)) {
+                break;
+            }
+
+            failedWriteCount.increment();
+
+            if (isStopped) {
+                logger.error("AsyncAuditWriter(name={}): failed to write {} audit events while stopping. Events are lost", auditProviderName, events.size());
+
+                break;
+            }
+
+            try {
+                Thread.sleep(flushIntervalMs);
+            } catch (InterruptedException excp) {
+                isStopped = true;
+            }
+        }
+    }
+
+    private boolean write(List<AuditEventBase> events) {
+        boolean ret       = false;
+        long    startTime = System.nanoTime();
+
+        try {
+            synchronized (writer) {
+                ret = MiscUtil.executePrivilegedAction((PrivilegedExceptionAction<Boolean>) () -> writer.logEvents(events));
+
+                if (ret) {
+                    flushWriter();
+                }
+            }
+        } catch (Throwable t) {
+            logger.error("AsyncAuditWriter(name={}): error writing {} audit events", auditProviderName, events.size(), t);
+        }
+
+        if (ret) {
+            long elapsed = System.nanoTime() - startTime;
+
+            writtenCount.add(events.size());
+            writeCount.increment();
+            writeTimeNanos.add(elapsed);
+
+            for (long currMax = maxWriteTimeNanos.get(); elapsed > currMax; currMax = maxWriteTimeNanos.get()) {
+                if (maxWriteTimeNanos.compareAndSet(currMax, elapsed)) {
+                    break;
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private void flushWriter() throws Exception {
+        MiscUtil.executePrivilegedAction((PrivilegedExceptionAction<Void>) () -> {
+            writer.flush();
+
+            return null;
+        });
+    }
+}
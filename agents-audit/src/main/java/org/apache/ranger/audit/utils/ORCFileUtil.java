@@ -40,7 +40,6 @@
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
-import java.text.Format;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -65,6 +64,11 @@ public class ORCFileUtil {
     protected int                       orcBufferSize;
     protected long                      orcStripeSize;
 
+    // field of AuthzAuditEvent and column vector of each column in the schema, looked up once in init()
+    private Field[]          columnFields;
+    private ColumnVector[]   columnVectors;
+    private SimpleDateFormat dateFormatter;
+
     public static ORCFileUtil getInstance() {
         ORCFileUtil orcFileUtil = me;
 
@@ -162,7 +166,8 @@ public void close(Writer writer) throws Exception {
         logger.debug("<== ORCFileUtil.close()");
     }
 
-    public void log(Writer writer, Collection<AuthzAuditEvent> events) throws Exception {
+    // synchronized: the row batch is shared by all writers using this instance
+    public synchronized void log(Writer writer, Collection<AuthzAuditEvent> events) throws Exception {
         int eventBatchSize = events.size();
 
         logger.debug("==> ORCFileUtil.log() : EventSize: {} ORC bufferSize:{}", eventBatchSize, orcBufferSize);
@@ -171,14 +176,14 @@ public void log(Writer writer, Collection<AuthzAuditEvent> events) throws Except
             for (AuthzAuditEvent event : events) {
                 int row = batch.size++;
 
-                for (String fieldName : schemaFields) {
-                    SchemaInfo   schemaInfo   = getFieldValue(event, fieldName);
-                    ColumnVector columnVector = vectorizedRowBatchMap.get(fieldName);
+                // copy the fields of the event directly into the column vectors
+                for (int i = 0; i < columnFields.length; i++) {
+                    ColumnVector columnVector = columnVectors[i];
 
                     if (columnVector instanceof LongColumnVector) {
-                        ((LongColumnVector) columnVector).vector[row] = castLongObject(schemaInfo.getValue());
+                        ((LongColumnVector) columnVector).vector[row] = castLongObject(columnFields[i].get(event));
                     } else if (columnVector instanceof BytesColumnVector) {
-                        ((BytesColumnVector) columnVector).setVal(row, getBytesValues(castStringObject(schemaInfo.getValue())));
+                        ((BytesColumnVector) columnVector).setVal(row, getBytesValues(castStringObject(columnFields[i].get(event))));
                     }
                 }
 
@@ -216,9 +221,11 @@ protected byte[] getBytesValues(String val) {
     }
 
     protected String getDateString(Date date) {
-        Format formatter = new SimpleDateFormat(dateFormat);
+        if (dateFormatter == null) {
+            dateFormatter = new SimpleDateFormat(dateFormat);
+        }
 
-        return formatter.format(date);
+        return dateFormatter.format(date);
     }
 
     protected void initORCAuditSchema() throws Exception {
@@ -232,6 +239,7 @@ protected void initORCAuditSchema() throws Exception {
         batch  = schema.createRowBatch(orcBufferSize);
 
         buildVectorRowBatch(schemaFieldTypeMap);
+        initColumns();
 
         logger.debug("<== ORCWriter.initORCAuditSchema()");
     }
@@ -273,6 +281,20 @@ protected void buildVectorRowBatch(Map<String, String> schemaFieldTypeMap) throw
         }
     }
 
+    protected void initColumns() throws Exception {
+        columnFields  = new Field[schemaFields.size()];
+        columnVectors = new ColumnVector[schemaFields.size()];
+
+        for (int i = 0; i < schemaFields.size(); i++) {
+            String fieldName = schemaFields.get(i);
+
+            columnFields[i]  = AuthzAuditEvent.class.getDeclaredField(fieldName);
+            columnVectors[i] = vectorizedRowBatchMap.get(fieldName);
+
+            columnFields[i].setAccessible(true);
+        }
+    }
+
     protected SchemaInfo getFieldValue(AuthzAuditEvent event, String fieldName) {
         SchemaInfo ret = new SchemaInfo();
 
@@ -20,6 +20,7 @@
 package org.apache.ranger.audit.utils;
 
 import org.apache.orc.Writer;
+import org.apache.ranger.audit.model.AuditEventBase;
 import org.apache.ranger.audit.model.AuthzAuditEvent;
 import org.apache.ranger.audit.provider.MiscUtil;
 import org.slf4j.Logger;
@@ -117,6 +118,21 @@ public boolean log(Collection<String> events) throws Exception {
         return logAsORC(events);
     }
 
+    @Override
+    public boolean logEvents(Collection<AuditEventBase> events) throws Exception {
+        Collection<AuthzAuditEvent> authzAuditEvents = new ArrayList<>(events.size());
+
+        for (AuditEventBase event : events) {
+            if (event instanceof AuthzAuditEvent) {
+                authzAuditEvents.add((AuthzAuditEvent) event);
+            } else {
+                authzAuditEvents.add(MiscUtil.fromJson(MiscUtil.stringify(event), AuthzAuditEvent.class));
+            }
+        }
+
+        return logAuditAsORC(authzAuditEvents);
+    }
+
     @Override
     public boolean logFile(File file) throws Exception {
         return false;
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.audit.destination;
+
+import org.apache.ranger.audit.model.AuditEventBase;
+import org.apache.ranger.audit.model.AuthzAuditEvent;
+import org.apache.ranger.audit.queue.AuditFileSpool;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestAuditBulkPipeline {
+    private static final String PROP_PREFIX = "xasecure.audit.destination.test";
+
+    @Test
+    public void testOnlyRejectedDocsAreSentAgain() {
+        Log4JAuditDestination handler = new Log4JAuditDestination();
+        List<List<String>>    requests = Collections.synchronizedList(new ArrayList<>());
+
+        AuditBulkPipeline<String> pipeline = new AuditBulkPipeline<>(handler, getProps(2, 10, 1000), PROP_PREFIX, (docs, result) -> {
+            requests.add(new ArrayList<>(docs));
+
+            for (int i = 0; i < docs.size(); i++) {
+                if (docs.get(i).equals("doc-5")) {
+                    result.reject(i, "mapping error", false);
+                } else if (requests.size() == 1 && (docs.get(i).equals("doc-3") || docs.get(i).equals("doc-7"))) {
+                    result.reject(i, "too many requests", true);
+                }
+            }
+        }, String::length);
+
+        pipeline.submit(createEvents(10), createDocs(10));
+        pipeline.flush();
+        pipeline.stop();
+
+        assertEquals(2, requests.size());
+        assertEquals(10, requests.get(0).size());
+        assertEquals(Arrays.asList("doc-3", "doc-7"), requests.get(1));
+        assertEquals(9, handler.getTotalSuccessCount());
+        assertEquals(1, handler.getTotalFailedCount());
+        assertEquals(3, pipeline.getRejectedCount());
+        assertEquals(2, pipeline.getRetriedCount());
+    }
+
+    @Test
+    public void testDocsNotIndexedAfterRetriesAreSpooled() {
+        Log4JAuditDestination handler      = new Log4JAuditDestination();
+        AuditFileSpool        fileSpooler  = Mockito.mock(AuditFileSpool.class);
+        AtomicInteger         requestCount = new AtomicInteger();
+        List<AuditEventBase>  events       = createEvents(10);
+
+        handler.setFileSpooler(fileSpooler);
+
+        AuditBulkPipeline<String> pipeline = new AuditBulkPipeline<>(handler, getProps(2, 5, 1000), PROP_PREFIX, (docs, result) -> {
+            requestCount.incrementAndGet();
+
+            for (int i = 0; i < docs.size(); i++) {
+                if (docs.get(i).equals("doc-3")) {
+                    result.reject(i, "too many requests", true);
+                }
+            }
+        }, String::length);
+
+        pipeline.submit(events, createDocs(10));
+        pipeline.flush();
+
+        assertEquals(2 + 3, requestCount.get()); // 2 batches, and 3 retries of doc-3
+        assertEquals(9, handler.getTotalSuccessCount());
+        assertEquals(0, handler.getTotalFailedCount());
+        assertEquals(1, handler.getTotalStashedCount());
+        Mockito.verify(fileSpooler).stashLogs(Collections.singletonList(events.get(3))); // only the document not indexed
+
+        pipeline.stop();
+
+        pipeline.submit(createEvents(2), createDocs(2)); // stopped pipeline doesn't drop documents
+
+        assertEquals(3, handler.getTotalStashedCount());
+    }
+
+    @Test
+    public void testDocsNotIndexedAfterRetriesWithoutFileSpool() {
+        Log4JAuditDestination handler = new Log4JAuditDestination();
+
+        AuditBulkPipeline<String> pipeline = new AuditBulkPipeline<>(handler, getProps(2, 5, 1000), PROP_PREFIX, (docs, result) -> result.rejectAll("service unavailable", true), String::length);
+
+        pipeline.submit(createEvents(10), createDocs(10));
+        pipeline.flush();
+        pipeline.stop();
+
+        assertEquals(0, handler.getTotalSuccessCount());
+        assertEquals(10, handler.getTotalFailedCount());
+    }
+
+    @Test
+    public void testInFlightRequestsAreBounded() {
+        Log4JAuditDestination handler     = new Log4JAuditDestination();
+        AtomicInteger         inFlight    = new AtomicInteger();
+        AtomicInteger         maxInFlight = new AtomicInteger();
+
+        AuditBulkPipeline<String> pipeline = new AuditBulkPipeline<>(handler, getProps(2, 1, 1000), PROP_PREFIX, (docs, result) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            Thread.sleep(20);
+
+            inFlight.decrementAndGet();
+        }, String::length);
+
+        pipeline.submit(createEvents(10), createDocs(10));
+        pipeline.flush();
+
+        assertEquals(0, pipeline.getInFlightBatches());
+        assertEquals(10, pipeline.getBulkCount());
+        assertEquals(10, handler.getTotalSuccessCount());
+        assertTrue("maxInFlight=" + maxInFlight.get(), maxInFlight.get() <= 2);
+
+        pipeline.stop();
+    }
+
+    @Test
+    public void testBatchSizeFollowsLatency() {
+        Log4JAuditDestination handler = new Log4JAuditDestination();
+        AtomicInteger         delayMs = new AtomicInteger(100);
+
+        AuditBulkPipeline<String> pipeline = new AuditBulkPipeline<>(handler, getProps(1, 100, 50), PROP_PREFIX, (docs, result) -> Thread.sleep(delayMs.get()), String::length);
+
+        pipeline.submit(createEvents(100), createDocs(100));
+        pipeline.flush();
+
+        assertEquals(50, pipeline.getBatchDocs()); // slower than target latency: halved
+
+        delayMs.set(0);
+
+        pipeline.submit(createEvents(50), createDocs(50));
+        pipeline.flush();
+
+        assertEquals(62, pipeline.getBatchDocs()); // full batch well within target latency: increased by 1/4
+
+        pipeline.stop();
+    }
+
+    private static Properties getProps(int maxInFlight, int maxDocs, long targetLatencyMs) {
+        Properties props = new Properties();
+
+        props.setProperty(PROP_PREFIX + "." + AuditBulkPipeline.PROP_BULK_MAX_INFLIGHT, String.valueOf(maxInFlight));
+        props.setProperty(PROP_PREFIX + "." + AuditBulkPipeline.PROP_BULK_MAX_DOCS, String.valueOf(maxDocs));
+        props.setProperty(PROP_PREFIX + "." + AuditBulkPipeline.PROP_BULK_MIN_DOCS, "1");
+        props.setProperty(PROP_PREFIX + "." + AuditBulkPipeline.PROP_BULK_TARGET_LATENCY_MS, String.valueOf(targetLatencyMs));
+        props.setProperty(PROP_PREFIX + "." + AuditBulkPipeline.PROP_BULK_RETRY_BACKOFF_MS, "1");
+
+        return props;
+    }
+
+    private static List<AuditEventBase> createEvents(int count) {
+        List<AuditEventBase> ret = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            ret.add(new AuthzAuditEvent());
+        }
+
+        return ret;
+    }
+
+    private static List<String> createDocs(int count) {
+        List<String> ret = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            ret.add("doc-" + i);
+        }
+
+        return ret;
+    }
+}
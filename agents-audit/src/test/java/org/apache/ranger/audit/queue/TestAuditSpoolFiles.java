@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.audit.queue;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestAuditSpoolFiles {
+    @Test
+    public void testBinaryFormatReadAndSkip() throws IOException {
+        File file = createTempFile();
+
+        writeRecords(file, AuditSpoolFiles.FORMAT_BINARY, 1, 5000);
+
+        assertTrue(AuditBinarySpoolReader.isBinarySpoolFile(file));
+        assertEquals(5000, readRecords(file, 0).size());
+
+        try (AuditSpoolReader reader = AuditSpoolFiles.openReader(file)) {
+            assertEquals(2999, reader.skip(2999));
+            assertEquals(record(3000), reader.next());
+            assertEquals(3000, reader.getPosition());
+        }
+    }
+
+    @Test
+    public void testJsonFormatReadAndSkip() throws IOException {
+        File file = createTempFile();
+
+        writeRecords(file, AuditSpoolFiles.FORMAT_JSON, 1, 10);
+
+        List<String> records = readRecords(file, 4);
+
+        assertEquals(6, records.size());
+        assertEquals(record(5), records.get(0));
+    }
+
+    @Test
+    public void testBinaryAppendAfterIncompleteBlock() throws IOException {
+        File file = createTempFile();
+
+        writeRecords(file, AuditSpoolFiles.FORMAT_BINARY, 1, 100);
+
+        // simulate a block header that was partially written when the process died
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 5, 0, 0}));
+        }
+
+        // format of an existing file is retained on append, irrespective of the given format
+        writeRecords(file, AuditSpoolFiles.FORMAT_JSON, 101, 110);
+
+        List<String> records = readRecords(file, 0);
+
+        assertEquals(110, records.size());
+        assertEquals(record(110), records.get(109));
+    }
+
+    @Test
+    public void testBinaryCorruptBlockIsSkipped() throws IOException {
+        File file = createTempFile();
+
+        try (AuditSpoolWriter writer = AuditSpoolFiles.openWriter(file, AuditSpoolFiles.FORMAT_BINARY, false)) {
+            for (int i = 1; i <= 30; i++) {
+                writer.write(record(i));
+
+                if (i % 10 == 0) {
+                    writer.flush(); // one block per 10 records
+                }
+            }
+        }
+
+        // flip a byte in the content of the first block
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(AuditBinarySpoolWriter.FILE_HEADER_SIZE + AuditBinarySpoolWriter.BLOCK_HEADER_SIZE + 2);
+            raf.write(raf.read() ^ 0xff);
+        }
+
+        try (AuditSpoolReader reader = AuditSpoolFiles.openReader(file)) {
+            assertEquals(record(11), reader.next());
+            assertEquals(11, reader.getPosition());
+            assertEquals(9, reader.skip(9));
+            assertEquals(record(21), reader.next());
+            assertEquals(9, reader.skip(100));
+            assertNull(reader.next());
+            assertEquals(30, reader.getPosition());
+        }
+    }
+
+    private static File createTempFile() throws IOException {
+        File ret = Files.createTempFile("audit_spool_", ".log").toFile();
+
+        ret.deleteOnExit();
+
+        return ret;
+    }
+
+    private static String record(int seq) {
+        return "{\"seqNum\":" + seq + ",\"resource\":\"/data/path/" + (seq % 17) + "\",\"access\":\"read\"}";
+    }
+
+    private static void writeRecords(File file, String format, int fromSeq, int toSeq) throws IOException {
+        try (AuditSpoolWriter writer = AuditSpoolFiles.openWriter(file, format, file.length() > 0)) {
+            for (int i = fromSeq; i <= toSeq; i++) {
+                writer.write(record(i));
+            }
+        }
+    }
+
+    private static List<String> readRecords(File file, int skipCount) throws IOException {
+        List<String> ret = new ArrayList<>();
+
+        try (AuditSpoolReader reader = AuditSpoolFiles.openReader(file)) {
+            reader.skip(skipCount);
+
+            for (String record = reader.next(); record != null; record = reader.next()) {
+                ret.add(record);
+            }
+        }
+
+        return ret;
+    }
+}
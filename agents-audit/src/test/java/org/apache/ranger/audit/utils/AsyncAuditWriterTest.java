@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.audit.utils;
+
+import org.apache.ranger.audit.model.AuditEventBase;
+import org.apache.ranger.audit.model.AuthzAuditEvent;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncAuditWriterTest {
+    @Test
+    public void checkEventsWrittenInOrderOnStop() {
+        TestWriter       writer      = new TestWriter(null);
+        AsyncAuditWriter asyncWriter = createAsyncWriter(writer, 1000);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(asyncWriter.logEvents(createEvents(i * 10, 10)));
+        }
+
+        asyncWriter.stop();
+
+        assertEquals(500, writer.events.size());
+        assertTrue(writer.isStopped);
+        assertTrue(writer.flushCount > 0);
+        assertEquals(500, asyncWriter.getWrittenCount());
+        assertEquals(0, asyncWriter.getBufferedCount());
+
+        for (int i = 0; i < writer.events.size(); i++) {
+            assertEquals(String.valueOf(i), ((AuthzAuditEvent) writer.events.get(i)).getEventId());
+        }
+    }
+
+    @Test
+    public void checkEventsRejectedWhenBufferIsFull() throws Exception {
+        CountDownLatch   writeLatch  = new CountDownLatch(1);
+        TestWriter       writer      = new TestWriter(writeLatch);
+        AsyncAuditWriter asyncWriter = createAsyncWriter(writer, 10);
+
+        assertTrue(asyncWriter.logEvents(createEvents(0, 10)));
+
+        writer.writeStarted.await(); // writer thread is now blocked in writing the first 10 events
+
+        assertTrue(asyncWriter.logEvents(createEvents(10, 6)));
+        assertFalse(asyncWriter.logEvents(createEvents(16, 6))); // would exceed bufferSize
+        assertTrue(asyncWriter.logEvents(createEvents(16, 4)));
+
+        writeLatch.countDown();
+        asyncWriter.stop();
+
+        assertEquals(20, writer.events.size());
+    }
+
+    private static AsyncAuditWriter createAsyncWriter(TestWriter writer, int bufferSize) {
+        AsyncAuditWriter ret   = new AsyncAuditWriter(writer);
+        Properties       props = new Properties();
+
+        props.setProperty("test." + AsyncAuditWriter.PROP_ASYNC_BUFFER_SIZE, String.valueOf(bufferSize));
+        props.setProperty("test." + AsyncAuditWriter.PROP_ASYNC_FLUSH_INTERVAL_MS, "10");
+
+        ret.init(props, "test", "test", Collections.emptyMap());
+        ret.start();
+
+        return ret;
+    }
+
+    private static List<AuditEventBase> createEvents(int startId, int count) {
+        List<AuditEventBase> ret = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            AuthzAuditEvent event = new AuthzAuditEvent();
+
+            event.setEventId(String.valueOf(startId + i));
+
+            ret.add(event);
+        }
+
+        return ret;
+    }
+
+    private static class TestWriter implements RangerAuditWriter {
+        final List<AuditEventBase> events       = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch       writeStarted = new CountDownLatch(1);
+        final CountDownLatch       writeLatch;
+        volatile int               flushCount;
+        volatile boolean           isStopped;
+
+        TestWriter(CountDownLatch writeLatch) {
+            this.writeLatch = writeLatch;
+        }
+
+        @Override
+        public void init(Properties prop, String propPrefix, String auditProviderName, Map<String, String> auditConfigs) {
+        }
+
+        @Override
+        public boolean log(Collection<String> events) {
+            return false;
+        }
+
+        @Override
+        public boolean logEvents(Collection<AuditEventBase> events) throws Exception {
+            writeStarted.countDown();
+
+            if (writeLatch != null) {
+                writeLatch.await();
+            }
+
+            this.events.addAll(events);
+
+            return true;
+        }
+
+        @Override
+        public boolean logFile(File file) {
+            return false;
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void flush() {
+            flushCount++;
+        }
+
+        @Override
+        public void stop() {
+            isStopped = true;
+        }
+    }
+}
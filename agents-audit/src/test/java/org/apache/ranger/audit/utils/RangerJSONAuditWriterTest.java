@@ -30,6 +30,7 @@
 import java.util.Properties;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -120,4 +121,27 @@ public void checkFileRolloverAfterThreshold() throws Exception {
         jsonAuditWriter.fileSystem.deleteOnExit(jsonAuditWriter.auditPath); // cleanup
         jsonAuditWriter.closeWriter();
     }
+
+    @Test
+    public void checkFileRolloverAfterSizeThreshold() throws Exception {
+        RangerJSONAuditWriter jsonAuditWriter = new RangerJSONAuditWriter();
+
+        setup();
+
+        props.setProperty("test.file.rollover.size", "10");
+
+        jsonAuditWriter.init(props, "test", "localfs", auditConfigs);
+
+        assertTrue(jsonAuditWriter.logJSON(Collections.singleton("First file created and added this line!")));
+
+        String firstFileName = jsonAuditWriter.currentFileName;
+
+        jsonAuditWriter.fileSystem.deleteOnExit(jsonAuditWriter.auditPath); // cleanup
+
+        assertTrue(jsonAuditWriter.logJSON(Collections.singleton("Second file created since first file reached rollover size!")));
+        assertNotEquals(firstFileName, jsonAuditWriter.currentFileName);
+
+        jsonAuditWriter.fileSystem.deleteOnExit(jsonAuditWriter.auditPath); // cleanup
+        jsonAuditWriter.closeWriter();
+    }
 }
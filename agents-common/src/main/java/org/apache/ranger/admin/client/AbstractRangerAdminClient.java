@@ -35,6 +35,7 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 
 public abstract class AbstractRangerAdminClient implements RangerAdminClient {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractRangerAdminClient.class);
@@ -127,6 +128,11 @@ public ServiceGdsInfo getGdsInfoIfUpdated(long lastKnownVersion, long lastActiva
         return null;
     }
 
+    @Override
+    public Map<String, Long> waitForChanges(Map<String, Long> lastKnownVersions, long timeoutMs) throws Exception {
+        return null;
+    }
+
     public boolean isKerberosEnabled(UserGroupInformation user) {
         final boolean ret;
 
@@ -30,6 +30,7 @@
 import org.apache.ranger.plugin.util.ServiceTags;
 
 import java.util.List;
+import java.util.Map;
 
 public interface RangerAdminClient {
     void init(String serviceName, String appId, String configPropertyPrefix, Configuration config);
@@ -63,4 +64,12 @@ public interface RangerAdminClient {
     RangerUserStore getUserStoreIfUpdated(long lastKnownUserStoreVersion, long lastActivationTimeInMillis) throws Exception;
 
     ServiceGdsInfo getGdsInfoIfUpdated(long lastKnownVersion, long lastActivationTimeInMillis) throws Exception;
+
+    /**
+     * Waits until any of the given versions (keyed by change-type, like policies/tags/roles/userstore) changes in
+     * Ranger Admin, or the timeout expires.
+     *
+     * @return the latest versions; null if change notification is not supported
+     */
+    Map<String, Long> waitForChanges(Map<String, Long> lastKnownVersions, long timeoutMs) throws Exception;
 }
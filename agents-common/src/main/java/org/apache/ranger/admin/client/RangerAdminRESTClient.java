@@ -60,7 +60,8 @@
 public class RangerAdminRESTClient extends AbstractRangerAdminClient {
     private static final Logger LOG = LoggerFactory.getLogger(RangerAdminRESTClient.class);
 
-    private static final TypeReference<List<String>> TYPE_LIST_STRING = new TypeReference<List<String>>() {};
+    private static final TypeReference<List<String>>      TYPE_LIST_STRING  = new TypeReference<List<String>>() {};
+    private static final TypeReference<Map<String, Long>> TYPE_MAP_STR_LONG = new TypeReference<Map<String, Long>>() {};
 
     private final String           pluginCapabilities = Long.toHexString(new RangerPluginCapability().getPluginCapabilities());
     private final RangerRESTUtils  restUtils          = new RangerRESTUtils();
@@ -71,6 +72,7 @@ public class RangerAdminRESTClient extends AbstractRangerAdminClient {
     private       RangerRESTClient restClient;
     private       boolean          supportsPolicyDeltas;
     private       boolean          supportsTagDeltas;
+    private       boolean          supportsUserStoreDeltas;
     private       boolean          isRangerCookieEnabled;
     private       String           rangerAdminCookieName;
     private       Cookie           sessionId;
@@ -104,9 +106,10 @@ public void init(String serviceName, String appId, String propertyPrefix, Config
         int restClientRetryIntervalMs  = config.getInt(propertyPrefix + ".policy.rest.client.retry.interval.ms", 1 * 1000);
 
         supportsPolicyDeltas  = config.getBoolean(propertyPrefix + RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_POLICY_DELTA, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_POLICY_DELTA_DEFAULT);
-        supportsTagDeltas     = config.getBoolean(propertyPrefix + RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_TAG_DELTA, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_TAG_DELTA_DEFAULT);
-        isRangerCookieEnabled = config.getBoolean(propertyPrefix + ".policy.rest.client.cookie.enabled", RangerCommonConstants.POLICY_REST_CLIENT_SESSION_COOKIE_ENABLED);
-        rangerAdminCookieName = config.get(propertyPrefix + ".policy.rest.client.session.cookie.name", RangerCommonConstants.DEFAULT_COOKIE_NAME);
+        supportsTagDeltas       = config.getBoolean(propertyPrefix + RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_TAG_DELTA, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_TAG_DELTA_DEFAULT);
+        supportsUserStoreDeltas = config.getBoolean(propertyPrefix + RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_USERSTORE_DELTA, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_USERSTORE_DELTA_DEFAULT);
+        isRangerCookieEnabled   = config.getBoolean(propertyPrefix + ".policy.rest.client.cookie.enabled", RangerCommonConstants.POLICY_REST_CLIENT_SESSION_COOKIE_ENABLED);
+        rangerAdminCookieName   = config.get(propertyPrefix + ".policy.rest.client.session.cookie.name", RangerCommonConstants.DEFAULT_COOKIE_NAME);
 
         if (!StringUtil.isEmpty(tmpUrl)) {
             url = tmpUrl.trim();
@@ -181,7 +184,7 @@ public ServicePolicies getServicePoliciesIfUpdated(final long lastKnownVersion,
 
             ret = null;
         } else if (response.getStatus() == HttpServletResponse.SC_OK) {
-            ret = JsonUtilsV2.readResponse(response, ServicePolicies.class);
+            ret = JsonUtilsV2.readResponseStream(response, ServicePolicies.class);
         } else if (response.getStatus() == HttpServletResponse.SC_NOT_FOUND) {
             ret = null;
 
@@ -260,7 +263,7 @@ public RangerRoles getRolesIfUpdated(final long lastKnownRoleVersion, final long
 
             ret = null;
         } else if (response.getStatus() == HttpServletResponse.SC_OK) {
-            ret = JsonUtilsV2.readResponse(response, RangerRoles.class);
+            ret = JsonUtilsV2.readResponseStream(response, RangerRoles.class);
         } else if (response.getStatus() == HttpServletResponse.SC_NOT_FOUND) {
             ret = null;
 
@@ -804,7 +807,7 @@ public ServiceTags getServiceTagsIfUpdated(final long lastKnownVersion, final lo
 
             ret = null;
         } else if (response.getStatus() == HttpServletResponse.SC_OK) {
-            ret = JsonUtilsV2.readResponse(response, ServiceTags.class);
+            ret = JsonUtilsV2.readResponseStream(response, ServiceTags.class);
         } else if (response.getStatus() == HttpServletResponse.SC_NOT_FOUND) {
             ret = null;
 
@@ -893,6 +896,7 @@ public RangerUserStore getUserStoreIfUpdated(long lastKnownUserStoreVersion, lon
         queryParams.put(RangerRESTUtils.REST_PARAM_PLUGIN_ID, pluginId);
         queryParams.put(RangerRESTUtils.REST_PARAM_CLUSTER_NAME, clusterName);
         queryParams.put(RangerRESTUtils.REST_PARAM_CAPABILITIES, pluginCapabilities);
+        queryParams.put(RangerRESTUtils.REST_PARAM_SUPPORTS_USERSTORE_DELTAS, Boolean.toString(supportsUserStoreDeltas));
 
         final ClientResponse response;
 
@@ -934,7 +938,7 @@ public RangerUserStore getUserStoreIfUpdated(long lastKnownUserStoreVersion, lon
 
             ret = null;
         } else if (response.getStatus() == HttpServletResponse.SC_OK) {
-            ret = JsonUtilsV2.readResponse(response, RangerUserStore.class);
+            ret = JsonUtilsV2.readResponseStream(response, RangerUserStore.class);
         } else if (response.getStatus() == HttpServletResponse.SC_NOT_FOUND) {
             ret = null;
 
@@ -1012,7 +1016,7 @@ public ServiceGdsInfo getGdsInfoIfUpdated(long lastKnownVersion, long lastActiva
             LOG.debug("No change in GdsInfo: secureMode={}, user={}, response={}, serviceName={}, lastKnownGdsVersion={}, lastActivationTimeInMillis={}",
                     isSecureMode, user, resp, serviceName, lastKnownVersion, lastActivationTimeInMillis);
         } else if (response.getStatus() == HttpServletResponse.SC_OK) {
-            ret = JsonUtilsV2.readResponse(response, ServiceGdsInfo.class);
+            ret = JsonUtilsV2.readResponseStream(response, ServiceGdsInfo.class);
         } else if (response.getStatus() == HttpServletResponse.SC_NOT_FOUND) {
             ret = null;
 
@@ -1038,6 +1042,67 @@ public ServiceGdsInfo getGdsInfoIfUpdated(long lastKnownVersion, long lastActiva
         return ret;
     }
 
+    @Override
+    public Map<String, Long> waitForChanges(Map<String, Long> lastKnownVersions, long timeoutMs) throws Exception {
+        LOG.debug("==> RangerAdminRESTClient.waitForChanges({}, {})", lastKnownVersions, timeoutMs);
+
+        final UserGroupInformation user          = MiscUtil.getUGILoginUser();
+        final boolean              isSecureMode  = isKerberosEnabled(user);
+        final Cookie               sessionId     = this.sessionId;
+        final Map<String, String>  queryParams   = new HashMap<>();
+        final int                  readTimeoutMs = (int) timeoutMs + restClient.getRestClientReadTimeOutMs(); // allow the server to hold the request for timeoutMs
+
+        for (Map.Entry<String, Long> entry : lastKnownVersions.entrySet()) {
+            queryParams.put(entry.getKey(), Long.toString(entry.getValue()));
+        }
+
+        queryParams.put(RangerRESTUtils.REST_PARAM_WAIT_TIMEOUT_MS, Long.toString(timeoutMs));
+        queryParams.put(RangerRESTUtils.REST_PARAM_PLUGIN_ID, pluginId);
+
+        final ClientResponse response;
+
+        if (isSecureMode) {
+            response = MiscUtil.executePrivilegedAction((PrivilegedExceptionAction<ClientResponse>) () -> {
+                try {
+                    String relativeURL = RangerRESTUtils.REST_URL_PLUGIN_SECURE_WAIT_FOR_CHANGES + serviceNameUrlParam;
+
+                    return restClient.get(relativeURL, queryParams, sessionId, readTimeoutMs);
+                } catch (Exception e) {
+                    LOG.error("Failed to get response, Error is : {}", e.getMessage());
+                }
+
+                return null;
+            });
+        } else {
+            String relativeURL = RangerRESTUtils.REST_URL_PLUGIN_WAIT_FOR_CHANGES + serviceNameUrlParam;
+
+            response = restClient.get(relativeURL, queryParams, sessionId, readTimeoutMs);
+        }
+
+        checkAndResetSessionCookie(response);
+
+        final Map<String, Long> ret;
+
+        if (response == null) {
+            LOG.error("Error waiting for changes; Received NULL response!!. secureMode={}, user={}, serviceName={}", isSecureMode, user, serviceName);
+
+            ret = null;
+        } else if (response.getStatus() == HttpServletResponse.SC_OK) {
+            ret = JsonUtilsV2.readResponse(response, TYPE_MAP_STR_LONG);
+        } else {
+            // older Ranger Admin (404), or too many plugins waiting for changes (503): continue with periodic downloads
+            RESTResponse resp = RESTResponse.fromClientResponse(response);
+
+            LOG.debug("Change notification not available. secureMode={}, user={}, response={}, serviceName={}", isSecureMode, user, resp, serviceName);
+
+            ret = null;
+        }
+
+        LOG.debug("<== RangerAdminRESTClient.waitForChanges({}, {}): ret={}", lastKnownVersions, timeoutMs, ret);
+
+        return ret;
+    }
+
     private void init(String url, String sslConfigFileName, int restClientConnTimeOutMs, int restClientReadTimeOutMs, int restClientMaxRetryAttempts, int restClientRetryIntervalMs, Configuration config) {
         LOG.debug("==> RangerAdminRESTClient.init({}, {})", url, sslConfigFileName);
 
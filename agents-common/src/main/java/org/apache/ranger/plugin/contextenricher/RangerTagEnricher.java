@@ -23,7 +23,6 @@
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
-import org.apache.ranger.authorization.utils.JsonUtils;
 import org.apache.ranger.plugin.model.RangerPolicy;
 import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
 import org.apache.ranger.plugin.model.RangerServiceDef.RangerResourceDef;
@@ -44,6 +43,8 @@
 import org.apache.ranger.plugin.util.DownloadTrigger;
 import org.apache.ranger.plugin.util.DownloaderTask;
 import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.apache.ranger.plugin.util.RangerCacheFileUtil;
+import org.apache.ranger.plugin.util.RangerChangeWatcher;
 import org.apache.ranger.plugin.util.RangerCommonConstants;
 import org.apache.ranger.plugin.util.RangerPerfTracer;
 import org.apache.ranger.plugin.util.RangerReadWriteLock;
@@ -54,10 +55,6 @@
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.Reader;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -92,6 +89,7 @@ public class RangerTagEnricher extends RangerAbstractContextEnricher {
     private       boolean                        disableCacheIfServiceNotFound = true;
     private       boolean                        dedupStrings                  = true;
     private       Timer                          tagDownloadTimer;
+    private       RangerChangeWatcher            changeWatcher;
     private       RangerServiceDefHelper         serviceDefHelper;
 
     public static RangerServiceResourceMatcher createRangerServiceResourceMatcher(RangerServiceResource serviceResource, RangerServiceDefHelper serviceDefHelper, ResourceHierarchies hierarchies, RangerPluginContext pluginContext) {
@@ -204,10 +202,18 @@ public void init() {
                 tagRefresher.setDaemon(true);
                 tagRefresher.startRefresher();
 
+                final RangerChangeWatcher watcher = tagRetriever instanceof RangerAdminTagRetriever ? getPluginContext().getChangeWatcher() : null;
+
+                if (watcher != null) {
+                    watcher.subscribe(RangerChangeWatcher.CHANGE_TYPE_TAGS, tagRefresher::getLastKnownVersion, tagDownloadQueue);
+
+                    changeWatcher = watcher;
+                }
+
                 tagDownloadTimer = new Timer("policyDownloadTimer", true);
 
                 try {
-                    tagDownloadTimer.schedule(new DownloaderTask(tagDownloadQueue), pollingIntervalMs, pollingIntervalMs);
+                    tagDownloadTimer.schedule(new DownloaderTask(tagDownloadQueue, () -> watcher != null && watcher.isWatching(tagDownloadQueue)), pollingIntervalMs, pollingIntervalMs);
 
                     LOG.debug("Scheduled tagDownloadRefresher to download tags every {} milliseconds", pollingIntervalMs);
                 } catch (IllegalStateException exception) {
@@ -278,6 +284,14 @@ public boolean preCleanup() {
             tagDownloadTimer.cancel();
         }
 
+        RangerChangeWatcher changeWatcher = this.changeWatcher;
+
+        this.changeWatcher = null;
+
+        if (changeWatcher != null) {
+            changeWatcher.unsubscribe(tagDownloadQueue);
+        }
+
         RangerTagRefresher tagRefresher = this.tagRefresher;
 
         this.tagRefresher = null;
@@ -842,7 +856,7 @@ static class RangerTagRefresher extends Thread {
         private final RangerTagEnricher              tagEnricher;
         private final BlockingQueue<DownloadTrigger> tagDownloadQueue;
         private final String                         cacheFile;
-        private       long                           lastKnownVersion;
+        private volatile long                        lastKnownVersion;
         private       long                           lastActivationTimeInMillis;
         private       boolean                        hasProvidedTagsToReceiver;
 
@@ -856,6 +870,10 @@ static class RangerTagRefresher extends Thread {
             setName("RangerTagRefresher(serviceName=" + tagRetriever.getServiceName() + ")-" + getId());
         }
 
+        public long getLastKnownVersion() {
+            return lastKnownVersion;
+        }
+
         public long getLastActivationTimeInMillis() {
             return lastActivationTimeInMillis;
         }
@@ -920,12 +938,8 @@ final ServiceTags loadFromCache() {
             File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
 
             if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
-                Reader reader = null;
-
                 try {
-                    reader = new FileReader(cacheFile);
-
-                    serviceTags = JsonUtils.jsonToObject(reader, ServiceTags.class);
+                    serviceTags = RangerCacheFileUtil.readFromFile(cacheFile, ServiceTags.class);
 
                     if (serviceTags != null && !StringUtils.equals(tagEnricher.getServiceName(), serviceTags.getServiceName())) {
                         LOG.warn("ignoring unexpected serviceName '{}' in cache file '{}'", serviceTags.getServiceName(), cacheFile.getAbsolutePath());
@@ -934,14 +948,6 @@ final ServiceTags loadFromCache() {
                     }
                 } catch (Exception excp) {
                     LOG.error("failed to load service-tags from cache file {}", cacheFile.getAbsolutePath(), excp);
-                } finally {
-                    if (reader != null) {
-                        try {
-                            reader.close();
-                        } catch (Exception excp) {
-                            LOG.error("error while closing opened cache file {}", cacheFile.getAbsolutePath(), excp);
-                        }
-                    }
                 }
             } else {
                 LOG.warn("cache file does not exist or not readable '{}'", (cacheFile == null ? null : cacheFile.getAbsolutePath()));
@@ -959,22 +965,10 @@ final void saveToCache(ServiceTags serviceTags) {
                 File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
 
                 if (cacheFile != null) {
-                    Writer writer = null;
-
                     try {
-                        writer = new FileWriter(cacheFile);
-
-                        JsonUtils.objectToWriter(writer, serviceTags);
+                        RangerCacheFileUtil.writeToFile(cacheFile, serviceTags);
                     } catch (Exception excp) {
                         LOG.error("failed to save service-tags to cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                    } finally {
-                        if (writer != null) {
-                            try {
-                                writer.close();
-                            } catch (Exception excp) {
-                                LOG.error("error while closing opened cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                            }
-                        }
                     }
                 }
             } else {
@@ -25,8 +25,10 @@
 import org.apache.ranger.plugin.util.DownloadTrigger;
 import org.apache.ranger.plugin.util.DownloaderTask;
 import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.apache.ranger.plugin.util.RangerChangeWatcher;
 import org.apache.ranger.plugin.util.RangerPerfTracer;
 import org.apache.ranger.plugin.util.RangerUserStore;
+import org.apache.ranger.plugin.util.RangerUserStoreDeltaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +51,7 @@ public class RangerUserStoreEnricher extends RangerAbstractContextEnricher {
     private       boolean                        disableCacheIfServiceNotFound = true;
     private       boolean                        dedupStrings                  = true;
     private       Timer                          userStoreDownloadTimer;
+    private       RangerChangeWatcher            changeWatcher;
 
     @Override
     public void init() {
@@ -109,10 +112,18 @@ public void init() {
                 userStoreRefresher.setDaemon(true);
                 userStoreRefresher.startRefresher();
 
+                final RangerChangeWatcher watcher = userStoreRetriever instanceof RangerAdminUserStoreRetriever ? getPluginContext().getChangeWatcher() : null;
+
+                if (watcher != null) {
+                    watcher.subscribe(RangerChangeWatcher.CHANGE_TYPE_USERSTORE, userStoreRefresher::getLastKnownVersion, userStoreDownloadQueue);
+
+                    changeWatcher = watcher;
+                }
+
                 userStoreDownloadTimer = new Timer("userStoreDownloadTimer", true);
 
                 try {
-                    userStoreDownloadTimer.schedule(new DownloaderTask(userStoreDownloadQueue), pollingIntervalMs, pollingIntervalMs);
+                    userStoreDownloadTimer.schedule(new DownloaderTask(userStoreDownloadQueue, () -> watcher != null && watcher.isWatching(userStoreDownloadQueue)), pollingIntervalMs, pollingIntervalMs);
 
                     LOG.debug("Scheduled userStoreDownloadRefresher to download userstore every {} milliseconds", pollingIntervalMs);
                 } catch (IllegalStateException exception) {
@@ -161,6 +172,11 @@ public boolean preCleanup() {
             userStoreDownloadTimer = null;
         }
 
+        if (changeWatcher != null) {
+            changeWatcher.unsubscribe(userStoreDownloadQueue);
+            changeWatcher = null;
+        }
+
         if (userStoreRefresher != null) {
             userStoreRefresher.cleanup();
             userStoreRefresher = null;
@@ -206,7 +222,12 @@ public void setRangerUserStore(final RangerUserStore rangerUserStore) {
                 rangerUserStore.dedupStrings();
             }
 
-            this.rangerUserStore = rangerUserStore;
+            if (rangerUserStore.getIsDelta()) {
+                // merge into a copy, so that requests being evaluated continue to see a consistent userstore
+                this.rangerUserStore = RangerUserStoreDeltaUtil.applyDelta(this.rangerUserStore, rangerUserStore);
+            } else {
+                this.rangerUserStore = rangerUserStore;
+            }
 
             RangerPerfTracer.logAlways(perf);
         }
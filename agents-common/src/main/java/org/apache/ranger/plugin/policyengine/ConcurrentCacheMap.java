@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.apache.ranger.plugin.model.RangerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache for use on the authorization path, where many threads read concurrently.
+ *
+ * Unlike CacheMap, which must be wrapped in a synchronized map since every access-ordered get() mutates it,
+ * reads here are lock-free: an entry is marked as referenced on get() and the CLOCK (second-chance) algorithm
+ * evicts unreferenced entries once a segment is full. Keys are striped across independent segments, so writers
+ * contend only with writers on the same segment.
+ */
+public class ConcurrentCacheMap<K, V> {
+    private static final Logger LOG = LoggerFactory.getLogger(ConcurrentCacheMap.class);
+
+    public static final String METRIC_CAPACITY       = "capacity";
+    public static final String METRIC_SIZE           = "size";
+    public static final String METRIC_HIT_COUNT      = "hitCount";
+    public static final String METRIC_MISS_COUNT     = "missCount";
+    public static final String METRIC_EVICTION_COUNT = "evictionCount";
+
+    private static final int MAX_SEGMENT_COUNT = 64;
+
+    private final int             capacity;
+    private final Segment<K, V>[] segments;
+    private final int             segmentMask;
+    private final LongAdder       hitCount      = new LongAdder();
+    private final LongAdder       missCount     = new LongAdder();
+    private final LongAdder       evictionCount = new LongAdder();
+
+    public ConcurrentCacheMap(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentCacheMap(int capacity, int concurrencyLevel) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+
+        int segmentCount = 1;
+
+        while (segmentCount < concurrencyLevel && segmentCount < MAX_SEGMENT_COUNT && segmentCount * 2 <= capacity) {
+            segmentCount <<= 1;
+        }
+
+        int segmentCapacity = (capacity + segmentCount - 1) / segmentCount;
+
+        this.capacity    = segmentCapacity * segmentCount;
+        this.segments    = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+
+        LOG.debug("ConcurrentCacheMap(capacity={}, concurrencyLevel={}): segmentCount={}, segmentCapacity={}", capacity, concurrencyLevel, segmentCount, segmentCapacity);
+    }
+
+    public V get(K key) {
+        Entry<V> entry = segmentFor(key).map.get(key);
+
+        if (entry == null) {
+            missCount.increment();
+
+            return null;
+        }
+
+        if (!entry.isReferenced) { // avoid writing to a shared cache-line on every hit
+            entry.isReferenced = true;
+        }
+
+        hitCount.increment();
+
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        Entry<V>      prev    = segment.map.put(key, new Entry<>(value));
+
+        if (prev == null) {
+            segment.clock.offer(key);
+
+            if (segment.count.incrementAndGet() > segment.capacity) {
+                evictionCount.add(segment.evict());
+            }
+        }
+    }
+
+    public int size() {
+        int ret = 0;
+
+        for (Segment<K, V> segment : segments) {
+            ret += segment.count.get();
+        }
+
+        return ret;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public RangerMetrics getMetrics() {
+        Map<String, Object> data = new LinkedHashMap<>();
+
+        data.put(METRIC_CAPACITY, capacity);
+        data.put(METRIC_SIZE, size());
+        data.put(METRIC_HIT_COUNT, getHitCount());
+        data.put(METRIC_MISS_COUNT, getMissCount());
+        data.put(METRIC_EVICTION_COUNT, getEvictionCount());
+
+        return new RangerMetrics(data);
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+
+        h ^= (h >>> 16);
+
+        return segments[h & segmentMask];
+    }
+
+    private static final class Entry<V> {
+        final    V       value;
+        volatile boolean isReferenced;
+
+        Entry(V value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        final int                            capacity;
+        final ConcurrentHashMap<K, Entry<V>> map;
+        final Queue<K>                       clock = new ConcurrentLinkedQueue<>();
+        final AtomicInteger                  count = new AtomicInteger();
+        final ReentrantLock                  lock  = new ReentrantLock();
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.map      = new ConcurrentHashMap<>(capacity);
+        }
+
+        /*
+         * Advances the clock hand until the segment is back within its capacity: a referenced entry gets a
+         * second chance (its bit is cleared and it goes to the back of the queue), an unreferenced one is removed.
+         * Every pass clears the bits it skips over, so this terminates within two rounds of the queue.
+         */
+        int evict() {
+            int ret = 0;
+
+            lock.lock();
+
+            try {
+                while (count.get() > capacity) {
+                    K key = clock.poll();
+
+                    if (key == null) {
+                        break;
+                    }
+
+                    Entry<V> entry = map.get(key);
+
+                    if (entry == null) {
+                        continue;
+                    }
+
+                    if (entry.isReferenced) {
+                        entry.isReferenced = false;
+
+                        clock.offer(key);
+                    } else if (map.remove(key, entry)) {
+                        count.decrementAndGet();
+
+                        ret++;
+                    } else { // value was replaced concurrently; keep the key in the clock
+                        clock.offer(key);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            return ret;
+        }
+    }
+}
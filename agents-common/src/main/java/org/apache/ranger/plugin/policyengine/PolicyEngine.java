@@ -49,6 +49,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 public class PolicyEngine {
     private static final Logger LOG = LoggerFactory.getLogger(PolicyEngine.class);
@@ -111,21 +115,42 @@ public PolicyEngine(ServicePolicies servicePolicies, RangerPluginContext pluginC
             options.evaluatorType = RangerPolicyEvaluator.EVALUATOR_TYPE_OPTIMIZED;
         }
 
-        policyRepository = new RangerPolicyRepository(servicePolicies, this.pluginContext);
-        serviceDefHelper = new RangerServiceDefHelper(policyRepository.getServiceDef(), false);
-
         ServicePolicies.TagPolicies tagPolicies = servicePolicies.getTagPolicies();
+        ForkJoinPool                builderPool = createBuilderPool(options.builderParallelism);
 
-        if (!options.disableTagPolicyEvaluation && tagPolicies != null && !StringUtils.isEmpty(tagPolicies.getServiceName()) && tagPolicies.getServiceDef() != null) {
-            LOG.debug("PolicyEngine : Building tag-policy-repository for tag-service {}", tagPolicies.getServiceName());
+        try {
+            ForkJoinTask<RangerPolicyRepository>              policyRepositoryTask    = buildPolicyRepository(builderPool, "default", () -> new RangerPolicyRepository(servicePolicies, pluginContext));
+            ForkJoinTask<RangerPolicyRepository>              tagPolicyRepositoryTask = null;
+            Map<String, ForkJoinTask<RangerPolicyRepository>> zoneRepositoryTasks     = new HashMap<>();
 
-            tagPolicyRepository = new RangerPolicyRepository(tagPolicies, this.pluginContext, servicePolicies.getServiceDef(), servicePolicies.getServiceName());
-        } else {
-            LOG.debug("PolicyEngine : No tag-policy-repository for service {}", servicePolicies.getServiceName());
+            if (!options.disableTagPolicyEvaluation && tagPolicies != null && !StringUtils.isEmpty(tagPolicies.getServiceName()) && tagPolicies.getServiceDef() != null) {
+                LOG.debug("PolicyEngine : Building tag-policy-repository for tag-service {}", tagPolicies.getServiceName());
+
+                tagPolicyRepositoryTask = buildPolicyRepository(builderPool, "tag", () -> new RangerPolicyRepository(tagPolicies, pluginContext, servicePolicies.getServiceDef(), servicePolicies.getServiceName()));
+            } else {
+                LOG.debug("PolicyEngine : No tag-policy-repository for service {}", servicePolicies.getServiceName());
+            }
+
+            if (MapUtils.isNotEmpty(servicePolicies.getSecurityZones())) {
+                for (String zoneName : servicePolicies.getSecurityZones().keySet()) {
+                    zoneRepositoryTasks.put(zoneName, buildPolicyRepository(builderPool, "zone=" + zoneName, () -> new RangerPolicyRepository(servicePolicies, pluginContext, zoneName)));
+                }
+            }
 
-            tagPolicyRepository = null;
+            policyRepository    = policyRepositoryTask.join();
+            tagPolicyRepository = tagPolicyRepositoryTask != null ? tagPolicyRepositoryTask.join() : null;
+
+            for (Map.Entry<String, ForkJoinTask<RangerPolicyRepository>> entry : zoneRepositoryTasks.entrySet()) {
+                zonePolicyRepositories.put(entry.getKey(), entry.getValue().join());
+            }
+        } finally {
+            if (builderPool != null) {
+                builderPool.shutdown();
+            }
         }
 
+        serviceDefHelper = new RangerServiceDefHelper(policyRepository.getServiceDef(), false);
+
         List<RangerContextEnricher> tmpList;
         List<RangerContextEnricher> tagContextEnrichers      = tagPolicyRepository == null ? null : tagPolicyRepository.getContextEnrichers();
         List<RangerContextEnricher> resourceContextEnrichers = policyRepository.getContextEnrichers();
@@ -142,14 +167,6 @@ public PolicyEngine(ServicePolicies servicePolicies, RangerPluginContext pluginC
 
         this.allContextEnrichers = tmpList;
 
-        if (MapUtils.isNotEmpty(servicePolicies.getSecurityZones())) {
-            for (Map.Entry<String, SecurityZoneInfo> zone : servicePolicies.getSecurityZones().entrySet()) {
-                RangerPolicyRepository policyRepository = new RangerPolicyRepository(servicePolicies, this.pluginContext, zone.getKey());
-
-                zonePolicyRepositories.put(zone.getKey(), policyRepository);
-            }
-        }
-
         for (RangerServiceDef.RangerResourceDef resourceDef : getServiceDef().getResources()) {
             Map<String, String> matchOptions = resourceDef.getMatcherOptions();
 
@@ -576,6 +593,54 @@ private void normalizeServiceDefs(ServicePolicies servicePolicies) {
         }
     }
 
+    /*
+     * returns null when parallelism is not enabled, in which case repositories are built in the calling thread.
+     * Workers use the caller's context classloader, as context enrichers and conditions are loaded with it.
+     */
+    private static ForkJoinPool createBuilderPool(int parallelism) {
+        if (parallelism <= 1) {
+            return null;
+        }
+
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread ret = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+
+            ret.setName("PolicyEngineBuilder-" + ret.getPoolIndex());
+            ret.setContextClassLoader(contextClassLoader);
+
+            return ret;
+        }, null, false);
+    }
+
+    /*
+     * builds the repository in the given pool; when pool is null, the repository is built in the calling thread
+     */
+    private static ForkJoinTask<RangerPolicyRepository> buildPolicyRepository(ForkJoinPool pool, String repositoryName, Callable<RangerPolicyRepository> builder) {
+        ForkJoinTask<RangerPolicyRepository> ret = ForkJoinTask.adapt(() -> {
+            RangerPerfTracer perf = null;
+
+            if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICYENGINE_INIT_LOG)) {
+                perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "RangerPolicyEngine.buildPolicyRepository(" + repositoryName + ")");
+            }
+
+            try {
+                return builder.call();
+            } finally {
+                RangerPerfTracer.log(perf);
+            }
+        });
+
+        if (pool != null) {
+            pool.execute(ret);
+        } else {
+            ret.invoke();
+        }
+
+        return ret;
+    }
+
     private RangerPolicyRepository shareWith(RangerPolicyRepository other) {
         if (other != null) {
             other.setShared();
@@ -22,5 +22,9 @@
 public interface RangerAccessRequestProcessor {
     void preProcess(RangerAccessRequest request);
 
+    default void preProcess(RangerAccessRequest request, RangerBatchEvaluationCache batchCache) {
+        preProcess(request);
+    }
+
     default void enrich(RangerAccessRequest request) {}
 }
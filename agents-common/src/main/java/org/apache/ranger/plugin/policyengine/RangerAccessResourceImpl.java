@@ -32,6 +32,7 @@
 public class RangerAccessResourceImpl implements RangerMutableResource {
     private String              ownerUser;
     private Map<String, Object> elements;
+    private Map<String, Object> elementsView;
     private String              stringifiedValue;
     private String              stringifiedCacheKeyValue;
     private String              leafName;
@@ -173,7 +174,14 @@ public String getCacheKey() {
 
     @Override
     public Map<String, Object> getAsMap() {
-        return elements == null ? Collections.emptyMap() : Collections.unmodifiableMap(elements);
+        Map<String, Object> ret = elementsView;
+
+        if (ret == null) {
+            ret          = elements == null ? Collections.emptyMap() : Collections.unmodifiableMap(elements);
+            elementsView = ret;
+        }
+
+        return ret;
     }
 
     @Override
@@ -212,6 +220,7 @@ public void setValue(String name, Object value) {
         }
 
         // reset, so that these will be computed again with updated elements
+        elementsView             = null;
         stringifiedValue         = null;
         stringifiedCacheKeyValue = null;
         leafName                 = null;
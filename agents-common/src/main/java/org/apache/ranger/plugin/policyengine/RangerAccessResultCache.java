@@ -0,0 +1,557 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
+import org.apache.ranger.plugin.contextenricher.RangerContextEnricher;
+import org.apache.ranger.plugin.contextenricher.RangerGdsEnricher;
+import org.apache.ranger.plugin.contextenricher.RangerTagEnricher;
+import org.apache.ranger.plugin.contextenricher.RangerTagForEval;
+import org.apache.ranger.plugin.contextenricher.RangerUserStoreEnricher;
+import org.apache.ranger.plugin.model.RangerMetrics;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerTag;
+import org.apache.ranger.plugin.policyengine.gds.GdsAccessResult;
+import org.apache.ranger.plugin.policyengine.gds.GdsPolicyEngine;
+import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.apache.ranger.plugin.util.ServiceGdsInfo;
+import org.apache.ranger.plugin.util.ServiceTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ * Caches results of access checks made via RangerBasePlugin.isAccessAllowed(), for workloads that repeat
+ * identical checks (same user, groups, roles, resource and access-type).
+ *
+ * Cached results are held in a snapshot tied to the policy-engine instance and the versions of policies,
+ * roles, tags, userstore and GDS it was evaluated with; a change in any of them replaces the snapshot, which
+ * drops all cached results at once. The cache is bypassed when a result could depend on anything other than
+ * the key: policies with conditions or validity schedules, tags with validity periods, GDS objects with
+ * conditions or validity schedules, context enrichers other than tag/userstore/GDS, and requests that carry
+ * caller-provided context or per-element matching scopes.
+ *
+ * On a cache hit, tags and GDS result of the original evaluation are set in the request context, as audit
+ * handlers read them from there.
+ */
+public class RangerAccessResultCache {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerAccessResultCache.class);
+
+    public static final String PROP_SUFFIX_CACHE_ENABLED = ".decision.cache.enabled";
+    public static final String PROP_SUFFIX_CACHE_SIZE    = ".decision.cache.size";
+    public static final int    DEFAULT_CACHE_SIZE        = 10000;
+
+    public static final String METRIC_BYPASS_COUNT        = "bypassCount";
+    public static final String METRIC_INVALIDATION_COUNT  = "invalidationCount";
+    public static final String METRIC_HIT_RATE            = "hitRate";
+    public static final String METRIC_ESTIMATED_MEM_BYTES = "estimatedMemoryBytes";
+
+    private static final char SEP                  = '\u0001';
+    private static final int  ENTRY_OVERHEAD_BYTES = 320; // cache entry, key string, result copy and its additionalInfo map
+
+    private final int                       capacity;
+    private final AtomicReference<Snapshot> snapshot          = new AtomicReference<>();
+    private final LongAdder                 hitCount          = new LongAdder();
+    private final LongAdder                 missCount         = new LongAdder();
+    private final LongAdder                 bypassCount       = new LongAdder();
+    private final LongAdder                 invalidationCount = new LongAdder();
+    private final LongAdder                 putCount          = new LongAdder();
+    private final LongAdder                 keyLengthTotal    = new LongAdder();
+
+    public RangerAccessResultCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /*
+     * returns null if the cache is not enabled for the plugin
+     */
+    public static RangerAccessResultCache create(RangerPluginConfig config) {
+        String  prefix    = config.getPropertyPrefix();
+        boolean isEnabled = config.getBoolean(prefix + PROP_SUFFIX_CACHE_ENABLED, false);
+        int     size      = config.getInt(prefix + PROP_SUFFIX_CACHE_SIZE, DEFAULT_CACHE_SIZE);
+
+        LOG.info("{}={}, {}={}", prefix + PROP_SUFFIX_CACHE_ENABLED, isEnabled, prefix + PROP_SUFFIX_CACHE_SIZE, size);
+
+        return isEnabled && size > 0 ? new RangerAccessResultCache(size) : null;
+    }
+
+    public RangerAccessResult evaluate(RangerPolicyEngine policyEngine, RangerAccessRequest request, Function<RangerAccessRequest, RangerAccessResult> evaluator) {
+        Snapshot snapshot = getSnapshot(policyEngine);
+        String   key      = snapshot != null && snapshot.isCacheable ? getCacheKey(request) : null;
+
+        if (key == null) {
+            bypassCount.increment();
+
+            return evaluator.apply(request);
+        }
+
+        CachedResult       cached = snapshot.results.get(key);
+        RangerAccessResult ret;
+
+        if (cached != null) {
+            hitCount.increment();
+
+            ret = cached.toResult(request);
+        } else {
+            missCount.increment();
+
+            ret = evaluator.apply(request);
+
+            if (ret != null) {
+                snapshot.results.put(key, new CachedResult(ret));
+
+                putCount.increment();
+                keyLengthTotal.add(key.length());
+            }
+        }
+
+        return ret;
+    }
+
+    /*
+     * batch variant of evaluate(): requests without a cached result are given to the evaluator in a single call, which
+     * must return their results in the same order. Returns results in the order of the requests.
+     */
+    public List<RangerAccessResult> evaluate(RangerPolicyEngine policyEngine, Collection<RangerAccessRequest> requests, Function<Collection<RangerAccessRequest>, Collection<RangerAccessResult>> evaluator) {
+        Snapshot                  snapshot  = getSnapshot(policyEngine);
+        List<RangerAccessResult>  ret       = new ArrayList<>(requests.size());
+        List<RangerAccessRequest> toEval    = new ArrayList<>();
+        List<Integer>             toEvalIdx = new ArrayList<>();
+        List<String>              toEvalKey = new ArrayList<>();
+
+        for (RangerAccessRequest request : requests) {
+            String       key    = snapshot != null && snapshot.isCacheable ? getCacheKey(request) : null;
+            CachedResult cached = key != null ? snapshot.results.get(key) : null;
+
+            if (key == null) {
+                bypassCount.increment();
+            } else if (cached != null) {
+                hitCount.increment();
+            } else {
+                missCount.increment();
+            }
+
+            if (cached != null) {
+                ret.add(cached.toResult(request));
+            } else {
+                toEvalIdx.add(ret.size());
+                toEvalKey.add(key);
+                toEval.add(request);
+
+                ret.add(null);
+            }
+        }
+
+        if (!toEval.isEmpty()) {
+            Collection<RangerAccessResult> results = evaluator.apply(toEval);
+            int                            i       = 0;
+
+            if (results != null) {
+                for (RangerAccessResult result : results) {
+                    if (i >= toEvalIdx.size()) {
+                        break;
+                    }
+
+                    String key = toEvalKey.get(i);
+
+                    ret.set(toEvalIdx.get(i), result);
+
+                    if (result != null && key != null) {
+                        snapshot.results.put(key, new CachedResult(result));
+
+                        putCount.increment();
+                        keyLengthTotal.add(key.length());
+                    }
+
+                    i++;
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    /*
+     * drops all cached results; to be called when plugin configuration that affects access decisions changes,
+     * like super-users/groups or service-admins
+     */
+    public void invalidate() {
+        Snapshot prev = snapshot.getAndSet(null);
+
+        if (prev != null) {
+            invalidationCount.increment();
+        }
+    }
+
+    public RangerMetrics getMetrics() {
+        Snapshot            current = snapshot.get();
+        long                hits    = hitCount.sum();
+        long                misses  = missCount.sum();
+        int                 size    = current != null ? current.results.size() : 0;
+        Map<String, Object> data    = new LinkedHashMap<>();
+
+        data.put(ConcurrentCacheMap.METRIC_CAPACITY, capacity);
+        data.put(ConcurrentCacheMap.METRIC_SIZE, size);
+        data.put(ConcurrentCacheMap.METRIC_HIT_COUNT, hits);
+        data.put(ConcurrentCacheMap.METRIC_MISS_COUNT, misses);
+        data.put(ConcurrentCacheMap.METRIC_EVICTION_COUNT, current != null ? current.results.getEvictionCount() : 0L);
+        data.put(METRIC_BYPASS_COUNT, bypassCount.sum());
+        data.put(METRIC_INVALIDATION_COUNT, invalidationCount.sum());
+        data.put(METRIC_HIT_RATE, (hits + misses) > 0 ? (double) hits / (hits + misses) : 0d);
+        data.put(METRIC_ESTIMATED_MEM_BYTES, size * getEstimatedEntrySize());
+
+        return new RangerMetrics(data);
+    }
+
+    static String getCacheKey(RangerAccessRequest request) {
+        RangerAccessResource resource = request.getResource();
+
+        if (resource == null || request.getContext() == null || hasCallerContext(request.getContext()) || MapUtils.isNotEmpty(request.getResourceElementMatchingScopes())) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(128);
+
+        appendEscaped(sb, request.getUser()).append(SEP);
+        appendSorted(sb, request.getUserGroups()).append(SEP);
+        appendSorted(sb, request.getUserRoles()).append(SEP);
+        appendEscaped(sb, request.getAccessType()).append(SEP);
+        sb.append(request.isAccessTypeAny()).append(SEP);
+        sb.append(request.ignoreDescendantDeny()).append(SEP);
+        sb.append(request.getResourceMatchingScope()).append(SEP);
+        appendEscaped(sb, resource.getOwnerUser());
+
+        for (String name : new TreeSet<>(resource.getKeys())) {
+            sb.append(SEP);
+            appendEscaped(sb, name).append('=');
+            appendEscaped(sb, Objects.toString(resource.getValue(name), null));
+        }
+
+        return sb.toString();
+    }
+
+    static boolean isCacheable(PolicyEngine policyEngine) {
+        for (RangerContextEnricher enricher : policyEngine.getAllContextEnrichers()) {
+            if (enricher instanceof RangerTagEnricher) {
+                if (hasValidityPeriods(((RangerTagEnricher) enricher).getEnrichedServiceTags())) {
+                    return false;
+                }
+            } else if (enricher instanceof RangerGdsEnricher) {
+                GdsPolicyEngine gdsPolicyEngine = ((RangerGdsEnricher) enricher).getGdsPolicyEngine();
+
+                if (gdsPolicyEngine != null && hasConditionsOrValidity(gdsPolicyEngine.getGdsInfo())) {
+                    return false;
+                }
+            } else if (!(enricher instanceof RangerUserStoreEnricher)) {
+                return false;
+            }
+        }
+
+        if (hasConditionsOrValidity(policyEngine.getPolicyRepository()) || hasConditionsOrValidity(policyEngine.getTagPolicyRepository())) {
+            return false;
+        }
+
+        for (RangerPolicyRepository zoneRepository : policyEngine.getZonePolicyRepositories().values()) {
+            if (hasConditionsOrValidity(zoneRepository)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /*
+     * context of a new request only has the request itself and the not-preprocessed flag; anything else is
+     * either added by the caller or left by an earlier evaluation of the same request
+     */
+    private static boolean hasCallerContext(Map<String, Object> context) {
+        for (Map.Entry<String, Object> entry : context.entrySet()) {
+            String key = entry.getKey();
+
+            if (RangerAccessRequestUtil.KEY_CONTEXT_REQUEST.equals(key)) {
+                continue;
+            }
+
+            if (RangerAccessRequestUtil.KEY_CONTEXT_IS_REQUEST_PREPROCESSED.equals(key) && Boolean.FALSE.equals(entry.getValue())) {
+                continue;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private Snapshot getSnapshot(RangerPolicyEngine policyEngine) {
+        if (!(policyEngine instanceof RangerPolicyEngineImpl)) {
+            return null;
+        }
+
+        RangerPolicyEngineImpl engine = (RangerPolicyEngineImpl) policyEngine;
+        Snapshot               ret    = snapshot.get();
+
+        if (ret == null || !ret.isCurrent(engine)) {
+            Snapshot newSnapshot = new Snapshot(engine, capacity);
+
+            if (snapshot.compareAndSet(ret, newSnapshot)) {
+                if (ret != null) {
+                    invalidationCount.increment();
+
+                    LOG.info("RangerAccessResultCache: dropped {} cached results; {}", ret.results.size(), getMetrics());
+                }
+
+                ret = newSnapshot;
+            } else { // another thread replaced the snapshot
+                ret = snapshot.get();
+
+                if (ret == null || !ret.isCurrent(engine)) {
+                    ret = newSnapshot; // use without publishing; results cached in it are discarded with the request
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private long getEstimatedEntrySize() {
+        long puts = putCount.sum();
+
+        return ENTRY_OVERHEAD_BYTES + (puts > 0 ? (keyLengthTotal.sum() / puts) * 2 : 0);
+    }
+
+    private static boolean hasValidityPeriods(RangerTagEnricher.EnrichedServiceTags enrichedServiceTags) {
+        ServiceTags serviceTags = enrichedServiceTags != null ? enrichedServiceTags.getServiceTags() : null;
+
+        if (serviceTags != null && serviceTags.getTags() != null) {
+            for (RangerTag tag : serviceTags.getTags().values()) {
+                if (CollectionUtils.isNotEmpty(tag.getValidityPeriods())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean hasConditionsOrValidity(RangerPolicyRepository repository) {
+        return repository != null && hasConditionsOrValidity(repository.getPolicies());
+    }
+
+    private static boolean hasConditionsOrValidity(List<RangerPolicy> policies) {
+        if (policies != null) {
+            for (RangerPolicy policy : policies) {
+                if (CollectionUtils.isNotEmpty(policy.getConditions()) || CollectionUtils.isNotEmpty(policy.getValiditySchedules()) ||
+                        hasConditions(policy.getPolicyItems()) || hasConditions(policy.getDenyPolicyItems()) ||
+                        hasConditions(policy.getAllowExceptions()) || hasConditions(policy.getDenyExceptions())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean hasConditions(List<RangerPolicyItem> policyItems) {
+        if (policyItems != null) {
+            for (RangerPolicyItem policyItem : policyItems) {
+                if (CollectionUtils.isNotEmpty(policyItem.getConditions())) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean hasConditionsOrValidity(ServiceGdsInfo gdsInfo) {
+        if (gdsInfo == null) {
+            return false;
+        }
+
+        if (gdsInfo.getDataShares() != null && gdsInfo.getDataShares().stream().anyMatch(dataShare -> StringUtils.isNotBlank(dataShare.getConditionExpr()))) {
+            return true;
+        }
+
+        if (gdsInfo.getResources() != null && gdsInfo.getResources().stream().anyMatch(resource -> StringUtils.isNotBlank(resource.getConditionExpr()))) {
+            return true;
+        }
+
+        if (gdsInfo.getDatasets() != null && gdsInfo.getDatasets().stream().anyMatch(dataset -> dataset.getValiditySchedule() != null || hasConditionsOrValidity(dataset.getPolicies()))) {
+            return true;
+        }
+
+        if (gdsInfo.getProjects() != null && gdsInfo.getProjects().stream().anyMatch(project -> project.getValiditySchedule() != null || hasConditionsOrValidity(project.getPolicies()))) {
+            return true;
+        }
+
+        if (gdsInfo.getDshids() != null && gdsInfo.getDshids().stream().anyMatch(dshid -> dshid.getValiditySchedule() != null)) {
+            return true;
+        }
+
+        return gdsInfo.getDips() != null && gdsInfo.getDips().stream().anyMatch(dip -> dip.getValiditySchedule() != null);
+    }
+
+    private static StringBuilder appendSorted(StringBuilder sb, Collection<String> values) {
+        if (values != null && !values.isEmpty()) {
+            boolean isFirst = true;
+
+            for (String value : values.size() == 1 ? values : new TreeSet<>(values)) {
+                if (!isFirst) {
+                    sb.append(SEP);
+                }
+
+                appendEscaped(sb, value);
+
+                isFirst = false;
+            }
+        }
+
+        return sb;
+    }
+
+    /*
+     * SEP within a value is doubled, so that values containing SEP can't produce the key of a different request
+     */
+    private static StringBuilder appendEscaped(StringBuilder sb, String value) {
+        if (value != null) {
+            if (value.indexOf(SEP) == -1) {
+                sb.append(value);
+            } else {
+                for (int i = 0; i < value.length(); i++) {
+                    char ch = value.charAt(i);
+
+                    if (ch == SEP) {
+                        sb.append(SEP);
+                    }
+
+                    sb.append(ch);
+                }
+            }
+        }
+
+        return sb;
+    }
+
+    private static final class Snapshot {
+        final RangerPolicyEngineImpl                   policyEngine;
+        final long                                     policyVersion;
+        final long                                     roleVersion;
+        final RangerTagEnricher                        tagEnricher;
+        final Long                                     tagsVersion;
+        final RangerUserStoreEnricher                  userStoreEnricher;
+        final Long                                     userStoreVersion;
+        final RangerGdsEnricher                        gdsEnricher;
+        final GdsPolicyEngine                          gdsPolicyEngine;
+        final boolean                                  isCacheable;
+        final ConcurrentCacheMap<String, CachedResult> results;
+
+        Snapshot(RangerPolicyEngineImpl policyEngine, int capacity) {
+            RangerTagEnricher       tagEnricher       = null;
+            RangerUserStoreEnricher userStoreEnricher = null;
+            RangerGdsEnricher       gdsEnricher       = null;
+
+            for (RangerContextEnricher enricher : policyEngine.getPolicyEngine().getAllContextEnrichers()) {
+                if (enricher instanceof RangerTagEnricher) {
+                    tagEnricher = (RangerTagEnricher) enricher;
+                } else if (enricher instanceof RangerUserStoreEnricher) {
+                    userStoreEnricher = (RangerUserStoreEnricher) enricher;
+                } else if (enricher instanceof RangerGdsEnricher) {
+                    gdsEnricher = (RangerGdsEnricher) enricher;
+                }
+            }
+
+            // versions are read before evaluating cacheability, so that an update in between replaces this snapshot
+            this.policyEngine      = policyEngine;
+            this.policyVersion     = policyEngine.getPolicyVersion();
+            this.roleVersion       = policyEngine.getRoleVersion();
+            this.tagEnricher       = tagEnricher;
+            this.tagsVersion       = tagEnricher != null ? tagEnricher.getServiceTagsVersion() : null;
+            this.userStoreEnricher = userStoreEnricher;
+            this.userStoreVersion  = userStoreEnricher != null ? userStoreEnricher.getUserStoreVersion() : null;
+            this.gdsEnricher       = gdsEnricher;
+            this.gdsPolicyEngine   = gdsEnricher != null ? gdsEnricher.getGdsPolicyEngine() : null;
+            this.isCacheable       = RangerAccessResultCache.isCacheable(policyEngine.getPolicyEngine());
+            this.results           = new ConcurrentCacheMap<>(capacity);
+
+            LOG.debug("RangerAccessResultCache.Snapshot(policyVersion={}, roleVersion={}, tagsVersion={}, userStoreVersion={}, isCacheable={})", policyVersion, roleVersion, tagsVersion, userStoreVersion, isCacheable);
+        }
+
+        boolean isCurrent(RangerPolicyEngineImpl policyEngine) {
+            return this.policyEngine == policyEngine &&
+                    policyVersion == policyEngine.getPolicyVersion() &&
+                    roleVersion == policyEngine.getRoleVersion() &&
+                    (tagEnricher == null || Objects.equals(tagsVersion, tagEnricher.getServiceTagsVersion())) &&
+                    (userStoreEnricher == null || Objects.equals(userStoreVersion, userStoreEnricher.getUserStoreVersion())) &&
+                    (gdsEnricher == null || gdsPolicyEngine == gdsEnricher.getGdsPolicyEngine());
+        }
+    }
+
+    /*
+     * decision and audit fields of a result, along with tags and GDS result that audit handlers read from the request context
+     */
+    private static final class CachedResult {
+        final RangerAccessResult    result;
+        final Set<RangerTagForEval> tags;
+        final GdsAccessResult       gdsResult;
+
+        CachedResult(RangerAccessResult other) {
+            RangerAccessRequest request = other.getAccessRequest();
+
+            this.result    = new RangerAccessResult(other.getPolicyType(), other.getServiceName(), other.getServiceDef(), null);
+            this.tags      = request != null ? RangerAccessRequestUtil.getRequestTagsFromContext(request.getContext()) : null;
+            this.gdsResult = request != null ? RangerAccessRequestUtil.getGdsResultFromContext(request.getContext()) : null;
+
+            result.setAccessResultFrom(other);
+            result.setAuditResultFrom(other);
+        }
+
+        RangerAccessResult toResult(RangerAccessRequest request) {
+            RangerAccessResult ret = new RangerAccessResult(result.getPolicyType(), result.getServiceName(), result.getServiceDef(), request);
+
+            ret.setAccessResultFrom(result);
+            ret.setAuditResultFrom(result);
+
+            if (tags != null) {
+                RangerAccessRequestUtil.setRequestTagsInContext(request.getContext(), tags);
+            }
+
+            if (gdsResult != null) {
+                RangerAccessRequestUtil.setGdsResultInContext(request, gdsResult);
+            }
+
+            return ret;
+        }
+    }
+}
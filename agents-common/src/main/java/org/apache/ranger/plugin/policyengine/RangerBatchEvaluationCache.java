@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.apache.ranger.plugin.contextenricher.RangerTagForEval;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest.ResourceElementMatchingScope;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest.ResourceMatchingScope;
+import org.apache.ranger.plugin.policyevaluator.RangerPolicyEvaluator;
+import org.apache.ranger.plugin.policyresourcematcher.RangerResourceEvaluator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Results of request-independent lookups, shared by the requests of one evaluatePolicies(Collection) call.
+ *
+ * Requests in a batch, like the columns of a Hive query or the children of an HDFS listing, usually share the
+ * user, groups and most of the resource; zone match, role lookup, tag enrichment and trie lookups done for one
+ * request are reused for the others. Only lookups that depend on nothing but the key are cached here, so an
+ * evaluation using the cache returns the same result as one without it.
+ *
+ * Instances are confined to the thread evaluating the batch and are not thread-safe.
+ */
+public class RangerBatchEvaluationCache {
+    private final Map<String, Set<String>>                 zoneNames        = new HashMap<>();
+    private final Map<List<Object>, Set<String>>           userRoles        = new HashMap<>();
+    private final Map<List<Object>, Set<RangerTagForEval>> requestTags      = new HashMap<>();
+    private final Map<List<Object>, List<?>>               policyEvaluators = new HashMap<>();
+    private final Map<List<Object>, Set<?>>                trieEvaluators   = new HashMap<>();
+    private final Map<List<Object>, Integer>               trieEvalCounts   = new HashMap<>();
+    private       long                                     hitCount;
+    private       long                                     missCount;
+
+    public Set<String> getMatchedZones(RangerAccessResource resource, Supplier<Set<String>> loader) {
+        String key = resource != null ? resource.getCacheKey() : null;
+
+        if (key == null) {
+            return loader.get();
+        }
+
+        return get(zoneNames, key, loader);
+    }
+
+    public Set<String> getRolesForUserAndGroups(String user, Set<String> groups, Supplier<Set<String>> loader) {
+        List<Object> key = Arrays.asList(user, groups == null ? null : new HashSet<>(groups));
+
+        return get(userRoles, key, loader);
+    }
+
+    /*
+     * Key covers everything RangerTagEnricher looks at: the resource, its owner (for {OWNER} in service-resources),
+     * the user, matching scopes, access-type ANY and access time (for tag validity-periods).
+     */
+    public Set<RangerTagForEval> getRequestTags(RangerAccessRequest request, Supplier<Set<RangerTagForEval>> loader) {
+        RangerAccessResource resource = request.getResource();
+        String               cacheKey = resource != null ? resource.getCacheKey() : null;
+
+        if (cacheKey == null) {
+            return loader.get();
+        }
+
+        ResourceMatchingScope matchingScope = request.getResourceMatchingScope();
+        List<Object>          key           = Arrays.asList(cacheKey, resource.getOwnerUser(), request.getUser(), matchingScope, request.getResourceElementMatchingScopes(), request.isAccessTypeAny(), request.getAccessTime());
+
+        return get(requestTags, key, loader);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<RangerPolicyEvaluator> getLikelyMatchPolicyEvaluators(RangerPolicyRepository repository, RangerAccessRequest request, int policyType, Supplier<List<RangerPolicyEvaluator>> loader) {
+        RangerAccessResource resource = request.getResource();
+        String               cacheKey = resource != null ? resource.getCacheKey() : null;
+
+        if (cacheKey == null) {
+            return loader.get();
+        }
+
+        List<Object> key = Arrays.asList(new IdentityKey(repository), policyType, cacheKey, request.getResourceElementMatchingScopes());
+
+        return (List<RangerPolicyEvaluator>) get(policyEvaluators, key, (Supplier) loader);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T extends RangerResourceEvaluator> Set<T> getTrieEvaluators(RangerResourceTrie<T> trie, Object resourceValue, ResourceElementMatchingScope scope, Supplier<Set<T>> loader) {
+        List<Object> key = Arrays.asList(new IdentityKey(trie), resourceValue, scope);
+
+        return (Set<T>) get(trieEvaluators, key, (Supplier) loader);
+    }
+
+    public int getTrieEvaluatorsCount(RangerResourceTrie<?> trie, Object resourceValue, ResourceElementMatchingScope scope, Supplier<Integer> loader) {
+        List<Object> key = Arrays.asList(new IdentityKey(trie), resourceValue, scope);
+
+        return get(trieEvalCounts, key, loader);
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RangerBatchEvaluationCache={hitCount=" + hitCount + ", missCount=" + missCount + "}";
+    }
+
+    private <K, V> V get(Map<K, V> cache, K key, Supplier<? extends V> loader) {
+        final V ret;
+
+        if (cache.containsKey(key)) {
+            ret = cache.get(key);
+
+            hitCount++;
+        } else {
+            ret = loader.get();
+
+            cache.put(key, ret);
+
+            missCount++;
+        }
+
+        return ret;
+    }
+
+    private static final class IdentityKey {
+        private final Object obj;
+
+        IdentityKey(Object obj) {
+            this.obj = obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(obj);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).obj == obj;
+        }
+    }
+}
@@ -27,6 +27,7 @@
 import org.apache.ranger.plugin.resourcematcher.RangerResourceMatcher;
 import org.apache.ranger.plugin.service.RangerAuthContext;
 import org.apache.ranger.plugin.service.RangerAuthContextListener;
+import org.apache.ranger.plugin.util.RangerChangeWatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +44,7 @@ public class RangerPluginContext {
     private       RangerAuthContext                                                          authContext;
     private       RangerAuthContextListener                                                  authContextListener;
     private       RangerAdminClient                                                          adminClient;
+    private       RangerChangeWatcher                                                        changeWatcher;
 
     public RangerPluginContext(RangerPluginConfig config) {
         this.config = config;
@@ -127,6 +129,14 @@ public void setAdminClient(RangerAdminClient adminClient) {
         this.adminClient = adminClient;
     }
 
+    public RangerChangeWatcher getChangeWatcher() {
+        return changeWatcher;
+    }
+
+    public void setChangeWatcher(RangerChangeWatcher changeWatcher) {
+        this.changeWatcher = changeWatcher;
+    }
+
     public RangerAdminClient createAdminClient(RangerPluginConfig pluginConfig) {
         LOG.debug("==> RangerBasePlugin.createAdminClient({}, {}, {})", pluginConfig.getServiceName(), pluginConfig.getAppId(), pluginConfig.getPropertyPrefix());
 
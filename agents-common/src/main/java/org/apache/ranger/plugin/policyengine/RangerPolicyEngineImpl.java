@@ -26,6 +26,7 @@
 import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
 import org.apache.ranger.authorization.utils.StringUtil;
 import org.apache.ranger.plugin.contextenricher.RangerTagForEval;
+import org.apache.ranger.plugin.model.RangerMetrics;
 import org.apache.ranger.plugin.model.RangerPolicy;
 import org.apache.ranger.plugin.model.RangerServiceDef;
 import org.apache.ranger.plugin.model.validation.RangerServiceDefHelper;
@@ -49,6 +50,7 @@
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -217,7 +219,7 @@ public RangerAccessResult evaluatePolicies(RangerAccessRequest request, int poli
 
             requestProcessor.preProcess(request);
 
-            ret = zoneAwareAccessEvaluationWithNoAudit(request, policyType);
+            ret = zoneAwareAccessEvaluationWithNoAudit(request, policyType, null);
 
             if (resultProcessor != null) {
                 RangerPerfTracer perfAuditTracer = null;
@@ -245,7 +247,12 @@ public RangerAccessResult evaluatePolicies(RangerAccessRequest request, int poli
     public Collection<RangerAccessResult> evaluatePolicies(Collection<RangerAccessRequest> requests, int policyType, RangerAccessResultProcessor resultProcessor) {
         LOG.debug("==> RangerPolicyEngineImpl.evaluatePolicies({}, policyType={})", requests, policyType);
 
-        Collection<RangerAccessResult> ret = new ArrayList<>();
+        Collection<RangerAccessResult> ret  = new ArrayList<>();
+        RangerPerfTracer               perf = null;
+
+        if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICYENGINE_REQUEST_LOG)) {
+            perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_REQUEST_LOG, "RangerPolicyEngine.evaluatePolicies(requestCount=" + (requests == null ? 0 : requests.size()) + ", policyType=" + policyType + ")");
+        }
 
         try (RangerReadWriteLock.RangerLock readLock = policyEngine.getReadLock()) {
             if (readLock.isLockingEnabled()) {
@@ -253,13 +260,18 @@ public Collection<RangerAccessResult> evaluatePolicies(Collection<RangerAccessRe
             }
 
             if (requests != null) {
+                // zone match, role lookup, tag enrichment and trie lookups are shared by requests in the batch
+                RangerBatchEvaluationCache batchCache = requests.size() > 1 ? new RangerBatchEvaluationCache() : null;
+
                 for (RangerAccessRequest request : requests) {
-                    requestProcessor.preProcess(request);
+                    requestProcessor.preProcess(request, batchCache);
 
-                    RangerAccessResult result = zoneAwareAccessEvaluationWithNoAudit(request, policyType);
+                    RangerAccessResult result = zoneAwareAccessEvaluationWithNoAudit(request, policyType, batchCache);
 
                     ret.add(result);
                 }
+
+                LOG.debug("RangerPolicyEngineImpl.evaluatePolicies(): requestCount={}, {}", requests.size(), batchCache);
             }
 
             if (resultProcessor != null) {
@@ -267,6 +279,8 @@ public Collection<RangerAccessResult> evaluatePolicies(Collection<RangerAccessRe
             }
         }
 
+        RangerPerfTracer.log(perf);
+
         LOG.debug("<== RangerPolicyEngineImpl.evaluatePolicies({}, policyType={}): {}", requests, policyType, ret);
 
         return ret;
@@ -554,7 +568,37 @@ public RangerAccessRequestProcessor getRequestProcessor() {
         return requestProcessor;
     }
 
-    private RangerAccessResult zoneAwareAccessEvaluationWithNoAudit(RangerAccessRequest request, int policyType) {
+    /**
+     * @return audit-result cache counters summed over the resource and security-zone policy repositories;
+     *         null when audit results are not cached
+     */
+    public RangerMetrics getAuditResultCacheMetrics() {
+        Map<String, Object>          data         = null;
+        List<RangerPolicyRepository> repositories = new ArrayList<>();
+
+        repositories.add(policyEngine.getPolicyRepository());
+        repositories.addAll(policyEngine.getZonePolicyRepositories().values());
+
+        for (RangerPolicyRepository repository : repositories) {
+            RangerMetrics metrics = repository != null ? repository.getAuditResultCacheMetrics() : null;
+
+            if (metrics == null) {
+                continue;
+            }
+
+            if (data == null) {
+                data = new LinkedHashMap<>(metrics.getData());
+            } else {
+                for (Map.Entry<String, Object> entry : metrics.getData().entrySet()) {
+                    data.merge(entry.getKey(), entry.getValue(), (v1, v2) -> ((Number) v1).longValue() + ((Number) v2).longValue());
+                }
+            }
+        }
+
+        return data != null ? new RangerMetrics(data) : null;
+    }
+
+    private RangerAccessResult zoneAwareAccessEvaluationWithNoAudit(RangerAccessRequest request, int policyType, RangerBatchEvaluationCache batchCache) {
         LOG.debug("==> RangerPolicyEngineImpl.zoneAwareAccessEvaluationWithNoAudit({}, policyType={})", request, policyType);
 
         RangerAccessResult     ret                 = null;
@@ -567,7 +611,7 @@ private RangerAccessResult zoneAwareAccessEvaluationWithNoAudit(RangerAccessRequ
             // Evaluate default policies
             RangerPolicyRepository policyRepository = policyEngine.getRepositoryForZone(null);
 
-            ret = evaluatePoliciesNoAudit(request, policyType, null, policyRepository, tagPolicyRepository);
+            ret = evaluatePoliciesNoAudit(request, policyType, null, policyRepository, tagPolicyRepository, batchCache);
 
             ret.setZoneName(null);
         } else if (zoneNames.size() == 1 || request.isAccessTypeAny()) {
@@ -575,7 +619,7 @@ private RangerAccessResult zoneAwareAccessEvaluationWithNoAudit(RangerAccessRequ
             for (String zoneName : zoneNames) {
                 RangerPolicyRepository policyRepository = policyEngine.getRepositoryForZone(zoneName);
 
-                ret = evaluatePoliciesNoAudit(request, policyType, zoneName, policyRepository, tagPolicyRepository);
+                ret = evaluatePoliciesNoAudit(request, policyType, zoneName, policyRepository, tagPolicyRepository, batchCache);
 
                 ret.setZoneName(zoneName);
 
@@ -600,7 +644,7 @@ private RangerAccessResult zoneAwareAccessEvaluationWithNoAudit(RangerAccessRequ
                 LOG.debug("Evaluating policies for zone:[{}]", someZone);
 
                 if (policyRepository != null) {
-                    accessResult = evaluatePoliciesNoAudit(request, policyType, someZone, policyRepository, tagPolicyRepository);
+                    accessResult = evaluatePoliciesNoAudit(request, policyType, someZone, policyRepository, tagPolicyRepository, batchCache);
 
                     if (accessResult.getIsAllowed()) {
                         LOG.debug("Zone:[{}] allowed access. Completed processing other zones", someZone);
@@ -622,7 +666,7 @@ private RangerAccessResult zoneAwareAccessEvaluationWithNoAudit(RangerAccessRequ
         return ret;
     }
 
-    private RangerAccessResult evaluatePoliciesNoAudit(RangerAccessRequest request, int policyType, String zoneName, RangerPolicyRepository policyRepository, RangerPolicyRepository tagPolicyRepository) {
+    private RangerAccessResult evaluatePoliciesNoAudit(RangerAccessRequest request, int policyType, String zoneName, RangerPolicyRepository policyRepository, RangerPolicyRepository tagPolicyRepository, RangerBatchEvaluationCache batchCache) {
         LOG.debug("==> RangerPolicyEngineImpl.evaluatePoliciesNoAudit({}, policyType={}, zoneName={})", request, policyType, zoneName);
 
         final RangerAccessResult ret;
@@ -640,14 +684,14 @@ private RangerAccessResult evaluatePoliciesNoAudit(RangerAccessRequest request,
             }
         }
 
-        ret = evaluatePoliciesForOneAccessTypeNoAudit(request, policyType, zoneName, policyRepository, tagPolicyRepository);
+        ret = evaluatePoliciesForOneAccessTypeNoAudit(request, policyType, zoneName, policyRepository, tagPolicyRepository, batchCache);
 
         LOG.debug("<== RangerPolicyEngineImpl.evaluatePoliciesNoAudit({}, policyType={}, zoneName={}): {}", request, policyType, zoneName, ret);
 
         return ret;
     }
 
-    private RangerAccessResult evaluatePoliciesForOneAccessTypeNoAudit(RangerAccessRequest request, int policyType, String zoneName, RangerPolicyRepository policyRepository, RangerPolicyRepository tagPolicyRepository) {
+    private RangerAccessResult evaluatePoliciesForOneAccessTypeNoAudit(RangerAccessRequest request, int policyType, String zoneName, RangerPolicyRepository policyRepository, RangerPolicyRepository tagPolicyRepository, RangerBatchEvaluationCache batchCache) {
         LOG.debug("==> RangerPolicyEngineImpl.evaluatePoliciesForOneAccessTypeNoAudit({}, policyType={}, zoneName={})", request, policyType, zoneName);
 
         final boolean            isSuperUser = isSuperUser(request.getUser(), request.getUserGroups());
@@ -684,7 +728,7 @@ private RangerAccessResult evaluatePoliciesForOneAccessTypeNoAudit(RangerAccessR
 
             ret.setIsAccessDetermined(false); // discard result by tag-policies, to evaluate resource policies for possible override
 
-            List<RangerPolicyEvaluator> evaluators = policyRepository.getLikelyMatchPolicyEvaluators(request, policyType);
+            List<RangerPolicyEvaluator> evaluators = policyRepository.getLikelyMatchPolicyEvaluators(request, policyType, batchCache);
 
             for (RangerPolicyEvaluator evaluator : evaluators) {
                 if (!evaluator.isApplicable(accessTime)) {
@@ -45,6 +45,7 @@ public class RangerPolicyEngineOptions {
     public boolean optimizeTrieForSpace;
     public boolean optimizeTagTrieForRetrieval;
     public boolean optimizeTagTrieForSpace;
+    public int     builderParallelism                          = 1;
 
     private RangerServiceDefHelper serviceDefHelper;
 
@@ -71,6 +72,7 @@ public RangerPolicyEngineOptions(final RangerPolicyEngineOptions other) {
         this.optimizeTrieForSpace                      = other.optimizeTrieForSpace;
         this.optimizeTagTrieForRetrieval               = other.optimizeTagTrieForRetrieval;
         this.optimizeTagTrieForSpace                   = other.optimizeTagTrieForSpace;
+        this.builderParallelism                        = other.builderParallelism;
     }
 
     public RangerPolicyEngineOptions(final RangerPolicyEngineOptions other, RangerServiceDefHelper serviceDefHelper) {
@@ -103,6 +105,7 @@ public void configureForPlugin(Configuration conf, String propertyPrefix) {
         optimizeTrieForSpace                      = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.trie.for.space", false);
         optimizeTagTrieForRetrieval               = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.tag.trie.for.retrieval", false);
         optimizeTagTrieForSpace                   = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.tag.trie.for.space", false);
+        builderParallelism                        = conf.getInt(propertyPrefix + ".policyengine.option.builder.parallelism", 1);
     }
 
     public void configureDefaultRangerAdmin(Configuration conf, String propertyPrefix) {
@@ -122,6 +125,7 @@ public void configureDefaultRangerAdmin(Configuration conf, String propertyPrefi
         optimizeTrieForRetrieval                  = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.trie.for.retrieval", false);
         disableRoleResolution                     = conf.getBoolean(propertyPrefix + ".policyengine.option.disable.role.resolution", true);
         enableResourceMatcherReuse                = conf.getBoolean(propertyPrefix + ".policyengine.option.enable.resourcematcher.reuse", true);
+        builderParallelism                        = conf.getInt(propertyPrefix + ".policyengine.option.builder.parallelism", 1);
     }
 
     public void configureDelegateAdmin(Configuration conf, String propertyPrefix) {
@@ -216,6 +220,7 @@ public int hashCode() {
         ret *= 2;
         ret += enableResourceMatcherReuse ? 1 : 0;
         ret *= 2;
+        ret += builderParallelism;
         return ret;
     }
 
@@ -241,7 +246,8 @@ public boolean equals(Object other) {
                     && this.optimizeTrieForSpace == that.optimizeTrieForSpace
                     && this.optimizeTagTrieForRetrieval == that.optimizeTagTrieForRetrieval
                     && this.optimizeTagTrieForSpace == that.optimizeTagTrieForSpace
-                    && this.enableResourceMatcherReuse == that.enableResourceMatcherReuse;
+                    && this.enableResourceMatcherReuse == that.enableResourceMatcherReuse
+                    && this.builderParallelism == that.builderParallelism;
         }
         return ret;
     }
@@ -268,6 +274,7 @@ public String toString() {
                 ", optimizeTagTrieForRetrieval: " + optimizeTagTrieForRetrieval +
                 ", optimizeTagTrieForSpace: " + optimizeTagTrieForSpace +
                 ", enableResourceMatcherReuse: " + enableResourceMatcherReuse +
+                ", builderParallelism: " + builderParallelism +
                 " }";
     }
 }
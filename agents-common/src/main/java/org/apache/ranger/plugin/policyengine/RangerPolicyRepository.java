@@ -30,6 +30,7 @@
 import org.apache.ranger.plugin.contextenricher.RangerTagForEval;
 import org.apache.ranger.plugin.contextenricher.RangerUserStoreEnricher;
 import org.apache.ranger.plugin.model.AuditFilter;
+import org.apache.ranger.plugin.model.RangerMetrics;
 import org.apache.ranger.plugin.model.RangerPolicy;
 import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
 import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemAccess;
@@ -61,7 +62,10 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 
 import static org.apache.ranger.plugin.contextenricher.RangerGdsEnricher.RETRIEVER_CLASSNAME_OPTION;
 import static org.apache.ranger.plugin.contextenricher.RangerTagEnricher.TAG_RETRIEVER_CLASSNAME_OPTION;
@@ -83,7 +87,7 @@ public class RangerPolicyRepository {
     private final RangerServiceDef                                               serviceDef;
     private final long                                                           policyVersion;
     private final AuditModeEnum                                                  auditModeEnum;
-    private final Map<String, AuditInfo>                                         accessAuditCache;
+    private final ConcurrentCacheMap<String, AuditInfo>                          accessAuditCache;
     private final String                                                         componentServiceName;
     private final RangerServiceDef                                               componentServiceDef;
     private final Map<String, RangerResourceTrie<RangerPolicyResourceEvaluator>> policyResourceTrie;
@@ -158,9 +162,9 @@ public class RangerPolicyRepository {
         }
 
         if (other.accessAuditCache != null) {
-            int auditResultCacheSize = other.accessAuditCache.size();
+            int auditResultCacheSize = other.accessAuditCache.getCapacity();
 
-            this.accessAuditCache = Collections.synchronizedMap(new CacheMap<>(auditResultCacheSize));
+            this.accessAuditCache = new ConcurrentCacheMap<>(auditResultCacheSize);
         } else {
             this.accessAuditCache = null;
         }
@@ -220,7 +224,7 @@ public RangerPolicyRepository(ServicePolicies servicePolicies, RangerPluginConte
             if (options.cacheAuditResults) {
                 int auditResultCacheSize = pluginContext.getConfig().getInt(propertyName, RANGER_POLICYENGINE_AUDITRESULT_CACHE_SIZE);
 
-                accessAuditCache = Collections.synchronizedMap(new CacheMap<>(auditResultCacheSize));
+                accessAuditCache = auditResultCacheSize > 0 ? new ConcurrentCacheMap<>(auditResultCacheSize) : null;
             } else {
                 accessAuditCache = null;
             }
@@ -432,18 +436,15 @@ public List<RangerPolicyEvaluator> getLikelyMatchPolicyEvaluators(RangerAccessRe
     }
 
     public List<RangerPolicyEvaluator> getLikelyMatchPolicyEvaluators(RangerAccessRequest request, int policyType) {
-        switch (policyType) {
-            case RangerPolicy.POLICY_TYPE_ACCESS:
-                return getLikelyMatchAccessPolicyEvaluators(request);
-            case RangerPolicy.POLICY_TYPE_DATAMASK:
-                return getLikelyMatchDataMaskPolicyEvaluators(request);
-            case RangerPolicy.POLICY_TYPE_ROWFILTER:
-                return getLikelyMatchRowFilterPolicyEvaluators(request);
-            case RangerPolicy.POLICY_TYPE_AUDIT:
-                return getLikelyMatchAuditPolicyEvaluators(request);
-            default:
-                return Collections.emptyList();
+        return getLikelyMatchPolicyEvaluators(request, policyType, null);
+    }
+
+    public List<RangerPolicyEvaluator> getLikelyMatchPolicyEvaluators(RangerAccessRequest request, int policyType, RangerBatchEvaluationCache batchCache) {
+        if (batchCache != null) {
+            return batchCache.getLikelyMatchPolicyEvaluators(this, request, policyType, () -> getLikelyMatchPolicyEvaluatorsForType(request, policyType, batchCache));
         }
+
+        return getLikelyMatchPolicyEvaluatorsForType(request, policyType, null);
     }
 
     List<RangerContextEnricher> shareWith(RangerPolicyRepository other) {
@@ -530,6 +531,13 @@ AuditModeEnum getAuditModeEnum() {
         return auditModeEnum;
     }
 
+    /**
+     * @return hit/miss/eviction counters of the audit-result cache; null when audit results are not cached
+     */
+    public RangerMetrics getAuditResultCacheMetrics() {
+        return accessAuditCache != null ? accessAuditCache.getMetrics() : null;
+    }
+
     boolean setAuditEnabledFromCache(RangerAccessRequest request, RangerAccessResult result) {
         LOG.debug("==> RangerPolicyRepository.setAuditEnabledFromCache()");
 
@@ -645,10 +653,14 @@ RangerPolicyEvaluator getPolicyEvaluator(Long id) {
     }
 
     List<RangerPolicyEvaluator> getLikelyMatchAuditPolicyEvaluators(RangerAccessRequest request) {
+        return getLikelyMatchAuditPolicyEvaluators(request, null);
+    }
+
+    List<RangerPolicyEvaluator> getLikelyMatchAuditPolicyEvaluators(RangerAccessRequest request, RangerBatchEvaluationCache batchCache) {
         RangerAccessResource resource    = request.getResource();
         String               resourceStr = resource == null ? null : resource.getAsString();
 
-        return auditFilterResourceTrie == null || StringUtils.isEmpty(resourceStr) ? getAuditPolicyEvaluators() : getLikelyMatchPolicyEvaluators(auditFilterResourceTrie, request);
+        return auditFilterResourceTrie == null || StringUtils.isEmpty(resourceStr) ? getAuditPolicyEvaluators() : getLikelyMatchPolicyEvaluators(auditFilterResourceTrie, request, batchCache);
     }
 
     Map<String, RangerResourceTrie<RangerPolicyResourceEvaluator>> getTrie(final int policyType) {
@@ -713,28 +725,43 @@ private List<RangerPolicyEvaluator> buildAuditPolicyEvaluators(Map<String, Strin
         return ret;
     }
 
-    private List<RangerPolicyEvaluator> getLikelyMatchAccessPolicyEvaluators(RangerAccessRequest request) {
+    private List<RangerPolicyEvaluator> getLikelyMatchAccessPolicyEvaluators(RangerAccessRequest request, RangerBatchEvaluationCache batchCache) {
         RangerAccessResource resource    = request.getResource();
         String               resourceStr = resource == null ? null : resource.getAsString();
 
-        return policyResourceTrie == null || StringUtils.isEmpty(resourceStr) ? getPolicyEvaluators() : getLikelyMatchPolicyEvaluators(policyResourceTrie, request);
+        return policyResourceTrie == null || StringUtils.isEmpty(resourceStr) ? getPolicyEvaluators() : getLikelyMatchPolicyEvaluators(policyResourceTrie, request, batchCache);
     }
 
-    private List<RangerPolicyEvaluator> getLikelyMatchDataMaskPolicyEvaluators(RangerAccessRequest request) {
+    private List<RangerPolicyEvaluator> getLikelyMatchDataMaskPolicyEvaluators(RangerAccessRequest request, RangerBatchEvaluationCache batchCache) {
         RangerAccessResource resource    = request.getResource();
         String               resourceStr = resource == null ? null : resource.getAsString();
 
-        return dataMaskResourceTrie == null || StringUtils.isEmpty(resourceStr) ? getDataMaskPolicyEvaluators() : getLikelyMatchPolicyEvaluators(dataMaskResourceTrie, request);
+        return dataMaskResourceTrie == null || StringUtils.isEmpty(resourceStr) ? getDataMaskPolicyEvaluators() : getLikelyMatchPolicyEvaluators(dataMaskResourceTrie, request, batchCache);
     }
 
-    private List<RangerPolicyEvaluator> getLikelyMatchRowFilterPolicyEvaluators(RangerAccessRequest request) {
+    private List<RangerPolicyEvaluator> getLikelyMatchRowFilterPolicyEvaluators(RangerAccessRequest request, RangerBatchEvaluationCache batchCache) {
         RangerAccessResource resource    = request.getResource();
         String               resourceStr = resource == null ? null : resource.getAsString();
 
-        return rowFilterResourceTrie == null || StringUtils.isEmpty(resourceStr) ? getRowFilterPolicyEvaluators() : getLikelyMatchPolicyEvaluators(rowFilterResourceTrie, request);
+        return rowFilterResourceTrie == null || StringUtils.isEmpty(resourceStr) ? getRowFilterPolicyEvaluators() : getLikelyMatchPolicyEvaluators(rowFilterResourceTrie, request, batchCache);
+    }
+
+    private List<RangerPolicyEvaluator> getLikelyMatchPolicyEvaluatorsForType(RangerAccessRequest request, int policyType, RangerBatchEvaluationCache batchCache) {
+        switch (policyType) {
+            case RangerPolicy.POLICY_TYPE_ACCESS:
+                return getLikelyMatchAccessPolicyEvaluators(request, batchCache);
+            case RangerPolicy.POLICY_TYPE_DATAMASK:
+                return getLikelyMatchDataMaskPolicyEvaluators(request, batchCache);
+            case RangerPolicy.POLICY_TYPE_ROWFILTER:
+                return getLikelyMatchRowFilterPolicyEvaluators(request, batchCache);
+            case RangerPolicy.POLICY_TYPE_AUDIT:
+                return getLikelyMatchAuditPolicyEvaluators(request, batchCache);
+            default:
+                return Collections.emptyList();
+        }
     }
 
-    private List<RangerPolicyEvaluator> getLikelyMatchPolicyEvaluators(Map<String, RangerResourceTrie<RangerPolicyResourceEvaluator>> resourceTrie, RangerAccessRequest request) {
+    private List<RangerPolicyEvaluator> getLikelyMatchPolicyEvaluators(Map<String, RangerResourceTrie<RangerPolicyResourceEvaluator>> resourceTrie, RangerAccessRequest request, RangerBatchEvaluationCache batchCache) {
         List<RangerPolicyEvaluator> ret      = Collections.emptyList();
         RangerAccessResource        resource = request.getResource();
         RangerPerfTracer            perf     = null;
@@ -743,7 +770,7 @@ private List<RangerPolicyEvaluator> getLikelyMatchPolicyEvaluators(Map<String, R
             perf = RangerPerfTracer.getPerfTracer(PERF_TRIE_OP_LOG, "RangerPolicyRepository.getLikelyMatchEvaluators(resource=" + resource.getAsString() + ")");
         }
 
-        Collection<RangerPolicyResourceEvaluator> smallestList = RangerResourceEvaluatorsRetriever.getEvaluators(resourceTrie, resource.getAsMap(), request.getResourceElementMatchingScopes());
+        Collection<RangerPolicyResourceEvaluator> smallestList = RangerResourceEvaluatorsRetriever.getEvaluators(resourceTrie, resource.getAsMap(), request.getResourceElementMatchingScopes(), null, batchCache);
 
         if (smallestList != null) {
             if (smallestList.isEmpty()) {
@@ -928,23 +955,17 @@ private void init(RangerPolicyEngineOptions options) {
         List<RangerPolicyEvaluator> dataMaskPolicyEvaluators  = new ArrayList<>();
         List<RangerPolicyEvaluator> rowFilterPolicyEvaluators = new ArrayList<>();
 
-        for (RangerPolicy policy : policies) {
-            if (skipBuildingPolicyEvaluator(policy, options)) {
-                continue;
-            }
-
-            RangerPolicyEvaluator evaluator = buildPolicyEvaluator(policy, serviceDef, options);
+        for (RangerPolicyEvaluator evaluator : buildPolicyEvaluators(policies, options)) {
+            RangerPolicy policy = evaluator.getPolicy();
 
-            if (evaluator != null) {
-                if (policy.getPolicyType() == null || policy.getPolicyType() == RangerPolicy.POLICY_TYPE_ACCESS) {
-                    policyEvaluators.add(evaluator);
-                } else if (policy.getPolicyType() == RangerPolicy.POLICY_TYPE_DATAMASK) {
-                    dataMaskPolicyEvaluators.add(evaluator);
-                } else if (policy.getPolicyType() == RangerPolicy.POLICY_TYPE_ROWFILTER) {
-                    rowFilterPolicyEvaluators.add(evaluator);
-                } else {
-                    LOG.warn("RangerPolicyEngine: ignoring policy id={} - invalid policyType '{}'", policy.getId(), policy.getPolicyType());
-                }
+            if (policy.getPolicyType() == null || policy.getPolicyType() == RangerPolicy.POLICY_TYPE_ACCESS) {
+                policyEvaluators.add(evaluator);
+            } else if (policy.getPolicyType() == RangerPolicy.POLICY_TYPE_DATAMASK) {
+                dataMaskPolicyEvaluators.add(evaluator);
+            } else if (policy.getPolicyType() == RangerPolicy.POLICY_TYPE_ROWFILTER) {
+                rowFilterPolicyEvaluators.add(evaluator);
+            } else {
+                LOG.warn("RangerPolicyEngine: ignoring policy id={} - invalid policyType '{}'", policy.getId(), policy.getPolicyType());
             }
         }
 
@@ -1114,6 +1135,38 @@ private RangerContextEnricher buildContextEnricher(RangerServiceDef.RangerContex
         return ret;
     }
 
+    /*
+     * evaluators are built in parallel when this repository is being built in the policy-engine builder pool (see PolicyEngine);
+     * the returned list is in the same order as the given policies
+     */
+    private List<RangerPolicyEvaluator> buildPolicyEvaluators(List<RangerPolicy> policies, RangerPolicyEngineOptions options) {
+        final List<RangerPolicyEvaluator> ret;
+
+        if (options.builderParallelism > 1 && ForkJoinTask.inForkJoinPool() && policies.size() > 1) {
+            ret = policies.parallelStream()
+                    .filter(policy -> !skipBuildingPolicyEvaluator(policy, options))
+                    .map(policy -> buildPolicyEvaluator(policy, serviceDef, options))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        } else {
+            ret = new ArrayList<>(policies.size());
+
+            for (RangerPolicy policy : policies) {
+                if (skipBuildingPolicyEvaluator(policy, options)) {
+                    continue;
+                }
+
+                RangerPolicyEvaluator evaluator = buildPolicyEvaluator(policy, serviceDef, options);
+
+                if (evaluator != null) {
+                    ret.add(evaluator);
+                }
+            }
+        }
+
+        return ret;
+    }
+
     private RangerPolicyEvaluator buildPolicyEvaluator(RangerPolicy policy, RangerServiceDef serviceDef, RangerPolicyEngineOptions options) {
         LOG.debug("==> RangerPolicyRepository.buildPolicyEvaluator({}, {}, {})", policy, serviceDef, options);
 
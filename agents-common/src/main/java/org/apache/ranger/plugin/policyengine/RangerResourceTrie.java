@@ -37,6 +37,7 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -60,6 +61,9 @@
     private static final String DEFAULT_WILDCARD_CHARS    = "*?";
     private static final String TRIE_BUILDER_THREAD_COUNT = "ranger.policyengine.trie.builder.thread.count";
 
+    private static final char[]                        EMPTY_CHILD_CHARS = new char[0];
+    private static final RangerResourceTrie.TrieNode[] EMPTY_CHILD_NODES = new RangerResourceTrie.TrieNode[0];
+
     private final RangerResourceDef resourceDef;
     private final boolean           optIgnoreCase;
     private final boolean           optWildcard;
@@ -67,13 +71,19 @@
     private final boolean           isOptimizedForRetrieval;
     private final boolean           isOptimizedForSpace;
     private final Character         separatorChar;
-    private final TrieNode<T>       root;
+    private       TrieContext       nodeContext;
+    private       TrieNode<T>       root;
     private       Set<T>            inheritedEvaluators;
 
     public RangerResourceTrie(RangerResourceDef resourceDef, List<T> evaluators) {
         this(resourceDef, evaluators, true, null);
     }
 
+    /*
+     * The copy shares all nodes with other. Subsequent add()/delete() on either trie copy the nodes on the path to
+     * the updated node (and, for a wildcard evaluator, the nodes under it), leaving the other trie unchanged; so a
+     * policy delta allocates only the nodes it touches.
+     */
     public RangerResourceTrie(RangerResourceTrie<T> other) {
         RangerPerfTracer perf = null;
 
@@ -88,16 +98,11 @@ public RangerResourceTrie(RangerResourceTrie<T> other) {
         this.isOptimizedForSpace     = other.isOptimizedForSpace;
         this.isOptimizedForRetrieval = other.isOptimizedForRetrieval;
         this.separatorChar           = other.separatorChar;
+        this.nodeContext             = new TrieContext(optIgnoreCase, isOptimizedForSpace);
         this.inheritedEvaluators     = other.inheritedEvaluators != null ? new HashSet<>(other.inheritedEvaluators) : null;
-        this.root                    = copyTrieSubtree(other.root, null);
-
-        wrapUpUpdate();
+        this.root                    = other.root;
 
-        if (!isOptimizedForRetrieval) {
-            LOG.debug("Trie for {} is not optimized for retrieval. Resetting isSetup flag by calling undoSetup() on the root", this.resourceDef.getName());
-
-            root.undoSetup();
-        }
+        other.nodeContext = new TrieContext(optIgnoreCase, isOptimizedForSpace); // other no longer owns the nodes, as they are shared now
 
         RangerPerfTracer.logAlways(perf);
 
@@ -160,6 +165,7 @@ public <E> RangerResourceTrie(RangerResourceDef resourceDef, List<E> evaluators,
         this.isOptimizedForSpace     = isOptimizedForSpace;
         this.isOptimizedForRetrieval = !isOptimizedForSpace && isOptimizedForRetrieval;  // isOptimizedForSpace takes precedence
         this.separatorChar           = ServiceDefUtil.getCharOption(matcherOptions, OPTION_PATH_SEPARATOR, DEFAULT_PATH_SEPARATOR_CHAR);
+        this.nodeContext             = new TrieContext(optIgnoreCase, this.isOptimizedForSpace);
 
         final TrieNode<T> tmpRoot = buildTrie(resourceDef, evaluators, builderThreadCount);
 
@@ -241,7 +247,7 @@ public void add(RangerPolicyResource resource, T evaluator) {
             } else {
                 if (CollectionUtils.isNotEmpty(resource.getValues())) {
                     for (String value : resource.getValues()) {
-                        insert(root, value, resource.getIsRecursive(), evaluator);
+                        update(value, resource.getIsRecursive(), evaluator, true);
                     }
                 }
             }
@@ -269,10 +275,8 @@ public void delete(RangerPolicyResource resource, T evaluator) {
             removeInheritedEvaluator(evaluator);
         } else {
             for (String value : resource.getValues()) {
-                TrieNode<T> node = getNodeForResource(value);
-
-                if (node != null) {
-                    node.removeEvaluatorFromSubtree(evaluator);
+                if (getNodeForResource(value) != null) {
+                    update(value, resource.getIsRecursive(), evaluator, false);
                 }
             }
         }
@@ -286,7 +290,17 @@ public void delete(RangerPolicyResource resource, T evaluator) {
 
     public void wrapUpUpdate() {
         if (root != null) {
-            root.wrapUpUpdate();
+            if (isOptimizedForRetrieval) {
+                RangerPerfTracer postSetupPerf = null;
+
+                if (RangerPerfTracer.isPerfTraceEnabled(PERF_TRIE_INIT_LOG)) {
+                    postSetupPerf = RangerPerfTracer.getPerfTracer(PERF_TRIE_INIT_LOG, "RangerResourceTrie.init(name=" + resourceDef.getName() + "-postSetup)");
+                }
+
+                root.postSetup(null);
+
+                RangerPerfTracer.logAlways(postSetupPerf);
+            }
 
             if (TRACE_LOG.isTraceEnabled()) {
                 TRACE_LOG.trace("Trie Dump from RangerResourceTrie.wrapUpUpdate(name={}):\n[{}]", resourceDef.getName(), dumpTrie());
@@ -386,12 +400,14 @@ public void traverse(String resource, ResourceElementMatchingScope scope, Traver
 
             if (isSelfMatch) { // resource == path(curr)
                 if (resourceEndsWithSep) { // ex: resource=/tmp/
-                    curr.getChildren().values().forEach(c -> c.collectChildEvaluators(separatorChar, 0, handler));
+                    for (TrieNode<T> c : curr.getChildNodes()) {
+                        c.collectChildEvaluators(curr, separatorChar, 0, handler);
+                    }
                 } else { // ex: resource=/tmp
-                    curr = curr.getChild(separatorChar);
+                    TrieNode<T> sepChild = curr.getChild(separatorChar);
 
-                    if (curr != null) {
-                        curr.collectChildEvaluators(separatorChar, 1, handler);
+                    if (sepChild != null) {
+                        sepChild.collectChildEvaluators(curr, separatorChar, 1, handler);
                     }
                 }
             } else if (child != null) { // resource != path(child) ex: (resource=/tmp, path(child)=/tmp/test.txt or path(child)=/tmpdir)
@@ -400,9 +416,9 @@ public void traverse(String resource, ResourceElementMatchingScope scope, Traver
 
                 if (isPrefixMatch) {
                     if (resourceEndsWithSep) { // ex: resource=/tmp/
-                        child.collectChildEvaluators(separatorChar, remainingLen, handler);
+                        child.collectChildEvaluators(curr, separatorChar, remainingLen, handler);
                     } else if (child.getStr().charAt(remainingLen) == separatorChar) { //  ex: resource=/tmp
-                        child.collectChildEvaluators(separatorChar, remainingLen + 1, handler);
+                        child.collectChildEvaluators(curr, separatorChar, remainingLen + 1, handler);
                     }
                 }
             }
@@ -459,69 +475,6 @@ private void removeInheritedEvaluator(T evaluator) {
         }
     }
 
-    private TrieNode<T> copyTrieSubtree(final TrieNode<T> source, final TrieNode<T> parent) {
-        if (TRACE_LOG.isTraceEnabled()) {
-            StringBuilder sb = new StringBuilder();
-
-            source.toString(sb);
-
-            TRACE_LOG.trace("==> copyTrieSubtree({})", sb);
-        }
-
-        TrieNode<T> dest = new TrieNode<>(source.str);
-
-        if (parent != null) {
-            parent.addChild(dest);
-        }
-
-        synchronized (source.children) {
-            dest.isSetup                           = source.isSetup;
-            dest.isSharingParentWildcardEvaluators = source.isSharingParentWildcardEvaluators;
-
-            if (source.isSharingParentWildcardEvaluators) {
-                if (dest.getParent() != null) {
-                    dest.wildcardEvaluators = dest.getParent().getWildcardEvaluators();
-                } else {
-                    dest.wildcardEvaluators = null;
-                }
-            } else {
-                if (source.wildcardEvaluators != null) {
-                    dest.wildcardEvaluators = new HashSet<>(source.wildcardEvaluators);
-                } else {
-                    dest.wildcardEvaluators = null;
-                }
-            }
-
-            if (source.evaluators != null) {
-                if (source.evaluators == source.wildcardEvaluators) {
-                    dest.evaluators = dest.wildcardEvaluators;
-                } else {
-                    dest.evaluators = new HashSet<>(source.evaluators);
-                }
-            } else {
-                dest.evaluators = null;
-            }
-        }
-
-        Map<Character, TrieNode<T>> children = source.getChildren();
-
-        for (Map.Entry<Character, TrieNode<T>> entry : children.entrySet()) {
-            copyTrieSubtree(entry.getValue(), dest);
-        }
-
-        if (TRACE_LOG.isTraceEnabled()) {
-            StringBuilder sourceAsString = new StringBuilder();
-            StringBuilder destAsString   = new StringBuilder();
-
-            source.toString(sourceAsString);
-            dest.toString(destAsString);
-
-            TRACE_LOG.trace("<== copyTrieSubtree({}) : {}", sourceAsString, destAsString);
-        }
-
-        return dest;
-    }
-
     private <E> TrieNode<T> buildTrie(RangerResourceDef resourceDef, List<E> evaluators, int builderThreadCount) {
         LOG.debug("==> buildTrie({}, evaluatorCount={}, isMultiThreaded={})", resourceDef.getName(), evaluators.size(), (builderThreadCount > 1));
 
@@ -531,7 +484,7 @@ private <E> TrieNode<T> buildTrie(RangerResourceDef resourceDef, List<E> evaluat
             perf = RangerPerfTracer.getPerfTracer(PERF_TRIE_INIT_LOG, "RangerResourceTrie.init(resourceDef=" + resourceDef.getName() + ")");
         }
 
-        TrieNode<T>                           ret                 = new TrieNode<>(null);
+        TrieNode<T>                           ret                 = new TrieNode<>(null, nodeContext);
         final boolean                         isMultiThreaded     = builderThreadCount > 1;
         final List<ResourceTrieBuilderThread> builderThreads;
         final Map<Character, Integer>         builderThreadMap;
@@ -627,7 +580,9 @@ private <E> TrieNode<T> buildTrie(RangerResourceDef resourceDef, List<E> evaluat
                         t.add("", false, null);
                         // Wait for threads to finish work
                         t.join();
-                        ret.getChildren().putAll(t.getSubtrees());
+                        for (TrieNode<T> subtree : t.getSubtrees()) {
+                            ret.addChild(subtree);
+                        }
                     } catch (InterruptedException ex) {
                         LOG.error("BuilderThread {} was interrupted:", t, ex);
                         LOG.error("Failing and retrying with one thread");
@@ -678,11 +633,11 @@ private int getMaxDepth() {
         return root.getMaxDepth();
     }
 
-    private Character getLookupChar(char ch) {
+    private char getLookupChar(char ch) {
         return optIgnoreCase ? Character.toLowerCase(ch) : ch;
     }
 
-    private Character getLookupChar(String str, int index) {
+    private char getLookupChar(String str, int index) {
         return getLookupChar(str.charAt(index));
     }
 
@@ -725,6 +680,117 @@ private void insert(TrieNode<T> currentRoot, String resource, boolean isRecursiv
         }
     }
 
+    /*
+     * Adds/removes the evaluator for the given resource value. Nodes to be updated are first made private to this
+     * trie: a node shared with other tries is replaced by a copy, and a node that was setup is reverted to its own
+     * evaluators, so that it is setup again with the change. Since wildcard evaluators of a node are included in the
+     * setup of all nodes under it, the subtree of a node whose wildcard evaluators change is reverted as well.
+     */
+    private void update(String resource, boolean isRecursive, T evaluator, boolean isAdd) {
+        final String prefix        = getNonWildcardPrefix(resource);
+        final int    len           = prefix.length();
+        TrieNode<T>  parent        = null;
+        TrieNode<T>  curr          = getNodeForUpdate(root, null, null);
+        Set<T>       currWildcards = getSetupWildcardEvaluators(curr, null);
+        int          i             = 0;
+
+        while (i < len) {
+            TrieNode<T> child = curr.getChild(getLookupChar(prefix, i));
+
+            if (child == null) {
+                break;
+            }
+
+            child = getNodeForUpdate(child, curr, currWildcards); // if not fully matched, child could be split by getOrCreateChild() below
+
+            final String childStr = child.getStr();
+
+            if (!prefix.regionMatches(optIgnoreCase, i, childStr, 0, childStr.length())) {
+                break;
+            }
+
+            parent        = curr;
+            curr          = child;
+            currWildcards = getSetupWildcardEvaluators(child, currWildcards);
+            i            += childStr.length();
+        }
+
+        if (isAdd) {
+            if (i < len) {
+                curr = curr.getOrCreateChild(prefix.substring(i)); // new nodes have no evaluators, hence currWildcards doesn't change
+            }
+
+            if (isRecursive || len != resource.length()) {
+                undoSetupOfSubtree(curr, currWildcards);
+
+                curr.addWildcardEvaluator(evaluator);
+            } else {
+                curr.addEvaluator(evaluator);
+            }
+        } else if (i == len) {
+            Set<T> wildcardEvaluators = curr.getWildcardEvaluators();
+
+            if (CollectionUtils.isNotEmpty(wildcardEvaluators) && wildcardEvaluators.contains(evaluator)) {
+                undoSetupOfSubtree(curr, currWildcards);
+
+                curr.removeWildcardEvaluator(evaluator);
+            } else {
+                curr.removeEvaluator(evaluator);
+            }
+
+            curr.removeSelfFromTrie(parent);
+        }
+    }
+
+    private TrieNode<T> getNodeForUpdate(TrieNode<T> node, TrieNode<T> parent, Set<T> parentWildcardEvaluators) {
+        final TrieNode<T> ret;
+
+        if (node.isOwnedBy(nodeContext)) {
+            node.undoSetup(parentWildcardEvaluators);
+
+            ret = node;
+        } else {
+            ret = node.copy(nodeContext, parentWildcardEvaluators);
+
+            if (parent == null) {
+                root = ret;
+            } else {
+                parent.addChild(ret);
+            }
+        }
+
+        return ret;
+    }
+
+    private void undoSetupOfSubtree(TrieNode<T> node, Set<T> nodeWildcardEvaluators) {
+        if (!isOptimizedForSpace) {
+            TrieNode<T>[] children = node.getChildNodes();
+
+            for (int i = 0; i < children.length; i++) {
+                TrieNode<T> child = getNodeForUpdate(children[i], node, nodeWildcardEvaluators);
+
+                undoSetupOfSubtree(child, getSetupWildcardEvaluators(child, nodeWildcardEvaluators));
+            }
+        }
+    }
+
+    // wildcard evaluators of the node after setup(), given the node is not setup
+    private Set<T> getSetupWildcardEvaluators(TrieNode<T> node, Set<T> parentWildcardEvaluators) {
+        final Set<T> ret;
+
+        if (isOptimizedForSpace || CollectionUtils.isEmpty(parentWildcardEvaluators)) {
+            ret = node.getWildcardEvaluators();
+        } else if (CollectionUtils.isEmpty(node.getWildcardEvaluators())) {
+            ret = parentWildcardEvaluators;
+        } else {
+            ret = new HashSet<>(node.getWildcardEvaluators());
+
+            ret.addAll(parentWildcardEvaluators);
+        }
+
+        return ret;
+    }
+
     private int getNonWildcardPrefixLength(String str) {
         int minIndex = str.length();
 
@@ -929,7 +995,7 @@ public boolean process(Set<T> evaluators) {
     }
 
     class ResourceTrieBuilderThread extends Thread {
-        private final TrieNode<T>             thisRoot  = new TrieNode<>(null);
+        private final TrieNode<T>             thisRoot  = new TrieNode<>(null, nodeContext);
         private final BlockingQueue<WorkItem> workQueue = new LinkedBlockingQueue<>();
 
         ResourceTrieBuilderThread() {
@@ -966,8 +1032,8 @@ void add(String resourceName, boolean isRecursive, T evaluator) throws Interrupt
             workQueue.put(new WorkItem(resourceName, isRecursive, evaluator));
         }
 
-        Map<Character, TrieNode<T>> getSubtrees() {
-            return thisRoot.getChildren();
+        TrieNode<T>[] getSubtrees() {
+            return thisRoot.getChildNodes();
         }
 
         class WorkItem {
@@ -990,17 +1056,48 @@ public String toString() {
         }
     }
 
-    class TrieNode<U extends T> {
-        private final    Map<Character, TrieNode<U>> children = new HashMap<>();
-        private          String                      str;
-        private          TrieNode<U>                 parent;
-        private volatile Set<U>                      evaluators;
-        private volatile Set<U>                      wildcardEvaluators;
-        private          boolean                     isSharingParentWildcardEvaluators;
-        private volatile boolean                     isSetup;
+    /*
+     * Options used by nodes, and the identity of the trie that owns them: a trie updates only the nodes created with
+     * its context. Nodes don't refer to the trie, or to their parent, so that nodes shared by tries don't keep older
+     * versions of the trie reachable.
+     */
+    static final class TrieContext {
+        private final boolean optIgnoreCase;
+        private final boolean isOptimizedForSpace;
 
-        TrieNode(String str) {
+        TrieContext(boolean optIgnoreCase, boolean isOptimizedForSpace) {
+            this.optIgnoreCase       = optIgnoreCase;
+            this.isOptimizedForSpace = isOptimizedForSpace;
+        }
+
+        char getLookupChar(char ch) {
+            return optIgnoreCase ? Character.toLowerCase(ch) : ch;
+        }
+
+        char getLookupChar(String str, int index) {
+            return getLookupChar(str.charAt(index));
+        }
+    }
+
+    /*
+     * Children of a node are kept in arrays sorted by their lookup-char, instead of a HashMap<Character, TrieNode>.
+     * This saves the hash-table, entry and boxed-key objects on each node; leaf nodes, which are the majority, share
+     * empty arrays. Lookup of a child is a binary search that doesn't allocate. Arrays are sized exactly, so adding or
+     * removing a child copies them - this happens only while building the trie or applying policy deltas to its copy.
+     */
+    static class TrieNode<U extends RangerResourceEvaluator> {
+        private final    TrieContext   ctx;
+        private          char[]        childChars = EMPTY_CHILD_CHARS;
+        private          TrieNode<U>[] childNodes = emptyChildNodes();
+        private          String        str;
+        private volatile Set<U>        evaluators;
+        private volatile Set<U>        wildcardEvaluators;
+        private          boolean       isSharingParentWildcardEvaluators;
+        private volatile boolean       isSetup;
+
+        TrieNode(String str, TrieContext ctx) {
             this.str = str;
+            this.ctx = ctx;
         }
 
         @Override
@@ -1018,16 +1115,19 @@ void setStr(String str) {
             this.str = str;
         }
 
-        TrieNode<U> getParent() {
-            return parent;
-        }
+        Map<Character, TrieNode<U>> getChildren() {
+            Map<Character, TrieNode<U>> ret = new HashMap<>();
 
-        void setParent(TrieNode<U> parent) {
-            this.parent = parent;
+            for (int i = 0; i < childChars.length; i++) {
+                ret.put(childChars[i], childNodes[i]);
+            }
+
+            return ret;
         }
 
-        Map<Character, TrieNode<U>> getChildren() {
-            return children;
+        // returned array must not be modified by the caller
+        TrieNode<U>[] getChildNodes() {
+            return childNodes;
         }
 
         Set<U> getEvaluators() {
@@ -1038,8 +1138,10 @@ Set<U> getWildcardEvaluators() {
             return wildcardEvaluators;
         }
 
-        TrieNode<U> getChild(Character ch) {
-            return children.get(ch);
+        TrieNode<U> getChild(char ch) {
+            int idx = Arrays.binarySearch(childChars, ch);
+
+            return idx >= 0 ? childNodes[idx] : null;
         }
 
         void populateTrieData(RangerResourceTrie.TrieData trieData) {
@@ -1061,14 +1163,12 @@ void populateTrieData(RangerResourceTrie.TrieData trieData) {
                 }
             }
 
-            if (!children.isEmpty()) {
-                if (children.size() == 1) {
+            if (childNodes.length > 0) {
+                if (childNodes.length == 1) {
                     trieData.singleChildNodeCount++;
                 }
 
-                for (Map.Entry<Character, TrieNode<U>> entry : children.entrySet()) {
-                    TrieNode<U> child = entry.getValue();
-
+                for (TrieNode<U> child : childNodes) {
                     child.populateTrieData(trieData);
                 }
             } else {
@@ -1079,9 +1179,7 @@ void populateTrieData(RangerResourceTrie.TrieData trieData) {
         int getMaxDepth() {
             int ret = 0;
 
-            for (Map.Entry<Character, TrieNode<U>> entry : children.entrySet()) {
-                TrieNode<U> child = entry.getValue();
-
+            for (TrieNode<U> child : childNodes) {
                 int maxChildDepth = child.getMaxDepth();
 
                 if (maxChildDepth > ret) {
@@ -1094,23 +1192,23 @@ int getMaxDepth() {
 
         TrieNode<U> getOrCreateChild(String str) {
             int         len   = str.length();
-            TrieNode<U> child = children.get(getLookupChar(str, 0));
+            TrieNode<U> child = getChild(ctx.getLookupChar(str, 0));
 
             if (child == null) {
-                child = new TrieNode<>(str);
+                child = new TrieNode<>(str, ctx);
 
                 addChild(child);
             } else {
                 final String  childStr     = child.getStr();
                 final int     childStrLen  = childStr.length();
-                final boolean isExactMatch = optIgnoreCase ? StringUtils.equalsIgnoreCase(childStr, str) : StringUtils.equals(childStr, str);
+                final boolean isExactMatch = ctx.optIgnoreCase ? StringUtils.equalsIgnoreCase(childStr, str) : StringUtils.equals(childStr, str);
 
                 if (!isExactMatch) {
                     final int numOfCharactersToMatch = Math.min(childStrLen, len);
                     int       index                  = 1;
 
                     for (; index < numOfCharactersToMatch; index++) {
-                        if (getLookupChar(childStr, index) != getLookupChar(str, index)) {
+                        if (ctx.getLookupChar(childStr, index) != ctx.getLookupChar(str, index)) {
                             break;
                         }
                     }
@@ -1119,7 +1217,7 @@ TrieNode<U> getOrCreateChild(String str) {
                         // Matched all
                         if (childStrLen > len) {
                             // Existing node has longer string, need to break up this node
-                            TrieNode<U> newChild = new TrieNode<>(str);
+                            TrieNode<U> newChild = new TrieNode<>(str, ctx);
 
                             this.addChild(newChild);
                             child.setStr(childStr.substring(index));
@@ -1133,7 +1231,7 @@ TrieNode<U> getOrCreateChild(String str) {
                     } else {
                         // Partial match for both; both have leftovers
                         String      matchedPart = str.substring(0, index);
-                        TrieNode<U> newChild    = new TrieNode<>(matchedPart);
+                        TrieNode<U> newChild    = new TrieNode<>(matchedPart, ctx);
 
                         this.addChild(newChild);
                         child.setStr(childStr.substring(index));
@@ -1183,84 +1281,62 @@ void removeWildcardEvaluator(U evaluator) {
             }
         }
 
-        void undoSetup() {
-            for (TrieNode<U> child : children.values()) {
-                child.undoSetup();
-            }
+        boolean isOwnedBy(TrieContext ctx) {
+            return this.ctx == ctx;
+        }
 
-            if (isSetup) {
-                if (evaluators != null) {
-                    if (evaluators == wildcardEvaluators) {
-                        evaluators = null;
-                    } else {
-                        if (wildcardEvaluators != null) {
-                            evaluators.removeAll(wildcardEvaluators);
+        /*
+         * Returns a copy of this node, owned by the given context, with the evaluators added to this node - i.e.
+         * excluding the ones included by setup(). Children are shared with this node.
+         */
+        TrieNode<U> copy(TrieContext ctx, Set<U> parentWildcardEvaluators) {
+            TrieNode<U> ret = new TrieNode<>(str, ctx);
 
-                            if (CollectionUtils.isEmpty(evaluators)) {
-                                evaluators = null;
-                            }
-                        }
-                    }
-                }
+            synchronized (this) { // lookups in tries sharing this node might be setting it up
+                ret.evaluators         = getOwnEvaluators();
+                ret.wildcardEvaluators = getOwnWildcardEvaluators(parentWildcardEvaluators);
+            }
 
-                if (wildcardEvaluators != null) {
-                    if (isSharingParentWildcardEvaluators) {
-                        wildcardEvaluators = null;
-                    } else {
-                        Set<U> parentWildcardEvaluators = getParent() == null ? null : getParent().getWildcardEvaluators();
+            ret.childChars = childChars;
+            ret.childNodes = childNodes.length == 0 ? childNodes : childNodes.clone();
 
-                        if (parentWildcardEvaluators != null) {
-                            wildcardEvaluators.removeAll(parentWildcardEvaluators);
+            return ret;
+        }
 
-                            if (CollectionUtils.isEmpty(wildcardEvaluators)) {
-                                wildcardEvaluators = null;
-                            }
-                        }
-                    }
-                }
+        // reverts setup(), so that the node can be updated; it will be setup again on next lookup or wrapUpUpdate()
+        void undoSetup(Set<U> parentWildcardEvaluators) {
+            if (isSetup) {
+                Set<U> ownEvaluators         = getOwnEvaluators();
+                Set<U> ownWildcardEvaluators = getOwnWildcardEvaluators(parentWildcardEvaluators);
 
+                evaluators                        = ownEvaluators;
+                wildcardEvaluators                = ownWildcardEvaluators;
                 isSharingParentWildcardEvaluators = false;
                 isSetup                           = false;
             }
         }
 
-        void removeSelfFromTrie() {
+        void removeSelfFromTrie(TrieNode<U> parent) {
             LOG.debug("==> removeSelfFromTrie({})", this);
 
-            if (evaluators == null && wildcardEvaluators == null && children.isEmpty()) {
-                TrieNode<U> parent = getParent();
-
+            if (evaluators == null && wildcardEvaluators == null && childNodes.length == 0) {
                 if (parent != null) {
-                    parent.children.remove(str.charAt(0));
+                    parent.removeChild(ctx.getLookupChar(str, 0));
                 }
             } else {
-                LOG.debug("removeSelfFromTrie({}): node is not removed from Trie : [evaluators:{}, wildcard-evaluators:{}, number-of-children-nodes:{}]", this, evaluators, wildcardEvaluators, children.size());
+                LOG.debug("removeSelfFromTrie({}): node is not removed from Trie : [evaluators:{}, wildcard-evaluators:{}, number-of-children-nodes:{}]", this, evaluators, wildcardEvaluators, childNodes.length);
             }
 
             LOG.debug("<== removeSelfFromTrie({})", this);
         }
 
-        void wrapUpUpdate() {
-            if (isOptimizedForRetrieval) {
-                RangerPerfTracer postSetupPerf = null;
-
-                if (RangerPerfTracer.isPerfTraceEnabled(PERF_TRIE_INIT_LOG)) {
-                    postSetupPerf = RangerPerfTracer.getPerfTracer(PERF_TRIE_INIT_LOG, "RangerResourceTrie.init(name=" + resourceDef.getName() + "-postSetup)");
-                }
-
-                postSetup(null);
-
-                RangerPerfTracer.logAlways(postSetupPerf);
-            }
-        }
-
         void postSetup(Set<U> parentWildcardEvaluators) {
             setup(parentWildcardEvaluators);
 
-            for (Map.Entry<Character, TrieNode<U>> entry : children.entrySet()) {
-                TrieNode<U> child = entry.getValue();
-
-                child.postSetup(wildcardEvaluators);
+            for (TrieNode<U> child : childNodes) {
+                if (child.isOwnedBy(ctx)) { // nodes shared with other tries are already setup
+                    child.postSetup(wildcardEvaluators);
+                }
             }
         }
 
@@ -1268,7 +1344,7 @@ void setupIfNeeded(TrieNode<U> parent) {
             boolean setupNeeded = !isSetup;
 
             if (setupNeeded) {
-                synchronized (this.children) {
+                synchronized (this) {
                     setupNeeded = !isSetup;
 
                     if (setupNeeded) {
@@ -1315,23 +1391,25 @@ void setup(Set<U> parentWildcardEvaluators) {
             }
         }
 
-        void collectChildEvaluators(Character sep, int startIdx, TraverseMatchHandler<U> handler) {
-            if (!isOptimizedForSpace) {
-                setupIfNeeded(getParent());
+        void collectChildEvaluators(TrieNode<U> parent, Character sep, int startIdx, TraverseMatchHandler<U> handler) {
+            if (!ctx.isOptimizedForSpace) {
+                setupIfNeeded(parent);
             }
 
             final int sepPos = startIdx < str.length() ? str.indexOf(sep, startIdx) : -1;
 
             if (sepPos == -1) { // ex: startIdx=5, path(str)=/tmp/test, path(a child) could be: /tmp/test.txt, /tmp/test/, /tmp/test/a, /tmp/test/a/b
-                if (isOptimizedForSpace) {
+                if (ctx.isOptimizedForSpace) {
                     handler.process(this.wildcardEvaluators);
                 }
 
                 handler.process(this.evaluators);
 
-                children.values().forEach(c -> c.collectChildEvaluators(sep, 0, handler));
+                for (TrieNode<U> child : childNodes) {
+                    child.collectChildEvaluators(this, sep, 0, handler);
+                }
             } else if (sepPos == (str.length() - 1)) { // ex: str=/tmp/test/, startIdx=5
-                if (isOptimizedForSpace) {
+                if (ctx.isOptimizedForSpace) {
                     handler.process(this.wildcardEvaluators);
                 }
 
@@ -1343,25 +1421,26 @@ void collectChildEvaluators(String resource, int startIndex, TraverseMatchHandle
             if (startIndex == resource.length()) {
                 collectChildEvaluators(handler);
             } else if (startIndex < resource.length()) {
-                Character   startChar = getLookupChar(resource, startIndex);
-                TrieNode<U> childNode = children.get(startChar);
+                TrieNode<U> childNode = getChild(ctx.getLookupChar(resource, startIndex));
 
                 if (childNode != null) {
-                    if (!isOptimizedForSpace) {
-                        childNode.setupIfNeeded(childNode.getParent());
+                    if (!ctx.isOptimizedForSpace) {
+                        childNode.setupIfNeeded(this);
                     }
 
                     String childStr   = childNode.getStr();
                     int    lenToMatch = Math.min(resource.length() - startIndex, childStr.length());
 
-                    if (resource.regionMatches(optIgnoreCase, startIndex, childStr, 0, lenToMatch)) {
+                    if (resource.regionMatches(ctx.optIgnoreCase, startIndex, childStr, 0, lenToMatch)) {
                         handler.process(childNode.wildcardEvaluators);
                         handler.process(childNode.evaluators);
 
                         if (resource.length() == (startIndex + lenToMatch)) {
                             childNode.collectChildEvaluators(handler);
                         } else {
-                            childNode.children.values().forEach(c -> c.collectChildEvaluators(resource, startIndex + childStr.length(), handler));
+                            for (TrieNode<U> child : childNode.childNodes) {
+                                child.collectChildEvaluators(resource, startIndex + childStr.length(), handler);
+                            }
                         }
                     }
                 }
@@ -1374,7 +1453,7 @@ void toString(StringBuilder sb) {
             sb.append("nodeValue=").append(nodeValue == null ? "ROOT" : nodeValue);
             sb.append("; isSetup=").append(isSetup);
             sb.append("; isSharingParentWildcardEvaluators=").append(isSharingParentWildcardEvaluators);
-            sb.append("; childCount=").append(children.size());
+            sb.append("; childCount=").append(childNodes.length);
             sb.append("; evaluators=[");
             if (evaluators != null) {
                 for (U evaluator : evaluators) {
@@ -1403,49 +1482,130 @@ void toString(String prefix, StringBuilder sb) {
             toString(sb);
             sb.append("]\n");
 
-            for (Map.Entry<Character, TrieNode<U>> entry : children.entrySet()) {
-                TrieNode<U> child = entry.getValue();
-
+            for (TrieNode<U> child : childNodes) {
                 child.toString(nodeValue, sb);
             }
         }
 
         private void addChild(TrieNode<U> child) {
-            children.put(getLookupChar(child.getStr(), 0), child);
-            child.setParent(this);
+            char ch  = ctx.getLookupChar(child.getStr(), 0);
+            int  idx = Arrays.binarySearch(childChars, ch);
+
+            if (idx >= 0) {
+                childNodes[idx] = child;
+            } else {
+                int           insertAt  = -(idx + 1);
+                int           moveCount = childChars.length - insertAt;
+                char[]        newChars  = Arrays.copyOf(childChars, childChars.length + 1);
+                TrieNode<U>[] newNodes  = Arrays.copyOf(childNodes, childNodes.length + 1);
+
+                System.arraycopy(childChars, insertAt, newChars, insertAt + 1, moveCount);
+                System.arraycopy(childNodes, insertAt, newNodes, insertAt + 1, moveCount);
+
+                newChars[insertAt] = ch;
+                newNodes[insertAt] = child;
+
+                childChars = newChars;
+                childNodes = newNodes;
+            }
+        }
+
+        private void removeChild(char ch) {
+            int idx = Arrays.binarySearch(childChars, ch);
+
+            if (idx >= 0) {
+                if (childChars.length == 1) {
+                    childChars = EMPTY_CHILD_CHARS;
+                    childNodes = emptyChildNodes();
+                } else {
+                    char[]        newChars  = new char[childChars.length - 1];
+                    TrieNode<U>[] newNodes  = Arrays.copyOf(childNodes, childNodes.length - 1);
+                    int           moveCount = childChars.length - idx - 1;
+
+                    System.arraycopy(childChars, 0, newChars, 0, idx);
+                    System.arraycopy(childChars, idx + 1, newChars, idx, moveCount);
+                    System.arraycopy(childNodes, idx + 1, newNodes, idx, moveCount);
+
+                    childChars = newChars;
+                    childNodes = newNodes;
+                }
+            }
+        }
+
+        private Set<U> getOwnEvaluators() {
+            final Set<U> ret;
+
+            if (!isSetup) {
+                ret = copyOf(evaluators, null);
+            } else if (evaluators == wildcardEvaluators) {
+                ret = null;
+            } else {
+                ret = copyOf(evaluators, wildcardEvaluators);
+            }
+
+            return ret;
+        }
+
+        private Set<U> getOwnWildcardEvaluators(Set<U> parentWildcardEvaluators) {
+            final Set<U> ret;
+
+            if (!isSetup) {
+                ret = copyOf(wildcardEvaluators, null);
+            } else if (isSharingParentWildcardEvaluators) {
+                ret = null;
+            } else {
+                ret = copyOf(wildcardEvaluators, parentWildcardEvaluators);
+            }
+
+            return ret;
+        }
+
+        private static <V> Set<V> copyOf(Set<V> evaluators, Set<V> toExclude) {
+            Set<V> ret = null;
+
+            if (evaluators != null) {
+                ret = new HashSet<>(evaluators);
+
+                if (toExclude != null) {
+                    ret.removeAll(toExclude);
+                }
+
+                if (ret.isEmpty()) {
+                    ret = null;
+                }
+            }
+
+            return ret;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V extends RangerResourceEvaluator> TrieNode<V>[] emptyChildNodes() {
+            return (TrieNode<V>[]) EMPTY_CHILD_NODES;
         }
 
         private void collectChildEvaluators(TraverseMatchHandler<U> childEvaluators) {
             Stack<TrieNode<U>> nodes = new Stack<>();
 
-            nodes.addAll(children.values());
+            pushChildren(this, nodes);
 
             while (!nodes.isEmpty()) {
                 TrieNode<U> childNode = nodes.pop();
 
-                if (!isOptimizedForSpace) {
-                    childNode.setupIfNeeded(childNode.getParent());
-                }
-
                 childEvaluators.process(childNode.wildcardEvaluators);
                 childEvaluators.process(childNode.evaluators);
 
-                nodes.addAll(childNode.children.values());
+                pushChildren(childNode, nodes);
             }
         }
 
-        private void removeEvaluatorFromSubtree(U evaluator) {
-            LOG.debug("==> removeEvaluatorFromSubtree({})", evaluator.getId());
+        private void pushChildren(TrieNode<U> node, Stack<TrieNode<U>> nodes) {
+            for (TrieNode<U> child : node.childNodes) {
+                if (!ctx.isOptimizedForSpace) {
+                    child.setupIfNeeded(node);
+                }
 
-            if (CollectionUtils.isNotEmpty(wildcardEvaluators) && wildcardEvaluators.contains(evaluator)) {
-                removeWildcardEvaluator(evaluator);
-            } else {
-                removeEvaluator(evaluator);
+                nodes.push(child);
             }
-
-            removeSelfFromTrie();
-
-            LOG.debug("<== removeEvaluatorFromSubtree({})", evaluator.getId());
         }
     }
 }
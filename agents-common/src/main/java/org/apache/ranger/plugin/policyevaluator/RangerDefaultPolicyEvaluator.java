@@ -234,7 +234,9 @@ public int getValidityScheduleEvaluatorsCount() {
 
     @Override
     public void evaluate(RangerAccessRequest request, RangerAccessResult result) {
-        LOG.debug("==> RangerDefaultPolicyEvaluator.evaluate(policyId={}, {}, {})", getPolicyId(), request, result);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> RangerDefaultPolicyEvaluator.evaluate(policyId={}, {}, {})", getPolicyId(), request, result);
+        }
 
         RangerPerfTracer perf = null;
 
@@ -287,7 +289,9 @@ public void evaluate(RangerAccessRequest request, RangerAccessResult result) {
 
         RangerPerfTracer.log(perf);
 
-        LOG.debug("<== RangerDefaultPolicyEvaluator.evaluate(policyId={}, {}, {})", getPolicyId(), request, result);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== RangerDefaultPolicyEvaluator.evaluate(policyId={}, {}, {})", getPolicyId(), request, result);
+        }
     }
 
     @Override
@@ -564,8 +568,9 @@ protected void evaluatePolicyItems(RangerAccessRequest request, MatchType matchT
                 RangerAccessResult allowResult = null;
                 boolean            noResult    = false;
 
-                RangerAccessRequestWrapper oneRequest = new RangerAccessRequestWrapper(request, accessType);
-                RangerAccessResult         oneResult  = new RangerAccessResult(result.getPolicyType(), result.getServiceName(), result.getServiceDef(), oneRequest);
+                // a wrapper is needed only to evaluate an access-type other than the one in the request
+                RangerAccessRequest oneRequest = StringUtils.equals(accessType, request.getAccessType()) ? request : new RangerAccessRequestWrapper(request, accessType);
+                RangerAccessResult  oneResult  = new RangerAccessResult(result.getPolicyType(), result.getServiceName(), result.getServiceDef(), oneRequest);
 
                 oneResult.setAuditResultFrom(result);
 
@@ -39,6 +39,7 @@
 import org.apache.ranger.plugin.contextenricher.RangerTagEnricher;
 import org.apache.ranger.plugin.contextenricher.RangerUserStoreEnricher;
 import org.apache.ranger.plugin.model.RangerBaseModelObject;
+import org.apache.ranger.plugin.model.RangerMetrics;
 import org.apache.ranger.plugin.model.RangerPolicy;
 import org.apache.ranger.plugin.model.RangerRole;
 import org.apache.ranger.plugin.model.RangerServiceDef;
@@ -46,6 +47,7 @@
 import org.apache.ranger.plugin.policyengine.RangerAccessRequestImpl;
 import org.apache.ranger.plugin.policyengine.RangerAccessResourceImpl;
 import org.apache.ranger.plugin.policyengine.RangerAccessResult;
+import org.apache.ranger.plugin.policyengine.RangerAccessResultCache;
 import org.apache.ranger.plugin.policyengine.RangerAccessResultProcessor;
 import org.apache.ranger.plugin.policyengine.RangerPluginContext;
 import org.apache.ranger.plugin.policyengine.RangerPolicyEngine;
@@ -95,7 +97,9 @@ public class RangerBasePlugin {
     private final DownloadTrigger             accessTrigger  = new DownloadTrigger();
     private final List<RangerChainedPlugin>   chainedPlugins;
     private final boolean                     dedupStrings;
+    private final RangerAccessResultCache     decisionCache;
     private       PolicyRefresher             refresher;
+    private       RangerPluginMetricsSource   metricsSource;
     private       RangerPolicyEngine          policyEngine;
     private       RangerAuthContext           currentAuthContext;
     private       RangerAccessResultProcessor resultProcessor;
@@ -194,6 +198,7 @@ public RangerBasePlugin(RangerPluginConfig pluginConfig) {
 
         this.dedupStrings   = pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + ".dedup.strings", true);
         this.chainedPlugins = initChainedPlugins();
+        this.decisionCache  = chainedPlugins.isEmpty() ? RangerAccessResultCache.create(pluginConfig) : null; // results of chained plugins are not tracked by the cache
     }
 
     public RangerBasePlugin(RangerPluginConfig pluginConfig, ServicePolicies policies, ServiceTags tags, RangerRoles roles) {
@@ -349,18 +354,26 @@ public void setRoles(RangerRoles roles) {
 
     public void setAuditExcludedUsersGroupsRoles(Set<String> users, Set<String> groups, Set<String> roles) {
         pluginConfig.setAuditExcludedUsersGroupsRoles(users, groups, roles);
+
+        invalidateDecisionCache();
     }
 
     public void setSuperUsersAndGroups(Set<String> users, Set<String> groups) {
         pluginConfig.setSuperUsersGroups(users, groups);
+
+        invalidateDecisionCache();
     }
 
     public void setIsFallbackSupported(boolean isFallbackSupported) {
         pluginConfig.setIsFallbackSupported(isFallbackSupported);
+
+        invalidateDecisionCache();
     }
 
     public void setServiceAdmins(Set<String> users) {
         pluginConfig.setServiceAdmins(users);
+
+        invalidateDecisionCache();
     }
 
     public RangerServiceDef getServiceDef() {
@@ -406,6 +419,14 @@ public void init() {
             refresher.startRefresher();
         }
 
+        if (pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + RangerPluginMetricsSource.PROP_SUFFIX_METRICS_SOURCE_ENABLED, true)) {
+            RangerPluginMetricsSource metricsSource = new RangerPluginMetricsSource(this);
+
+            if (metricsSource.register()) {
+                this.metricsSource = metricsSource;
+            }
+        }
+
         for (RangerChainedPlugin chainedPlugin : chainedPlugins) {
             chainedPlugin.init();
         }
@@ -432,6 +453,24 @@ public long getRolesVersion() {
         return ret != null ? ret : -1L;
     }
 
+    /**
+     * @return counters of the audit-result caches of the current policy engine; null when audit results are not cached
+     */
+    public RangerMetrics getAuditResultCacheMetrics() {
+        RangerPolicyEngine policyEngine = this.policyEngine;
+
+        return policyEngine instanceof RangerPolicyEngineImpl ? ((RangerPolicyEngineImpl) policyEngine).getAuditResultCacheMetrics() : null;
+    }
+
+    /**
+     * @return hit-rate, size and estimated memory of the access decision cache; null when the cache is not enabled
+     */
+    public RangerMetrics getDecisionCacheMetrics() {
+        RangerAccessResultCache decisionCache = this.decisionCache;
+
+        return decisionCache != null ? decisionCache.getMetrics() : null;
+    }
+
     public long getUserStoreVersion() {
         RangerUserStoreEnricher userStoreEnricher = getUserStoreEnricher();
         Long                    ret               = userStoreEnricher != null ? userStoreEnricher.getUserStoreVersion() : null;
@@ -624,6 +663,13 @@ public void cleanup() {
         PolicyRefresher refresher = this.refresher;
         this.refresher = null;
 
+        RangerPluginMetricsSource metricsSource = this.metricsSource;
+        this.metricsSource = null;
+
+        if (metricsSource != null) {
+            metricsSource.unregister();
+        }
+
         RangerPolicyEngine policyEngine = this.policyEngine;
         this.policyEngine = null;
 
@@ -657,7 +703,13 @@ public RangerAccessResult isAccessAllowed(RangerAccessRequest request, RangerAcc
         RangerPolicyEngine policyEngine = this.policyEngine;
 
         if (policyEngine != null) {
-            ret = policyEngine.evaluatePolicies(request, RangerPolicy.POLICY_TYPE_ACCESS, null);
+            RangerAccessResultCache decisionCache = this.decisionCache;
+
+            if (decisionCache != null) {
+                ret = decisionCache.evaluate(policyEngine, request, req -> policyEngine.evaluatePolicies(req, RangerPolicy.POLICY_TYPE_ACCESS, null));
+            } else {
+                ret = policyEngine.evaluatePolicies(request, RangerPolicy.POLICY_TYPE_ACCESS, null);
+            }
         }
 
         if (ret != null) {
@@ -698,22 +750,46 @@ public Collection<RangerAccessResult> isAccessAllowed(Collection<RangerAccessReq
         RangerPolicyEngine             policyEngine = this.policyEngine;
 
         if (policyEngine != null) {
-            ret = policyEngine.evaluatePolicies(requests, RangerPolicy.POLICY_TYPE_ACCESS, null);
+            RangerAccessResultCache decisionCache = this.decisionCache;
+
+            if (decisionCache != null) {
+                ret = decisionCache.evaluate(policyEngine, requests, reqs -> policyEngine.evaluatePolicies(reqs, RangerPolicy.POLICY_TYPE_ACCESS, null));
+            } else {
+                ret = policyEngine.evaluatePolicies(requests, RangerPolicy.POLICY_TYPE_ACCESS, null);
+            }
         }
 
         if (CollectionUtils.isNotEmpty(ret)) {
             for (RangerChainedPlugin chainedPlugin : chainedPlugins) {
-                Collection<RangerAccessResult> chainedResults = chainedPlugin.isAccessAllowed(requests);
+                // as in isAccessAllowed(request), skip the chained plugin for requests whose access is already determined
+                List<RangerAccessRequest>    chainedRequests = new ArrayList<>(requests.size());
+                List<RangerAccessResult>     results         = new ArrayList<>(requests.size());
+                Iterator<RangerAccessResult> iterRet         = ret.iterator();
+
+                for (RangerAccessRequest request : requests) {
+                    RangerAccessResult result = iterRet.hasNext() ? iterRet.next() : null;
+
+                    if (result != null && !(result.getIsAccessDetermined() && chainedPlugin.skipAccessCheckIfAlreadyDetermined)) {
+                        chainedRequests.add(request);
+                        results.add(result);
+                    }
+                }
+
+                if (chainedRequests.isEmpty()) {
+                    continue;
+                }
+
+                Collection<RangerAccessResult> chainedResults = chainedPlugin.isAccessAllowed(chainedRequests);
 
                 if (CollectionUtils.isNotEmpty(chainedResults)) {
-                    Iterator<RangerAccessResult> iterRet            = ret.iterator();
+                    Iterator<RangerAccessResult> iterResults        = results.iterator();
                     Iterator<RangerAccessResult> iterChainedResults = chainedResults.iterator();
 
-                    while (iterRet.hasNext() && iterChainedResults.hasNext()) {
-                        RangerAccessResult result        = iterRet.next();
+                    while (iterResults.hasNext() && iterChainedResults.hasNext()) {
+                        RangerAccessResult result        = iterResults.next();
                         RangerAccessResult chainedResult = iterChainedResults.next();
 
-                        if (result != null && chainedResult != null) {
+                        if (chainedResult != null) {
                             updateResultFromChainedResult(result, chainedResult);
                         }
                     }
@@ -1278,6 +1354,14 @@ private RangerAdminClient getAdminClient() throws Exception {
         return admin;
     }
 
+    private void invalidateDecisionCache() {
+        RangerAccessResultCache decisionCache = this.decisionCache; // null while the constructor applies initial configuration
+
+        if (decisionCache != null) {
+            decisionCache.invalidate();
+        }
+    }
+
     private List<RangerChainedPlugin> initChainedPlugins() {
         List<RangerChainedPlugin> ret                      = new ArrayList<>();
         String                    chainedServicePropPrefix = pluginConfig.getPropertyPrefix() + ".chained.services";
@@ -23,11 +23,14 @@
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
 import org.apache.ranger.plugin.contextenricher.RangerContextEnricher;
+import org.apache.ranger.plugin.contextenricher.RangerTagEnricher;
+import org.apache.ranger.plugin.contextenricher.RangerTagForEval;
 import org.apache.ranger.plugin.policyengine.PolicyEngine;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequestImpl;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequestProcessor;
 import org.apache.ranger.plugin.policyengine.RangerAccessResource;
+import org.apache.ranger.plugin.policyengine.RangerBatchEvaluationCache;
 import org.apache.ranger.plugin.policyengine.RangerMutableResource;
 import org.apache.ranger.plugin.policyengine.RangerPluginContext;
 import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
@@ -69,6 +72,11 @@ public RangerDefaultRequestProcessor(PolicyEngine policyEngine) {
 
     @Override
     public void preProcess(RangerAccessRequest request) {
+        preProcess(request, null);
+    }
+
+    @Override
+    public void preProcess(RangerAccessRequest request, RangerBatchEvaluationCache batchCache) {
         LOG.debug("==> preProcess({})", request);
 
         if (RangerAccessRequestUtil.getIsRequestPreprocessed(request.getContext())) {
@@ -114,7 +122,7 @@ public void preProcess(RangerAccessRequest request) {
 
         Set<String> roles = request.getUserRoles();
         if (pluginContext != null && CollectionUtils.isEmpty(roles)) {
-            roles = pluginContext.getAuthContext().getRolesForUserAndGroups(request.getUser(), request.getUserGroups());
+            roles = getRolesForUserAndGroups(pluginContext, request.getUser(), request.getUserGroups(), batchCache);
 
             if (reqImpl != null && roles != null && !roles.isEmpty()) {
                 reqImpl.setUserRoles(roles);
@@ -125,11 +133,11 @@ public void preProcess(RangerAccessRequest request) {
             RangerAccessRequestUtil.setCurrentUserRolesInContext(request.getContext(), roles);
         }
 
-        Set<String> zoneNames = policyEngine.getMatchedZonesForResourceAndChildren(request.getResource());
+        Set<String> zoneNames = batchCache != null ? batchCache.getMatchedZones(request.getResource(), () -> policyEngine.getMatchedZonesForResourceAndChildren(request.getResource())) : policyEngine.getMatchedZonesForResourceAndChildren(request.getResource());
 
         RangerAccessRequestUtil.setResourceZoneNamesInContext(request, zoneNames);
 
-        enrich(request);
+        enrich(request, batchCache);
 
         RangerAccessRequestUtil.setIsRequestPreprocessed(request.getContext(), Boolean.TRUE);
 
@@ -138,6 +146,14 @@ public void preProcess(RangerAccessRequest request) {
 
     @Override
     public void enrich(RangerAccessRequest request) {
+        enrich(request, null);
+    }
+
+    /*
+     * With a batchCache, tags found by a RangerTagEnricher for a resource are reused for other requests on the same
+     * resource in the batch; other enrichers depend on the request and are called for every request.
+     */
+    private void enrich(RangerAccessRequest request, RangerBatchEvaluationCache batchCache) {
         List<RangerContextEnricher> enrichers = policyEngine.getAllContextEnrichers();
 
         if (!CollectionUtils.isEmpty(enrichers)) {
@@ -148,7 +164,17 @@ public void enrich(RangerAccessRequest request) {
                     perf = RangerPerfTracer.getPerfTracer(PERF_CONTEXTENRICHER_REQUEST_LOG, "RangerContextEnricher.enrich(requestHashCode=" + Integer.toHexString(System.identityHashCode(request)) + ", enricherName=" + enricher.getName() + ")");
                 }
 
-                enricher.enrich(request);
+                if (batchCache != null && enricher instanceof RangerTagEnricher) {
+                    Set<RangerTagForEval> tags = batchCache.getRequestTags(request, () -> {
+                        enricher.enrich(request);
+
+                        return RangerAccessRequestUtil.getRequestTagsFromContext(request.getContext());
+                    });
+
+                    RangerAccessRequestUtil.setRequestTagsInContext(request.getContext(), tags);
+                } else {
+                    enricher.enrich(request);
+                }
 
                 RangerPerfTracer.log(perf);
             }
@@ -157,6 +183,16 @@ public void enrich(RangerAccessRequest request) {
         }
     }
 
+    private Set<String> getRolesForUserAndGroups(RangerPluginContext pluginContext, String user, Set<String> userGroups, RangerBatchEvaluationCache batchCache) {
+        if (batchCache == null) {
+            return pluginContext.getAuthContext().getRolesForUserAndGroups(user, userGroups);
+        }
+
+        Set<String> ret = batchCache.getRolesForUserAndGroups(user, userGroups, () -> pluginContext.getAuthContext().getRolesForUserAndGroups(user, userGroups));
+
+        return ret != null ? new HashSet<>(ret) : null; // each request gets its own copy, as before
+    }
+
     private void setResourceServiceDef(RangerAccessRequest request) {
         RangerAccessResource resource = request.getResource();
 
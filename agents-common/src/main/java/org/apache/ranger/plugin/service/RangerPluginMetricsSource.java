@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.service;
+
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsRecordBuilder;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
+import org.apache.ranger.plugin.model.RangerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Metrics source of a plugin: publishes the counters of the audit-result cache and of the access decision cache to
+ * the Hadoop metrics system of the host process, from where they reach its JMX and metrics sinks.
+ *
+ * The counters are gauges, as they restart from 0 when the policy engine is rebuilt after a policy change.
+ */
+public class RangerPluginMetricsSource implements MetricsSource {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerPluginMetricsSource.class);
+
+    public static final String PROP_SUFFIX_METRICS_SOURCE_ENABLED = ".metrics.source.enabled";
+
+    static final String CONTEXT                   = "ranger-plugin";
+    static final String RECORD_NAME               = "RangerPluginCache";
+    static final String PREFIX_AUDIT_RESULT_CACHE = "AuditResultCache";
+    static final String PREFIX_DECISION_CACHE     = "DecisionCache";
+
+    private final RangerBasePlugin plugin;
+    private final String           sourceName;
+
+    RangerPluginMetricsSource(RangerBasePlugin plugin) {
+        this.plugin     = plugin;
+        this.sourceName = "RangerPlugin-" + plugin.getServiceType() + "-" + plugin.getAppId() + "-" + plugin.getServiceName();
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    @Override
+    public void getMetrics(MetricsCollector collector, boolean all) {
+        MetricsRecordBuilder record = collector.addRecord(RECORD_NAME)
+                .setContext(CONTEXT)
+                .tag(Interns.info("ServiceName", "Ranger service name"), String.valueOf(plugin.getServiceName()))
+                .tag(Interns.info("AppId", "Ranger plugin appId"), String.valueOf(plugin.getAppId()));
+
+        addGauges(record, PREFIX_AUDIT_RESULT_CACHE, plugin.getAuditResultCacheMetrics());
+        addGauges(record, PREFIX_DECISION_CACHE, plugin.getDecisionCacheMetrics());
+    }
+
+    boolean register() {
+        boolean ret = false;
+
+        try {
+            DefaultMetricsSystem.instance().register(sourceName, "Ranger plugin cache metrics", this);
+
+            ret = true;
+
+            LOG.info("Registered metrics source {}", sourceName);
+        } catch (Throwable excp) {
+            LOG.warn("Failed to register metrics source {}. Plugin cache metrics will not be published", sourceName, excp);
+        }
+
+        return ret;
+    }
+
+    void unregister() {
+        try {
+            DefaultMetricsSystem.instance().unregisterSource(sourceName);
+        } catch (Throwable excp) {
+            LOG.warn("Failed to unregister metrics source {}", sourceName, excp);
+        }
+    }
+
+    static void addGauges(MetricsRecordBuilder record, String prefix, RangerMetrics metrics) {
+        if (metrics == null || metrics.getData() == null) {
+            return;
+        }
+
+        for (Map.Entry<String, Object> entry : metrics.getData().entrySet()) {
+            Object value = entry.getValue();
+            String name  = prefix + Character.toUpperCase(entry.getKey().charAt(0)) + entry.getKey().substring(1);
+
+            if (value instanceof Double || value instanceof Float) {
+                record.addGauge(Interns.info(name, prefix + " " + entry.getKey()), ((Number) value).doubleValue());
+            } else if (value instanceof Number) {
+                record.addGauge(Interns.info(name, prefix + " " + entry.getKey()), ((Number) value).longValue());
+            }
+        }
+    }
+}
@@ -24,19 +24,30 @@
 
 import java.util.TimerTask;
 import java.util.concurrent.BlockingQueue;
+import java.util.function.BooleanSupplier;
 
 public final class DownloaderTask extends TimerTask {
     private static final Logger LOG = LoggerFactory.getLogger(DownloaderTask.class);
 
     private final DownloadTrigger                timerTrigger = new DownloadTrigger();
     private final BlockingQueue<DownloadTrigger> queue;
+    private final BooleanSupplier                skipDownload;
 
     public DownloaderTask(BlockingQueue<DownloadTrigger> queue) {
-        this.queue = queue;
+        this(queue, null);
+    }
+
+    public DownloaderTask(BlockingQueue<DownloadTrigger> queue, BooleanSupplier skipDownload) {
+        this.queue        = queue;
+        this.skipDownload = skipDownload;
     }
 
     @Override
     public void run() {
+        if (skipDownload != null && skipDownload.getAsBoolean()) {
+            return;
+        }
+
         try {
             queue.put(timerTrigger);
             timerTrigger.waitForCompletion();
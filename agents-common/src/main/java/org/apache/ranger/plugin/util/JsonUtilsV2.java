@@ -23,6 +23,7 @@
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sun.jersey.api.client.ClientResponse;
 
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.Serializable;
 import java.io.Writer;
@@ -96,4 +97,16 @@ public static <T> T readResponse(ClientResponse response, TypeReference<T> cls)
 
         return jsonToObj(jsonStr, cls);
     }
+
+    /*
+     * Deserializes directly from the response stream, without first materializing the body as a String.
+     * Used for large downloads (policies, tags, roles), whose body can be gzip-encoded by Ranger Admin.
+     * Only the copy of the body as a String is avoided: the complete object is still built before it is returned, and
+     * the policy engine is built from it afterwards.
+     */
+    public static <T> T readResponseStream(ClientResponse response, Class<T> cls) throws Exception {
+        try (InputStream in = response.getEntityInputStream()) {
+            return getMapper().readValue(in, cls);
+        }
+    }
 }
@@ -91,8 +91,12 @@ public static void clearStatistics() {
     }
 
     public static void recordStatistic(String tag, long cpuTime, long elapsedTime) {
+        recordStatistic(tag, cpuTime, elapsedTime, -1L);
+    }
+
+    public static void recordStatistic(String tag, long cpuTime, long elapsedTime, long allocatedBytes) {
         if (instance != null) {
-            instance.record(tag, cpuTime, elapsedTime);
+            instance.record(tag, cpuTime, elapsedTime, allocatedBytes);
         }
     }
 
@@ -137,6 +141,10 @@ private void dumpStatistics() {
                     ", minTimeTaken: " + perfStatistic.minTimeSpent.get() + " μs" +
                     ", avgTimeTaken: " + averageTimeSpent + " μs";
 
+            if (perfStatistic.numberOfAllocationSamples.get() != 0L) {
+                logMsg += ", avgBytesAllocated: " + (perfStatistic.bytesAllocated.get() / perfStatistic.numberOfAllocationSamples.get());
+            }
+
             LOG.info(logMsg);
             PERF.debug(logMsg);
         }
@@ -146,7 +154,7 @@ private void clear() {
         perfStatistics.clear();
     }
 
-    private void record(String tag, long cpuTime, long elapsedTime) {
+    private void record(String tag, long cpuTime, long elapsedTime, long allocatedBytes) {
         try (RangerReadWriteLock.RangerLock writeLock = lock.getWriteLock()) {
             PerfStatistic perfStatistic = perfStatistics.get(tag);
 
@@ -161,18 +169,20 @@ private void record(String tag, long cpuTime, long elapsedTime) {
                 }
             }
 
-            perfStatistic.addPerfDataItem(cpuTime, elapsedTime);
+            perfStatistic.addPerfDataItem(cpuTime, elapsedTime, allocatedBytes);
         }
     }
 
     public static class PerfStatistic {
-        private final AtomicLong numberOfInvocations  = new AtomicLong(0L);
-        private final AtomicLong microSecondsSpentCpu = new AtomicLong(0L);
-        private final AtomicLong minTimeSpentCpu      = new AtomicLong(Long.MAX_VALUE);
-        private final AtomicLong maxTimeSpentCpu      = new AtomicLong(Long.MIN_VALUE);
-        private final AtomicLong microSecondsSpent    = new AtomicLong(0L);
-        private final AtomicLong minTimeSpent         = new AtomicLong(Long.MAX_VALUE);
-        private final AtomicLong maxTimeSpent         = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong numberOfInvocations       = new AtomicLong(0L);
+        private final AtomicLong microSecondsSpentCpu      = new AtomicLong(0L);
+        private final AtomicLong minTimeSpentCpu           = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong maxTimeSpentCpu           = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong microSecondsSpent         = new AtomicLong(0L);
+        private final AtomicLong minTimeSpent              = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong maxTimeSpent              = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong bytesAllocated            = new AtomicLong(0L);
+        private final AtomicLong numberOfAllocationSamples = new AtomicLong(0L);
 
         public long getNumberOfInvocations() {
             return numberOfInvocations.get();
@@ -202,11 +212,25 @@ public long getMaxTimeSpent() {
             return maxTimeSpent.get();
         }
 
-        void addPerfDataItem(final long cpuTime, final long timeTaken) {
+        public long getBytesAllocated() {
+            return bytesAllocated.get();
+        }
+
+        // number of invocations for which allocated bytes were recorded; 0 if the JVM doesn't track per-thread allocation
+        public long getNumberOfAllocationSamples() {
+            return numberOfAllocationSamples.get();
+        }
+
+        void addPerfDataItem(final long cpuTime, final long timeTaken, final long allocatedBytes) {
             numberOfInvocations.getAndIncrement();
             microSecondsSpentCpu.getAndAdd(cpuTime);
             microSecondsSpent.getAndAdd(timeTaken);
 
+            if (allocatedBytes >= 0) {
+                numberOfAllocationSamples.getAndIncrement();
+                bytesAllocated.getAndAdd(allocatedBytes);
+            }
+
             long min = minTimeSpentCpu.get();
             if (cpuTime < min) {
                 minTimeSpentCpu.compareAndSet(min, cpuTime);
@@ -23,7 +23,6 @@
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.admin.client.RangerAdminClient;
 import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
-import org.apache.ranger.authorization.utils.JsonUtils;
 import org.apache.ranger.plugin.policyengine.RangerPluginContext;
 import org.apache.ranger.plugin.service.RangerBasePlugin;
 import org.slf4j.Logger;
@@ -31,10 +30,6 @@
 
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.Reader;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Timer;
@@ -55,7 +50,8 @@ public class PolicyRefresher extends Thread {
     private final String                         cacheDir;
     private final BlockingQueue<DownloadTrigger> policyDownloadQueue = new LinkedBlockingQueue<>();
     private       Timer                          policyDownloadTimer;
-    private       long                           lastKnownVersion    = -1L;
+    private       RangerChangeWatcher            changeWatcher;
+    private volatile long                        lastKnownVersion    = -1L;
     private       long                           lastActivationTimeInMillis;
     private       boolean                        policiesSetInPlugin;
     private       boolean                        serviceDefSetInPlugin;
@@ -128,15 +124,35 @@ public void setLastActivationTimeInMillis(long lastActivationTimeInMillis) {
     }
 
     public void startRefresher() {
+        RangerPluginConfig pluginConfig = plugIn.getConfig();
+
+        if (RangerChangeWatcher.isEnabled(pluginConfig)) {
+            long waitTimeoutMs = pluginConfig.getLong(pluginConfig.getPropertyPrefix() + RangerChangeWatcher.PROP_SUFFIX_WAIT_TIMEOUT_MS, RangerChangeWatcher.DEFAULT_WAIT_TIMEOUT_MS);
+
+            changeWatcher = new RangerChangeWatcher(serviceName, rangerAdmin, waitTimeoutMs, pollingIntervalMs);
+
+            changeWatcher.subscribe(RangerChangeWatcher.CHANGE_TYPE_POLICIES, () -> lastKnownVersion, policyDownloadQueue);
+            changeWatcher.subscribe(RangerChangeWatcher.CHANGE_TYPE_ROLES, rolesProvider::getLastKnownRoleVersion, policyDownloadQueue);
+
+            // context enrichers, initialized while loading policies, subscribe to the watcher from the plugin-context
+            plugIn.getPluginContext().setChangeWatcher(changeWatcher);
+        }
+
         loadRoles();
         loadPolicy();
 
         super.start();
 
+        if (changeWatcher != null) {
+            changeWatcher.start();
+        }
+
+        final RangerChangeWatcher watcher = changeWatcher;
+
         policyDownloadTimer = new Timer("policyDownloadTimer", true);
 
         try {
-            policyDownloadTimer.schedule(new DownloaderTask(policyDownloadQueue), pollingIntervalMs, pollingIntervalMs);
+            policyDownloadTimer.schedule(new DownloaderTask(policyDownloadQueue, () -> watcher != null && watcher.isWatching(policyDownloadQueue)), pollingIntervalMs, pollingIntervalMs);
 
             LOG.debug("Scheduled policyDownloadRefresher to download policies every {} milliseconds", pollingIntervalMs);
         } catch (IllegalStateException exception) {
@@ -156,6 +172,16 @@ public void stopRefresher() {
             policyDownloadTimer.cancel();
         }
 
+        RangerChangeWatcher changeWatcher = this.changeWatcher;
+
+        this.changeWatcher = null;
+
+        if (changeWatcher != null) {
+            changeWatcher.stopWatcher();
+
+            plugIn.getPluginContext().setChangeWatcher(null);
+        }
+
         if (super.isAlive()) {
             super.interrupt();
 
@@ -249,23 +275,12 @@ public void saveToCache(ServicePolicies policies) {
                     perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "PolicyRefresher.saveToCache(serviceName=" + serviceName + ")");
                 }
 
-                Writer writer = null;
-
                 try {
-                    writer = new FileWriter(cacheFile);
+                    RangerCacheFileUtil.writeToFile(cacheFile, policies);
 
-                    JsonUtils.objectToWriter(writer, policies);
+                    deleteOldestVersionCacheFileInCacheDirectory(cacheFile.getParentFile());
                 } catch (Exception excp) {
                     LOG.error("failed to save policies to cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                } finally {
-                    if (writer != null) {
-                        try {
-                            writer.close();
-                            deleteOldestVersionCacheFileInCacheDirectory(cacheFile.getParentFile());
-                        } catch (Exception excp) {
-                            LOG.error("error while closing opened cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                        }
-                    }
                 }
 
                 RangerPerfTracer.log(perf);
@@ -279,8 +294,8 @@ public void saveToCache(ServicePolicies policies) {
                         perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "PolicyRefresher.saveToCache(serviceName=" + serviceName + ")");
                     }
 
-                    try (Writer writer = new FileWriter(backupCacheFile)) {
-                        JsonUtils.objectToWriter(writer, policies);
+                    try {
+                        RangerCacheFileUtil.writeToFile(backupCacheFile, policies);
                     } catch (Exception excp) {
                         LOG.error("failed to save policies to cache file '{}'", backupCacheFile.getAbsolutePath(), excp);
                     }
@@ -416,16 +431,14 @@ private ServicePolicies loadFromCache() {
         File cacheFile = cacheDir == null ? null : new File(cacheDir + File.separator + cacheFileName);
 
         if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
-            Reader           reader = null;
-            RangerPerfTracer perf   = null;
+            RangerPerfTracer perf = null;
 
             if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICYENGINE_INIT_LOG)) {
                 perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "PolicyRefresher.loadFromCache(serviceName=" + serviceName + ")");
             }
 
             try {
-                reader   = new FileReader(cacheFile);
-                policies = JsonUtils.jsonToObject(reader, ServicePolicies.class);
+                policies = RangerCacheFileUtil.readFromFile(cacheFile, ServicePolicies.class);
 
                 if (policies != null) {
                     if (!StringUtils.equals(serviceName, policies.getServiceName())) {
@@ -440,14 +453,6 @@ private ServicePolicies loadFromCache() {
                 LOG.error("failed to load policies from cache file {}", cacheFile.getAbsolutePath(), excp);
             } finally {
                 RangerPerfTracer.log(perf);
-
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (Exception excp) {
-                        LOG.error("error while closing opened cache file {}", cacheFile.getAbsolutePath(), excp);
-                    }
-                }
             }
         } else {
             LOG.warn("cache file does not exist or not readable '{}'", cacheFile == null ? null : cacheFile.getAbsolutePath());
@@ -460,7 +465,7 @@ private ServicePolicies loadFromCache() {
 
     private void deleteOldestVersionCacheFileInCacheDirectory(File cacheDirectory) {
         int        maxVersionsToPreserve = plugIn.getConfig().getInt(plugIn.getConfig().getPropertyPrefix() + "max.versions.to.preserve", 1);
-        FileFilter logFileFilter         = (file) -> file.getName().matches(".+json_.+");
+        FileFilter logFileFilter         = (file) -> file.getName().matches(".+json_.+") && !file.getName().endsWith(RangerCacheFileUtil.TMP_FILE_SUFFIX);
         File[]     filesInParent         = cacheDirectory.listFiles(logFileFilter);
         List<Long> policyVersions        = new ArrayList<>();
 
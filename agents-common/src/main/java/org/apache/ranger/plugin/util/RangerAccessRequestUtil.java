@@ -56,6 +56,9 @@ public class RangerAccessRequestUtil {
     public static final  String KEY_CONTEXT_GDS_RESULT                       = "_GDS_RESULT";
     public static final  String KEY_CONTEXT_IS_REQUEST_PREPROCESSED          = "ISREQUESTPREPROCESSED";
     public static final  String KEY_CONTEXT_RESOURCE_ZONE_NAMES              = "RESOURCE_ZONE_NAMES";
+    private static final String TOKEN_KEY_USER                               = KEY_TOKEN_NAMESPACE + KEY_USER;
+    private static final String TOKEN_KEY_OWNER                              = KEY_TOKEN_NAMESPACE + KEY_OWNER;
+    private static final String TOKEN_KEY_ROLES                              = KEY_TOKEN_NAMESPACE + KEY_ROLES;
     private static final Logger LOG                                          = LoggerFactory.getLogger(RangerAccessRequestUtil.class);
 
     private RangerAccessRequestUtil() {
@@ -172,13 +175,12 @@ public static String getCurrentUserFromContext(Map<String, Object> context) {
     }
 
     public static void setTokenInContext(Map<String, Object> context, String tokenName, Object tokenValue) {
-        String tokenNameWithNamespace = KEY_TOKEN_NAMESPACE + tokenName;
+        String tokenNameWithNamespace = getTokenKey(tokenName);
         context.put(tokenNameWithNamespace, tokenValue);
     }
 
     public static Object getTokenFromContext(Map<String, Object> context, String tokenName) {
-        String tokenNameWithNamespace = KEY_TOKEN_NAMESPACE + tokenName;
-        return MapUtils.isNotEmpty(context) ? context.get(tokenNameWithNamespace) : null;
+        return MapUtils.isNotEmpty(context) ? context.get(getTokenKey(tokenName)) : null;
     }
 
     public static void setCurrentUserRolesInContext(Map<String, Object> context, Set<String> roles) {
@@ -451,4 +453,17 @@ public static void setAccessTypeResult(Map<String, Object> context, String acces
             results.putIfAbsent(accessType, result);
         }
     }
+
+    // avoids building the key string for the tokens looked up on every request
+    private static String getTokenKey(String tokenName) {
+        if (KEY_USER.equals(tokenName)) {
+            return TOKEN_KEY_USER;
+        } else if (KEY_ROLES.equals(tokenName)) {
+            return TOKEN_KEY_ROLES;
+        } else if (KEY_OWNER.equals(tokenName)) {
+            return TOKEN_KEY_OWNER;
+        }
+
+        return KEY_TOKEN_NAMESPACE + tokenName;
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.plugin.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.apache.ranger.plugin.model.RangerPolicy;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.NONE, setterVisibility = JsonAutoDetect.Visibility.NONE, fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RangerBulkPolicyRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<RangerPolicy> policiesToCreate;
+    private List<RangerPolicy> policiesToUpdate;
+    private List<Long>         policyIdsToDelete;
+
+    public RangerBulkPolicyRequest() {
+        this(null, null, null);
+    }
+
+    public RangerBulkPolicyRequest(List<RangerPolicy> policiesToCreate, List<RangerPolicy> policiesToUpdate, List<Long> policyIdsToDelete) {
+        setPoliciesToCreate(policiesToCreate);
+        setPoliciesToUpdate(policiesToUpdate);
+        setPolicyIdsToDelete(policyIdsToDelete);
+    }
+
+    public List<RangerPolicy> getPoliciesToCreate() {
+        return policiesToCreate;
+    }
+
+    public void setPoliciesToCreate(List<RangerPolicy> policiesToCreate) {
+        this.policiesToCreate = policiesToCreate == null ? new ArrayList<>() : policiesToCreate;
+    }
+
+    public List<RangerPolicy> getPoliciesToUpdate() {
+        return policiesToUpdate;
+    }
+
+    public void setPoliciesToUpdate(List<RangerPolicy> policiesToUpdate) {
+        this.policiesToUpdate = policiesToUpdate == null ? new ArrayList<>() : policiesToUpdate;
+    }
+
+    public List<Long> getPolicyIdsToDelete() {
+        return policyIdsToDelete;
+    }
+
+    public void setPolicyIdsToDelete(List<Long> policyIdsToDelete) {
+        this.policyIdsToDelete = policyIdsToDelete == null ? new ArrayList<>() : policyIdsToDelete;
+    }
+
+    public int getSize() {
+        return policiesToCreate.size() + policiesToUpdate.size() + policyIdsToDelete.size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        toString(sb);
+
+        return sb.toString();
+    }
+
+    public StringBuilder toString(StringBuilder sb) {
+        sb.append("RangerBulkPolicyRequest={");
+
+        sb.append("policiesToCreate={").append(policiesToCreate.size()).append("} ");
+        sb.append("policiesToUpdate={").append(policiesToUpdate.size()).append("} ");
+        sb.append("policyIdsToDelete={").append(policyIdsToDelete).append("} ");
+
+        sb.append("}");
+
+        return sb;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.plugin.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.NONE, setterVisibility = JsonAutoDetect.Visibility.NONE, fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RangerBulkPolicyResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Operation { CREATE, UPDATE, DELETE }
+
+    /*
+     * NOT_APPLIED: the item is valid, but no changes were saved since validation of another item in the request failed
+     */
+    public enum Status { SUCCESS, FAILED, NOT_APPLIED }
+
+    private boolean          applied;
+    private List<ItemResult> itemResults = new ArrayList<>();
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public List<ItemResult> getItemResults() {
+        return itemResults;
+    }
+
+    public void setItemResults(List<ItemResult> itemResults) {
+        this.itemResults = itemResults == null ? new ArrayList<>() : itemResults;
+    }
+
+    public void addItemResult(ItemResult itemResult) {
+        itemResults.add(itemResult);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        toString(sb);
+
+        return sb.toString();
+    }
+
+    public StringBuilder toString(StringBuilder sb) {
+        sb.append("RangerBulkPolicyResult={");
+
+        sb.append("applied={").append(applied).append("} ");
+        sb.append("itemResults={");
+        for (ItemResult itemResult : itemResults) {
+            itemResult.toString(sb).append(" ");
+        }
+        sb.append("} ");
+
+        sb.append("}");
+
+        return sb;
+    }
+
+    @JsonAutoDetect(getterVisibility = JsonAutoDetect.Visibility.NONE, setterVisibility = JsonAutoDetect.Visibility.NONE, fieldVisibility = JsonAutoDetect.Visibility.ANY)
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ItemResult implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Operation operation;
+        private int       index;      // index of the item in the list of its operation in the request
+        private Long      policyId;
+        private String    policyName;
+        private Status    status;
+        private String    message;
+
+        public ItemResult() {
+        }
+
+        public ItemResult(Operation operation, int index, Long policyId, String policyName, Status status, String message) {
+            this.operation  = operation;
+            this.index      = index;
+            this.policyId   = policyId;
+            this.policyName = policyName;
+            this.status     = status;
+            this.message    = message;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public void setOperation(Operation operation) {
+            this.operation = operation;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public Long getPolicyId() {
+            return policyId;
+        }
+
+        public void setPolicyId(Long policyId) {
+            this.policyId = policyId;
+        }
+
+        public String getPolicyName() {
+            return policyName;
+        }
+
+        public void setPolicyName(String policyName) {
+            this.policyName = policyName;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+
+            toString(sb);
+
+            return sb.toString();
+        }
+
+        public StringBuilder toString(StringBuilder sb) {
+            sb.append("ItemResult={");
+
+            sb.append("operation={").append(operation).append("} ");
+            sb.append("index={").append(index).append("} ");
+            sb.append("policyId={").append(policyId).append("} ");
+            sb.append("policyName={").append(policyName).append("} ");
+            sb.append("status={").append(status).append("} ");
+            sb.append("message={").append(message).append("} ");
+
+            sb.append("}");
+
+            return sb;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ranger.authorization.utils.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/*
+ * Reads and writes plugin cache files (policies, tags, roles, userstore, gds).
+ *
+ * Files are written to a temporary file in the same directory, synced to disk and then renamed over the
+ * existing file. A crash or a serialization failure while saving therefore never leaves a half-written
+ * cache file behind; the previous version of the file stays in place until the new one is complete.
+ * Contents are UTF-8 JSON, read and written via byte streams to avoid charset decoding overhead.
+ */
+public final class RangerCacheFileUtil {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerCacheFileUtil.class);
+
+    public static final String TMP_FILE_SUFFIX = ".tmp";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private RangerCacheFileUtil() {
+        // to block instantiation
+    }
+
+    public static <T> T readFromFile(File file, Class<T> cls) throws IOException {
+        return readFromFile(file, cls, JsonUtils.getMapper());
+    }
+
+    public static <T> T readFromFile(File file, Class<T> cls, ObjectMapper mapper) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+            return mapper.readValue(in, cls);
+        }
+    }
+
+    public static void writeToFile(File file, Object obj) throws IOException {
+        writeToFile(file, obj, JsonUtils.getMapper());
+    }
+
+    public static void writeToFile(File file, Object obj, ObjectMapper mapper) throws IOException {
+        File    tmpFile   = new File(file.getParentFile(), file.getName() + TMP_FILE_SUFFIX);
+        boolean isWritten = false;
+
+        try {
+            try (FileOutputStream fos = new FileOutputStream(tmpFile)) {
+                OutputStream out = new BufferedOutputStream(fos, BUFFER_SIZE);
+
+                // the stream must stay open after serialization, for the sync below
+                mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, obj);
+
+                out.flush();
+
+                try {
+                    fos.getChannel().force(true);
+                } catch (IOException excp) { // not supported by some filesystems; the rename below still protects against partial files
+                    LOG.warn("failed to sync {} to disk; the cache file may not survive a crash of the host", tmpFile.getAbsolutePath(), excp);
+                }
+            }
+
+            try {
+                Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException excp) {
+                LOG.debug("atomic rename not supported for {}; replacing non-atomically", file.getAbsolutePath());
+
+                Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            isWritten = true;
+        } finally {
+            if (!isWritten && tmpFile.exists() && !tmpFile.delete()) {
+                LOG.warn("failed to delete temporary cache file {}", tmpFile.getAbsolutePath());
+            }
+        }
+    }
+}
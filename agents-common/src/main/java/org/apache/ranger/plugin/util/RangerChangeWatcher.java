@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.util;
+
+import org.apache.ranger.admin.client.RangerAdminClient;
+import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/*
+ * Waits on Ranger Admin (long-poll) for changes to policies, tags, roles and userstore of the service, and triggers
+ * download by the subscribed refreshers as soon as a version moves. While Admin answers these requests, the periodic
+ * downloads of the subscribers are skipped; when it doesn't (older Admin, errors, too many waiters), the subscribers
+ * continue to poll at their configured intervals.
+ */
+public class RangerChangeWatcher extends Thread {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerChangeWatcher.class);
+
+    public static final String CHANGE_TYPE_POLICIES  = "policies";
+    public static final String CHANGE_TYPE_TAGS      = "tags";
+    public static final String CHANGE_TYPE_ROLES     = "roles";
+    public static final String CHANGE_TYPE_USERSTORE = "userstore";
+
+    public static final String PROP_SUFFIX_ENABLED         = ".policy.change.notification.enabled";
+    public static final String PROP_SUFFIX_WAIT_TIMEOUT_MS = ".policy.change.notification.wait.timeoutMs";
+
+    public static final long DEFAULT_WAIT_TIMEOUT_MS = 60 * 1000L;
+
+    private final String             serviceName;
+    private final RangerAdminClient  adminClient;
+    private final long               waitTimeoutMs;
+    private final long               retryIntervalMs;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile long            connectedUntil;
+
+    public RangerChangeWatcher(String serviceName, RangerAdminClient adminClient, long waitTimeoutMs, long retryIntervalMs) {
+        this.serviceName     = serviceName;
+        this.adminClient     = adminClient;
+        this.waitTimeoutMs   = waitTimeoutMs;
+        this.retryIntervalMs = retryIntervalMs;
+
+        setName("RangerChangeWatcher(serviceName=" + serviceName + ")-" + getId());
+        setDaemon(true);
+    }
+
+    public static boolean isEnabled(RangerPluginConfig config) {
+        return config.getBoolean(config.getPropertyPrefix() + PROP_SUFFIX_ENABLED, false);
+    }
+
+    public void subscribe(String changeType, LongSupplier lastKnownVersion, BlockingQueue<DownloadTrigger> downloadQueue) {
+        LOG.debug("RangerChangeWatcher(serviceName={}).subscribe(changeType={})", serviceName, changeType);
+
+        subscriptions.add(new Subscription(changeType, lastKnownVersion, downloadQueue));
+    }
+
+    public void unsubscribe(BlockingQueue<DownloadTrigger> downloadQueue) {
+        subscriptions.removeIf(subscription -> subscription.downloadQueue == downloadQueue);
+    }
+
+    /*
+     * used by periodic download tasks of subscribers to skip polling while changes are being notified
+     */
+    public boolean isWatching(BlockingQueue<DownloadTrigger> downloadQueue) {
+        if (System.currentTimeMillis() >= connectedUntil) {
+            return false;
+        }
+
+        for (Subscription subscription : subscriptions) {
+            if (subscription.downloadQueue == downloadQueue && !subscription.isInSync) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void stopWatcher() {
+        if (super.isAlive()) {
+            super.interrupt();
+
+            try {
+                super.join(retryIntervalMs);
+            } catch (InterruptedException excp) {
+                LOG.warn("RangerChangeWatcher(serviceName={}): interrupted while waiting for thread to exit", serviceName);
+
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        connectedUntil = 0;
+    }
+
+    @Override
+    public void run() {
+        LOG.debug("==> RangerChangeWatcher(serviceName={}).run()", serviceName);
+
+        try {
+            while (!isInterrupted()) {
+                Map<String, Long> lastKnownVersions = getLastKnownVersions();
+                Map<String, Long> latestVersions    = null;
+
+                if (!lastKnownVersions.isEmpty()) {
+                    try {
+                        latestVersions = adminClient.waitForChanges(lastKnownVersions, waitTimeoutMs);
+                    } catch (Exception excp) {
+                        LOG.warn("RangerChangeWatcher(serviceName={}): failed to get change notification from Ranger Admin. Will continue with periodic downloads", serviceName, excp);
+                    }
+                }
+
+                if (latestVersions == null) {
+                    connectedUntil = 0;
+
+                    Thread.sleep(retryIntervalMs);
+
+                    continue;
+                }
+
+                connectedUntil = System.currentTimeMillis() + waitTimeoutMs + retryIntervalMs;
+
+                triggerDownloads(latestVersions);
+            }
+        } catch (InterruptedException excp) {
+            LOG.debug("RangerChangeWatcher(serviceName={}).run(): interrupted! Exiting thread", serviceName);
+        } finally {
+            connectedUntil = 0;
+        }
+
+        LOG.debug("<== RangerChangeWatcher(serviceName={}).run()", serviceName);
+    }
+
+    Map<String, Long> getLastKnownVersions() {
+        Map<String, Long> ret = new HashMap<>();
+
+        for (Subscription subscription : subscriptions) {
+            // a change-type having more than one subscriber should be watched from the oldest version
+            ret.merge(subscription.changeType, subscription.getVersionToWatch(), Math::min);
+        }
+
+        return ret;
+    }
+
+    void triggerDownloads(Map<String, Long> latestVersions) throws InterruptedException {
+        Map<BlockingQueue<DownloadTrigger>, DownloadTrigger> triggers         = new HashMap<>();
+        Map<Subscription, Long>                              versionsBefore   = new HashMap<>();
+        Map<Subscription, Long>                              notifiedVersions = new HashMap<>();
+
+        for (Subscription subscription : subscriptions) {
+            Long latestVersion  = latestVersions.get(subscription.changeType);
+            long versionToWatch = subscription.getVersionToWatch();
+
+            if (latestVersion != null && latestVersion != versionToWatch) {
+                LOG.debug("RangerChangeWatcher(serviceName={}): {} changed from version {} to {}", serviceName, subscription.changeType, versionToWatch, latestVersion);
+
+                versionsBefore.put(subscription, subscription.lastKnownVersion.getAsLong());
+                notifiedVersions.put(subscription, latestVersion);
+
+                if (!triggers.containsKey(subscription.downloadQueue)) {
+                    DownloadTrigger trigger = new DownloadTrigger();
+
+                    subscription.downloadQueue.put(trigger);
+                    triggers.put(subscription.downloadQueue, trigger);
+                }
+            }
+        }
+
+        for (DownloadTrigger trigger : triggers.values()) {
+            trigger.waitForCompletion();
+        }
+
+        for (Map.Entry<Subscription, Long> entry : notifiedVersions.entrySet()) {
+            entry.getKey().onDownloadCompleted(versionsBefore.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    private static class Subscription {
+        final String                         changeType;
+        final LongSupplier                   lastKnownVersion;
+        final BlockingQueue<DownloadTrigger> downloadQueue;
+        volatile boolean                     isInSync = true;
+        long                                 staleVersion;
+        long                                 pendingVersion;
+
+        Subscription(String changeType, LongSupplier lastKnownVersion, BlockingQueue<DownloadTrigger> downloadQueue) {
+            this.changeType       = changeType;
+            this.lastKnownVersion = lastKnownVersion;
+            this.downloadQueue    = downloadQueue;
+        }
+
+        /*
+         * when a notified version could not be downloaded - due to a failure, or a version the subscriber doesn't track
+         * (like tags of a service without tag-service) - wait for the next change from the notified version, and leave
+         * retries to the periodic download of the subscriber.
+         */
+        long getVersionToWatch() {
+            long ret = lastKnownVersion.getAsLong();
+
+            if (!isInSync) {
+                if (ret == staleVersion) {
+                    ret = pendingVersion;
+                } else {
+                    isInSync = true;
+                }
+            }
+
+            return ret;
+        }
+
+        void onDownloadCompleted(long versionBefore, long notifiedVersion) {
+            if (lastKnownVersion.getAsLong() == versionBefore) {
+                staleVersion   = versionBefore;
+                pendingVersion = notifiedVersion;
+                isInSync       = false;
+            } else {
+                isInSync = true;
+            }
+        }
+    }
+}
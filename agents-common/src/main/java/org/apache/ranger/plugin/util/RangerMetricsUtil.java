@@ -101,6 +101,10 @@ public RangerMetrics getVMStatus() {
     }
 
     public void writeMetricsToFile(File filePath) throws Throwable {
+        writeMetricsToFile(filePath, null);
+    }
+
+    public void writeMetricsToFile(File filePath, Map<String, Object> additionalMetrics) throws Throwable {
         LOG.debug("==> RangerMetricsUtil.writeMetricsToFIle({})", filePath);
 
         RangerMetrics rangerMetrics = getVMStatus();
@@ -111,6 +115,10 @@ public void writeMetricsToFile(File filePath) throws Throwable {
             return;
         }
 
+        if (additionalMetrics != null && rangerMetrics.getData() != null) {
+            rangerMetrics.getData().putAll(additionalMetrics);
+        }
+
         try (FileWriter file = new FileWriter(filePath)) {
             JsonUtils.objectToWriter(file, rangerMetrics);
             file.flush();
@@ -36,7 +36,7 @@ public void log() {
         long reportingThreshold = threadInfo == null ? 0L : (1000000 / 1000 - 1); // just about a microsecond
 
         if (elapsedTime > reportingThreshold) {
-            PerfDataRecorder.recordStatistic(tag, (getElapsedCpuTime() + 500) / 1000, (getElapsedUserTime() + 500) / 1000);
+            PerfDataRecorder.recordStatistic(tag, (getElapsedCpuTime() + 500) / 1000, (getElapsedUserTime() + 500) / 1000, getAllocatedBytes());
         }
     }
 
@@ -46,6 +46,6 @@ public void logAlways() {
         //super.logAlways();
 
         // Collect elapsed time in microseconds
-        PerfDataRecorder.recordStatistic(tag, (getElapsedCpuTime() + 500) / 1000, (getElapsedUserTime() + 500) / 1000);
+        PerfDataRecorder.recordStatistic(tag, (getElapsedCpuTime() + 500) / 1000, (getElapsedUserTime() + 500) / 1000, getAllocatedBytes());
     }
 }
@@ -34,6 +34,7 @@ public class RangerPerfTracer {
     protected final ThreadInfo threadInfo;
     protected final long       startTime;
     protected final long       userStartTime;
+    protected final long       allocStartBytes;
 
     public RangerPerfTracer(Logger logger, String tag, String data, ThreadInfo threadInfo) {
         this.logger     = logger;
@@ -41,8 +42,9 @@ public RangerPerfTracer(Logger logger, String tag, String data, ThreadInfo threa
         this.data       = data;
         this.threadInfo = threadInfo;
 
-        startTime     = threadInfo == null ? System.nanoTime() : RangerPerfTracerFactory.threadMgmtBean.getThreadCpuTime(threadInfo.getThreadId());
-        userStartTime = System.nanoTime();
+        startTime       = threadInfo == null ? System.nanoTime() : RangerPerfTracerFactory.threadMgmtBean.getThreadCpuTime(threadInfo.getThreadId());
+        allocStartBytes = threadInfo == null ? -1L : RangerPerfTracerFactory.getThreadAllocatedBytes(threadInfo.getThreadId());
+        userStartTime   = System.nanoTime();
     }
 
     public static Logger getPerfLogger(String name) {
@@ -110,6 +112,18 @@ public final long getElapsedCpuTime() {
         }
     }
 
+    /*
+     * Bytes allocated by the current thread since this tracer was created; -1 if not available.
+     * Includes the allocations made by the tracer itself, which are small and constant.
+     */
+    public final long getAllocatedBytes() {
+        if (allocStartBytes < 0) {
+            return -1L;
+        } else {
+            return RangerPerfTracerFactory.getThreadAllocatedBytes(threadInfo.getThreadId()) - allocStartBytes;
+        }
+    }
+
     public void log() {
         long elapsedTime        = Math.max(getElapsedUserTime(), getElapsedCpuTime());
         long reportingThreshold = threadInfo == null ? 0L : (1000000 / 1000 - 1); // just about a microsecond
@@ -30,6 +30,7 @@ public class RangerPerfTracerFactory {
 
     private static  boolean isThreadCPUTimeSupported;
     private static  boolean isThreadCPUTimeEnabled;
+    private static  boolean isThreadAllocatedMemoryEnabled;
 
     private RangerPerfTracerFactory() {
         // to block instantiation
@@ -57,6 +58,20 @@ static RangerPerfTracer getPerfTracer(Logger logger, String tag, String data) {
 
                             logger.info("ThreadCPUTimeEnabled  = {}", isThreadCPUTimeEnabled);
                         }
+
+                        if (threadMgmtBean instanceof com.sun.management.ThreadMXBean) {
+                            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMgmtBean;
+
+                            if (bean.isThreadAllocatedMemorySupported()) {
+                                if (!bean.isThreadAllocatedMemoryEnabled()) {
+                                    bean.setThreadAllocatedMemoryEnabled(true);
+                                }
+
+                                isThreadAllocatedMemoryEnabled = bean.isThreadAllocatedMemoryEnabled();
+                            }
+                        }
+
+                        logger.info("ThreadAllocatedMemoryEnabled = {}", isThreadAllocatedMemoryEnabled);
                     }
                 }
             }
@@ -78,4 +93,9 @@ static RangerPerfTracer getPerfTracer(Logger logger, String tag, String data) {
 
         return ret;
     }
+
+    // bytes allocated so far by the given thread, or -1 if the JVM doesn't track per-thread allocation
+    static long getThreadAllocatedBytes(long threadId) {
+        return isThreadAllocatedMemoryEnabled ? ((com.sun.management.ThreadMXBean) threadMgmtBean).getThreadAllocatedBytes(threadId) : -1L;
+    }
 }
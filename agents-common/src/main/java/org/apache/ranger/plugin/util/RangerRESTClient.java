@@ -27,6 +27,7 @@
 import com.sun.jersey.api.client.config.ClientConfig;
 import com.sun.jersey.api.client.config.DefaultClientConfig;
 import com.sun.jersey.api.client.filter.ClientFilter;
+import com.sun.jersey.api.client.filter.GZIPContentEncodingFilter;
 import com.sun.jersey.api.client.filter.HTTPBasicAuthFilter;
 import com.sun.jersey.client.urlconnection.HTTPSProperties;
 import org.apache.commons.lang.StringUtils;
@@ -101,6 +102,7 @@ public class RangerRESTClient {
     private          int          maxRetryAttempts;
     private          int          retryIntervalMs;
     private          int          lastKnownActiveUrlIndex;
+    private          boolean      isCompressionEnabled;
     private volatile Client       client;
     private volatile Client       cookieAuthClient;
     private          ClientFilter basicAuthFilter;
@@ -388,6 +390,39 @@ public ClientResponse get(String relativeUrl, Map<String, String> params, Cookie
         return finalResponse;
     }
 
+    /*
+     * for requests expected to take longer than the configured read-timeout, like waiting for changes in Ranger Admin
+     */
+    public ClientResponse get(String relativeUrl, Map<String, String> params, Cookie sessionId, int readTimeoutMs) throws Exception {
+        ClientResponse finalResponse = null;
+        int            startIndex    = this.lastKnownActiveUrlIndex;
+        int            retryAttempt  = 0;
+
+        for (int index = 0; index < configuredURLs.size(); index++) {
+            int currentIndex = (startIndex + index) % configuredURLs.size();
+
+            try {
+                WebResource.Builder br = createWebResource(currentIndex, relativeUrl, params, sessionId, readTimeoutMs);
+
+                finalResponse = br.accept(RangerRESTUtils.REST_EXPECTED_MIME_TYPE).type(RangerRESTUtils.REST_MIME_TYPE_JSON).get(ClientResponse.class);
+
+                if (finalResponse != null) {
+                    setLastKnownActiveUrlIndex(currentIndex);
+
+                    break;
+                }
+            } catch (ClientHandlerException ex) {
+                if (shouldRetry(configuredURLs.get(currentIndex), index, retryAttempt, ex)) {
+                    retryAttempt++;
+
+                    index = -1; // start from first url
+                }
+            }
+        }
+
+        return finalResponse;
+    }
+
     public ClientResponse post(String relativeUrl, Map<String, String> params, Object obj) throws Exception {
         ClientResponse finalResponse = null;
         int            startIndex    = this.lastKnownActiveUrlIndex;
@@ -640,6 +675,16 @@ protected WebResource.Builder createWebResource(int currentIndex, String relativ
         }
     }
 
+    protected WebResource.Builder createWebResource(int currentIndex, String relativeURL, Map<String, String> params, Cookie sessionId, int readTimeoutMs) {
+        WebResource webResource = (sessionId == null ? getClient() : getCookieAuthClient()).resource(configuredURLs.get(currentIndex) + relativeURL);
+
+        webResource = setQueryParams(webResource, params);
+
+        webResource.setProperty(ClientConfig.PROPERTY_READ_TIMEOUT, readTimeoutMs);
+
+        return sessionId == null ? webResource.getRequestBuilder() : webResource.getRequestBuilder().cookie(sessionId);
+    }
+
     protected boolean shouldRetry(String currentUrl, int index, int retryAttemptCount, Exception ex) throws Exception {
         LOG.warn("Failed to communicate with Ranger Admin. URL: {}. Error: {}", currentUrl, ex.getMessage());
 
@@ -725,6 +770,11 @@ private Client buildClient() {
             client.addFilter(basicAuthFilter);
         }
 
+        if (isCompressionEnabled) {
+            // sends "Accept-Encoding: gzip" and transparently decodes gzip responses; servers that don't compress reply with plain JSON
+            client.addFilter(new GZIPContentEncodingFilter(false));
+        }
+
         // Set Connection Timeout and ReadTime for the PolicyRefresh
         client.setConnectTimeout(mRestClientConnTimeOutMs);
         client.setReadTimeout(mRestClientReadTimeOutMs);
@@ -783,6 +833,8 @@ private void init(Configuration config) {
         if (StringUtils.isNotBlank(username) && StringUtils.isNotBlank(password)) {
             setBasicAuthFilter(username, password);
         }
+
+        isCompressionEnabled = config.getBoolean(pluginPropertyPrefix + ".policy.rest.client.compression.enabled", true);
     }
 
     private boolean isSslEnabled(String url) {
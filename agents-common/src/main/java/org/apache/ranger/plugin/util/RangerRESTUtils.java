@@ -64,9 +64,13 @@ public class RangerRESTUtils {
     public static final  String REST_PARAM_LAST_KNOWN_GDS_VERSION                 = "lastKnownGdsVersion";
     public static final  String REST_URL_SERVICE_GET_GDSINFO                      = "/service/gds/download/";
     public static final  String REST_URL_SERVICE_SECURE_GET_GDSINFO               = "/service/gds/secure/download/";
+    public static final  String REST_URL_PLUGIN_WAIT_FOR_CHANGES                  = "/service/plugins/download/changes/";
+    public static final  String REST_URL_PLUGIN_SECURE_WAIT_FOR_CHANGES           = "/service/plugins/secure/download/changes/";
+    public static final  String REST_PARAM_WAIT_TIMEOUT_MS                        = "timeoutMs";
     public static final  String REST_PARAM_CLUSTER_NAME                           = "clusterName";
     public static final  String REST_PARAM_SUPPORTS_POLICY_DELTAS                 = "supportsPolicyDeltas";
     public static final  String REST_PARAM_SUPPORTS_TAG_DELTAS                    = "supportsTagDeltas";
+    public static final  String REST_PARAM_SUPPORTS_USERSTORE_DELTAS              = "supportsUserStoreDeltas";
     public static final  String REST_PARAM_ZONE_NAME                              = "zoneName";
     public static final  String REST_PARAM_EXEC_USER                              = "execUser";
     public static final  String REST_PARAM_CAPABILITIES                           = "pluginCapabilities";
@@ -23,6 +23,7 @@
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.collections.Predicate;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequest.ResourceElementMatchingScope;
+import org.apache.ranger.plugin.policyengine.RangerBatchEvaluationCache;
 import org.apache.ranger.plugin.policyengine.RangerResourceTrie;
 import org.apache.ranger.plugin.policyresourcematcher.RangerResourceEvaluator;
 import org.slf4j.Logger;
@@ -30,6 +31,7 @@
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -49,8 +51,20 @@ public static <T extends RangerResourceEvaluator> Collection<T> getEvaluators(Ma
     }
 
     public static <T extends RangerResourceEvaluator> Collection<T> getEvaluators(Map<String, RangerResourceTrie<T>> resourceTrie, Map<String, ?> resource, Map<String, ResourceElementMatchingScope> scopes, Predicate predicate) {
+        return getEvaluators(resourceTrie, resource, scopes, predicate, null);
+    }
+
+    /*
+     * With a batchCache, lookups of each resource-element in its trie are shared across requests of the batch;
+     * e.g. for columns of a table, database and table lookups are done once. Lookups with a predicate are not cached.
+     */
+    public static <T extends RangerResourceEvaluator> Collection<T> getEvaluators(Map<String, RangerResourceTrie<T>> resourceTrie, Map<String, ?> resource, Map<String, ResourceElementMatchingScope> scopes, Predicate predicate, RangerBatchEvaluationCache batchCache) {
         LOG.debug("==> RangerPolicyResourceEvaluatorsRetriever.getEvaluators({})", resource);
 
+        if (predicate != null) {
+            batchCache = null;
+        }
+
         Set<T> ret = null;
 
         if (scopes == null) {
@@ -73,7 +87,7 @@ public static <T extends RangerResourceEvaluator> Collection<T> getEvaluators(Ma
 
                     Object resourceValues = resource.get(resourceDefName);
 
-                    int evalCount = trie.getEvaluatorsCountForResource(resourceValues, scopes.get(resourceDefName), predicate);
+                    int evalCount = getEvaluatorsCount(trie, resourceValues, scopes.get(resourceDefName), predicate, batchCache);
 
                     if (resourceWithMinEvals == null || (evalCount < minEvalCount)) {
                         resourceWithMinEvals = resourceDefName;
@@ -97,7 +111,7 @@ public static <T extends RangerResourceEvaluator> Collection<T> getEvaluators(Ma
             if (resourceWithMinEvals != null) {
                 RangerResourceTrie<T> trie = resourceTrie.get(resourceWithMinEvals);
 
-                ret = trie.getEvaluatorsForResource(resource.get(resourceWithMinEvals), scopes.get(resourceWithMinEvals), predicate);
+                ret = getEvaluators(trie, resource.get(resourceWithMinEvals), scopes.get(resourceWithMinEvals), predicate, batchCache);
 
                 for (String resourceDefName : resourceKeys) {
                     if (resourceWithMinEvals.equals(resourceDefName)) {
@@ -110,7 +124,7 @@ public static <T extends RangerResourceEvaluator> Collection<T> getEvaluators(Ma
                         continue;
                     }
 
-                    Set<T> evaluators = trie.getEvaluatorsForResource(resource.get(resourceDefName), scopes.get(resourceDefName), ret, predicate);
+                    Set<T> evaluators = getEvaluators(trie, resource.get(resourceDefName), scopes.get(resourceDefName), ret, predicate, batchCache);
 
                     if (CollectionUtils.isEmpty(evaluators)) {
                         ret = Collections.emptySet();
@@ -129,4 +143,46 @@ public static <T extends RangerResourceEvaluator> Collection<T> getEvaluators(Ma
 
         return ret;
     }
+
+    private static <T extends RangerResourceEvaluator> int getEvaluatorsCount(RangerResourceTrie<T> trie, Object resourceValues, ResourceElementMatchingScope scope, Predicate predicate, RangerBatchEvaluationCache batchCache) {
+        if (batchCache == null) {
+            return trie.getEvaluatorsCountForResource(resourceValues, scope, predicate);
+        }
+
+        return batchCache.getTrieEvaluatorsCount(trie, resourceValues, scope, () -> trie.getEvaluatorsCountForResource(resourceValues, scope, null));
+    }
+
+    private static <T extends RangerResourceEvaluator> Set<T> getEvaluators(RangerResourceTrie<T> trie, Object resourceValues, ResourceElementMatchingScope scope, Predicate predicate, RangerBatchEvaluationCache batchCache) {
+        if (batchCache == null) {
+            return trie.getEvaluatorsForResource(resourceValues, scope, predicate);
+        }
+
+        return batchCache.getTrieEvaluators(trie, resourceValues, scope, () -> trie.getEvaluatorsForResource(resourceValues, scope, (Predicate) null));
+    }
+
+    private static <T extends RangerResourceEvaluator> Set<T> getEvaluators(RangerResourceTrie<T> trie, Object resourceValues, ResourceElementMatchingScope scope, Set<T> filter, Predicate predicate, RangerBatchEvaluationCache batchCache) {
+        if (batchCache == null) {
+            return trie.getEvaluatorsForResource(resourceValues, scope, filter, predicate);
+        }
+
+        Set<T> evaluators = getEvaluators(trie, resourceValues, scope, null, batchCache);
+        Set<T> ret        = null;
+
+        if (evaluators != null && !evaluators.isEmpty()) {
+            ret = new HashSet<>();
+
+            if (filter != null) {
+                Set<T> smaller = filter.size() < evaluators.size() ? filter : evaluators;
+                Set<T> larger  = smaller == filter ? evaluators : filter;
+
+                for (T evaluator : smaller) {
+                    if (larger.contains(evaluator)) {
+                        ret.add(evaluator);
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
 }
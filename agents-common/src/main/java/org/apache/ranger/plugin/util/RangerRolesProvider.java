@@ -22,16 +22,11 @@
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.admin.client.RangerAdminClient;
 import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
-import org.apache.ranger.authorization.utils.JsonUtils;
 import org.apache.ranger.plugin.service.RangerBasePlugin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.Reader;
-import java.io.Writer;
 import java.util.Date;
 import java.util.HashSet;
 
@@ -47,7 +42,7 @@ public class RangerRolesProvider {
     private final String            cacheDir;
     private final boolean           disableCacheIfServiceNotFound;
     private       long              lastActivationTimeInMillis;
-    private       long              lastKnownRoleVersion = -1L;
+    private volatile long           lastKnownRoleVersion = -1L;
     private       boolean           rangerUserGroupRolesSetInPlugin;
     private       boolean           serviceDefSetInPlugin;
 
@@ -87,6 +82,10 @@ public void setLastActivationTimeInMillis(long lastActivationTimeInMillis) {
         this.lastActivationTimeInMillis = lastActivationTimeInMillis;
     }
 
+    public long getLastKnownRoleVersion() {
+        return lastKnownRoleVersion;
+    }
+
     public void loadUserGroupRoles(RangerBasePlugin plugIn) {
         LOG.debug("==> RangerRolesProvider(serviceName= {} serviceType= {}).loadUserGroupRoles()", serviceName, serviceType);
 
@@ -183,22 +182,10 @@ public void saveToCache(RangerRoles roles) {
                     perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "RangerRolesProvider.saveToCache(serviceName=" + serviceName + ")");
                 }
 
-                Writer writer = null;
-
                 try {
-                    writer = new FileWriter(cacheFile);
-
-                    JsonUtils.objectToWriter(writer, roles);
+                    RangerCacheFileUtil.writeToFile(cacheFile, roles);
                 } catch (Exception excp) {
                     LOG.error("failed to save roles to cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                } finally {
-                    if (writer != null) {
-                        try {
-                            writer.close();
-                        } catch (Exception excp) {
-                            LOG.error("error while closing opened cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                        }
-                    }
                 }
 
                 RangerPerfTracer.log(perf);
@@ -260,16 +247,14 @@ private RangerRoles loadUserGroupRolesFromCache() {
         File cacheFile = cacheDir == null ? null : new File(cacheDir + File.separator + cacheFileName);
 
         if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
-            Reader           reader = null;
-            RangerPerfTracer perf   = null;
+            RangerPerfTracer perf = null;
 
             if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICYENGINE_INIT_LOG)) {
                 perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "RangerRolesProvider.loadUserGroupRolesFromCache(serviceName=" + serviceName + ")");
             }
 
             try {
-                reader = new FileReader(cacheFile);
-                roles  = JsonUtils.jsonToObject(reader, RangerRoles.class);
+                roles = RangerCacheFileUtil.readFromFile(cacheFile, RangerRoles.class);
 
                 if (roles != null) {
                     if (!StringUtils.equals(serviceName, roles.getServiceName())) {
@@ -284,14 +269,6 @@ private RangerRoles loadUserGroupRolesFromCache() {
                 LOG.error("failed to load userGroupRoles from cache file {}", cacheFile.getAbsolutePath(), excp);
             } finally {
                 RangerPerfTracer.log(perf);
-
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (Exception excp) {
-                        LOG.error("error while closing opened cache file {}", cacheFile.getAbsolutePath(), excp);
-                    }
-                }
             }
         } else {
             roles = new RangerRoles();
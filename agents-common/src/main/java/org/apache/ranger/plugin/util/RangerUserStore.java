@@ -32,6 +32,7 @@
 import java.io.Serializable;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -50,6 +51,9 @@ public class RangerUserStore implements Serializable {
     private Map<String, Set<String>>         userGroupMapping;
     private Map<String, String>              userCloudIdMapping;
     private Map<String, String>              groupCloudIdMapping;
+    private Boolean                          isDelta;
+    private Set<String>                      updatedUsers;
+    private Set<String>                      updatedGroups;
 
     public RangerUserStore() {
         this(-1L, null, null, null);
@@ -62,6 +66,19 @@ public RangerUserStore(Long userStoreVersion, Set<UserInfo> users, Set<GroupInfo
         buildMap(users, groups);
     }
 
+    public RangerUserStore(RangerUserStore other) {
+        setUserStoreVersion(other.getUserStoreVersion());
+        setUserStoreUpdateTime(other.getUserStoreUpdateTime());
+        setUserAttrMapping(other.getUserAttrMapping() == null ? null : new HashMap<>(other.getUserAttrMapping()));
+        setGroupAttrMapping(other.getGroupAttrMapping() == null ? null : new HashMap<>(other.getGroupAttrMapping()));
+        setUserGroupMapping(other.getUserGroupMapping() == null ? null : new HashMap<>(other.getUserGroupMapping()));
+        setUserCloudIdMapping(other.getUserCloudIdMapping() == null ? null : new HashMap<>(other.getUserCloudIdMapping()));
+        setGroupCloudIdMapping(other.getGroupCloudIdMapping() == null ? null : new HashMap<>(other.getGroupCloudIdMapping()));
+        setIsDelta(other.getIsDelta());
+        setUpdatedUsers(other.getUpdatedUsers() == null ? null : new HashSet<>(other.getUpdatedUsers()));
+        setUpdatedGroups(other.getUpdatedGroups() == null ? null : new HashSet<>(other.getUpdatedGroups()));
+    }
+
     public Long getUserStoreVersion() {
         return userStoreVersion;
     }
@@ -118,6 +135,38 @@ public void setGroupCloudIdMapping(Map<String, String> groupCloudIdMapping) {
         this.groupCloudIdMapping = groupCloudIdMapping;
     }
 
+    public Boolean getIsDelta() {
+        return isDelta == null ? Boolean.FALSE : isDelta;
+    }
+
+    public void setIsDelta(Boolean isDelta) {
+        this.isDelta = isDelta;
+    }
+
+    /**
+     * In a delta, names of users whose entries are replaced by the entries in this delta.
+     * A user in this set that has no entry in the delta has been removed.
+     */
+    public Set<String> getUpdatedUsers() {
+        return updatedUsers;
+    }
+
+    public void setUpdatedUsers(Set<String> updatedUsers) {
+        this.updatedUsers = updatedUsers;
+    }
+
+    /**
+     * In a delta, names of groups whose entries are replaced by the entries in this delta.
+     * A group in this set that has no entry in the delta has been removed.
+     */
+    public Set<String> getUpdatedGroups() {
+        return updatedGroups;
+    }
+
+    public void setUpdatedGroups(Set<String> updatedGroups) {
+        this.updatedGroups = updatedGroups;
+    }
+
     public void dedupStrings() {
         Map<String, String> strTbl = new HashMap<>();
 
@@ -140,7 +189,8 @@ public String toString() {
     public StringBuilder toString(StringBuilder sb) {
         sb.append("RangerUserStore={")
                 .append("userStoreVersion=").append(userStoreVersion).append(", ")
-                .append("userStoreUpdateTime=").append(userStoreUpdateTime).append(", ");
+                .append("userStoreUpdateTime=").append(userStoreUpdateTime).append(", ")
+                .append("isDelta=").append(isDelta).append(", ");
 
         sb.append("users={");
         if (MapUtils.isNotEmpty(userAttrMapping)) {
@@ -175,6 +225,11 @@ public StringBuilder toString(StringBuilder sb) {
         }
         sb.append("}");
 
+        if (getIsDelta()) {
+            sb.append(", updatedUsers=").append(updatedUsers);
+            sb.append(", updatedGroups=").append(updatedGroups);
+        }
+
         sb.append("}");
 
         return sb;
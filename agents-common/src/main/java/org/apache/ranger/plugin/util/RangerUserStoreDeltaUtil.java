@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.util;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.apache.ranger.plugin.util.RangerUserStore.CLOUD_IDENTITY_NAME;
+
+public class RangerUserStoreDeltaUtil {
+    private static final Logger LOG                      = LoggerFactory.getLogger(RangerUserStoreDeltaUtil.class);
+    private static final Logger PERF_USERSTORE_DELTA_LOG = RangerPerfTracer.getPerfLogger("userstore.delta");
+
+    private RangerUserStoreDeltaUtil() {
+        // to block instantiation
+    }
+
+    /*
+    Adds names of users whose attributes or group memberships differ between oldStore and newStore, including users added or removed.
+     */
+    public static void addUpdatedUsers(RangerUserStore oldStore, RangerUserStore newStore, Set<String> updatedUsers) {
+        addUpdatedNames(nullToEmpty(oldStore.getUserAttrMapping()), nullToEmpty(newStore.getUserAttrMapping()), updatedUsers);
+        addUpdatedNames(nullToEmpty(oldStore.getUserGroupMapping()), nullToEmpty(newStore.getUserGroupMapping()), updatedUsers);
+    }
+
+    /*
+    Adds names of groups whose attributes differ between oldStore and newStore, including groups added or removed.
+     */
+    public static void addUpdatedGroups(RangerUserStore oldStore, RangerUserStore newStore, Set<String> updatedGroups) {
+        addUpdatedNames(nullToEmpty(oldStore.getGroupAttrMapping()), nullToEmpty(newStore.getGroupAttrMapping()), updatedGroups);
+    }
+
+    /*
+    Creates a delta that carries the current entries of given users and groups in userStore.
+     */
+    public static RangerUserStore createDelta(RangerUserStore userStore, Set<String> updatedUsers, Set<String> updatedGroups) {
+        RangerUserStore                  ret              = new RangerUserStore();
+        Map<String, Map<String, String>> userAttrMapping  = nullToEmpty(userStore.getUserAttrMapping());
+        Map<String, Map<String, String>> groupAttrMapping = nullToEmpty(userStore.getGroupAttrMapping());
+        Map<String, Set<String>>         userGroupMapping = nullToEmpty(userStore.getUserGroupMapping());
+        Map<String, Map<String, String>> deltaUserAttrs   = new HashMap<>();
+        Map<String, Map<String, String>> deltaGroupAttrs  = new HashMap<>();
+        Map<String, Set<String>>         deltaUserGroups  = new HashMap<>();
+
+        for (String user : updatedUsers) {
+            Map<String, String> userAttrs  = userAttrMapping.get(user);
+            Set<String>         userGroups = userGroupMapping.get(user);
+
+            if (userAttrs != null) {
+                deltaUserAttrs.put(user, userAttrs);
+            }
+
+            if (userGroups != null) {
+                deltaUserGroups.put(user, userGroups);
+            }
+        }
+
+        for (String group : updatedGroups) {
+            Map<String, String> groupAttrs = groupAttrMapping.get(group);
+
+            if (groupAttrs != null) {
+                deltaGroupAttrs.put(group, groupAttrs);
+            }
+        }
+
+        ret.setUserStoreVersion(userStore.getUserStoreVersion());
+        ret.setUserStoreUpdateTime(userStore.getUserStoreUpdateTime());
+        ret.setUserAttrMapping(deltaUserAttrs);
+        ret.setGroupAttrMapping(deltaGroupAttrs);
+        ret.setUserGroupMapping(deltaUserGroups);
+        ret.setIsDelta(Boolean.TRUE);
+        ret.setUpdatedUsers(new HashSet<>(updatedUsers));
+        ret.setUpdatedGroups(new HashSet<>(updatedGroups));
+
+        return ret;
+    }
+
+    /*
+    Returns a new userstore with the delta applied; userStore is not modified, so that it can continue to be used by concurrent requests.
+    Maps are copied shallow - the attribute maps and group sets of users/groups not in the delta are shared with userStore.
+     */
+    public static RangerUserStore applyDelta(RangerUserStore userStore, RangerUserStore delta) {
+        LOG.debug("==> RangerUserStoreDeltaUtil.applyDelta(): userStore:[{}], delta:[{}]", userStore, delta);
+
+        RangerUserStore  ret  = userStore;
+        RangerPerfTracer perf = null;
+
+        if (RangerPerfTracer.isPerfTraceEnabled(PERF_USERSTORE_DELTA_LOG)) {
+            perf = RangerPerfTracer.getPerfTracer(PERF_USERSTORE_DELTA_LOG, "RangerUserStoreDeltaUtil.applyDelta()");
+        }
+
+        if (userStore != null && !userStore.getIsDelta() && delta != null && delta.getIsDelta()) {
+            ret = new RangerUserStore(userStore);
+
+            Map<String, Map<String, String>> userAttrMapping     = ret.getUserAttrMapping() != null ? ret.getUserAttrMapping() : new HashMap<>();
+            Map<String, Map<String, String>> groupAttrMapping    = ret.getGroupAttrMapping() != null ? ret.getGroupAttrMapping() : new HashMap<>();
+            Map<String, Set<String>>         userGroupMapping    = ret.getUserGroupMapping() != null ? ret.getUserGroupMapping() : new HashMap<>();
+            Map<String, String>              userCloudIdMapping  = ret.getUserCloudIdMapping() != null ? ret.getUserCloudIdMapping() : new HashMap<>();
+            Map<String, String>              groupCloudIdMapping = ret.getGroupCloudIdMapping() != null ? ret.getGroupCloudIdMapping() : new HashMap<>();
+
+            if (CollectionUtils.isNotEmpty(delta.getUpdatedUsers())) {
+                Map<String, Map<String, String>> deltaUserAttrs  = nullToEmpty(delta.getUserAttrMapping());
+                Map<String, Set<String>>         deltaUserGroups = nullToEmpty(delta.getUserGroupMapping());
+
+                for (String user : delta.getUpdatedUsers()) {
+                    removeCloudId(userCloudIdMapping, userAttrMapping.remove(user), user);
+                    userGroupMapping.remove(user);
+
+                    Map<String, String> userAttrs  = deltaUserAttrs.get(user);
+                    Set<String>         userGroups = deltaUserGroups.get(user);
+
+                    if (userAttrs != null) {
+                        userAttrMapping.put(user, userAttrs);
+                        addCloudId(userCloudIdMapping, userAttrs, user);
+                    }
+
+                    if (userGroups != null) {
+                        userGroupMapping.put(user, userGroups);
+                    }
+                }
+            }
+
+            if (CollectionUtils.isNotEmpty(delta.getUpdatedGroups())) {
+                Map<String, Map<String, String>> deltaGroupAttrs = nullToEmpty(delta.getGroupAttrMapping());
+
+                for (String group : delta.getUpdatedGroups()) {
+                    removeCloudId(groupCloudIdMapping, groupAttrMapping.remove(group), group);
+
+                    Map<String, String> groupAttrs = deltaGroupAttrs.get(group);
+
+                    if (groupAttrs != null) {
+                        groupAttrMapping.put(group, groupAttrs);
+                        addCloudId(groupCloudIdMapping, groupAttrs, group);
+                    }
+                }
+            }
+
+            ret.setUserStoreVersion(delta.getUserStoreVersion());
+            ret.setUserStoreUpdateTime(delta.getUserStoreUpdateTime());
+            ret.setUserAttrMapping(userAttrMapping);
+            ret.setGroupAttrMapping(groupAttrMapping);
+            ret.setUserGroupMapping(userGroupMapping);
+            ret.setUserCloudIdMapping(userCloudIdMapping);
+            ret.setGroupCloudIdMapping(groupCloudIdMapping);
+            ret.setIsDelta(null);
+            ret.setUpdatedUsers(null);
+            ret.setUpdatedGroups(null);
+
+            LOG.debug("RangerUserStoreDeltaUtil.applyDelta(): updatedUsers={}, updatedGroups={}", delta.getUpdatedUsers(), delta.getUpdatedGroups());
+        } else {
+            LOG.debug("Cannot apply deltas to userStore as userStore is null or userStore is a delta or delta is not a delta");
+        }
+
+        RangerPerfTracer.log(perf);
+
+        LOG.debug("<== RangerUserStoreDeltaUtil.applyDelta(): ret:[{}]", ret);
+
+        return ret;
+    }
+
+    private static <V> void addUpdatedNames(Map<String, V> oldMap, Map<String, V> newMap, Set<String> updatedNames) {
+        for (Map.Entry<String, V> entry : newMap.entrySet()) {
+            if (!Objects.equals(entry.getValue(), oldMap.get(entry.getKey()))) {
+                updatedNames.add(entry.getKey());
+            }
+        }
+
+        for (String name : oldMap.keySet()) {
+            if (!newMap.containsKey(name)) {
+                updatedNames.add(name);
+            }
+        }
+    }
+
+    private static void removeCloudId(Map<String, String> cloudIdMapping, Map<String, String> attrs, String name) {
+        String cloudId = attrs != null ? attrs.get(CLOUD_IDENTITY_NAME) : null;
+
+        if (StringUtils.isNotEmpty(cloudId) && StringUtils.equals(cloudIdMapping.get(cloudId), name)) {
+            cloudIdMapping.remove(cloudId);
+        }
+    }
+
+    private static void addCloudId(Map<String, String> cloudIdMapping, Map<String, String> attrs, String name) {
+        String cloudId = attrs.get(CLOUD_IDENTITY_NAME);
+
+        if (StringUtils.isNotEmpty(cloudId)) {
+            cloudIdMapping.put(cloudId, name);
+        }
+    }
+
+    private static <V> Map<String, V> nullToEmpty(Map<String, V> map) {
+        return map != null ? map : Collections.emptyMap();
+    }
+}
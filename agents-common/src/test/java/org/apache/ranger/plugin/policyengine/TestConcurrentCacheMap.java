@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.apache.ranger.plugin.model.RangerMetrics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestConcurrentCacheMap {
+    @Test
+    public void testGetPut() {
+        ConcurrentCacheMap<String, String> cache = new ConcurrentCacheMap<>(16, 1);
+
+        assertNull(cache.get("key1"));
+
+        cache.put("key1", "value1");
+        cache.put("key1", "value1-updated");
+
+        assertEquals("value1-updated", cache.get("key1"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testEvictionPrefersUnreferencedEntries() {
+        int                                capacity = 16;
+        ConcurrentCacheMap<String, String> cache    = new ConcurrentCacheMap<>(capacity, 1);
+
+        for (int i = 0; i < capacity; i++) {
+            cache.put(String.valueOf(i), String.valueOf(i));
+        }
+
+        for (int i = 0; i < capacity / 2; i++) { // reference the first half
+            assertNotNull(cache.get(String.valueOf(i)));
+        }
+
+        for (int i = capacity; i < capacity + capacity / 2; i++) {
+            cache.put(String.valueOf(i), String.valueOf(i));
+        }
+
+        assertEquals(capacity, cache.size());
+        assertEquals(capacity / 2, cache.getEvictionCount());
+
+        for (int i = 0; i < capacity / 2; i++) {
+            assertEquals(String.valueOf(i), cache.get(String.valueOf(i)));
+        }
+
+        for (int i = capacity / 2; i < capacity; i++) {
+            assertNull(cache.get(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void testBoundedUnderConcurrentAccess() throws Exception {
+        final int                                  capacity     = 1024;
+        final int                                  threadCount  = 8;
+        final int                                  opsPerThread = 20000;
+        final ConcurrentCacheMap<Integer, Integer> cache        = new ConcurrentCacheMap<>(capacity, threadCount);
+        final ExecutorService                      executor     = Executors.newFixedThreadPool(threadCount);
+        final List<Future<?>>                      futures      = new ArrayList<>();
+
+        for (int t = 0; t < threadCount; t++) {
+            final int seed = t;
+
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < opsPerThread; i++) {
+                    Integer key = (i * 31 + seed * 7919) % (capacity * 4);
+
+                    if (cache.get(key) == null) {
+                        cache.put(key, key);
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertTrue("size=" + cache.size(), cache.size() <= cache.getCapacity());
+        assertEquals((long) threadCount * opsPerThread, cache.getHitCount() + cache.getMissCount());
+
+        RangerMetrics metrics = cache.getMetrics();
+
+        assertEquals(cache.getCapacity(), metrics.getData().get(ConcurrentCacheMap.METRIC_CAPACITY));
+        assertTrue(((Long) metrics.getData().get(ConcurrentCacheMap.METRIC_EVICTION_COUNT)) > 0);
+    }
+}
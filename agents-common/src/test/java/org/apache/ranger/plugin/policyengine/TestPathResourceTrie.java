@@ -37,6 +37,8 @@
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class TestPathResourceTrie {
     private static final RangerResourceDef       PATH_RESOURCE_DEF = getPathResourceDef();
@@ -113,7 +115,65 @@ public void testSelfScope() {
         verifyEvaluators("invalid: does-not-begin-with-sep", scope);
     }
 
+    @Test
+    public void testAddDeleteOnCopy() {
+        final ResourceElementMatchingScope                scope    = ResourceElementMatchingScope.SELF;
+        final RangerResourceEvaluator                     evalData = getEvaluator("/Data/x", false, false);
+        final RangerResourceTrie<RangerResourceEvaluator> copy     = new RangerResourceTrie<>(trie);
+
+        copy.add(evalData.getPolicyResource().get(PATH_RESOURCE_DEF.getName()), evalData);
+        copy.wrapUpUpdate();
+
+        verifyEvaluators(copy, "/data/X", scope, EVAL_, evalData);
+        verifyEvaluators(copy, "/tmp", scope, EVAL_, EVAL_TMPnr);
+        verifyEvaluators(trie, "/data/X", scope, EVAL_); // original trie is not updated
+
+        copy.delete(evalData.getPolicyResource().get(PATH_RESOURCE_DEF.getName()), evalData);
+        copy.wrapUpUpdate();
+
+        verifyEvaluators(copy, "/data/X", scope, EVAL_);
+        verifyEvaluators(copy, "/tmp", scope, EVAL_, EVAL_TMPnr);
+    }
+
+    @Test
+    public void testCopySharesUnchangedNodes() {
+        for (boolean isOptimizedForRetrieval : new boolean[] {true, false}) {
+            final RangerResourceTrie<RangerResourceEvaluator> orig     = new RangerResourceTrie<>(PATH_RESOURCE_DEF, EVALUATORS, isOptimizedForRetrieval, null);
+            final RangerResourceEvaluator                     evalTmpR = getEvaluator("/tmp/a", false, true);
+
+            verifyEvaluators(orig, "/tmp/a/b", ResourceElementMatchingScope.SELF, EVAL_, EVAL_TMP_A_B); // sets up nodes on the path
+
+            final RangerResourceTrie<RangerResourceEvaluator> copy = new RangerResourceTrie<>(orig);
+
+            copy.add(evalTmpR.getPolicyResource().get(PATH_RESOURCE_DEF.getName()), evalTmpR);
+            copy.wrapUpUpdate();
+
+            verifyEvaluators(copy, "/tmp/a/b", ResourceElementMatchingScope.SELF, EVAL_, EVAL_TMP_A_B, evalTmpR);
+            verifyEvaluators(copy, "/tmp/ab", ResourceElementMatchingScope.SELF, EVAL_, EVAL_TMP_AB, evalTmpR);
+            verifyEvaluators(copy, "/home", ResourceElementMatchingScope.SELF, EVAL_, EVAL_HOME);
+            verifyEvaluators(orig, "/tmp/a/b", ResourceElementMatchingScope.SELF, EVAL_, EVAL_TMP_A_B);
+            verifyEvaluators(orig, "/tmp/ab", ResourceElementMatchingScope.SELF, EVAL_, EVAL_TMP_AB);
+
+            RangerResourceTrie.TrieNode origSlash = orig.getRoot().getChild('/');
+            RangerResourceTrie.TrieNode copySlash = copy.getRoot().getChild('/');
+
+            assertNotSame(orig.getRoot(), copy.getRoot());
+            assertNotSame(origSlash.getChild('t'), copySlash.getChild('t'));
+            assertSame(origSlash.getChild('h'), copySlash.getChild('h'));
+
+            copy.delete(evalTmpR.getPolicyResource().get(PATH_RESOURCE_DEF.getName()), evalTmpR);
+            copy.wrapUpUpdate();
+
+            verifyEvaluators(copy, "/tmp/a/b", ResourceElementMatchingScope.SELF, EVAL_, EVAL_TMP_A_B);
+            verifyEvaluators(copy, "/tmp/ab", ResourceElementMatchingScope.SELF, EVAL_, EVAL_TMP_AB);
+        }
+    }
+
     private void verifyEvaluators(String resource, ResourceElementMatchingScope scope, RangerResourceEvaluator... evaluators) {
+        verifyEvaluators(trie, resource, scope, evaluators);
+    }
+
+    private static void verifyEvaluators(RangerResourceTrie<RangerResourceEvaluator> trie, String resource, ResourceElementMatchingScope scope, RangerResourceEvaluator... evaluators) {
         Set<RangerResourceEvaluator> expected = evaluators.length == 0 ? null : new HashSet<>(Arrays.asList(evaluators));
         Set<RangerResourceEvaluator> result   = trie.getEvaluatorsForResource(resource, scope);
 
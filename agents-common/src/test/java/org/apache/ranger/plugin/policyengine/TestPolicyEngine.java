@@ -365,6 +365,21 @@ public void testPolicyEngine_hdfsForZones() {
         runTestsFromResourceFiles(hdfsTestResourceFiles);
     }
 
+    @Test
+    public void testPolicyEngine_parallelBuild() {
+        String[] testResourceFiles = {"/policyengine/test_policyengine_hdfs_zones.json", "/policyengine/test_policyengine_tag_hdfs.json"};
+
+        RangerPolicyEngineOptions policyEngineOptions = pluginContext.getConfig().getPolicyEngineOptions();
+
+        policyEngineOptions.builderParallelism = 4;
+
+        try {
+            runTestsFromResourceFiles(testResourceFiles);
+        } finally {
+            policyEngineOptions.builderParallelism = 1;
+        }
+    }
+
     @Test
     public void testPolicyEngine_hive_with_partial_resource_policies() {
         String[] hiveTestResourceFiles = {"/policyengine/test_policyengine_hive_with_partial_resource_policies.json"};
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestRangerAccessResourceImpl {
+    @Test
+    public void testGetAsMapIsCachedAndUnmodifiable() {
+        RangerAccessResourceImpl resource = new RangerAccessResourceImpl(createElements("db1", "tbl1"));
+        Map<String, Object>      map      = resource.getAsMap();
+
+        assertSame(map, resource.getAsMap());
+        assertEquals(createElements("db1", "tbl1"), map);
+
+        try {
+            map.put("column", "col1");
+
+            fail("getAsMap() must return an unmodifiable map");
+        } catch (UnsupportedOperationException excp) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testGetAsMapIsResetOnSetValue() {
+        RangerAccessResourceImpl resource = new RangerAccessResourceImpl();
+        Map<String, Object>      map      = resource.getAsMap();
+
+        assertTrue(map.isEmpty());
+
+        resource.setValue("database", "db1");
+
+        Map<String, Object> map2 = resource.getAsMap();
+
+        assertNotSame(map, map2);
+        assertEquals(Collections.singletonMap("database", "db1"), map2);
+
+        resource.setValue("database", "db2");
+        resource.setValue("table", "tbl1");
+
+        assertEquals(createElements("db2", "tbl1"), resource.getAsMap());
+
+        resource.setValue("table", null);
+
+        assertEquals(Collections.singletonMap("database", "db2"), resource.getAsMap());
+
+        resource.setValue("database", null); // removing the last element drops the elements map
+
+        assertTrue(resource.getAsMap().isEmpty());
+    }
+
+    @Test
+    public void testTokensInContext() {
+        Map<String, Object> context = new HashMap<>();
+
+        RangerAccessRequestUtil.setCurrentUserInContext(context, "user1");
+        RangerAccessRequestUtil.setTokenInContext(context, "CUSTOM", "value1");
+
+        assertEquals("user1", context.get(RangerAccessRequestUtil.KEY_TOKEN_NAMESPACE + RangerAccessRequestUtil.KEY_USER));
+        assertEquals("user1", RangerAccessRequestUtil.getCurrentUserFromContext(context));
+        assertEquals("value1", context.get(RangerAccessRequestUtil.KEY_TOKEN_NAMESPACE + "CUSTOM"));
+        assertEquals("value1", RangerAccessRequestUtil.getTokenFromContext(context, "CUSTOM"));
+    }
+
+    private static Map<String, Object> createElements(String database, String table) {
+        Map<String, Object> ret = new HashMap<>();
+
+        ret.put("database", database);
+        ret.put("table", table);
+
+        return ret;
+    }
+}
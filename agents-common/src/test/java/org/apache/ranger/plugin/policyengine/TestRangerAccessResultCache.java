@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
+import org.apache.ranger.plugin.model.RangerMetrics;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemAccess;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemCondition;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.service.RangerBasePlugin;
+import org.apache.ranger.plugin.store.EmbeddedServiceDefsUtil;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestRangerAccessResultCache {
+    @Test
+    public void testCacheKey() {
+        RangerAccessRequestImpl request1 = createRequest("user1", "db1", "select");
+        RangerAccessRequestImpl request2 = createRequest("user1", "db1", "select");
+
+        request1.setUserGroups(new HashSet<>(Arrays.asList("g1", "g2", "g3")));
+        request2.setUserGroups(new HashSet<>(Arrays.asList("g3", "g1", "g2")));
+        request2.setClientIPAddress("10.0.0.1"); // not part of the key: policies with conditions bypass the cache
+
+        assertNotNull(RangerAccessResultCache.getCacheKey(request1));
+        assertEquals(RangerAccessResultCache.getCacheKey(request1), RangerAccessResultCache.getCacheKey(request2));
+
+        request2.setAccessType("update");
+        assertNotEquals(RangerAccessResultCache.getCacheKey(request1), RangerAccessResultCache.getCacheKey(request2));
+
+        // a separator within a value must not produce the key of a request with different resource values
+        RangerAccessRequestImpl request3 = createRequest("user1", "db1", "select");
+        RangerAccessRequestImpl request4 = createRequest("user1", "db1", "select");
+
+        request3.setResource(new RangerAccessResourceImpl(createResourceMap("db1\u0001table=tbl1", null)));
+        request4.setResource(new RangerAccessResourceImpl(createResourceMap("db1", "tbl1")));
+        assertNotEquals(RangerAccessResultCache.getCacheKey(request3), RangerAccessResultCache.getCacheKey(request4));
+
+        request1.getContext().put("caller-key", "value");
+        assertNull(RangerAccessResultCache.getCacheKey(request1));
+    }
+
+    @Test
+    public void testCacheHitAndInvalidationOnPolicyUpdate() throws Exception {
+        RangerBasePlugin plugin = createPlugin();
+
+        plugin.setPolicies(createPolicies(1L, null));
+
+        assertTrue(plugin.isAccessAllowed(createRequest("user1", "db1", "select")).getIsAllowed());
+        assertTrue(plugin.isAccessAllowed(createRequest("user1", "db1", "select")).getIsAllowed());
+        assertFalse(plugin.isAccessAllowed(createRequest("user2", "db1", "select")).getIsAllowed());
+
+        RangerMetrics metrics = plugin.getDecisionCacheMetrics();
+
+        assertEquals(1L, metrics.getData().get(ConcurrentCacheMap.METRIC_HIT_COUNT));
+        assertEquals(2L, metrics.getData().get(ConcurrentCacheMap.METRIC_MISS_COUNT));
+        assertEquals(2, metrics.getData().get(ConcurrentCacheMap.METRIC_SIZE));
+        assertTrue((Long) metrics.getData().get(RangerAccessResultCache.METRIC_ESTIMATED_MEM_BYTES) > 0);
+
+        plugin.setPolicies(createPolicies(2L, "user2"));
+
+        assertFalse(plugin.isAccessAllowed(createRequest("user1", "db1", "select")).getIsAllowed());
+        assertTrue(plugin.isAccessAllowed(createRequest("user2", "db1", "select")).getIsAllowed());
+
+        metrics = plugin.getDecisionCacheMetrics();
+
+        assertEquals(1L, metrics.getData().get(RangerAccessResultCache.METRIC_INVALIDATION_COUNT));
+        assertEquals(4L, metrics.getData().get(ConcurrentCacheMap.METRIC_MISS_COUNT));
+    }
+
+    @Test
+    public void testBatchEvaluationUsesCache() throws Exception {
+        RangerBasePlugin plugin = createPlugin();
+
+        plugin.setPolicies(createPolicies(1L, null));
+
+        assertTrue(plugin.isAccessAllowed(createRequest("user1", "db1", "select")).getIsAllowed());
+
+        List<RangerAccessRequest> requests = Arrays.asList(createRequest("user1", "db1", "select"), createRequest("user2", "db1", "select"), createRequest("user1", "db1", "select"));
+        List<RangerAccessResult>  results  = new ArrayList<>(plugin.isAccessAllowed(requests));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).getIsAllowed());
+        assertFalse(results.get(1).getIsAllowed());
+        assertTrue(results.get(2).getIsAllowed());
+
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(requests.get(i).getUser(), results.get(i).getAccessRequest().getUser());
+        }
+
+        RangerMetrics metrics = plugin.getDecisionCacheMetrics();
+
+        assertEquals(2L, metrics.getData().get(ConcurrentCacheMap.METRIC_HIT_COUNT));
+        assertEquals(2L, metrics.getData().get(ConcurrentCacheMap.METRIC_MISS_COUNT));
+        assertEquals(2, metrics.getData().get(ConcurrentCacheMap.METRIC_SIZE));
+    }
+
+    @Test
+    public void testPoliciesWithConditionsBypassCache() throws Exception {
+        RangerBasePlugin plugin   = createPlugin();
+        ServicePolicies  policies = createPolicies(1L, null);
+
+        policies.getPolicies().get(0).getPolicyItems().get(0).setConditions(Collections.singletonList(new RangerPolicyItemCondition("ip-range", Collections.singletonList("10.*"))));
+
+        plugin.setPolicies(policies);
+
+        plugin.isAccessAllowed(createRequest("user1", "db1", "select"));
+        plugin.isAccessAllowed(createRequest("user1", "db1", "select"));
+
+        RangerMetrics metrics = plugin.getDecisionCacheMetrics();
+
+        assertEquals(0L, metrics.getData().get(ConcurrentCacheMap.METRIC_HIT_COUNT));
+        assertEquals(2L, metrics.getData().get(RangerAccessResultCache.METRIC_BYPASS_COUNT));
+    }
+
+    private static RangerBasePlugin createPlugin() {
+        RangerPolicyEngineOptions options = new RangerPolicyEngineOptions();
+
+        options.disablePolicyRefresher    = true;
+        options.disableTagRetriever       = true;
+        options.disableUserStoreRetriever = true;
+        options.disableGdsInfoRetriever   = true;
+
+        RangerPluginConfig config = new RangerPluginConfig("hive", "dev_hive", "hive", "cl1", "on-prem", options);
+
+        config.setBoolean(config.getPropertyPrefix() + RangerAccessResultCache.PROP_SUFFIX_CACHE_ENABLED, true);
+
+        return new RangerBasePlugin(config);
+    }
+
+    private static ServicePolicies createPolicies(long version, String user) throws Exception {
+        ServicePolicies  ret        = new ServicePolicies();
+        RangerPolicy     policy     = new RangerPolicy();
+        RangerPolicyItem policyItem = new RangerPolicyItem();
+
+        policyItem.setUsers(Collections.singletonList(user != null ? user : "user1"));
+        policyItem.setAccesses(Collections.singletonList(new RangerPolicyItemAccess("select")));
+
+        policy.setId(1L);
+        policy.setName("db1-policy");
+        policy.setService("dev_hive");
+        policy.setResources(createPolicyResources());
+        policy.setPolicyItems(Collections.singletonList(policyItem));
+
+        ret.setServiceName("dev_hive");
+        ret.setPolicyVersion(version);
+        ret.setServiceDef(EmbeddedServiceDefsUtil.instance().getEmbeddedServiceDef("hive"));
+        ret.setPolicies(Collections.singletonList(policy));
+
+        return ret;
+    }
+
+    private static Map<String, RangerPolicyResource> createPolicyResources() {
+        Map<String, RangerPolicyResource> ret = new HashMap<>();
+
+        ret.put("database", new RangerPolicyResource("db1"));
+        ret.put("table", new RangerPolicyResource("*"));
+        ret.put("column", new RangerPolicyResource("*"));
+
+        return ret;
+    }
+
+    private static RangerAccessRequestImpl createRequest(String user, String database, String accessType) {
+        return new RangerAccessRequestImpl(new RangerAccessResourceImpl(createResourceMap(database, "tbl1")), accessType, user, Collections.emptySet(), Collections.emptySet());
+    }
+
+    private static Map<String, Object> createResourceMap(String database, String table) {
+        Map<String, Object> ret = new HashMap<>();
+
+        ret.put("database", database);
+
+        if (table != null) {
+            ret.put("table", table);
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemAccess;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.model.RangerServiceDef;
+import org.apache.ranger.plugin.store.EmbeddedServiceDefsUtil;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestRangerBatchEvaluation {
+    private static final String SERVICE_NAME = "test_batch_hive";
+
+    @Test
+    public void testBatchResultsMatchSingleRequestResults() throws Exception {
+        RangerServiceDef       serviceDef    = EmbeddedServiceDefsUtil.instance().getEmbeddedServiceDef(EmbeddedServiceDefsUtil.EMBEDDED_SERVICEDEF_HIVE_NAME);
+        RangerPluginContext    pluginContext = new RangerPluginContext(new RangerPluginConfig(serviceDef.getName(), SERVICE_NAME, "test-batch-evaluation", null, null, new RangerPolicyEngineOptions()));
+        RangerPolicyEngineImpl policyEngine  = new RangerPolicyEngineImpl(createServicePolicies(serviceDef), pluginContext, null);
+
+        List<RangerAccessRequest>      singleRequests = createRequests();
+        List<RangerAccessRequest>      batchRequests  = createRequests();
+        Collection<RangerAccessResult> batchResults   = policyEngine.evaluatePolicies(batchRequests, RangerPolicy.POLICY_TYPE_ACCESS, null);
+
+        assertEquals(singleRequests.size(), batchResults.size());
+
+        Iterator<RangerAccessResult> iter         = batchResults.iterator();
+        int                          allowedCount = 0;
+
+        for (RangerAccessRequest request : singleRequests) {
+            RangerAccessResult expected = policyEngine.evaluatePolicies(request, RangerPolicy.POLICY_TYPE_ACCESS, null);
+            RangerAccessResult actual   = iter.next();
+            String             message  = request.getUser() + " " + request.getAccessType() + " " + request.getResource().getAsString();
+
+            assertEquals("isAllowed mismatched! - " + message, expected.getIsAllowed(), actual.getIsAllowed());
+            assertEquals("policyId mismatched! - " + message, expected.getPolicyId(), actual.getPolicyId());
+            assertEquals("isAudited mismatched! - " + message, expected.getIsAudited(), actual.getIsAudited());
+            assertEquals("zoneName mismatched! - " + message, expected.getZoneName(), actual.getZoneName());
+
+            if (actual.getIsAllowed()) {
+                allowedCount++;
+            }
+        }
+
+        assertTrue("expected a mix of allowed and denied results", allowedCount > 0 && allowedCount < singleRequests.size());
+    }
+
+    @Test
+    public void testBatchCacheReusesLookups() {
+        RangerBatchEvaluationCache batchCache = new RangerBatchEvaluationCache();
+        int[]                      loadCount  = {0};
+
+        for (int i = 0; i < 3; i++) {
+            Set<String> roles = batchCache.getRolesForUserAndGroups("user1", Collections.singleton("group1"), () -> {
+                loadCount[0]++;
+
+                return Collections.singleton("role1");
+            });
+
+            assertEquals(Collections.singleton("role1"), roles);
+        }
+
+        assertEquals(1, loadCount[0]);
+        assertEquals(2, batchCache.getHitCount());
+        assertEquals(1, batchCache.getMissCount());
+    }
+
+    private static ServicePolicies createServicePolicies(RangerServiceDef serviceDef) {
+        ServicePolicies ret = new ServicePolicies();
+
+        ret.setServiceName(SERVICE_NAME);
+        ret.setServiceId(1L);
+        ret.setServiceDef(serviceDef);
+        ret.setPolicyVersion(1L);
+        ret.setPolicies(Arrays.asList(createPolicy(1L, "db1", "t1", "*", false, "user1", "group1", "select"),
+                createPolicy(2L, "db1", "t1", "ssn", true, "user1", null, "select"),
+                createPolicy(3L, "db2", "*", "*", false, "user2", null, "select", "update"),
+                createPolicy(4L, "db1", "t2", "c1", false, "user2", null, "select")));
+
+        return ret;
+    }
+
+    private static RangerPolicy createPolicy(long id, String database, String table, String column, boolean isDeny, String user, String group, String... accessTypes) {
+        Map<String, RangerPolicyResource> resources = new HashMap<>();
+        List<RangerPolicyItemAccess>      accesses  = new ArrayList<>();
+
+        resources.put("database", new RangerPolicyResource(database));
+        resources.put("table", new RangerPolicyResource(table));
+        resources.put("column", new RangerPolicyResource(column));
+
+        for (String accessType : accessTypes) {
+            accesses.add(new RangerPolicyItemAccess(accessType, Boolean.TRUE));
+        }
+
+        RangerPolicyItem policyItem = new RangerPolicyItem(accesses, Collections.singletonList(user), group == null ? null : Collections.singletonList(group), null, null, Boolean.FALSE);
+        RangerPolicy     ret        = new RangerPolicy();
+
+        ret.setId(id);
+        ret.setService(SERVICE_NAME);
+        ret.setName("policy-" + id);
+        ret.setIsEnabled(true);
+        ret.setIsAuditEnabled(true);
+        ret.setResources(resources);
+
+        if (isDeny) {
+            ret.setDenyPolicyItems(Collections.singletonList(policyItem));
+        } else {
+            ret.setPolicyItems(Collections.singletonList(policyItem));
+        }
+
+        return ret;
+    }
+
+    private static List<RangerAccessRequest> createRequests() {
+        List<RangerAccessRequest> ret = new ArrayList<>();
+
+        for (String user : Arrays.asList("user1", "user2", "user3")) {
+            for (String database : Arrays.asList("db1", "db2")) {
+                for (String table : Arrays.asList("t1", "t2")) {
+                    for (String column : Arrays.asList("c1", "c2", "ssn", "c1")) {
+                        for (String accessType : Arrays.asList("select", "update")) {
+                            Map<String, Object> resource = new HashMap<>();
+
+                            resource.put("database", database);
+                            resource.put("table", table);
+                            resource.put("column", column);
+
+                            ret.add(new RangerAccessRequestImpl(new RangerAccessResourceImpl(resource), accessType, user, Collections.singleton("user3".equals(user) ? "group1" : "group2"), null));
+                        }
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+}
@@ -27,6 +27,10 @@
 import com.google.gson.JsonParseException;
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemAccess;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
 import org.apache.ranger.plugin.model.RangerServiceDef;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequestImpl;
@@ -51,8 +55,12 @@
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -60,7 +68,9 @@
 import java.util.TreeSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class TestRangerBasePlugin {
     static Gson                      gsonBuilder;
@@ -87,6 +97,69 @@ public void testBasePluginHive() throws Exception {
         runTestsFromResourceFile("/plugin/test_base_plugin_hive.json");
     }
 
+    @Test
+    public void testBatchSkipsChainedPluginIfAccessIsDetermined() throws Exception {
+        RangerPluginConfig pluginConfig = new RangerPluginConfig("hive", "dev_hive", "hive", "cl1", "on-prem", peOptions);
+        String             propPrefix   = pluginConfig.getPropertyPrefix();
+
+        pluginConfig.set(propPrefix + ".chained.services", "chained_hive");
+        pluginConfig.set(propPrefix + ".chained.services.chained_hive.impl", DenyingChainedPlugin.class.getName());
+        pluginConfig.setBoolean(propPrefix + ".bypass.chained.plugin.evaluation.if.access.is.determined", true);
+
+        RangerBasePlugin plugin = new RangerBasePlugin(pluginConfig);
+
+        plugin.setPolicies(createPolicies());
+
+        DenyingChainedPlugin.receivedRequests.clear();
+
+        List<RangerAccessRequest> requests = Arrays.asList(createRequest("user1"), createRequest("user2"), createRequest("user1"));
+        List<RangerAccessResult>  results  = new ArrayList<>(plugin.isAccessAllowed(requests));
+
+        assertEquals(3, results.size());
+        assertEquals(Collections.singletonList(requests.get(1)), DenyingChainedPlugin.receivedRequests);
+        assertTrue(results.get(0).getIsAllowed());
+        assertFalse(results.get(1).getIsAllowed());
+        assertEquals(DenyingChainedPlugin.POLICY_ID, results.get(1).getPolicyId());
+        assertTrue(results.get(2).getIsAllowed());
+        assertEquals(1L, results.get(2).getPolicyId());
+    }
+
+    private static ServicePolicies createPolicies() {
+        ServicePolicies                   ret        = new ServicePolicies();
+        RangerPolicy                      policy     = new RangerPolicy();
+        RangerPolicyItem                  policyItem = new RangerPolicyItem();
+        Map<String, RangerPolicyResource> resources  = new HashMap<>();
+
+        resources.put("database", new RangerPolicyResource("db1"));
+        resources.put("table", new RangerPolicyResource("*"));
+        resources.put("column", new RangerPolicyResource("*"));
+
+        policyItem.setUsers(Collections.singletonList("user1"));
+        policyItem.setAccesses(Collections.singletonList(new RangerPolicyItemAccess("select")));
+
+        policy.setId(1L);
+        policy.setName("db1-policy");
+        policy.setService("dev_hive");
+        policy.setResources(resources);
+        policy.setPolicyItems(Collections.singletonList(policyItem));
+
+        ret.setServiceName("dev_hive");
+        ret.setPolicyVersion(1L);
+        ret.setServiceDef(EmbeddedServiceDefsUtil.instance().getEmbeddedServiceDef("hive"));
+        ret.setPolicies(Collections.singletonList(policy));
+
+        return ret;
+    }
+
+    private static RangerAccessRequest createRequest(String user) {
+        Map<String, Object> resource = new HashMap<>();
+
+        resource.put("database", "db1");
+        resource.put("table", "tbl1");
+
+        return new RangerAccessRequestImpl(new RangerAccessResourceImpl(resource), "select", user, Collections.emptySet(), Collections.emptySet());
+    }
+
     private void runTestsFromResourceFile(String resourceFile) throws Exception {
         InputStream       inStream = this.getClass().getResourceAsStream(resourceFile);
         InputStreamReader reader   = new InputStreamReader(inStream);
@@ -177,6 +250,49 @@ private RangerBasePluginTestCase readTestCase(Reader reader) throws Exception {
         return testCase;
     }
 
+    public static class DenyingChainedPlugin extends RangerChainedPlugin {
+        static final long                      POLICY_ID        = 99L;
+        static final List<RangerAccessRequest> receivedRequests = new ArrayList<>();
+
+        public DenyingChainedPlugin(RangerBasePlugin rootPlugin, String serviceName) {
+            super(rootPlugin, "hive", serviceName);
+        }
+
+        @Override
+        public RangerAccessResult isAccessAllowed(RangerAccessRequest request) {
+            receivedRequests.add(request);
+
+            RangerAccessResult ret = new RangerAccessResult(RangerPolicy.POLICY_TYPE_ACCESS, serviceName, rootPlugin.getServiceDef(), request);
+
+            ret.setIsAllowed(false);
+            ret.setIsAccessDetermined(true);
+            ret.setPolicyId(POLICY_ID);
+
+            return ret;
+        }
+
+        @Override
+        public Collection<RangerAccessResult> isAccessAllowed(Collection<RangerAccessRequest> requests) {
+            List<RangerAccessResult> ret = new ArrayList<>();
+
+            for (RangerAccessRequest request : requests) {
+                ret.add(isAccessAllowed(request));
+            }
+
+            return ret;
+        }
+
+        @Override
+        public RangerResourceACLs getResourceACLs(RangerAccessRequest request) {
+            return null;
+        }
+
+        @Override
+        public RangerResourceACLs getResourceACLs(RangerAccessRequest request, Integer policyType) {
+            return null;
+        }
+    }
+
     static class RangerBasePluginTestCase {
         public ServicePolicies policies;
         public ServiceTags     tags;
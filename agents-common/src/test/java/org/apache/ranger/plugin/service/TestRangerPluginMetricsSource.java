@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.service;
+
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsInfo;
+import org.apache.hadoop.metrics2.MetricsRecordBuilder;
+import org.apache.ranger.plugin.model.RangerMetrics;
+import org.apache.ranger.plugin.policyengine.ConcurrentCacheMap;
+import org.apache.ranger.plugin.policyengine.RangerAccessResultCache;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestRangerPluginMetricsSource {
+    @Test
+    public void testCacheCountersArePublishedAsGauges() {
+        RangerBasePlugin     plugin    = mock(RangerBasePlugin.class);
+        MetricsCollector     collector = mock(MetricsCollector.class);
+        MetricsRecordBuilder record    = mock(MetricsRecordBuilder.class);
+
+        when(plugin.getServiceType()).thenReturn("hive");
+        when(plugin.getServiceName()).thenReturn("cl1_hive");
+        when(plugin.getAppId()).thenReturn("hiveServer2");
+        when(plugin.getAuditResultCacheMetrics()).thenReturn(createMetrics(10L, 4L, 2L, null));
+        when(plugin.getDecisionCacheMetrics()).thenReturn(createMetrics(30L, 10L, 0L, 0.75d));
+        when(collector.addRecord(anyString())).thenReturn(record);
+        when(record.setContext(anyString())).thenReturn(record);
+        when(record.tag(any(MetricsInfo.class), anyString())).thenReturn(record);
+
+        RangerPluginMetricsSource source = new RangerPluginMetricsSource(plugin);
+
+        assertEquals("RangerPlugin-hive-hiveServer2-cl1_hive", source.getSourceName());
+
+        source.getMetrics(collector, true);
+
+        verify(collector).addRecord(RangerPluginMetricsSource.RECORD_NAME);
+        verify(record).setContext(RangerPluginMetricsSource.CONTEXT);
+        verify(record).addGauge(argThat(info("AuditResultCacheHitCount")), eq(10L));
+        verify(record).addGauge(argThat(info("AuditResultCacheMissCount")), eq(4L));
+        verify(record).addGauge(argThat(info("AuditResultCacheEvictionCount")), eq(2L));
+        verify(record).addGauge(argThat(info("DecisionCacheHitCount")), eq(30L));
+        verify(record).addGauge(argThat(info("DecisionCacheMissCount")), eq(10L));
+        verify(record).addGauge(argThat(info("DecisionCacheEvictionCount")), eq(0L));
+        verify(record).addGauge(argThat(info("DecisionCacheHitRate")), eq(0.75d));
+    }
+
+    @Test
+    public void testNoGaugesWhenCachesAreDisabled() {
+        RangerBasePlugin     plugin    = mock(RangerBasePlugin.class);
+        MetricsCollector     collector = mock(MetricsCollector.class);
+        MetricsRecordBuilder record    = mock(MetricsRecordBuilder.class);
+
+        when(collector.addRecord(anyString())).thenReturn(record);
+        when(record.setContext(anyString())).thenReturn(record);
+        when(record.tag(any(MetricsInfo.class), anyString())).thenReturn(record);
+
+        new RangerPluginMetricsSource(plugin).getMetrics(collector, true);
+
+        verify(record, never()).addGauge(any(MetricsInfo.class), anyLong());
+        verify(record, never()).addGauge(any(MetricsInfo.class), anyDouble());
+    }
+
+    private static RangerMetrics createMetrics(long hits, long misses, long evictions, Double hitRate) {
+        Map<String, Object> data = new LinkedHashMap<>();
+
+        data.put(ConcurrentCacheMap.METRIC_HIT_COUNT, hits);
+        data.put(ConcurrentCacheMap.METRIC_MISS_COUNT, misses);
+        data.put(ConcurrentCacheMap.METRIC_EVICTION_COUNT, evictions);
+
+        if (hitRate != null) {
+            data.put(RangerAccessResultCache.METRIC_HIT_RATE, hitRate);
+        }
+
+        return new RangerMetrics(data);
+    }
+
+    private static ArgumentMatcher<MetricsInfo> info(String name) {
+        return info -> info != null && name.equals(info.name());
+    }
+}
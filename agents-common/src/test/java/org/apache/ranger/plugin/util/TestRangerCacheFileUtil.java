@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.util;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+
+public class TestRangerCacheFileUtil {
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = Files.createTempDirectory("ranger-cache-test").toFile();
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(cacheDir);
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        File            cacheFile = new File(cacheDir, "hive_dev_hive.json");
+        ServicePolicies policies  = createServicePolicies(10L);
+
+        RangerCacheFileUtil.writeToFile(cacheFile, policies);
+
+        ServicePolicies loaded = RangerCacheFileUtil.readFromFile(cacheFile, ServicePolicies.class);
+
+        assertNotNull(loaded);
+        assertEquals("dev_hive", loaded.getServiceName());
+        assertEquals(Long.valueOf(10L), loaded.getPolicyVersion());
+        assertEquals(1, loaded.getPolicies().size());
+        assertFalse(new File(cacheDir, cacheFile.getName() + RangerCacheFileUtil.TMP_FILE_SUFFIX).exists());
+    }
+
+    @Test
+    public void testFailedWriteRetainsPreviousFile() throws Exception {
+        File cacheFile = new File(cacheDir, "hive_dev_hive.json");
+
+        RangerCacheFileUtil.writeToFile(cacheFile, createServicePolicies(10L));
+
+        assertThrows(IOException.class, () -> RangerCacheFileUtil.writeToFile(cacheFile, new Unserializable()));
+
+        ServicePolicies loaded = RangerCacheFileUtil.readFromFile(cacheFile, ServicePolicies.class);
+
+        assertEquals(Long.valueOf(10L), loaded.getPolicyVersion());
+        assertFalse(new File(cacheDir, cacheFile.getName() + RangerCacheFileUtil.TMP_FILE_SUFFIX).exists());
+    }
+
+    private static ServicePolicies createServicePolicies(long version) {
+        ServicePolicies ret    = new ServicePolicies();
+        RangerPolicy    policy = new RangerPolicy();
+
+        policy.setId(1L);
+        policy.setName("db1-policy");
+        policy.setResources(Collections.singletonMap("database", new RangerPolicy.RangerPolicyResource("db1")));
+
+        ret.setServiceName("dev_hive");
+        ret.setPolicyVersion(version);
+        ret.setPolicies(Collections.singletonList(policy));
+
+        return ret;
+    }
+
+    public static class Unserializable {
+        public String getName() {
+            return "partial";
+        }
+
+        public String getValue() {
+            throw new IllegalStateException("serialization failure");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.util;
+
+import org.apache.ranger.admin.client.AbstractRangerAdminClient;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestRangerChangeWatcher {
+    @Test
+    public void testDownloadIsTriggeredOnChange() throws Exception {
+        BlockingQueue<Map<String, Long>> responses     = new LinkedBlockingQueue<>();
+        BlockingQueue<DownloadTrigger>   downloadQueue = new LinkedBlockingQueue<>();
+        AtomicLong                       policyVersion = new AtomicLong(5L);
+        RangerChangeWatcher              watcher       = new RangerChangeWatcher("dev_hive", new TestAdminClient(responses), 1000L, 50L);
+
+        watcher.subscribe(RangerChangeWatcher.CHANGE_TYPE_POLICIES, policyVersion::get, downloadQueue);
+
+        assertEquals(Collections.singletonMap(RangerChangeWatcher.CHANGE_TYPE_POLICIES, 5L), watcher.getLastKnownVersions());
+        assertFalse(watcher.isWatching(downloadQueue));
+
+        watcher.start();
+
+        try {
+            responses.put(Collections.singletonMap(RangerChangeWatcher.CHANGE_TYPE_POLICIES, 6L));
+
+            DownloadTrigger trigger = downloadQueue.poll(10, TimeUnit.SECONDS);
+
+            assertNotNull(trigger);
+
+            policyVersion.set(6L);
+            trigger.signalCompletion();
+
+            // no change: no download, periodic downloads are skipped while Admin answers
+            responses.put(Collections.singletonMap(RangerChangeWatcher.CHANGE_TYPE_POLICIES, 6L));
+
+            waitUntilEmpty(responses);
+
+            assertTrue(watcher.isWatching(downloadQueue));
+            assertNull(downloadQueue.poll());
+        } finally {
+            watcher.stopWatcher();
+        }
+
+        assertFalse(watcher.isWatching(downloadQueue));
+    }
+
+    @Test
+    public void testFailedDownloadFallsBackToPolling() throws Exception {
+        BlockingQueue<DownloadTrigger> downloadQueue = new LinkedBlockingQueue<>();
+        AtomicLong                     tagVersion    = new AtomicLong(3L);
+        RangerChangeWatcher            watcher       = new RangerChangeWatcher("dev_hive", new TestAdminClient(new LinkedBlockingQueue<>()), 1000L, 50L);
+
+        watcher.subscribe(RangerChangeWatcher.CHANGE_TYPE_TAGS, tagVersion::get, downloadQueue);
+
+        Thread downloader = new Thread(() -> {
+            try {
+                downloadQueue.take().signalCompletion(); // download fails: version doesn't move
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        downloader.start();
+
+        watcher.triggerDownloads(Collections.singletonMap(RangerChangeWatcher.CHANGE_TYPE_TAGS, 4L));
+
+        downloader.join();
+
+        // wait for changes after the notified version, leaving retries to the periodic download
+        assertEquals(Collections.singletonMap(RangerChangeWatcher.CHANGE_TYPE_TAGS, 4L), watcher.getLastKnownVersions());
+
+        tagVersion.set(4L);
+
+        assertEquals(Collections.singletonMap(RangerChangeWatcher.CHANGE_TYPE_TAGS, 4L), watcher.getLastKnownVersions());
+    }
+
+    @Test
+    public void testUnsupportedAdmin() throws Exception {
+        BlockingQueue<DownloadTrigger> downloadQueue = new LinkedBlockingQueue<>();
+        RangerChangeWatcher            watcher       = new RangerChangeWatcher("dev_hive", new AbstractRangerAdminClient() {}, 1000L, 50L);
+
+        watcher.subscribe(RangerChangeWatcher.CHANGE_TYPE_POLICIES, () -> 1L, downloadQueue);
+        watcher.subscribe(RangerChangeWatcher.CHANGE_TYPE_ROLES, () -> 2L, downloadQueue);
+
+        Map<String, Long> expected = new HashMap<>();
+
+        expected.put(RangerChangeWatcher.CHANGE_TYPE_POLICIES, 1L);
+        expected.put(RangerChangeWatcher.CHANGE_TYPE_ROLES, 2L);
+
+        assertEquals(expected, watcher.getLastKnownVersions());
+
+        watcher.start();
+
+        Thread.sleep(200L);
+
+        assertFalse(watcher.isWatching(downloadQueue));
+        assertNull(downloadQueue.poll());
+
+        watcher.stopWatcher();
+        watcher.unsubscribe(downloadQueue);
+
+        assertTrue(watcher.getLastKnownVersions().isEmpty());
+    }
+
+    private static void waitUntilEmpty(BlockingQueue<?> queue) throws InterruptedException {
+        for (int i = 0; i < 100 && !queue.isEmpty(); i++) {
+            Thread.sleep(100L);
+        }
+
+        Thread.sleep(100L);
+    }
+
+    private static class TestAdminClient extends AbstractRangerAdminClient {
+        private final BlockingQueue<Map<String, Long>> responses;
+
+        TestAdminClient(BlockingQueue<Map<String, Long>> responses) {
+            this.responses = responses;
+        }
+
+        @Override
+        public Map<String, Long> waitForChanges(Map<String, Long> lastKnownVersions, long timeoutMs) throws Exception {
+            Map<String, Long> ret = responses.poll(timeoutMs, TimeUnit.MILLISECONDS);
+
+            return ret != null ? ret : lastKnownVersions;
+        }
+    }
+}
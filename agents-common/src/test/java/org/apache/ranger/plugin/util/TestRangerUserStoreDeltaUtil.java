@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.util;
+
+import org.apache.ranger.plugin.model.GroupInfo;
+import org.apache.ranger.plugin.model.UserInfo;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestRangerUserStoreDeltaUtil {
+    @Test
+    public void testDeltaResultsInLatestUserStore() {
+        RangerUserStore oldStore = createUserStore(1L,
+                users(user("user1", "dept", "eng"), user("user2", RangerUserStore.CLOUD_IDENTITY_NAME, "cid2"), user("user3", "dept", "sales")),
+                groups(group("group1", "loc", "us"), group("group2", "loc", "eu")),
+                userGroups("user1", "group1", "user2", "group2", "user3", "group1"));
+        RangerUserStore newStore = createUserStore(2L,
+                users(user("user1", "dept", "eng"), user("user2", RangerUserStore.CLOUD_IDENTITY_NAME, "cid2-new"), user("user4", "dept", "hr")),
+                groups(group("group1", "loc", "us"), group("group3", "loc", "ap")),
+                userGroups("user1", "group3", "user2", "group2", "user4", "group1"));
+
+        Set<String> updatedUsers  = new HashSet<>();
+        Set<String> updatedGroups = new HashSet<>();
+
+        RangerUserStoreDeltaUtil.addUpdatedUsers(oldStore, newStore, updatedUsers);
+        RangerUserStoreDeltaUtil.addUpdatedGroups(oldStore, newStore, updatedGroups);
+
+        assertEquals(new HashSet<>(Arrays.asList("user1", "user2", "user3", "user4")), updatedUsers);
+        assertEquals(new HashSet<>(Arrays.asList("group2", "group3")), updatedGroups);
+
+        RangerUserStore delta = RangerUserStoreDeltaUtil.createDelta(newStore, updatedUsers, updatedGroups);
+
+        assertTrue(delta.getIsDelta());
+        assertFalse(delta.getUserAttrMapping().containsKey("user3"));
+
+        RangerUserStore result = RangerUserStoreDeltaUtil.applyDelta(oldStore, delta);
+
+        assertFalse(result.getIsDelta());
+        assertEquals(newStore.getUserStoreVersion(), result.getUserStoreVersion());
+        assertEquals(newStore.getUserAttrMapping(), result.getUserAttrMapping());
+        assertEquals(newStore.getGroupAttrMapping(), result.getGroupAttrMapping());
+        assertEquals(newStore.getUserGroupMapping(), result.getUserGroupMapping());
+        assertEquals(newStore.getUserCloudIdMapping(), result.getUserCloudIdMapping());
+        assertEquals(newStore.getGroupCloudIdMapping(), result.getGroupCloudIdMapping());
+        assertNull(result.getUpdatedUsers());
+
+        // the userstore the delta was applied to must not be modified
+        assertEquals(Long.valueOf(1L), oldStore.getUserStoreVersion());
+        assertTrue(oldStore.getUserAttrMapping().containsKey("user3"));
+        assertEquals("user2", oldStore.getUserCloudIdMapping().get("cid2"));
+    }
+
+    @Test
+    public void testDeltaNotAppliedToNullUserStore() {
+        RangerUserStore delta = RangerUserStoreDeltaUtil.createDelta(new RangerUserStore(), Collections.singleton("user1"), Collections.emptySet());
+
+        assertNull(RangerUserStoreDeltaUtil.applyDelta(null, delta));
+    }
+
+    private static RangerUserStore createUserStore(Long version, Set<UserInfo> users, Set<GroupInfo> groups, Map<String, Set<String>> userGroups) {
+        return new RangerUserStore(version, users, groups, userGroups);
+    }
+
+    private static UserInfo user(String name, String attrName, String attrValue) {
+        return new UserInfo(name, null, Collections.singletonMap(attrName, attrValue));
+    }
+
+    private static GroupInfo group(String name, String attrName, String attrValue) {
+        return new GroupInfo(name, null, Collections.singletonMap(attrName, attrValue));
+    }
+
+    private static Set<UserInfo> users(UserInfo... users) {
+        return new HashSet<>(Arrays.asList(users));
+    }
+
+    private static Set<GroupInfo> groups(GroupInfo... groups) {
+        return new HashSet<>(Arrays.asList(groups));
+    }
+
+    private static Map<String, Set<String>> userGroups(String... userGroupPairs) {
+        Map<String, Set<String>> ret = new HashMap<>();
+
+        for (int i = 0; i + 1 < userGroupPairs.length; i += 2) {
+            ret.computeIfAbsent(userGroupPairs[i], k -> new HashSet<>()).add(userGroupPairs[i + 1]);
+        }
+
+        return ret;
+    }
+}
@@ -66,6 +66,7 @@
 import org.apache.ranger.plugin.model.RangerServiceDef.RangerDataMaskTypeDef;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequestImpl;
+import org.apache.ranger.plugin.policyengine.RangerAccessResource;
 import org.apache.ranger.plugin.policyengine.RangerAccessResult;
 import org.apache.ranger.plugin.policyengine.RangerPolicyEngine;
 import org.apache.ranger.plugin.policyengine.RangerResourceACLs;
@@ -87,6 +88,8 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -955,6 +958,8 @@ public void checkPrivileges(HiveOperationType hiveOpType, List<HivePrivilegeObje
 
             buildRequestContextWithAllAccessedResources(requests);
 
+            IncrementalBatchEvaluator batchEvaluator = new IncrementalBatchEvaluator(requests);
+
             for (RangerHiveAccessRequest request : requests) {
                 LOG.debug("request: {}", request);
 
@@ -1000,7 +1005,11 @@ public void checkPrivileges(HiveOperationType hiveOpType, List<HivePrivilegeObje
                         }
                     }
                 } else {
-                    result = hivePlugin.isAccessAllowed(request, auditHandler);
+                    result = batchEvaluator.getResult(request);
+
+                    if (result != null) {
+                        auditHandler.processResult(result);
+                    }
                 }
 
                 if ((result == null || result.getIsAllowed()) && isBlockAccessIfRowfilterColumnMaskSpecified(hiveOpType, request)) {
@@ -1115,6 +1124,9 @@ public List<HivePrivilegeObject> filterListCmdObjects(List<HivePrivilegeObject>
                 ret = new ArrayList<>(objs.size());
             }
 
+            List<RangerHiveAccessRequest> requests         = new ArrayList<>(objs.size());
+            List<HivePrivilegeObject>     privilegeObjects = new ArrayList<>(objs.size());
+
             for (HivePrivilegeObject privilegeObject : objs) {
                 if (LOG.isDebugEnabled()) {
                     HivePrivObjectActionType actionType    = privilegeObject.getActionType();
@@ -1134,12 +1146,24 @@ public List<HivePrivilegeObject> filterListCmdObjects(List<HivePrivilegeObject>
                 if (resource == null) {
                     LOG.error("filterListCmdObjects: RangerHiveResource returned by createHiveResource is null");
                 } else {
-                    RangerHiveAccessRequest request = new RangerHiveAccessRequest(resource, user, groups, roles, context, sessionContext);
-                    RangerAccessResult      result  = hivePlugin.isAccessAllowed(request, auditHandler);
+                    requests.add(new RangerHiveAccessRequest(resource, user, groups, roles, context, sessionContext));
+                    privilegeObjects.add(privilegeObject);
+                }
+            }
+
+            Map<RangerHiveAccessRequest, RangerAccessResult> results = evaluateInBatch(requests);
+
+            for (int i = 0; i < requests.size(); i++) {
+                RangerHiveAccessRequest request  = requests.get(i);
+                RangerAccessResult      result   = results.get(request);
+                RangerAccessResource    resource = request.getResource();
+
+                if (result == null) {
+                    LOG.error("filterListCmdObjects: Internal error: null RangerAccessResult object received back from isAccessAllowed()!");
+                } else {
+                    auditHandler.processResult(result);
 
-                    if (result == null) {
-                        LOG.error("filterListCmdObjects: Internal error: null RangerAccessResult object received back from isAccessAllowed()!");
-                    } else if (!result.getIsAllowed()) {
+                    if (!result.getIsAllowed()) {
                         if (LOG.isDebugEnabled()) {
                             String path = resource.getAsString();
 
@@ -1148,7 +1172,7 @@ public List<HivePrivilegeObject> filterListCmdObjects(List<HivePrivilegeObject>
                     } else {
                         LOG.debug("filterListCmdObjects: access allowed. resource[{}], request[{}], result[{}]", resource, request, result);
 
-                        ret.add(privilegeObject);
+                        ret.add(privilegeObjects.get(i));
                     }
                 }
             }
@@ -2377,6 +2401,46 @@ private void handleDfsCommand(HiveOperationType hiveOpType, List<HivePrivilegeOb
         throw new HiveAccessControlException(String.format("Permission denied: user [%s] does not have privilege for [%s] command", user, hiveOpType.name()));
     }
 
+    /*
+     * Evaluates the requests in one call to the policy engine, so that the zone match, tag enrichment and trie lookups
+     * are shared by requests on the same database/table. Requests for multiple columns are evaluated by the caller.
+     * Results are not audited here; callers audit them as each request is processed, as with single requests.
+     */
+    private Map<RangerHiveAccessRequest, RangerAccessResult> evaluateInBatch(List<RangerHiveAccessRequest> requests) {
+        Map<RangerHiveAccessRequest, RangerAccessResult> ret   = new IdentityHashMap<>();
+        List<RangerAccessRequest>                        batch = new ArrayList<>(requests.size());
+
+        for (RangerHiveAccessRequest request : requests) {
+            if (isBatchable(request)) {
+                batch.add(request);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            Collection<RangerAccessResult> results = hivePlugin.isAccessAllowed(batch, null);
+
+            if (results != null) {
+                Iterator<RangerAccessResult> iter = results.iterator();
+
+                for (RangerAccessRequest request : batch) {
+                    if (!iter.hasNext()) {
+                        break;
+                    }
+
+                    ret.put((RangerHiveAccessRequest) request, iter.next());
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private static boolean isBatchable(RangerHiveAccessRequest request) {
+        RangerHiveResource resource = (RangerHiveResource) request.getResource();
+
+        return resource.getObjectType() != HiveObjectType.COLUMN || !StringUtils.contains(resource.getColumn(), COLUMN_SEP);
+    }
+
     private boolean existsByResourceAndAccessType(Collection<RangerHiveAccessRequest> requests, RangerHiveResource resource, HiveAccessType accessType) {
         boolean ret = false;
 
@@ -3295,6 +3359,42 @@ public enum HiveAccessType { NONE, CREATE, ALTER, DROP, INDEX, LOCK, SELECT, UPD
         RESERVED_ROLE_NAMES = Collections.unmodifiableSet(roleNames);
     }
 
+    /*
+     * Evaluates the requests of checkPrivileges() in batches as their results are needed, doubling the batch size each
+     * time. A denied request fails the query, so requests after it are evaluated only up to the end of its batch - at
+     * most as many as were evaluated before it - rather than all of them.
+     */
+    private class IncrementalBatchEvaluator {
+        private final List<RangerHiveAccessRequest>                    requests  = new ArrayList<>();
+        private final Map<RangerHiveAccessRequest, RangerAccessResult> results   = new IdentityHashMap<>();
+        private       int                                              nextIdx;
+        private       int                                              batchSize = 1;
+
+        IncrementalBatchEvaluator(List<RangerHiveAccessRequest> requests) {
+            for (RangerHiveAccessRequest request : requests) {
+                if (isBatchable(request)) {
+                    this.requests.add(request);
+                }
+            }
+        }
+
+        RangerAccessResult getResult(RangerHiveAccessRequest request) {
+            while (!results.containsKey(request) && nextIdx < requests.size()) {
+                List<RangerHiveAccessRequest>                    batch        = requests.subList(nextIdx, Math.min(requests.size(), nextIdx + batchSize));
+                Map<RangerHiveAccessRequest, RangerAccessResult> batchResults = evaluateInBatch(batch);
+
+                for (RangerHiveAccessRequest batchRequest : batch) {
+                    results.put(batchRequest, batchResults.get(batchRequest)); // null result is kept too, to not evaluate again
+                }
+
+                nextIdx   += batch.size();
+                batchSize *= 2;
+            }
+
+            return results.get(request);
+        }
+    }
+
     private static class HiveObj {
         String databaseName;
         String tableName;
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.benchmark;
+
+import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemAccess;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.model.RangerServiceDef;
+import org.apache.ranger.plugin.model.RangerServiceResource;
+import org.apache.ranger.plugin.model.RangerTag;
+import org.apache.ranger.plugin.model.RangerTagDef;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequestImpl;
+import org.apache.ranger.plugin.policyengine.RangerAccessResourceImpl;
+import org.apache.ranger.plugin.policyengine.RangerPluginContext;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngineOptions;
+import org.apache.ranger.plugin.policyevaluator.RangerPolicyEvaluator;
+import org.apache.ranger.plugin.store.EmbeddedServiceDefsUtil;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.apache.ranger.plugin.util.ServiceTags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates a reproducible corpus of HDFS path policies, tagged resources and access requests.
+ *
+ * The same (policyCount, seed) always produces the same corpus, so numbers from different runs,
+ * hosts and code versions can be compared directly.
+ */
+public class RangerBenchmarkCorpus {
+    public static final String SERVICE_TYPE  = EmbeddedServiceDefsUtil.EMBEDDED_SERVICEDEF_HDFS_NAME;
+    public static final String SERVICE_NAME  = "bench_hdfs";
+    public static final String RESOURCE_PATH = "path";
+    public static final long   DEFAULT_SEED  = 20240101L;
+
+    private static final int          DEPARTMENT_COUNT      = 50;
+    private static final int          PROJECTS_PER_DEPT     = 200;
+    private static final int          USER_COUNT            = 1000;
+    private static final int          GROUP_COUNT           = 200;
+    private static final int          REQUEST_COUNT         = 4096;
+    private static final int          WILDCARD_POLICY_RATIO = 20;  // every 20th policy uses a wildcard path
+    private static final int          DENY_POLICY_RATIO     = 10;  // every 10th policy has deny items
+    private static final int          TAGGED_RESOURCE_RATIO = 2;   // every 2nd dataset is tagged
+    private static final double       REQUEST_HIT_RATE      = 0.7d;
+    private static final List<String> ACCESS_TYPES          = Arrays.asList("read", "write", "execute");
+    private static final List<String> TAG_TYPES             = Arrays.asList("PII", "PHI", "PCI", "CONFIDENTIAL", "RESTRICTED");
+
+    private final int                       policyCount;
+    private final Random                    random;
+    private final RangerServiceDef          serviceDef;
+    private final ServicePolicies           servicePolicies;
+    private final ServiceTags               serviceTags;
+    private final List<RangerAccessRequest> requests;
+
+    public RangerBenchmarkCorpus(int policyCount) throws Exception {
+        this(policyCount, DEFAULT_SEED);
+    }
+
+    public RangerBenchmarkCorpus(int policyCount, long seed) throws Exception {
+        this.policyCount     = policyCount;
+        this.random          = new Random(seed);
+        this.serviceDef      = EmbeddedServiceDefsUtil.instance().getEmbeddedServiceDef(SERVICE_TYPE);
+        this.servicePolicies = createServicePolicies();
+        this.serviceTags     = createServiceTags();
+        this.requests        = createRequests();
+    }
+
+    public static RangerPluginContext createPluginContext(RangerPolicyEngineOptions options) {
+        return new RangerPluginContext(new RangerPluginConfig(SERVICE_TYPE, SERVICE_NAME, "ranger-benchmark", null, null, options));
+    }
+
+    public static RangerPolicyEngineOptions createPolicyEngineOptions() {
+        RangerPolicyEngineOptions ret = new RangerPolicyEngineOptions();
+
+        ret.evaluatorType              = RangerPolicyEvaluator.EVALUATOR_TYPE_AUTO;
+        ret.cacheAuditResults          = false;
+        ret.disableTrieLookupPrefilter = false;
+        ret.optimizeTrieForRetrieval   = false;
+        ret.disableContextEnrichers    = true;
+        ret.disableCustomConditions    = true;
+        ret.disableTagPolicyEvaluation = true;
+
+        return ret;
+    }
+
+    public int getPolicyCount() {
+        return policyCount;
+    }
+
+    public RangerServiceDef getServiceDef() {
+        return serviceDef;
+    }
+
+    public ServicePolicies getServicePolicies() {
+        return servicePolicies;
+    }
+
+    public ServiceTags getServiceTags() {
+        return serviceTags;
+    }
+
+    public List<RangerAccessRequest> getRequests() {
+        return requests;
+    }
+
+    static String getDatasetPath(int policyIdx) {
+        int dept    = policyIdx % DEPARTMENT_COUNT;
+        int project = (policyIdx / DEPARTMENT_COUNT) % PROJECTS_PER_DEPT;
+
+        return "/data/dept_" + dept + "/project_" + project + "/dataset_" + policyIdx;
+    }
+
+    private ServicePolicies createServicePolicies() {
+        ServicePolicies    ret      = new ServicePolicies();
+        List<RangerPolicy> policies = new ArrayList<>(policyCount);
+
+        for (int i = 0; i < policyCount; i++) {
+            policies.add(createPolicy(i));
+        }
+
+        ret.setServiceName(SERVICE_NAME);
+        ret.setServiceId(1L);
+        ret.setServiceDef(serviceDef);
+        ret.setPolicyVersion(1L);
+        ret.setPolicyUpdateTime(new Date());
+        ret.setPolicies(policies);
+
+        return ret;
+    }
+
+    private RangerPolicy createPolicy(int idx) {
+        final String  path;
+        final boolean isRecursive;
+
+        if (idx % WILDCARD_POLICY_RATIO == 0) {
+            path        = getDatasetPath(idx) + "/*.csv";
+            isRecursive = false;
+        } else {
+            path        = getDatasetPath(idx);
+            isRecursive = idx % 3 != 0;
+        }
+
+        Map<String, RangerPolicyResource> resources = new HashMap<>();
+
+        resources.put(RESOURCE_PATH, new RangerPolicyResource(Collections.singletonList(path), false, isRecursive));
+
+        RangerPolicy ret = new RangerPolicy();
+
+        ret.setId((long) idx + 1);
+        ret.setGuid("policy-guid-" + idx);
+        ret.setService(SERVICE_NAME);
+        ret.setName("bench-policy-" + idx);
+        ret.setPolicyType(RangerPolicy.POLICY_TYPE_ACCESS);
+        ret.setPolicyPriority(RangerPolicy.POLICY_PRIORITY_NORMAL);
+        ret.setIsEnabled(true);
+        ret.setIsAuditEnabled(true);
+        ret.setVersion(1L);
+        ret.setResources(resources);
+        ret.setPolicyItems(Arrays.asList(createPolicyItem(), createPolicyItem()));
+
+        if (idx % DENY_POLICY_RATIO == 0) {
+            ret.setDenyPolicyItems(Collections.singletonList(createPolicyItem()));
+        }
+
+        return ret;
+    }
+
+    private RangerPolicyItem createPolicyItem() {
+        List<RangerPolicyItemAccess> accesses = new ArrayList<>();
+        List<String>                 users    = new ArrayList<>();
+        List<String>                 groups   = new ArrayList<>();
+
+        for (String accessType : ACCESS_TYPES) {
+            if (random.nextBoolean()) {
+                accesses.add(new RangerPolicyItemAccess(accessType, Boolean.TRUE));
+            }
+        }
+
+        if (accesses.isEmpty()) {
+            accesses.add(new RangerPolicyItemAccess(ACCESS_TYPES.get(0), Boolean.TRUE));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            users.add(randomUser());
+        }
+
+        groups.add(randomGroup());
+
+        return new RangerPolicyItem(accesses, users, groups, null, null, Boolean.FALSE);
+    }
+
+    private ServiceTags createServiceTags() {
+        Map<Long, RangerTagDef>     tagDefs          = new HashMap<>();
+        Map<Long, RangerTag>        tags             = new HashMap<>();
+        List<RangerServiceResource> serviceResources = new ArrayList<>();
+        Map<Long, List<Long>>       resourceToTagIds = new HashMap<>();
+
+        for (int i = 0; i < TAG_TYPES.size(); i++) {
+            long      tagId   = i + 1;
+            String    tagType = TAG_TYPES.get(i);
+            RangerTag tag     = new RangerTag(tagType, Collections.emptyMap());
+
+            tag.setId(tagId);
+            tagDefs.put(tagId, new RangerTagDef(tagType));
+            tags.put(tagId, tag);
+        }
+
+        for (int i = 0; i < policyCount; i += TAGGED_RESOURCE_RATIO) {
+            long                              resourceId = serviceResources.size() + 1;
+            Map<String, RangerPolicyResource> elements   = new HashMap<>();
+
+            elements.put(RESOURCE_PATH, new RangerPolicyResource(Collections.singletonList(getDatasetPath(i)), false, true));
+
+            RangerServiceResource serviceResource = new RangerServiceResource("resource-guid-" + i, SERVICE_NAME, elements);
+
+            serviceResource.setId(resourceId);
+            serviceResources.add(serviceResource);
+            resourceToTagIds.put(resourceId, Collections.singletonList((long) (random.nextInt(TAG_TYPES.size()) + 1)));
+        }
+
+        ServiceTags ret = new ServiceTags();
+
+        ret.setServiceName(SERVICE_NAME);
+        ret.setTagVersion(1L);
+        ret.setTagUpdateTime(new Date());
+        ret.setTagDefinitions(tagDefs);
+        ret.setTags(tags);
+        ret.setServiceResources(serviceResources);
+        ret.setResourceToTagIds(resourceToTagIds);
+
+        return ret;
+    }
+
+    private List<RangerAccessRequest> createRequests() {
+        List<RangerAccessRequest> ret = new ArrayList<>(REQUEST_COUNT);
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            final String path;
+
+            if (random.nextDouble() < REQUEST_HIT_RATE) {
+                path = getDatasetPath(random.nextInt(policyCount)) + "/part-" + random.nextInt(1000) + ".csv";
+            } else {
+                path = "/tmp/scratch_" + random.nextInt(100000) + "/file_" + i;
+            }
+
+            Set<String> userGroups = new HashSet<>();
+
+            userGroups.add(randomGroup());
+
+            RangerAccessRequestImpl request = new RangerAccessRequestImpl(new RangerAccessResourceImpl(Collections.singletonMap(RESOURCE_PATH, path)), ACCESS_TYPES.get(random.nextInt(ACCESS_TYPES.size())), randomUser(), userGroups, null);
+
+            request.setClusterName("bench");
+
+            ret.add(request);
+        }
+
+        return ret;
+    }
+
+    private String randomUser() {
+        return "user_" + random.nextInt(USER_COUNT);
+    }
+
+    private String randomGroup() {
+        return "group_" + random.nextInt(GROUP_COUNT);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.benchmark;
+
+import org.apache.commons.lang.StringUtils;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+
+/**
+ * Runs the benchmark suites with JMH command-line options, for example:
+ *
+ *   mvn -pl ranger-benchmarks exec:exec -Dbenchmark.args="RangerPolicyEngineBenchmark -p policyCount=10000"
+ *
+ * Unless profilers are given explicitly with -prof, the GC profiler is added so that every run
+ * reports allocation rate (gc.alloc.rate.norm: bytes allocated per operation).
+ *
+ * With an allocation budget, the run fails (exit code 1) if any benchmark allocates more than
+ * the given bytes per operation, for example:
+ *
+ *   mvn -pl ranger-benchmarks exec:exec -Dbenchmark.alloc.budget=1024 -Dbenchmark.args="RangerPolicyEngineBenchmark"
+ */
+public class RangerBenchmarkRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerBenchmarkRunner.class);
+
+    public static final String PROP_ALLOC_BUDGET = "ranger.benchmark.alloc.budget";
+
+    private static final String ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+
+    private RangerBenchmarkRunner() {
+        // to block instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions    cmdOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder options    = new OptionsBuilder().parent(cmdOptions);
+
+        if (cmdOptions.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+        String                budget  = System.getProperty(PROP_ALLOC_BUDGET);
+
+        if (StringUtils.isNotBlank(budget) && !isWithinAllocationBudget(results, Long.parseLong(budget.trim()))) {
+            System.exit(1);
+        }
+    }
+
+    static boolean isWithinAllocationBudget(Collection<RunResult> results, long budget) {
+        boolean ret = true;
+
+        for (RunResult result : results) {
+            Result<?> allocRate = result.getSecondaryResults().get(ALLOC_RATE_NORM);
+            String    benchmark = result.getParams().id();
+
+            if (allocRate == null) {
+                LOG.error("allocation budget: {} not available for {}; run with -prof gc", ALLOC_RATE_NORM, benchmark);
+
+                ret = false;
+            } else if (allocRate.getScore() > budget) {
+                LOG.error("allocation budget exceeded: {} allocated {} bytes/op; budget={}", benchmark, Math.round(allocRate.getScore()), budget);
+
+                ret = false;
+            } else {
+                LOG.info("allocation budget met: {} allocated {} bytes/op; budget={}", benchmark, Math.round(allocRate.getScore()), budget);
+            }
+        }
+
+        return ret;
+    }
+}
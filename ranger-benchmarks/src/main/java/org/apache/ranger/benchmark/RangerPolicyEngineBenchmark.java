@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.benchmark;
+
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.policyengine.RangerAccessResult;
+import org.apache.ranger.plugin.policyengine.RangerPluginContext;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end access evaluation through RangerPolicyEngineImpl.evaluatePolicies(), without audit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RangerPolicyEngineBenchmark {
+    private RangerPolicyEngineImpl policyEngine;
+
+    @Setup(Level.Trial)
+    public void setup(RangerCorpusState corpusState) {
+        RangerPluginContext pluginContext = RangerBenchmarkCorpus.createPluginContext(RangerBenchmarkCorpus.createPolicyEngineOptions());
+
+        policyEngine = new RangerPolicyEngineImpl(corpusState.corpus.getServicePolicies(), pluginContext, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseResources() {
+        if (policyEngine != null) {
+            policyEngine.releaseResources(true);
+
+            policyEngine = null;
+        }
+    }
+
+    @Benchmark
+    public RangerAccessResult evaluatePolicies(RequestCursor cursor) {
+        return policyEngine.evaluatePolicies(cursor.next(), RangerPolicy.POLICY_TYPE_ACCESS, null);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.benchmark;
+
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
+import org.apache.ranger.plugin.policyengine.RangerAccessResult;
+import org.apache.ranger.plugin.policyengine.RangerPluginContext;
+import org.apache.ranger.plugin.policyengine.RangerPolicyRepository;
+import org.apache.ranger.plugin.policyevaluator.RangerPolicyEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-policy evaluation through RangerDefaultPolicyEvaluator.evaluate(). Each request is paired
+ * with the first evaluator the repository trie returns for it, so the resource matchers are exercised
+ * on both matching and non-matching resources.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RangerPolicyEvaluatorBenchmark {
+    private RangerPolicyRepository  repository;
+    private RangerPolicyEvaluator[] evaluators;
+
+    @Setup(Level.Trial)
+    public void setup(RangerCorpusState corpusState) {
+        RangerBenchmarkCorpus       corpus           = corpusState.corpus;
+        RangerPluginContext         pluginContext    = RangerBenchmarkCorpus.createPluginContext(RangerBenchmarkCorpus.createPolicyEngineOptions());
+        List<RangerAccessRequest>   requests         = corpus.getRequests();
+        List<RangerPolicyEvaluator> policyEvaluators;
+
+        repository       = new RangerPolicyRepository(corpus.getServicePolicies(), pluginContext);
+        policyEvaluators = repository.getPolicyEvaluators();
+        evaluators       = new RangerPolicyEvaluator[requests.size()];
+
+        for (int i = 0; i < evaluators.length; i++) {
+            List<RangerPolicyEvaluator> matched = repository.getLikelyMatchPolicyEvaluators(requests.get(i), RangerPolicy.POLICY_TYPE_ACCESS);
+
+            evaluators[i] = matched.isEmpty() ? policyEvaluators.get(i % policyEvaluators.size()) : matched.get(0);
+        }
+    }
+
+    @Benchmark
+    public RangerAccessResult evaluate(RequestCursor cursor) {
+        int                 idx     = cursor.nextIndex();
+        RangerAccessRequest request = cursor.get(idx);
+        RangerAccessResult  ret     = new RangerAccessResult(RangerPolicy.POLICY_TYPE_ACCESS, repository.getServiceName(), repository.getServiceDef(), request);
+
+        evaluators[idx].evaluate(request, ret);
+
+        return ret;
+    }
+}
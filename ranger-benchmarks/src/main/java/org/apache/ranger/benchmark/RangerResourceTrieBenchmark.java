@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.benchmark;
+
+import org.apache.ranger.plugin.model.RangerServiceDef.RangerResourceDef;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest.ResourceElementMatchingScope;
+import org.apache.ranger.plugin.policyengine.RangerPluginContext;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngineOptions;
+import org.apache.ranger.plugin.policyengine.RangerPolicyRepository;
+import org.apache.ranger.plugin.policyengine.RangerResourceTrie;
+import org.apache.ranger.plugin.policyevaluator.RangerPolicyEvaluator.RangerPolicyResourceEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in the RangerResourceTrie built for the path resource of the corpus policies.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RangerResourceTrieBenchmark {
+    @Param({"false", "true"})
+    public boolean optimizeForRetrieval;
+
+    private RangerResourceTrie<RangerPolicyResourceEvaluator> trie;
+    private String[]                                          paths;
+
+    @Setup(Level.Trial)
+    public void setup(RangerCorpusState corpusState) {
+        RangerBenchmarkCorpus     corpus        = corpusState.corpus;
+        RangerPolicyEngineOptions options       = RangerBenchmarkCorpus.createPolicyEngineOptions();
+        RangerPluginContext       pluginContext = RangerBenchmarkCorpus.createPluginContext(options);
+        RangerPolicyRepository    repository    = new RangerPolicyRepository(corpus.getServicePolicies(), pluginContext);
+        RangerResourceDef         resourceDef   = null;
+
+        for (RangerResourceDef def : corpus.getServiceDef().getResources()) {
+            if (RangerBenchmarkCorpus.RESOURCE_PATH.equals(def.getName())) {
+                resourceDef = def;
+            }
+        }
+
+        trie  = new RangerResourceTrie<>(resourceDef, repository.getPolicyEvaluators(), optimizeForRetrieval, false, pluginContext);
+        paths = new String[corpus.getRequests().size()];
+
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = (String) corpus.getRequests().get(i).getResource().getValue(RangerBenchmarkCorpus.RESOURCE_PATH);
+        }
+    }
+
+    @Benchmark
+    public Set<RangerPolicyResourceEvaluator> getEvaluatorsForResource(RequestCursor cursor) {
+        return trie.getEvaluatorsForResource(paths[cursor.nextIndex()]);
+    }
+
+    @Benchmark
+    public Set<RangerPolicyResourceEvaluator> getEvaluatorsForResourceSelfOrChild(RequestCursor cursor) {
+        return trie.getEvaluatorsForResource(paths[cursor.nextIndex()], ResourceElementMatchingScope.SELF_OR_CHILD);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.benchmark;
+
+import org.apache.ranger.plugin.contextenricher.RangerTagEnricher;
+import org.apache.ranger.plugin.contextenricher.RangerTagForEval;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
+import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tag lookup through RangerTagEnricher.enrich(); the corpus tags every other dataset directory.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RangerTagEnricherBenchmark {
+    private RangerTagEnricher tagEnricher;
+
+    @Setup(Level.Trial)
+    public void setup(RangerCorpusState corpusState) {
+        RangerBenchmarkCorpus corpus = corpusState.corpus;
+
+        tagEnricher = new RangerTagEnricher();
+
+        tagEnricher.setServiceName(RangerBenchmarkCorpus.SERVICE_NAME);
+        tagEnricher.setServiceDef(corpus.getServiceDef());
+        tagEnricher.setAppId("ranger-benchmark");
+        tagEnricher.init();
+        tagEnricher.setServiceTags(corpus.getServiceTags());
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseResources() {
+        if (tagEnricher != null) {
+            tagEnricher.preCleanup();
+
+            tagEnricher = null;
+        }
+    }
+
+    @Benchmark
+    public Set<RangerTagForEval> enrich(RequestCursor cursor) {
+        RangerAccessRequest request = cursor.next();
+
+        tagEnricher.enrich(request);
+
+        return RangerAccessRequestUtil.getRequestTagsFromContext(request.getContext());
+    }
+}
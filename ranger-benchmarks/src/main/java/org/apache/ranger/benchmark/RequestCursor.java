@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.benchmark;
+
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequestImpl;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Per-thread round-robin over the corpus requests. Requests are copied for each thread, since
+ * the policy engine writes into the request context during evaluation.
+ */
+@State(Scope.Thread)
+public class RequestCursor {
+    private RangerAccessRequest[] requests;
+    private int                   index;
+
+    @Setup(Level.Trial)
+    public void setup(RangerCorpusState corpusState) {
+        List<RangerAccessRequest> corpusRequests = corpusState.corpus.getRequests();
+
+        requests = new RangerAccessRequest[corpusRequests.size()];
+
+        for (int i = 0; i < requests.length; i++) {
+            RangerAccessRequestImpl request = new RangerAccessRequestImpl(corpusRequests.get(i));
+
+            request.setContext(null);
+
+            requests[i] = request;
+        }
+    }
+
+    public RangerAccessRequest next() {
+        return requests[nextIndex()];
+    }
+
+    public int nextIndex() {
+        int ret = index;
+
+        index = (index + 1) % requests.length;
+
+        return ret;
+    }
+
+    public RangerAccessRequest get(int idx) {
+        return requests[idx];
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.biz;
+
+import org.apache.ranger.authorization.hadoop.config.RangerAdminConfig;
+import org.apache.ranger.biz.RangerServiceVersionRegistry.ServiceVersions;
+import org.apache.ranger.plugin.util.RangerChangeWatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/*
+ * Holds plugin requests waiting for changes to policies/tags/roles/userstore of a service, and answers them as soon as
+ * a version moves. Versions are taken from RangerServiceVersionRegistry, whose refresher wakes the waiters after each
+ * refresh that changed a version; changes made through any Ranger Admin instance are therefore notified within the
+ * registry refresh interval. Waiting is not supported when the registry is disabled.
+ *
+ * A waiting request holds a container thread for up to its timeout, as the Jersey 1 stack of Ranger Admin has no
+ * async response support. Waiters are therefore capped well below the connector thread count: by default to a tenth
+ * of it, and never to more than half of it, so that waiters can't starve other REST calls.
+ */
+@Component
+public class RangerPluginChangeNotifier {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerPluginChangeNotifier.class);
+
+    public static final String PROP_MAX_WAITERS       = "ranger.admin.plugin.change.notifier.max.waiters";
+    public static final String PROP_MAX_WAIT_MS       = "ranger.admin.plugin.change.notifier.max.wait.ms";
+    public static final String PROP_CONNECTOR_THREADS = "ranger.service.http.connector.property.maxThreads";
+
+    private static final int  DEFAULT_CONNECTOR_THREADS = 200; // Tomcat default
+    private static final long DEFAULT_MAX_WAIT_MS       = 120 * 1000L;
+
+    private final    long      maxWaitMs;
+    private final    Semaphore waitPermits;
+    private final    Object    changeLock = new Object();
+    private volatile boolean   isListenerRegistered;
+
+    @Autowired
+    RangerServiceVersionRegistry versionRegistry;
+
+    public RangerPluginChangeNotifier() {
+        RangerAdminConfig config = RangerAdminConfig.getInstance();
+
+        this.maxWaitMs   = config.getLong(PROP_MAX_WAIT_MS, DEFAULT_MAX_WAIT_MS);
+        this.waitPermits = new Semaphore(getMaxWaiters(config.getInt(PROP_CONNECTOR_THREADS, DEFAULT_CONNECTOR_THREADS), config.getInt(PROP_MAX_WAITERS, -1)));
+    }
+
+    static int getMaxWaiters(int connectorThreads, int configuredMaxWaiters) {
+        int limit = Math.max(1, connectorThreads / 2);
+        int ret   = configuredMaxWaiters < 0 ? Math.max(1, connectorThreads / 10) : configuredMaxWaiters;
+
+        if (ret > limit) {
+            LOG.warn("{}={} is more than half of the {} connector threads; using {}", PROP_MAX_WAITERS, ret, connectorThreads, limit);
+
+            ret = limit;
+        }
+
+        LOG.info("RangerPluginChangeNotifier: maxWaiters={}, connectorThreads={}", ret, connectorThreads);
+
+        return ret;
+    }
+
+    /**
+     * Waits until the version of any of the given change-types of the service differs from the given version, or the timeout expires.
+     *
+     * @return latest versions of the change-types; null if the version registry is disabled or too many requests are already waiting
+     */
+    public Map<String, Long> waitForChanges(String serviceName, Map<String, Long> lastKnownVersions, long timeoutMs) throws InterruptedException {
+        LOG.debug("==> RangerPluginChangeNotifier.waitForChanges({}, {}, {})", serviceName, lastKnownVersions, timeoutMs);
+
+        if (!versionRegistry.isEnabled()) {
+            LOG.debug("<== RangerPluginChangeNotifier.waitForChanges({}, {}, {}): version registry is disabled", serviceName, lastKnownVersions, timeoutMs);
+
+            return null;
+        }
+
+        if (!waitPermits.tryAcquire()) {
+            LOG.debug("<== RangerPluginChangeNotifier.waitForChanges({}, {}, {}): too many waiters", serviceName, lastKnownVersions, timeoutMs);
+
+            return null;
+        }
+
+        Map<String, Long> ret;
+
+        try {
+            ensureListenerRegistered();
+
+            long waitUntil = System.currentTimeMillis() + Math.min(Math.max(timeoutMs, 0), maxWaitMs);
+
+            synchronized (changeLock) {
+                while (true) {
+                    ret = getVersions(serviceName, lastKnownVersions.keySet());
+
+                    long remainingMs = waitUntil - System.currentTimeMillis();
+
+                    if (remainingMs <= 0 || isChanged(lastKnownVersions, ret)) {
+                        break;
+                    }
+
+                    changeLock.wait(remainingMs);
+                }
+            }
+        } finally {
+            waitPermits.release();
+        }
+
+        LOG.debug("<== RangerPluginChangeNotifier.waitForChanges({}, {}, {}): ret={}", serviceName, lastKnownVersions, timeoutMs, ret);
+
+        return ret;
+    }
+
+    static boolean isChanged(Map<String, Long> lastKnownVersions, Map<String, Long> latestVersions) {
+        for (Map.Entry<String, Long> entry : lastKnownVersions.entrySet()) {
+            Long latestVersion = latestVersions.get(entry.getKey());
+
+            if (latestVersion != null && !latestVersion.equals(entry.getValue())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    Map<String, Long> getVersions(String serviceName, Iterable<String> changeTypes) {
+        ServiceVersions   serviceVersions = versionRegistry.getServiceVersions(serviceName);
+        Map<String, Long> ret             = new HashMap<>();
+
+        for (String changeType : changeTypes) {
+            Long version = null;
+
+            if (RangerChangeWatcher.CHANGE_TYPE_USERSTORE.equals(changeType)) {
+                version = versionRegistry.getUserStoreVersion();
+            } else if (serviceVersions != null) {
+                if (RangerChangeWatcher.CHANGE_TYPE_POLICIES.equals(changeType)) {
+                    version = serviceVersions.getPolicyVersion();
+                } else if (RangerChangeWatcher.CHANGE_TYPE_TAGS.equals(changeType)) {
+                    version = serviceVersions.getTagVersion();
+                } else if (RangerChangeWatcher.CHANGE_TYPE_ROLES.equals(changeType)) {
+                    version = serviceVersions.getRoleVersion();
+                }
+            }
+
+            if (version != null) {
+                ret.put(changeType, version);
+            }
+        }
+
+        return ret;
+    }
+
+    void onVersionsChanged() {
+        synchronized (changeLock) {
+            changeLock.notifyAll();
+        }
+    }
+
+    private void ensureListenerRegistered() {
+        if (!isListenerRegistered) {
+            synchronized (this) {
+                if (!isListenerRegistered) {
+                    versionRegistry.addChangeListener(this::onVersionsChanged);
+
+                    isListenerRegistered = true;
+                }
+            }
+        }
+    }
+}
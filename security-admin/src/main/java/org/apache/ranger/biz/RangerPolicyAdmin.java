@@ -39,6 +39,9 @@ public interface RangerPolicyAdmin {
 
     boolean isDelegatedAdminAccessAllowedForModify(RangerPolicy policy, String user, Set<String> userGroups, Set<String> roles, Map<String, Object> evalContext);
 
+    // cheap check, without matching resources: false if no policy grants delegated-admin to the user, groups or roles
+    boolean hasDelegatedAdminPolicyItems(String user, Set<String> userGroups, Set<String> roles);
+
     List<RangerPolicy> getExactMatchPolicies(RangerAccessResource resource, String zoneName, Map<String, Object> evalContext);
 
     List<RangerPolicy> getExactMatchPolicies(RangerPolicy policy, Map<String, Object> evalContext);
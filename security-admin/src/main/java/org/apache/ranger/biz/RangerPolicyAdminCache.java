@@ -19,6 +19,7 @@
 
 package org.apache.ranger.biz;
 
+import org.apache.ranger.authorization.hadoop.config.RangerAdminConfig;
 import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
 import org.apache.ranger.plugin.model.RangerServiceDef;
 import org.apache.ranger.plugin.policyengine.RangerPluginContext;
@@ -36,13 +37,46 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class RangerPolicyAdminCache {
     private static final Logger LOG = LoggerFactory.getLogger(RangerPolicyAdminCache.class);
 
+    public static final String PROP_REFRESH_COALESCE_INTERVAL_MS = "ranger.admin.policy.admin.cache.refresh.coalesce.interval.ms";
+
+    public static final String METRIC_REBUILD_COUNT           = "RebuildCount";
+    public static final String METRIC_REBUILD_TIME_MS         = "RebuildTimeMs";
+    public static final String METRIC_DELTA_APPLY_COUNT       = "DeltaApplyCount";
+    public static final String METRIC_DELTA_APPLY_TIME_MS     = "DeltaApplyTimeMs";
+    public static final String METRIC_COALESCED_REFRESH_COUNT = "CoalescedRefreshCount";
+
+    private static final long REFRESH_COALESCE_INTERVAL_MS = RangerAdminConfig.getInstance().getLong(PROP_REFRESH_COALESCE_INTERVAL_MS, 0L);
+
+    // aggregated over caches of all engine-options
+    private static final LongAdder rebuildCount          = new LongAdder();
+    private static final LongAdder rebuildTimeNs         = new LongAdder();
+    private static final LongAdder deltaApplyCount       = new LongAdder();
+    private static final LongAdder deltaApplyTimeNs      = new LongAdder();
+    private static final LongAdder coalescedRefreshCount = new LongAdder();
+
     private final Map<String, RangerPolicyAdminWrapper> policyAdminCache = Collections.synchronizedMap(new HashMap<>());
+    private final Map<String, Lock>                     refreshLocks     = new ConcurrentHashMap<>();
+
+    public static Map<String, Long> getMetrics() {
+        Map<String, Long> ret = new HashMap<>();
+
+        ret.put(METRIC_REBUILD_COUNT, rebuildCount.sum());
+        ret.put(METRIC_REBUILD_TIME_MS, TimeUnit.NANOSECONDS.toMillis(rebuildTimeNs.sum()));
+        ret.put(METRIC_DELTA_APPLY_COUNT, deltaApplyCount.sum());
+        ret.put(METRIC_DELTA_APPLY_TIME_MS, TimeUnit.NANOSECONDS.toMillis(deltaApplyTimeNs.sum()));
+        ret.put(METRIC_COALESCED_REFRESH_COUNT, coalescedRefreshCount.sum());
+
+        return ret;
+    }
 
     final RangerPolicyAdmin getServicePoliciesAdmin(String serviceName, ServiceStore svcStore, RoleStore roleStore, SecurityZoneStore zoneStore, RangerPolicyEngineOptions options) {
         if (serviceName == null || svcStore == null || roleStore == null || zoneStore == null) {
@@ -56,6 +90,7 @@ final RangerPolicyAdmin getServicePoliciesAdmin(String serviceName, ServiceStore
                 LOG.warn("Service:[{}] does not exist in service-store. Returning null policy-engine!", serviceName);
 
                 policyAdminCache.remove(serviceName);
+                refreshLocks.remove(serviceName);
 
                 return null;
             }
@@ -65,13 +100,46 @@ final RangerPolicyAdmin getServicePoliciesAdmin(String serviceName, ServiceStore
             return null;
         }
 
+        RangerPolicyAdminWrapper ret = policyAdminCache.get(serviceName);
+
+        if (ret != null && REFRESH_COALESCE_INTERVAL_MS > 0 && (System.currentTimeMillis() - ret.getLastRefreshTime()) < REFRESH_COALESCE_INTERVAL_MS) {
+            coalescedRefreshCount.increment();
+
+            ret.getPolicyAdmin().setServiceStore(svcStore);
+
+            return ret.getPolicyAdmin();
+        }
+
+        // only one thread refreshes policy-admin of a service; others wait for it and then find the cache up-to-date
+        Lock refreshLock = refreshLocks.computeIfAbsent(serviceName, k -> new ReentrantLock());
+
+        if (!refreshLock.tryLock()) {
+            coalescedRefreshCount.increment();
+
+            refreshLock.lock();
+        }
+
+        try {
+            ret = refreshPolicyAdmin(serviceName, policyAdminCache.get(serviceName), svcStore, roleStore, options);
+        } finally {
+            refreshLock.unlock();
+        }
+
+        if (ret == null) {
+            LOG.error("Policy-engine is not built! Returning null policy-engine!");
+        } else {
+            ret.getPolicyAdmin().setServiceStore(svcStore);
+        }
+
+        return ret == null ? null : ret.getPolicyAdmin();
+    }
+
+    private RangerPolicyAdminWrapper refreshPolicyAdmin(String serviceName, RangerPolicyAdminWrapper ret, ServiceStore svcStore, RoleStore roleStore, RangerPolicyEngineOptions options) {
         long        policyVersion;
         long        roleVersion;
         RangerRoles roles;
         boolean     isRolesUpdated = true;
 
-        RangerPolicyAdminWrapper ret = policyAdminCache.get(serviceName);
-
         try {
             if (ret == null) {
                 policyVersion = -1L;
@@ -92,10 +160,22 @@ final RangerPolicyAdmin getServicePoliciesAdmin(String serviceName, ServiceStore
                 }
             }
 
-            ServicePolicies policies = svcStore.getServicePoliciesIfUpdated(serviceName, policyVersion, ServiceDBStore.isSupportsPolicyDeltas());
+            ServicePolicies policies = svcStore.getServicePoliciesIfUpdated(serviceName, policyVersion, !ServiceDBStore.isSupportsPolicyDeltas());
 
             if (policies != null) {
-                ret = addOrUpdatePolicyAdmin(ret, policies, roles, options);
+                RangerPolicyAdminWrapper oldPolicyAdminWrapper = ret;
+
+                ret = addOrUpdatePolicyAdmin(oldPolicyAdminWrapper, policies, roles, options);
+
+                if (ret == null && Boolean.TRUE.equals(RangerPolicyDeltaUtil.hasPolicyDeltas(policies))) {
+                    LOG.warn("getPolicyAdmin({}): failed to apply policy-deltas; rebuilding policy-engine from all policies", serviceName);
+
+                    ServicePolicies allPolicies = svcStore.getServicePoliciesIfUpdated(serviceName, -1L, true);
+
+                    if (allPolicies != null) {
+                        ret = addOrUpdatePolicyAdmin(oldPolicyAdminWrapper, allPolicies, roles, options);
+                    }
+                }
 
                 if (ret == null) {
                     LOG.error("getPolicyAdmin({}): failed to build engine from policies from service-store", serviceName);
@@ -104,18 +184,14 @@ final RangerPolicyAdmin getServicePoliciesAdmin(String serviceName, ServiceStore
                         ret.getPolicyAdmin().setRoles(roles);
                     }
                 }
+            } else if (ret != null) {
+                ret.setLastRefreshTime(System.currentTimeMillis());
             }
         } catch (Exception exception) {
             LOG.error("getPolicyAdmin({}): failed to get latest policies from service-store", serviceName, exception);
         }
 
-        if (ret == null) {
-            LOG.error("Policy-engine is not built! Returning null policy-engine!");
-        } else {
-            ret.getPolicyAdmin().setServiceStore(svcStore);
-        }
-
-        return ret == null ? null : ret.getPolicyAdmin();
+        return ret;
     }
 
     private RangerPolicyAdminWrapper addOrUpdatePolicyAdmin(RangerPolicyAdminWrapper policyAdminWrapper, ServicePolicies policies, RangerRoles roles, RangerPolicyEngineOptions options) {
@@ -140,6 +216,8 @@ private RangerPolicyAdminWrapper addOrUpdatePolicyAdmin(RangerPolicyAdminWrapper
                     }
 
                     if (isLocked) {
+                        long startTimeNs = System.nanoTime();
+
                         try {
                             policyAdmin = RangerPolicyAdminImpl.getPolicyAdmin(oldPolicyAdmin, policies);
 
@@ -147,6 +225,9 @@ private RangerPolicyAdminWrapper addOrUpdatePolicyAdmin(RangerPolicyAdminWrapper
                                 policyAdmin.setRoles(roles);
 
                                 isPolicyEngineShared = true;
+
+                                deltaApplyCount.increment();
+                                deltaApplyTimeNs.add(System.nanoTime() - startTimeNs);
                             }
                         } finally {
                             policyAdminWrapper.getLock().unlock();
@@ -160,7 +241,12 @@ private RangerPolicyAdminWrapper addOrUpdatePolicyAdmin(RangerPolicyAdminWrapper
                     policies.setPolicies(new ArrayList<>());
                 }
 
+                long startTimeNs = System.nanoTime();
+
                 policyAdmin = addPolicyAdmin(policies, roles, options);
+
+                rebuildCount.increment();
+                rebuildTimeNs.add(System.nanoTime() - startTimeNs);
             }
         } else {
             LOG.warn("Provided policies do not require policy change !! [{}]. Keeping old policy-engine!", policies);
@@ -203,11 +289,20 @@ private RangerPolicyAdmin addPolicyAdmin(ServicePolicies policies, RangerRoles r
     static class RangerPolicyAdminWrapper {
         final RangerPolicyAdmin policyAdmin;
         final Lock              lock = new ReentrantLock();
+        volatile long           lastRefreshTime = System.currentTimeMillis();
 
         RangerPolicyAdminWrapper(RangerPolicyAdmin policyAdmin) {
             this.policyAdmin = policyAdmin;
         }
 
+        long getLastRefreshTime() {
+            return lastRefreshTime;
+        }
+
+        void setLastRefreshTime(long lastRefreshTime) {
+            this.lastRefreshTime = lastRefreshTime;
+        }
+
         RangerPolicyAdmin getPolicyAdmin() {
             return policyAdmin;
         }
@@ -24,6 +24,7 @@
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.plugin.contextenricher.RangerTagForEval;
 import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
 import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
 import org.apache.ranger.plugin.model.RangerPolicyResourceSignature;
 import org.apache.ranger.plugin.model.RangerServiceDef;
@@ -166,6 +167,31 @@ public boolean isDelegatedAdminAccessAllowedForModify(RangerPolicy policy, Strin
         return isDelegatedAdminAccessAllowed(policy, user, userGroups, roles, false, evalContext);
     }
 
+    @Override
+    public boolean hasDelegatedAdminPolicyItems(String user, Set<String> userGroups, Set<String> roles) {
+        LOG.debug("==> RangerPolicyAdminImpl.hasDelegatedAdminPolicyItems({}, {}, {})", user, userGroups, roles);
+
+        boolean ret;
+
+        try (RangerReadWriteLock.RangerLock readLock = policyEngine.getReadLock()) {
+            ret = hasDelegatedAdminPolicyItems(policyEngine.getPolicyRepository(), user, userGroups, roles);
+
+            if (!ret && MapUtils.isNotEmpty(policyEngine.getZonePolicyRepositories())) {
+                for (RangerPolicyRepository zoneRepository : policyEngine.getZonePolicyRepositories().values()) {
+                    if (hasDelegatedAdminPolicyItems(zoneRepository, user, userGroups, roles)) {
+                        ret = true;
+
+                        break;
+                    }
+                }
+            }
+        }
+
+        LOG.debug("<== RangerPolicyAdminImpl.hasDelegatedAdminPolicyItems({}, {}, {}): {}", user, userGroups, roles, ret);
+
+        return ret;
+    }
+
     @Override
     public List<RangerPolicy> getExactMatchPolicies(RangerAccessResource resource, String zoneName, Map<String, Object> evalContext) {
         LOG.debug("==> RangerPolicyAdminImpl.getExactMatchPolicies({}, {}, {})", resource, zoneName, evalContext);
@@ -582,6 +608,41 @@ private boolean isDelegatedAdminAccessAllowedForPolicy(RangerPolicyRepository ma
         return ret;
     }
 
+    private static boolean hasDelegatedAdminPolicyItems(RangerPolicyRepository repository, String user, Set<String> userGroups, Set<String> roles) {
+        if (repository != null) {
+            for (RangerPolicyEvaluator evaluator : repository.getPolicyEvaluators()) {
+                if (hasDelegatedAdminPolicyItem(evaluator.getPolicy().getPolicyItems(), user, userGroups, roles)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean hasDelegatedAdminPolicyItem(List<RangerPolicyItem> policyItems, String user, Set<String> userGroups, Set<String> roles) {
+        if (policyItems != null) {
+            for (RangerPolicyItem policyItem : policyItems) {
+                if (!policyItem.getDelegateAdmin()) {
+                    continue;
+                }
+
+                List<String> users  = policyItem.getUsers();
+                List<String> groups = policyItem.getGroups();
+
+                if (users != null && (users.contains(user) || users.contains(RangerPolicyEngine.USER_CURRENT) || users.contains(RangerPolicyEngine.RESOURCE_OWNER))) {
+                    return true;
+                } else if (groups != null && (groups.contains(RangerPolicyEngine.GROUP_PUBLIC) || (userGroups != null && CollectionUtils.containsAny(groups, userGroups)))) {
+                    return true;
+                } else if (CollectionUtils.isNotEmpty(roles) && CollectionUtils.isNotEmpty(policyItem.getRoles()) && CollectionUtils.containsAny(policyItem.getRoles(), roles)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     private Set<String> getAllowedAccesses(RangerPolicyRepository matchedRepository, Map<String, RangerPolicyResource> resource, String user, Set<String> userGroups, Set<String> roles, Set<String> accessTypes, Map<String, Object> evalContext) {
         // RANGER-3082
         // Convert policy resources to by substituting macros with ASTERISK
@@ -19,9 +19,11 @@
 
 package org.apache.ranger.biz;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.ranger.authorization.hadoop.config.RangerAdminConfig;
 import org.apache.ranger.authorization.utils.JsonUtils;
 import org.apache.ranger.authorization.utils.StringUtil;
 import org.apache.ranger.db.RangerDaoManager;
@@ -50,11 +52,31 @@
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class RangerPolicyRetriever {
     static final Logger LOG      = LoggerFactory.getLogger(RangerPolicyRetriever.class);
     static final Logger PERF_LOG = RangerPerfTracer.getPerfLogger("db.RangerPolicyRetriever");
 
+    public static final String PROP_PARSER_PARALLELISM = "ranger.admin.policy.retriever.parser.parallelism";
+    public static final String PROP_BATCH_SIZE         = "ranger.admin.policy.retriever.batch.size";
+
+    private static final ObjectReader POLICY_READER = JsonUtils.getMapper().readerFor(RangerPolicy.class); // immutable, hence shared by all threads
+    private static final int          PARSER_PARALLELISM;
+    private static final int          BATCH_SIZE;
+
+    private static volatile ForkJoinPool parserPool;
+
+    static {
+        RangerAdminConfig config = RangerAdminConfig.getInstance();
+
+        PARSER_PARALLELISM = config.getInt(PROP_PARSER_PARALLELISM, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        BATCH_SIZE         = Math.max(1, config.getInt(PROP_BATCH_SIZE, 1000));
+    }
+
     private final RangerDaoManager           daoMgr;
     private final LookupCache                lookupCache = new LookupCache();
     private final PlatformTransactionManager txManager;
@@ -78,6 +100,10 @@ public RangerPolicyRetriever(RangerDaoManager daoMgr) {
         this.txTemplate = null;
     }
 
+    static int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
     static List<XXPolicy> asList(XXPolicy policy) {
         List<XXPolicy> ret = new ArrayList<>();
 
@@ -137,7 +163,7 @@ public List<RangerPolicy> getServicePolicies(final XXService xService) {
             if (txTemplate == null) {
                 LOG.debug("Transaction Manager is null; Retrieving policies in the existing transaction");
 
-                RetrieverContext ctx = new RetrieverContext(xService);
+                RetrieverContext ctx = new RetrieverContext(xService, false);
 
                 ret = ctx.getAllPolicies();
             } else {
@@ -256,6 +282,68 @@ private XXPolicy getXXPolicy(Long policyId) {
         return ret;
     }
 
+    static RangerPolicy toRangerPolicy(String policyText) {
+        RangerPolicy ret = null;
+
+        if (StringUtils.isNotEmpty(policyText)) {
+            try {
+                ret = POLICY_READER.readValue(policyText);
+            } catch (Exception excp) {
+                LOG.warn("toRangerPolicy() failed to convert json to policy: JSON {}", policyText, excp);
+            }
+        }
+
+        return ret;
+    }
+
+    /*
+     * parses given policyTexts in parserPool, if enabled; returned list has policies in the same order as policyTexts
+     */
+    static List<RangerPolicy> toRangerPolicies(List<String> policyTexts) {
+        List<RangerPolicy> ret;
+        ForkJoinPool       pool = policyTexts.size() > 1 ? getParserPool() : null;
+
+        if (pool != null) {
+            ret = pool.submit(() -> policyTexts.parallelStream().map(RangerPolicyRetriever::toRangerPolicy).collect(Collectors.toList())).join();
+        } else {
+            ret = new ArrayList<>(policyTexts.size());
+
+            for (String policyText : policyTexts) {
+                ret.add(toRangerPolicy(policyText));
+            }
+        }
+
+        return ret;
+    }
+
+    /*
+     * returns null when parallel parsing is not enabled, in which case policies are parsed in the calling thread
+     */
+    private static ForkJoinPool getParserPool() {
+        ForkJoinPool ret = parserPool;
+
+        if (ret == null && PARSER_PARALLELISM > 1) {
+            synchronized (RangerPolicyRetriever.class) {
+                ret = parserPool;
+
+                if (ret == null) {
+                    ret = new ForkJoinPool(PARSER_PARALLELISM, pool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+
+                        thread.setName("RangerPolicyRetriever-parser-" + thread.getPoolIndex());
+                        thread.setDaemon(true);
+
+                        return thread;
+                    }, null, false);
+
+                    parserPool = ret;
+                }
+            }
+        }
+
+        return ret;
+    }
+
     public static class PolicyTextNameMap {
         final Long   policyId;
         final String oldName;
@@ -288,7 +376,7 @@ public void run() {
                 txTemplate.setReadOnly(true);
                 policies = txTemplate.execute(status -> {
                     try {
-                        RetrieverContext ctx = new RetrieverContext(xService);
+                        RetrieverContext ctx = new RetrieverContext(xService, true);
 
                         return ctx.getAllPolicies();
                     } catch (Exception ex) {
@@ -447,8 +535,16 @@ class RetrieverContext {
         final ListIterator<XXPolicy>         iterPolicy;
         final ListIterator<XXPolicyLabelMap> iterPolicyLabels;
         final XXServiceDef                   serviceDef;
+        final boolean                        detachLoadedPolicies;
+
+        /*
+         * policies of the service are fetched in batches by getAllPolicies(). detachLoadedPolicies should be true only
+         * when the context runs in its own transaction, so that XXPolicy objects of already processed batches can be
+         * garbage collected.
+         */
+        RetrieverContext(XXService xService, boolean detachLoadedPolicies) {
+            this.detachLoadedPolicies = detachLoadedPolicies;
 
-        RetrieverContext(XXService xService) {
             if (xService != null) {
                 Long serviceId = xService.getId();
 
@@ -462,7 +558,7 @@ class RetrieverContext {
 
                 this.service          = xService;
                 this.serviceDef       = daoMgr.getXXServiceDef().getById(xService.getType());
-                this.iterPolicy       = daoMgr.getXXPolicy().findByServiceId(serviceId).listIterator();
+                this.iterPolicy       = null;
                 this.iterPolicyLabels = daoMgr.getXXPolicyLabelMap().findByServiceId(serviceId).listIterator();
             } else {
                 this.service          = null;
@@ -475,6 +571,8 @@ class RetrieverContext {
         RetrieverContext(XXPolicy xPolicy, XXService xService) {
             Long policyId = xPolicy.getId();
 
+            this.detachLoadedPolicies = false;
+
             lookupCache.setRoleNameMapping(daoMgr.getXXPolicyRefRole().findUpdatedRoleNamesByPolicy(policyId));
             lookupCache.setGroupNameMapping(daoMgr.getXXPolicyRefGroup().findUpdatedGroupNamesByPolicy(policyId));
             lookupCache.setUserNameMapping(daoMgr.getXXPolicyRefUser().findUpdatedUserNamesByPolicy(policyId));
@@ -499,24 +597,10 @@ RangerPolicy getNextPolicy() {
                 iterPolicy.remove();
 
                 if (xPolicy != null) {
-                    String policyText = xPolicy.getPolicyText();
-
-                    ret = JsonUtils.jsonToObject(policyText, RangerPolicy.class);
+                    ret = toRangerPolicy(xPolicy.getPolicyText());
 
                     if (ret != null) {
-                        ret.setId(xPolicy.getId());
-                        ret.setGuid(xPolicy.getGuid());
-                        ret.setCreatedBy(lookupCache.getUserScreenName(xPolicy.getAddedByUserId()));
-                        ret.setUpdatedBy(lookupCache.getUserScreenName(xPolicy.getUpdatedByUserId()));
-                        ret.setCreateTime(xPolicy.getCreateTime());
-                        ret.setUpdateTime(xPolicy.getUpdateTime());
-                        ret.setVersion(xPolicy.getVersion());
-                        ret.setPolicyType(xPolicy.getPolicyType() == null ? RangerPolicy.POLICY_TYPE_ACCESS : xPolicy.getPolicyType());
-                        ret.setService(service.getName());
-                        ret.setServiceType(serviceDef.getName());
-                        ret.setZoneName(lookupCache.getSecurityZoneName(xPolicy.getZoneId()));
-                        updatePolicyReferenceFields(ret);
-                        getPolicyLabels(ret);
+                        populatePolicy(ret, xPolicy);
                     }
                 }
             }
@@ -524,6 +608,22 @@ RangerPolicy getNextPolicy() {
             return ret;
         }
 
+        void populatePolicy(RangerPolicy policy, XXPolicy xPolicy) {
+            policy.setId(xPolicy.getId());
+            policy.setGuid(xPolicy.getGuid());
+            policy.setCreatedBy(lookupCache.getUserScreenName(xPolicy.getAddedByUserId()));
+            policy.setUpdatedBy(lookupCache.getUserScreenName(xPolicy.getUpdatedByUserId()));
+            policy.setCreateTime(xPolicy.getCreateTime());
+            policy.setUpdateTime(xPolicy.getUpdateTime());
+            policy.setVersion(xPolicy.getVersion());
+            policy.setPolicyType(xPolicy.getPolicyType() == null ? RangerPolicy.POLICY_TYPE_ACCESS : xPolicy.getPolicyType());
+            policy.setService(service.getName());
+            policy.setServiceType(serviceDef.getName());
+            policy.setZoneName(lookupCache.getSecurityZoneName(xPolicy.getZoneId()));
+            updatePolicyReferenceFields(policy);
+            getPolicyLabels(policy);
+        }
+
         void updatePolicyReferenceFields(final RangerPolicy policy) {
             final Long policyId = policy.getId();
 
@@ -640,6 +740,66 @@ List<RangerPolicy> getAllPolicies() {
                         ret.add(policy);
                     }
                 }
+            } else if (service != null) {
+                long fetchTimeNs    = 0;
+                long parseTimeNs    = 0;
+                long populateTimeNs = 0;
+                int  batchCount     = 0;
+                Long lastPolicyId   = null;
+
+                while (true) {
+                    long           startTimeNs = System.nanoTime();
+                    List<XXPolicy> xPolicies   = daoMgr.getXXPolicy().findByServiceId(service.getId(), lastPolicyId, BATCH_SIZE);
+
+                    fetchTimeNs += (System.nanoTime() - startTimeNs);
+
+                    if (CollectionUtils.isEmpty(xPolicies)) {
+                        break;
+                    }
+
+                    List<String> policyTexts = new ArrayList<>(xPolicies.size());
+
+                    for (XXPolicy xPolicy : xPolicies) {
+                        policyTexts.add(xPolicy.getPolicyText());
+                    }
+
+                    startTimeNs = System.nanoTime();
+
+                    List<RangerPolicy> policies = toRangerPolicies(policyTexts);
+
+                    parseTimeNs += (System.nanoTime() - startTimeNs);
+                    startTimeNs  = System.nanoTime();
+
+                    // lookups read from the database, hence are done in this thread, which has the transaction
+                    for (int i = 0; i < policies.size(); i++) {
+                        RangerPolicy policy = policies.get(i);
+
+                        if (policy != null) {
+                            populatePolicy(policy, xPolicies.get(i));
+
+                            ret.add(policy);
+                        }
+                    }
+
+                    populateTimeNs += (System.nanoTime() - startTimeNs);
+                    lastPolicyId    = xPolicies.get(xPolicies.size() - 1).getId();
+
+                    batchCount++;
+
+                    if (detachLoadedPolicies) {
+                        for (XXPolicy xPolicy : xPolicies) {
+                            daoMgr.getXXPolicy().getEntityManager().detach(xPolicy);
+                        }
+                    }
+
+                    if (xPolicies.size() < BATCH_SIZE) {
+                        break;
+                    }
+                }
+
+                if (RangerPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                    PERF_LOG.debug("RangerPolicyRetriever.getAllPolicies(serviceName={}): policyCount={}, batchCount={}, fetchTimeMs={}, parseTimeMs={}, populateTimeMs={}", service.getName(), ret.size(), batchCount, TimeUnit.NANOSECONDS.toMillis(fetchTimeNs), TimeUnit.NANOSECONDS.toMillis(parseTimeNs), TimeUnit.NANOSECONDS.toMillis(populateTimeNs));
+                }
             }
 
             return ret;
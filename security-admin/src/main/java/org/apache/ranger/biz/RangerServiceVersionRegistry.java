@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.biz;
+
+import org.apache.ranger.authorization.hadoop.config.RangerAdminConfig;
+import org.apache.ranger.db.RangerDaoManager;
+import org.apache.ranger.db.XXGlobalStateDao;
+import org.apache.ranger.entity.XXServiceVersionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * In-memory copy of policy/tag/role/gds versions of all services and of the userstore version, refreshed from the
+ * database periodically by a single thread. Lets plugin download endpoints answer "not modified" without querying the
+ * database on each poll by plugins. Id, type and enabled state of each service are kept along with its versions, so
+ * that download endpoints can validate the service without reading it from the database. As versions are read from the database, changes made through any Ranger Admin
+ * instance are seen within the refresh interval.
+ *
+ * Versions can be up to a refresh interval old, so the registry is only for plugin downloads, which poll again anyway;
+ * Ranger Admin's own caches (policy-admin engines, roles, GDS) must read versions from the database to see their
+ * writes. Versions are not returned when the registry is disabled or the last successful refresh is too old; callers
+ * should then read the versions from the database.
+ */
+@Component
+public class RangerServiceVersionRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerServiceVersionRegistry.class);
+
+    public static final String PROP_ENABLED             = "ranger.admin.service.version.registry.enabled";
+    public static final String PROP_REFRESH_INTERVAL_MS = "ranger.admin.service.version.registry.refresh.interval.ms";
+
+    private static final long DEFAULT_REFRESH_INTERVAL_MS = 1000L;
+    private static final int  MAX_MISSED_REFRESHES        = 5;
+
+    private final    boolean                  isEnabled;
+    private final    long                     refreshIntervalMs;
+    private final    List<Runnable>           changeListeners = new CopyOnWriteArrayList<>();
+    private volatile ScheduledExecutorService refresher;
+    private volatile Versions                 versions;
+
+    @Autowired
+    RangerDaoManager daoMgr;
+
+    @Autowired
+    @Qualifier(value = "transactionManager")
+    PlatformTransactionManager txManager;
+
+    public RangerServiceVersionRegistry() {
+        RangerAdminConfig config = RangerAdminConfig.getInstance();
+
+        this.isEnabled         = config.getBoolean(PROP_ENABLED, true);
+        this.refreshIntervalMs = Math.max(100L, config.getLong(PROP_REFRESH_INTERVAL_MS, DEFAULT_REFRESH_INTERVAL_MS));
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * @return versions of the service; null if not available in the registry
+     */
+    public ServiceVersions getServiceVersions(String serviceName) {
+        Versions versions = getCurrentVersions();
+
+        return versions != null ? versions.versionsByService.get(serviceName) : null;
+    }
+
+    /**
+     * @return userstore version; null if not available in the registry
+     */
+    public Long getUserStoreVersion() {
+        Versions versions = getCurrentVersions();
+
+        return versions != null ? versions.userStoreVersion : null;
+    }
+
+    public boolean isPolicyVersionCurrent(String serviceName, Long lastKnownVersion) {
+        ServiceVersions serviceVersions = lastKnownVersion != null ? getServiceVersions(serviceName) : null;
+
+        return serviceVersions != null && lastKnownVersion.equals(serviceVersions.getPolicyVersion());
+    }
+
+    public boolean isTagVersionCurrent(String serviceName, Long lastKnownVersion) {
+        ServiceVersions serviceVersions = lastKnownVersion != null ? getServiceVersions(serviceName) : null;
+
+        return serviceVersions != null && lastKnownVersion.equals(serviceVersions.getTagVersion());
+    }
+
+    public boolean isRoleVersionCurrent(String serviceName, Long lastKnownVersion) {
+        ServiceVersions serviceVersions = lastKnownVersion != null ? getServiceVersions(serviceName) : null;
+
+        return serviceVersions != null && lastKnownVersion.equals(serviceVersions.getRoleVersion());
+    }
+
+    public boolean isUserStoreVersionCurrent(Long lastKnownVersion) {
+        return lastKnownVersion != null && lastKnownVersion.equals(getUserStoreVersion());
+    }
+
+    /**
+     * Registers a listener to be called, from the refresher thread, after a refresh that changed any version. Starts the
+     * refresher if it is not running yet.
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+
+        if (isEnabled && refresher == null) {
+            startRefresher();
+        }
+    }
+
+    void setVersions(Versions versions) {
+        Versions prev = this.versions;
+
+        this.versions = versions;
+
+        if (prev == null || !prev.isSameVersions(versions)) {
+            for (Runnable listener : changeListeners) {
+                try {
+                    listener.run();
+                } catch (Throwable excp) {
+                    LOG.warn("RangerServiceVersionRegistry: change listener failed", excp);
+                }
+            }
+        }
+    }
+
+    private Versions getCurrentVersions() {
+        if (!isEnabled) {
+            return null;
+        }
+
+        if (refresher == null) {
+            startRefresher();
+        }
+
+        Versions ret = versions;
+
+        if (ret != null && (System.currentTimeMillis() - ret.loadTime) > (refreshIntervalMs * MAX_MISSED_REFRESHES)) {
+            LOG.debug("RangerServiceVersionRegistry: versions last refreshed at {} are stale", ret.loadTime);
+
+            ret = null;
+        }
+
+        return ret;
+    }
+
+    private synchronized void startRefresher() {
+        if (refresher == null) {
+            TransactionTemplate txTemplate = new TransactionTemplate(txManager);
+
+            txTemplate.setReadOnly(true);
+
+            ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "RangerServiceVersionRegistry");
+
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            refresher.scheduleWithFixedDelay(() -> refresh(txTemplate), 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+
+            this.refresher = refresher;
+
+            LOG.info("RangerServiceVersionRegistry: refreshing versions every {}ms", refreshIntervalMs);
+        }
+    }
+
+    private void refresh(TransactionTemplate txTemplate) {
+        try {
+            Versions versions = txTemplate.execute(status -> loadVersions());
+
+            if (versions != null) {
+                setVersions(versions);
+            }
+        } catch (Throwable excp) {
+            LOG.warn("RangerServiceVersionRegistry: failed to refresh versions", excp);
+        }
+    }
+
+    private Versions loadVersions() {
+        Map<String, ServiceVersions> versionsByService = new HashMap<>();
+        Long                         globalRoleVersion = ServiceDBStore.isSupportsRolesDownloadByService() ? null : daoMgr.getXXGlobalState().getAppDataVersion(XXGlobalStateDao.RANGER_GLOBAL_STATE_NAME_ROLE);
+        Long                         userStoreVersion  = daoMgr.getXXGlobalState().getAppDataVersion(XXGlobalStateDao.RANGER_GLOBAL_STATE_NAME_USER_GROUP);
+        List<Object[]>               rows              = daoMgr.getXXServiceVersionInfo().getAllWithServiceInfo();
+
+        if (rows != null) {
+            for (Object[] row : rows) {
+                XXServiceVersionInfo versionInfo = (XXServiceVersionInfo) row[0];
+                Long                 roleVersion = ServiceDBStore.isSupportsRolesDownloadByService() ? versionInfo.getRoleVersion() : globalRoleVersion;
+
+                versionsByService.put((String) row[1], new ServiceVersions(versionInfo.getServiceId(), (Long) row[2], Boolean.TRUE.equals(row[3]), (String) row[4], versionInfo.getPolicyVersion(), versionInfo.getTagVersion(), roleVersion, versionInfo.getGdsVersion()));
+            }
+        }
+
+        return new Versions(Collections.unmodifiableMap(versionsByService), userStoreVersion, System.currentTimeMillis());
+    }
+
+    public static final class ServiceVersions {
+        private final Long    serviceId;
+        private final Long    serviceType;
+        private final boolean isServiceEnabled;
+        private final String  serviceDefImplClassName;
+        private final Long    policyVersion;
+        private final Long    tagVersion;
+        private final Long    roleVersion;
+        private final Long    gdsVersion;
+
+        public ServiceVersions(Long serviceId, Long serviceType, boolean isServiceEnabled, String serviceDefImplClassName, Long policyVersion, Long tagVersion, Long roleVersion, Long gdsVersion) {
+            this.serviceId               = serviceId;
+            this.serviceType             = serviceType;
+            this.isServiceEnabled        = isServiceEnabled;
+            this.serviceDefImplClassName = serviceDefImplClassName;
+            this.policyVersion           = policyVersion;
+            this.tagVersion              = tagVersion;
+            this.roleVersion             = roleVersion;
+            this.gdsVersion              = gdsVersion;
+        }
+
+        public Long getServiceId() {
+            return serviceId;
+        }
+
+        public Long getServiceType() {
+            return serviceType;
+        }
+
+        public boolean isServiceEnabled() {
+            return isServiceEnabled;
+        }
+
+        public String getServiceDefImplClassName() {
+            return serviceDefImplClassName;
+        }
+
+        public Long getPolicyVersion() {
+            return policyVersion;
+        }
+
+        public Long getTagVersion() {
+            return tagVersion;
+        }
+
+        public Long getRoleVersion() {
+            return roleVersion;
+        }
+
+        public Long getGdsVersion() {
+            return gdsVersion;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof ServiceVersions)) {
+                return false;
+            }
+
+            ServiceVersions other = (ServiceVersions) obj;
+
+            return Objects.equals(serviceId, other.serviceId) && Objects.equals(serviceType, other.serviceType) && isServiceEnabled == other.isServiceEnabled && Objects.equals(serviceDefImplClassName, other.serviceDefImplClassName) &&
+                    Objects.equals(policyVersion, other.policyVersion) && Objects.equals(tagVersion, other.tagVersion) && Objects.equals(roleVersion, other.roleVersion) && Objects.equals(gdsVersion, other.gdsVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serviceId, serviceType, isServiceEnabled, serviceDefImplClassName, policyVersion, tagVersion, roleVersion, gdsVersion);
+        }
+
+        @Override
+        public String toString() {
+            return "ServiceVersions={serviceId=" + serviceId + ", serviceType=" + serviceType + ", isServiceEnabled=" + isServiceEnabled + ", serviceDefImplClassName=" + serviceDefImplClassName + ", policyVersion=" + policyVersion + ", tagVersion=" + tagVersion + ", roleVersion=" + roleVersion + ", gdsVersion=" + gdsVersion + "}";
+        }
+    }
+
+    static final class Versions {
+        final Map<String, ServiceVersions> versionsByService;
+        final Long                         userStoreVersion;
+        final long                         loadTime;
+
+        Versions(Map<String, ServiceVersions> versionsByService, Long userStoreVersion, long loadTime) {
+            this.versionsByService = versionsByService;
+            this.userStoreVersion  = userStoreVersion;
+            this.loadTime          = loadTime;
+        }
+
+        boolean isSameVersions(Versions other) {
+            return other != null && versionsByService.equals(other.versionsByService) && Objects.equals(userStoreVersion, other.userStoreVersion);
+        }
+    }
+}
@@ -19,19 +19,19 @@
 
 package org.apache.ranger.biz;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.SerializationUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.thirdparty.com.google.common.base.Joiner;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.ranger.audit.provider.MiscUtil;
 import org.apache.ranger.authorization.hadoop.config.RangerAdminConfig;
 import org.apache.ranger.authorization.utils.JsonUtils;
@@ -138,6 +138,7 @@
 import org.apache.ranger.plugin.store.ServicePredicateUtil;
 import org.apache.ranger.plugin.store.ServiceStore;
 import org.apache.ranger.plugin.util.PasswordUtils;
+import org.apache.ranger.plugin.util.RangerBulkPolicyResult;
 import org.apache.ranger.plugin.util.RangerCommonConstants;
 import org.apache.ranger.plugin.util.RangerPolicyDeltaUtil;
 import org.apache.ranger.plugin.util.RangerPurgeResult;
@@ -187,19 +188,22 @@
 import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.PostConstruct;
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
@@ -209,6 +213,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.StringTokenizer;
@@ -255,12 +260,19 @@ public class ServiceDBStore extends AbstractServiceStore {
     private static final String LINE_SEPARATOR              = "\n";
     private static final String FILE_HEADER                 = "ID|Name|Resources|Roles|Groups|Users|Accesses|Service Type|Status|Policy Type|Delegate Admin|isRecursive|isExcludes|Service Name|Description|isAuditEnabled|Policy Conditions|Policy Condition Type|Masking Options|Row Filter Expr|Policy Label Name";
     private static final String COMMA_DELIMITER             = "|";
+    private static final int    EXCEL_ROWS_IN_MEMORY        = 100;
 
     private static final String  DEFAULT_CSV_SANITIZATION_PATTERN = "^[=+\\-@\\t\\r]";
     private static final Pattern CSV_SANITIZATION_PATTERN = Pattern.compile(PropertiesUtil.getProperty("ranger.admin.csv.sanitization.pattern", DEFAULT_CSV_SANITIZATION_PATTERN));
 
     private static final Comparator<RangerPolicyDelta> POLICY_DELTA_ID_COMPARATOR = new RangerPolicyDeltaComparator();
 
+    // search params that RangerPolicyService applies in the database; user/group/role params are left out, as these include policies of groups and roles of the user
+    private static final Set<String> POLICY_SEARCH_DB_PARAMS = new HashSet<>(Arrays.asList(SearchFilter.SERVICE_TYPE, SearchFilter.SERVICE_TYPE_ID, SearchFilter.SERVICE_NAME, SearchFilter.SERVICE_ID,
+            SearchFilter.IS_ENABLED, SearchFilter.POLICY_ID, SearchFilter.POLICY_NAME, SearchFilter.GUID, SearchFilter.POLICY_NAME_PARTIAL, SearchFilter.POLICY_TYPE, SearchFilter.ZONE_NAME));
+
+    private static final ThreadLocal<BulkPolicyVersionChanges> BULK_POLICY_VERSION_CHANGES = new ThreadLocal<>();
+
     public static boolean SUPPORTS_POLICY_DELTAS;
     public static boolean SUPPORTS_IN_PLACE_POLICY_UPDATES;
     public static Integer RETENTION_PERIOD_IN_DAYS     = 7;
@@ -1609,6 +1621,75 @@ public void deletePolicy(RangerPolicy policy) throws Exception {
         LOG.info("Policy Deleted Successfully. PolicyName : {}", policyName);
     }
 
+    /*
+     * creates, updates and deletes given policies in the current transaction. Policy version of each affected service is
+     * incremented once, with a policy change-log entry for each policy. Policies are expected to be validated by the caller.
+     */
+    public RangerBulkPolicyResult bulkUpdatePolicies(List<RangerPolicy> policiesToCreate, List<RangerPolicy> policiesToUpdate, List<RangerPolicy> policiesToDelete) throws Exception {
+        LOG.debug("==> ServiceDBStore.bulkUpdatePolicies(create={}, update={}, delete={})", policiesToCreate.size(), policiesToUpdate.size(), policiesToDelete.size());
+
+        RangerBulkPolicyResult   ret         = new RangerBulkPolicyResult();
+        BulkPolicyVersionChanges bulkChanges = new BulkPolicyVersionChanges();
+        boolean                  oldBulkMode = RangerBizUtil.isBulkMode();
+        int                      changeCount = 0;
+
+        BULK_POLICY_VERSION_CHANGES.set(bulkChanges);
+        RangerBizUtil.setBulkMode(true);
+
+        try {
+            for (int i = 0; i < policiesToCreate.size(); i++) {
+                RangerPolicy createdPolicy = createPolicy(policiesToCreate.get(i));
+
+                ret.addItemResult(new RangerBulkPolicyResult.ItemResult(RangerBulkPolicyResult.Operation.CREATE, i, createdPolicy.getId(), createdPolicy.getName(), RangerBulkPolicyResult.Status.SUCCESS, null));
+
+                if (++changeCount % RangerBizUtil.POLICY_BATCH_SIZE == 0) {
+                    bizUtil.bulkModeOnlyFlushAndClear();
+                }
+            }
+
+            for (int i = 0; i < policiesToUpdate.size(); i++) {
+                RangerPolicy updatedPolicy = updatePolicy(policiesToUpdate.get(i));
+
+                ret.addItemResult(new RangerBulkPolicyResult.ItemResult(RangerBulkPolicyResult.Operation.UPDATE, i, updatedPolicy.getId(), updatedPolicy.getName(), RangerBulkPolicyResult.Status.SUCCESS, null));
+
+                if (++changeCount % RangerBizUtil.POLICY_BATCH_SIZE == 0) {
+                    bizUtil.bulkModeOnlyFlushAndClear();
+                }
+            }
+
+            for (int i = 0; i < policiesToDelete.size(); i++) {
+                RangerPolicy policy = policiesToDelete.get(i);
+
+                deletePolicy(policy);
+
+                ret.addItemResult(new RangerBulkPolicyResult.ItemResult(RangerBulkPolicyResult.Operation.DELETE, i, policy.getId(), policy.getName(), RangerBulkPolicyResult.Status.SUCCESS, null));
+
+                if (++changeCount % RangerBizUtil.POLICY_BATCH_SIZE == 0) {
+                    bizUtil.bulkModeOnlyFlushAndClear();
+                }
+            }
+
+            bizUtil.bulkModeOnlyFlushAndClear();
+        } finally {
+            BULK_POLICY_VERSION_CHANGES.remove();
+            RangerBizUtil.setBulkMode(oldBulkMode);
+        }
+
+        for (Map.Entry<Long, List<RangerPolicyDelta>> entry : bulkChanges.policyDeltas.entrySet()) {
+            transactionSynchronizationAdapter.executeOnTransactionCommit(new ServiceVersionUpdater(daoMgr, entry.getKey(), entry.getValue()));
+        }
+
+        for (Long serviceId : bulkChanges.roleVersionServiceIds) {
+            transactionSynchronizationAdapter.executeOnTransactionCommit(new ServiceVersionUpdater(daoMgr, serviceId, VERSION_TYPE.ROLE_VERSION, null));
+        }
+
+        ret.setApplied(true);
+
+        LOG.debug("<== ServiceDBStore.bulkUpdatePolicies(create={}, update={}, delete={}): serviceCount={}", policiesToCreate.size(), policiesToUpdate.size(), policiesToDelete.size(), bulkChanges.policyDeltas.size());
+
+        return ret;
+    }
+
     @Override
     public boolean policyExists(Long id) {
         return daoMgr.getXXPolicy().getCountById(id) > 0;
@@ -1772,15 +1853,23 @@ public ServicePolicies getServicePoliciesIfUpdated(String serviceName, Long last
         if (ret != null) {
             LOG.debug("Checking if resource-service:[{}] is disabled", ret.getServiceName());
 
-            if (!serviceDbObj.getIsenabled()) {
-                ret = ServicePolicies.copyHeader(ret);
+            String          tagServiceName     = ret.getTagPolicies() != null ? ret.getTagPolicies().getServiceName() : null;
+            boolean         isServiceEnabled   = serviceDbObj.getIsenabled();
+            boolean         isTagServiceActive = isServiceEnabled && isServiceActive(tagServiceName);
+            boolean         isFiltered         = lastKnownVersion == null || lastKnownVersion == -1L || needsBackwardCompatibility;
+            String          responseKey        = RangerServicePoliciesCache.getResponseKey(ret.getPolicyVersion(), ret.getPolicyDeltas() != null ? lastKnownVersion : null, isFiltered, isServiceEnabled, isTagServiceActive);
+            ServicePolicies cachedResponse     = RangerServicePoliciesCache.getInstance().getResponse(serviceName, responseKey);
+
+            if (cachedResponse != null) {
+                LOG.debug("Returning cached response for service:[{}], key:[{}]", serviceName, responseKey);
 
-                ret.setTagPolicies(null);
+                ret = cachedResponse;
             } else {
-                String  tagServiceName     = ret.getTagPolicies() != null ? ret.getTagPolicies().getServiceName() : null;
-                boolean isTagServiceActive = isServiceActive(tagServiceName);
+                if (!isServiceEnabled) {
+                    ret = ServicePolicies.copyHeader(ret);
 
-                if (!isTagServiceActive) {
+                    ret.setTagPolicies(null);
+                } else if (!isTagServiceActive) {
                     ServicePolicies copy = ServicePolicies.copyHeader(ret);
 
                     copy.setTagPolicies(null);
@@ -1793,27 +1882,29 @@ public ServicePolicies getServicePoliciesIfUpdated(String serviceName, Long last
 
                     ret = copy;
                 }
-            }
 
-            Map<String, RangerSecurityZone.RangerSecurityZoneService> securityZones          = securityZoneStore.getSecurityZonesForService(serviceName);
-            ServicePolicies                                           updatedServicePolicies = ret;
+                Map<String, RangerSecurityZone.RangerSecurityZoneService> securityZones          = securityZoneStore.getSecurityZonesForService(serviceName);
+                ServicePolicies                                           updatedServicePolicies = ret;
 
-            if (MapUtils.isNotEmpty(securityZones)) {
-                updatedServicePolicies = getUpdatedServicePoliciesForZones(ret, securityZones);
+                if (MapUtils.isNotEmpty(securityZones)) {
+                    updatedServicePolicies = getUpdatedServicePoliciesForZones(ret, securityZones);
 
-                patchAssociatedTagServiceInSecurityZoneInfos(updatedServicePolicies);
-            }
+                    patchAssociatedTagServiceInSecurityZoneInfos(updatedServicePolicies);
+                }
 
-            if (lastKnownVersion == null || lastKnownVersion == -1L || needsBackwardCompatibility) {
-                ret = filterServicePolicies(updatedServicePolicies);
-            } else {
-                ret = updatedServicePolicies;
-            }
+                if (isFiltered) {
+                    ret = filterServicePolicies(updatedServicePolicies);
+                } else {
+                    ret = updatedServicePolicies;
+                }
+
+                ret.setServiceConfig(getServiceConfigForPlugin(ret.getServiceId()));
 
-            ret.setServiceConfig(getServiceConfigForPlugin(ret.getServiceId()));
+                if (ret.getTagPolicies() != null && ret.getTagPolicies().getServiceId() != null) {
+                    ret.getTagPolicies().setServiceConfig(getServiceConfigForPlugin(ret.getTagPolicies().getServiceId()));
+                }
 
-            if (ret.getTagPolicies() != null && ret.getTagPolicies().getServiceId() != null) {
-                ret.getTagPolicies().setServiceConfig(getServiceConfigForPlugin(ret.getTagPolicies().getServiceId()));
+                RangerServicePoliciesCache.getInstance().putResponse(serviceName, responseKey, ret);
             }
         }
 
@@ -2100,6 +2191,56 @@ public PList<RangerService> getPaginatedServices(SearchFilter filter) throws Exc
         return new PList<>(serviceList.getServices(), serviceList.getStartIndex(), serviceList.getPageSize(), serviceList.getTotalCount(), serviceList.getResultSize(), serviceList.getSortType(), serviceList.getSortBy());
     }
 
+    public static boolean isPolicySearchInDatabase(SearchFilter filter) {
+        if (MapUtils.isNotEmpty(filter.getMultiValueParams()) || Boolean.parseBoolean(filter.getParam(SearchFilter.RETRIEVE_ALL_PAGES))) {
+            return false;
+        }
+
+        return filter.getParams() == null || POLICY_SEARCH_DB_PARAMS.containsAll(filter.getParams().keySet());
+    }
+
+    /*
+     * Page of policies in the given services that match the filter. Filtering, sorting and paging are done in the
+     * database, hence only filters accepted by isPolicySearchInDatabase() are supported.
+     */
+    public RangerPolicyList searchPoliciesInServices(SearchFilter filter, Collection<Long> serviceIds) {
+        LOG.debug("==> ServiceDBStore.searchPoliciesInServices({}, serviceCount={})", filter, serviceIds.size());
+
+        RangerPolicyList ret      = new RangerPolicyList();
+        SearchFilter     dbFilter = getPolicySearchFilterForServices(filter, serviceIds);
+
+        if (dbFilter == null) {
+            ret.setPolicies(new ArrayList<>());
+            ret.setStartIndex(filter.getStartIndex());
+            ret.setPageSize(filter.getMaxRows());
+            ret.setSortBy(filter.getSortBy());
+            ret.setSortType(filter.getSortType());
+        } else {
+            ret.setPolicies(policyService.searchPolicyPage(dbFilter, ret));
+        }
+
+        LOG.debug("<== ServiceDBStore.searchPoliciesInServices({}, serviceCount={}): count={}, totalCount={}", filter, serviceIds.size(), ret.getListSize(), ret.getTotalCount());
+
+        return ret;
+    }
+
+    /*
+     * Policies in the given services that match the filter, in the order of id. Policies are read from the database in
+     * batches as the iterator advances, instead of being loaded upfront; only filters accepted by
+     * isPolicySearchInDatabase() are supported.
+     */
+    public Iterator<RangerPolicy> getPolicyIterator(SearchFilter filter, Collection<Long> serviceIds) {
+        SearchFilter dbFilter = getPolicySearchFilterForServices(filter, serviceIds);
+
+        if (dbFilter == null) {
+            return Collections.emptyIterator();
+        }
+
+        dbFilter.setMaxRows(RangerPolicyRetriever.getBatchSize());
+
+        return new PolicyBatchIterator(dbFilter);
+    }
+
     public PList<RangerPolicy> getPaginatedPolicies(SearchFilter filter) {
         LOG.debug("==> ServiceDBStore.getPaginatedPolicies(+ {})", filter);
 
@@ -2316,29 +2457,35 @@ public RangerPolicy getPolicy(String guid, String serviceName, String zoneName)
     }
 
     public void getPoliciesInExcel(List<RangerPolicy> policies, HttpServletResponse response) throws Exception {
+        getPoliciesInExcel(policies != null ? policies.iterator() : Collections.emptyIterator(), response);
+    }
+
+    public void getPoliciesInExcel(Iterator<RangerPolicy> policies, HttpServletResponse response) throws Exception {
         LOG.debug("==> ServiceDBStore.getPoliciesInExcel()");
 
         String timeStamp     = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String excelFileName = "Ranger_Policies_" + timeStamp + ".xls";
+        String excelFileName = "Ranger_Policies_" + timeStamp + ".xlsx";
 
         writeExcel(policies, excelFileName, response);
     }
 
     public void getPoliciesInCSV(List<RangerPolicy> policies, HttpServletResponse response) throws Exception {
+        getPoliciesInCSV(policies != null ? policies.iterator() : Collections.emptyIterator(), response);
+    }
+
+    public void getPoliciesInCSV(Iterator<RangerPolicy> policies, HttpServletResponse response) throws Exception {
         LOG.debug("==> ServiceDBStore.getPoliciesInCSV()");
 
-        ServletOutputStream out         = null;
-        String              csvfilename = null;
+        Writer out         = null;
+        String csvfilename = null;
 
         try {
             String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
 
             csvfilename = "Ranger_Policies_" + timeStamp + ".csv";
-            out         = response.getOutputStream();
+            out         = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
 
-            StringBuilder sb = writeCSV(policies, csvfilename, response);
-
-            IOUtils.write(sb.toString(), out, "UTF-8");
+            writeCSV(policies, csvfilename, response, out);
         } catch (Exception e) {
             LOG.error("Error while generating report file {}", csvfilename, e);
 
@@ -2375,6 +2522,37 @@ public <T> void getObjectInJson(List<T> objList, HttpServletResponse response, J
         writeJson(objList, jsonFileName, response, type);
     }
 
+    // same content as getObjectInJson(policies, response, POLICY), but policies are written as the iterator advances
+    public void getPoliciesInJson(Iterator<RangerPolicy> policies, HttpServletResponse response) {
+        LOG.debug("==> ServiceDBStore.getPoliciesInJson()");
+
+        String timeStamp    = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        String jsonFileName = "Ranger_Policies_" + timeStamp + ".json";
+        Writer out          = null;
+
+        response.setContentType("text/json");
+        response.setHeader("Content-Disposition", "attachment; filename=" + jsonFileName);
+
+        try {
+            out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+
+            response.setStatus(HttpServletResponse.SC_OK);
+
+            writePoliciesJson(policies, out);
+        } catch (Exception e) {
+            LOG.error("Error while exporting json file {}", jsonFileName, e);
+        } finally {
+            try {
+                if (out != null) {
+                    out.flush();
+                    out.close();
+                }
+            } catch (Exception ex) {
+                // ignored
+            }
+        }
+    }
+
     public List<RangerPolicy> noZoneFilter(List<RangerPolicy> servicePolicies) {
         List<RangerPolicy> noZonePolicies = new ArrayList<>();
 
@@ -4287,28 +4465,32 @@ private void updatePolicyVersion(RangerService service, Integer policyDeltaType,
             List<Long> referringServiceIds = serviceDao.findIdsByTagServiceId(serviceId);
 
             for (Long referringServiceId : referringServiceIds) {
-                Runnable policyVersionUpdater = new ServiceVersionUpdater(daoManager, referringServiceId, VERSION_TYPE.POLICY_VERSION, policy != null ? policy.getZoneName() : null, policyDeltaType, policy);
-
-                transactionSynchronizationAdapter.executeOnTransactionCommit(policyVersionUpdater);
-
-                if (updateServiceInfoRoleVersion) {
-                    Runnable roleVersionUpdater = new ServiceVersionUpdater(daoManager, referringServiceId, VERSION_TYPE.ROLE_VERSION, policy != null ? policy.getZoneName() : null, policyDeltaType, policy);
-
-                    transactionSynchronizationAdapter.executeOnTransactionCommit(roleVersionUpdater);
-                }
+                schedulePolicyVersionUpdate(daoManager, referringServiceId, policyDeltaType, policy, updateServiceInfoRoleVersion);
             }
         }
 
-        final VERSION_TYPE versionType = VERSION_TYPE.POLICY_VERSION;
+        schedulePolicyVersionUpdate(daoManager, serviceId, policyDeltaType, policy, updateServiceInfoRoleVersion);
+    }
 
-        Runnable serviceVersionUpdater = new ServiceVersionUpdater(daoManager, serviceId, versionType, policy != null ? policy.getZoneName() : null, policyDeltaType, policy);
+    private void schedulePolicyVersionUpdate(RangerDaoManager daoManager, Long serviceId, Integer policyDeltaType, RangerPolicy policy, boolean updateServiceInfoRoleVersion) {
+        BulkPolicyVersionChanges bulkChanges = BULK_POLICY_VERSION_CHANGES.get();
 
-        transactionSynchronizationAdapter.executeOnTransactionCommit(serviceVersionUpdater);
+        if (bulkChanges != null) { // versions will be updated once, at the end of bulk update
+            bulkChanges.policyDeltas.computeIfAbsent(serviceId, k -> new ArrayList<>()).add(new RangerPolicyDelta(null, policyDeltaType, null, policy));
 
-        if (updateServiceInfoRoleVersion) {
-            Runnable roleVersionUpdater = new ServiceVersionUpdater(daoManager, serviceId, VERSION_TYPE.ROLE_VERSION, policy != null ? policy.getZoneName() : null, policyDeltaType, policy);
+            if (updateServiceInfoRoleVersion) {
+                bulkChanges.roleVersionServiceIds.add(serviceId);
+            }
+        } else {
+            Runnable policyVersionUpdater = new ServiceVersionUpdater(daoManager, serviceId, VERSION_TYPE.POLICY_VERSION, policy != null ? policy.getZoneName() : null, policyDeltaType, policy);
 
-            transactionSynchronizationAdapter.executeOnTransactionCommit(roleVersionUpdater);
+            transactionSynchronizationAdapter.executeOnTransactionCommit(policyVersionUpdater);
+
+            if (updateServiceInfoRoleVersion) {
+                Runnable roleVersionUpdater = new ServiceVersionUpdater(daoManager, serviceId, VERSION_TYPE.ROLE_VERSION, policy != null ? policy.getZoneName() : null, policyDeltaType, policy);
+
+                transactionSynchronizationAdapter.executeOnTransactionCommit(roleVersionUpdater);
+            }
         }
     }
 
@@ -4449,31 +4631,42 @@ private static void persistChangeLog(XXService service, VERSION_TYPE versionType
 
                 serviceVersionUpdater.daoManager.getXXTagChangeLog().create(tagChangeLog);
             }
+        } else if (serviceVersionUpdater.policyDeltas != null) {
+            if (isSupportsPolicyDeltas()) {
+                // all changes of a bulk update share the same policy version
+                for (RangerPolicyDelta policyDelta : serviceVersionUpdater.policyDeltas) {
+                    RangerPolicy policy = policyDelta.getPolicy();
+
+                    persistPolicyChangeLog(service, version, policyDelta.getChangeType(), policy != null ? policy.getZoneName() : null, policy, serviceVersionUpdater.daoManager, now);
+                }
+            }
         } else {
             Integer policyDeltaChange = serviceVersionUpdater.policyDeltaChange;
 
             if (policyDeltaChange == RangerPolicyDelta.CHANGE_TYPE_RANGER_ADMIN_START || isSupportsPolicyDeltas()) {
-                // Build and save PolicyChangeLog
-                XXPolicyChangeLog policyChangeLog = new XXPolicyChangeLog();
-
-                policyChangeLog.setCreateTime(now);
-                policyChangeLog.setServiceId(service.getId());
-                policyChangeLog.setChangeType(serviceVersionUpdater.policyDeltaChange);
-                policyChangeLog.setPolicyVersion(version);
-                policyChangeLog.setZoneName(serviceVersionUpdater.zoneName);
+                persistPolicyChangeLog(service, version, policyDeltaChange, serviceVersionUpdater.zoneName, serviceVersionUpdater.policy, serviceVersionUpdater.daoManager, now);
+            }
+        }
+    }
 
-                RangerPolicy policy = serviceVersionUpdater.policy;
+    private static void persistPolicyChangeLog(XXService service, Long version, Integer changeType, String zoneName, RangerPolicy policy, RangerDaoManager daoManager, Date now) {
+        // Build and save PolicyChangeLog
+        XXPolicyChangeLog policyChangeLog = new XXPolicyChangeLog();
 
-                if (policy != null) {
-                    policyChangeLog.setServiceType(policy.getServiceType());
-                    policyChangeLog.setPolicyType(policy.getPolicyType());
-                    policyChangeLog.setPolicyId(policy.getId());
-                    policyChangeLog.setPolicyGuid(policy.getGuid());
-                }
+        policyChangeLog.setCreateTime(now);
+        policyChangeLog.setServiceId(service.getId());
+        policyChangeLog.setChangeType(changeType);
+        policyChangeLog.setPolicyVersion(version);
+        policyChangeLog.setZoneName(zoneName);
 
-                serviceVersionUpdater.daoManager.getXXPolicyChangeLog().create(policyChangeLog);
-            }
+        if (policy != null) {
+            policyChangeLog.setServiceType(policy.getServiceType());
+            policyChangeLog.setPolicyType(policy.getPolicyType());
+            policyChangeLog.setPolicyId(policy.getId());
+            policyChangeLog.setPolicyGuid(policy.getGuid());
         }
+
+        daoManager.getXXPolicyChangeLog().create(policyChangeLog);
     }
 
     private Boolean deleteExistingPolicyLabel(RangerPolicy policy) {
@@ -4525,20 +4718,22 @@ private boolean isResourceInList(String resource, List<XXResourceDef> xResourceD
         return false;
     }
 
-    private void writeExcel(List<RangerPolicy> policies, String excelFileName, HttpServletResponse response) throws IOException {
-        OutputStream outStream = null;
+    private void writeExcel(Iterator<RangerPolicy> policies, String excelFileName, HttpServletResponse response) throws IOException {
+        OutputStream  outStream = null;
+        SXSSFWorkbook workbook  = new SXSSFWorkbook(EXCEL_ROWS_IN_MEMORY); // rows beyond this are flushed to a temporary file, keeping heap usage bounded
 
-        try (Workbook workbook = new HSSFWorkbook()) {
+        try {
             Sheet sheet = workbook.createSheet();
 
             createHeaderRow(sheet);
 
             int rowCount = 0;
 
-            if (!CollectionUtils.isEmpty(policies)) {
+            if (policies.hasNext()) {
                 Map<String, String> svcNameToSvcType = new HashMap<>();
 
-                for (RangerPolicy policy : policies) {
+                while (policies.hasNext()) {
+                    RangerPolicy                    policy               = policies.next();
                     List<RangerPolicyItem>          policyItems          = policy.getPolicyItems();
                     List<RangerRowFilterPolicyItem> rowFilterPolicyItems = policy.getRowFilterPolicyItems();
                     List<RangerDataMaskPolicyItem>  dataMaskPolicyItems  = policy.getDataMaskPolicyItems();
@@ -4617,45 +4812,49 @@ private void writeExcel(List<RangerPolicy> policies, String excelFileName, HttpS
                 }
             }
 
-            ByteArrayOutputStream outByteStream = new ByteArrayOutputStream();
-
-            workbook.write(outByteStream);
-
-            byte[] outArray = outByteStream.toByteArray();
-
-            response.setContentType("application/ms-excel");
-            response.setContentLength(outArray.length);
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
             response.setHeader("Expires:", "0");
             response.setHeader("Content-Disposition", "attachment; filename=" + excelFileName);
             response.setStatus(HttpServletResponse.SC_OK);
 
             outStream = response.getOutputStream();
 
-            outStream.write(outArray);
+            workbook.write(outStream);
             outStream.flush();
         } catch (IOException ex) {
             LOG.error("Failed to create report file {}", excelFileName, ex);
         } catch (Exception ex) {
             LOG.error("Error while generating report file {}", excelFileName, ex);
         } finally {
+            workbook.dispose();
+            workbook.close();
+
             if (outStream != null) {
                 outStream.close();
             }
         }
     }
 
-    private StringBuilder writeCSV(List<RangerPolicy> policies, String cSVFileName, HttpServletResponse response) {
+    // writes rows of each policy to out as soon as they are generated, instead of building the entire file in memory
+    private void writeCSV(Iterator<RangerPolicy> policies, String cSVFileName, HttpServletResponse response, Writer out) throws IOException {
         response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + cSVFileName);
+        response.setStatus(HttpServletResponse.SC_OK);
 
         StringBuilder csvBuffer = new StringBuilder();
 
         csvBuffer.append(FILE_HEADER);
         csvBuffer.append(LINE_SEPARATOR);
 
-        if (!CollectionUtils.isEmpty(policies)) {
+        out.append(csvBuffer);
+
+        csvBuffer.setLength(0);
+
+        if (policies.hasNext()) {
             Map<String, String> svcNameToSvcType = new HashMap<>();
 
-            for (RangerPolicy policy : policies) {
+            while (policies.hasNext()) {
+                RangerPolicy                    policy               = policies.next();
                 List<RangerPolicyItem>          policyItems          = policy.getPolicyItems();
                 List<RangerRowFilterPolicyItem> rowFilterPolicyItems = policy.getRowFilterPolicyItems();
                 List<RangerDataMaskPolicyItem>  dataMaskPolicyItems  = policy.getDataMaskPolicyItems();
@@ -4715,13 +4914,12 @@ private StringBuilder writeCSV(List<RangerPolicy> policies, String cSVFileName,
                         writeCSVForPolicyItems(svcNameToSvcType, policy, policyItem, null, null, csvBuffer, POLICY_DENY_INCLUDE);
                     }
                 }
-            }
-        }
 
-        response.setHeader("Content-Disposition", "attachment; filename=" + cSVFileName);
-        response.setStatus(HttpServletResponse.SC_OK);
+                out.append(csvBuffer);
 
-        return csvBuffer;
+                csvBuffer.setLength(0);
+            }
+        }
     }
 
     private void writeCSVForPolicyItems(Map<String, String> svcNameToSvcType, RangerPolicy policy, RangerPolicyItem policyItem, RangerDataMaskPolicyItem dataMaskPolicyItem, RangerRowFilterPolicyItem rowFilterPolicyItem, StringBuilder csvBuffer, String policyConditionType) {
@@ -4968,8 +5166,8 @@ private <T> void writeJson(List<T> objList, String jsonFileName, HttpServletResp
         response.setContentType("text/json");
         response.setHeader("Content-Disposition", "attachment; filename=" + jsonFileName);
 
-        ServletOutputStream out = null;
-        String              json;
+        Writer out = null;
+        Object exportList;
 
         switch (type) {
             case POLICY:
@@ -4978,7 +5176,7 @@ private <T> void writeJson(List<T> objList, String jsonFileName, HttpServletResp
                 rangerExportPolicyList.setGenericPolicies(objList);
                 rangerExportPolicyList.setMetaDataInfo(getMetaDataInfo());
 
-                json = JsonUtils.objectToJson(rangerExportPolicyList);
+                exportList = rangerExportPolicyList;
                 break;
             case ROLE:
                 RangerExportRoleList rangerExportRoleList = new RangerExportRoleList();
@@ -4991,18 +5189,19 @@ private <T> void writeJson(List<T> objList, String jsonFileName, HttpServletResp
 
                 rangerExportRoleList.setMetaDataInfo(metaDataInfo);
 
-                json = JsonUtils.objectToJson(rangerExportRoleList);
+                exportList = rangerExportRoleList;
                 break;
             default:
                 throw restErrorUtil.createRESTException("Invalid type " + type);
         }
 
         try {
-            out = response.getOutputStream();
+            out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
 
             response.setStatus(HttpServletResponse.SC_OK);
 
-            IOUtils.write(json, out, "UTF-8");
+            // serialize directly to the response, instead of first to a String holding the entire export
+            JsonUtils.getMapper().writeValue(out, exportList);
         } catch (Exception e) {
             LOG.error("Error while exporting json file {}", jsonFileName, e);
         } finally {
@@ -5017,6 +5216,37 @@ private <T> void writeJson(List<T> objList, String jsonFileName, HttpServletResp
         }
     }
 
+    // writes the fields of RangerExportPolicyList one policy at a time, so that policies aren't collected in a list first
+    private void writePoliciesJson(Iterator<RangerPolicy> policies, Writer out) throws IOException {
+        JsonGenerator generator = JsonUtils.getMapper().getFactory().createGenerator(out);
+        int           count     = 0;
+
+        generator.writeStartObject();
+        generator.writeNumberField("startIndex", 0);
+        generator.writeArrayFieldStart("policies");
+
+        while (policies.hasNext()) {
+            RangerPolicy policy = policies.next();
+
+            // createTime & updateTime are not exported
+            policy.setCreateTime(null);
+            policy.setUpdateTime(null);
+
+            generator.writeObject(policy);
+
+            count++;
+        }
+
+        generator.writeEndArray();
+        generator.writeNumberField("pageSize", count);
+        generator.writeNumberField("totalCount", count);
+        generator.writeNumberField("resultSize", count);
+        generator.writeNumberField("queryTimeMS", System.currentTimeMillis());
+        generator.writeObjectField("metaDataInfo", getMetaDataInfo());
+        generator.writeEndObject();
+        generator.flush();
+    }
+
     private void writeBookForPolicyItems(Map<String, String> svcNameToSvcType, RangerPolicy policy, RangerPolicyItem policyItem, RangerDataMaskPolicyItem dataMaskPolicyItem, RangerRowFilterPolicyItem rowFilterPolicyItem, Row row, String policyConditionType) {
         LOG.debug("policyConditionType:[{}]", policyConditionType);
 
@@ -5335,7 +5565,7 @@ private RangerPolicyList searchRangerPolicies(SearchFilter searchFilter) {
         Set<Long>               processedServices      = new HashSet<>();
         Set<Long>               processedSvcIdsForRole = new HashSet<>();
         Set<Long>               processedPolicies      = new HashSet<>();
-        List<XXPolicy>          xPolList               = null;
+        List<Object[]>          xPolList               = null;
         String                   serviceName           = searchFilter.getParam(ServiceREST.PARAM_SERVICE_NAME);
 
         if (StringUtils.isNotBlank(serviceName)) {
@@ -5345,12 +5575,14 @@ private RangerPolicyList searchRangerPolicies(SearchFilter searchFilter) {
                 loadRangerPolicies(serviceId, processedServices, policyMap, searchFilter);
             }
         } else {
-            xPolList = policyService.searchResources(searchFilter, policyService.searchFields, policyService.sortFields, retList);
+            xPolList = policyService.searchPolicyAndServiceIds(searchFilter, retList);
 
             if (!CollectionUtils.isEmpty(xPolList)) {
-                for (XXPolicy xXPolicy : xPolList) {
-                    if (!processedServices.contains(xXPolicy.getService())) {
-                        loadRangerPolicies(xXPolicy.getService(), processedServices, policyMap, searchFilter);
+                for (Object[] xPol : xPolList) {
+                    Long serviceId = (Long) xPol[1];
+
+                    if (!processedServices.contains(serviceId)) {
+                        loadRangerPolicies(serviceId, processedServices, policyMap, searchFilter);
                     }
                 }
             }
@@ -5361,20 +5593,23 @@ private RangerPolicyList searchRangerPolicies(SearchFilter searchFilter) {
         if (!StringUtils.isEmpty(userName)) {
             searchFilter.setParam("user", RangerPolicyEngine.USER_CURRENT);
 
-            List<XXPolicy> xPolListForMacroUser        = policyService.searchResources(searchFilter, policyService.searchFields, policyService.sortFields, retList);
+            List<Object[]> xPolListForMacroUser        = policyService.searchPolicyAndServiceIds(searchFilter, retList);
             Set<Long>      processedSvcIdsForMacroUser = new HashSet<>();
 
             if (!CollectionUtils.isEmpty(xPolListForMacroUser)) {
-                for (XXPolicy xXPolicy : xPolListForMacroUser) {
-                    if (!processedPolicies.contains(xXPolicy.getId())) {
-                        if (!processedSvcIdsForMacroUser.contains(xXPolicy.getService())) {
-                            loadRangerPolicies(xXPolicy.getService(), processedSvcIdsForMacroUser, policyMap, searchFilter);
+                for (Object[] xPol : xPolListForMacroUser) {
+                    Long policyId  = (Long) xPol[0];
+                    Long serviceId = (Long) xPol[1];
+
+                    if (!processedPolicies.contains(policyId)) {
+                        if (!processedSvcIdsForMacroUser.contains(serviceId)) {
+                            loadRangerPolicies(serviceId, processedSvcIdsForMacroUser, policyMap, searchFilter);
                         }
 
-                        if (policyMap.get(xXPolicy.getId()) != null) {
-                            policyList.add(policyMap.get(xXPolicy.getId()));
+                        if (policyMap.get(policyId) != null) {
+                            policyList.add(policyMap.get(policyId));
 
-                            processedPolicies.add(xXPolicy.getId());
+                            processedPolicies.add(policyId);
                         }
                     }
                 }
@@ -5392,22 +5627,25 @@ private RangerPolicyList searchRangerPolicies(SearchFilter searchFilter) {
             for (String groupName : groupNames) {
                 searchFilter.setParam("group", groupName);
 
-                List<XXPolicy> xPolList2 = policyService.searchResources(searchFilter, policyService.searchFields, policyService.sortFields, retList);
+                List<Object[]> xPolList2 = policyService.searchPolicyAndServiceIds(searchFilter, retList);
 
                 if (!CollectionUtils.isEmpty(xPolList2)) {
-                    for (XXPolicy xPol2 : xPolList2) {
+                    for (Object[] xPol2 : xPolList2) {
                         if (xPol2 != null) {
-                            if (!processedPolicies.contains(xPol2.getId())) {
-                                if (!processedSvcIdsForGroup.contains(xPol2.getService()) || !processedGroupsName.contains(groupName)) {
-                                    loadRangerPolicies(xPol2.getService(), processedSvcIdsForGroup, policyMap, searchFilter);
+                            Long policyId  = (Long) xPol2[0];
+                            Long serviceId = (Long) xPol2[1];
+
+                            if (!processedPolicies.contains(policyId)) {
+                                if (!processedSvcIdsForGroup.contains(serviceId) || !processedGroupsName.contains(groupName)) {
+                                    loadRangerPolicies(serviceId, processedSvcIdsForGroup, policyMap, searchFilter);
 
                                     processedGroupsName.add(groupName);
                                 }
 
-                                if (policyMap.containsKey(xPol2.getId())) {
-                                    policyList.add(policyMap.get(xPol2.getId()));
+                                if (policyMap.containsKey(policyId)) {
+                                    policyList.add(policyMap.get(policyId));
 
-                                    processedPolicies.add(xPol2.getId());
+                                    processedPolicies.add(policyId);
                                 }
                             }
                         }
@@ -5434,22 +5672,25 @@ private RangerPolicyList searchRangerPolicies(SearchFilter searchFilter) {
                 for (String roleName : roleNames) {
                     searchFilter.setParam("role", roleName);
 
-                    List<XXPolicy> xPolList3 = policyService.searchResources(searchFilter, policyService.searchFields, policyService.sortFields, retList);
+                    List<Object[]> xPolList3 = policyService.searchPolicyAndServiceIds(searchFilter, retList);
 
                     if (!CollectionUtils.isEmpty(xPolList3)) {
-                        for (XXPolicy xPol3 : xPolList3) {
+                        for (Object[] xPol3 : xPolList3) {
                             if (xPol3 != null) {
-                                if (!processedPolicies.contains(xPol3.getId())) {
-                                    if (!processedSvcIdsForRole.contains(xPol3.getService()) || !processedRoleName.contains(roleName)) {
-                                        loadRangerPolicies(xPol3.getService(), processedSvcIdsForRole, policyMap, searchFilter);
+                                Long policyId  = (Long) xPol3[0];
+                                Long serviceId = (Long) xPol3[1];
+
+                                if (!processedPolicies.contains(policyId)) {
+                                    if (!processedSvcIdsForRole.contains(serviceId) || !processedRoleName.contains(roleName)) {
+                                        loadRangerPolicies(serviceId, processedSvcIdsForRole, policyMap, searchFilter);
 
                                         processedRoleName.add(roleName);
                                     }
 
-                                    if (policyMap.containsKey(xPol3.getId())) {
-                                        policyList.add(policyMap.get(xPol3.getId()));
+                                    if (policyMap.containsKey(policyId)) {
+                                        policyList.add(policyMap.get(policyId));
 
-                                        processedPolicies.add(xPol3.getId());
+                                        processedPolicies.add(policyId);
                                     }
                                 }
                             }
@@ -5476,22 +5717,25 @@ private RangerPolicyList searchRangerPolicies(SearchFilter searchFilter) {
         for (String grpName : groupNames) {
             searchFilter.setParam("group", grpName);
 
-            List<XXPolicy> xPolList2 = policyService.searchResources(searchFilter, policyService.searchFields, policyService.sortFields, retList);
+            List<Object[]> xPolList2 = policyService.searchPolicyAndServiceIds(searchFilter, retList);
 
             if (!CollectionUtils.isEmpty(xPolList2)) {
-                for (XXPolicy xPol2 : xPolList2) {
+                for (Object[] xPol2 : xPolList2) {
                     if (xPol2 != null) {
-                        if (!processedPolicies.contains(xPol2.getId())) {
-                            if (!processedSvcIdsForGroup.contains(xPol2.getService()) || !processedGroupsName.contains(groupName)) {
-                                loadRangerPolicies(xPol2.getService(), processedSvcIdsForGroup, policyMap, searchFilter);
+                        Long policyId  = (Long) xPol2[0];
+                        Long serviceId = (Long) xPol2[1];
+
+                        if (!processedPolicies.contains(policyId)) {
+                            if (!processedSvcIdsForGroup.contains(serviceId) || !processedGroupsName.contains(groupName)) {
+                                loadRangerPolicies(serviceId, processedSvcIdsForGroup, policyMap, searchFilter);
 
                                 processedGroupsName.add(groupName);
                             }
 
-                            if (policyMap.containsKey(xPol2.getId())) {
-                                policyList.add(policyMap.get(xPol2.getId()));
+                            if (policyMap.containsKey(policyId)) {
+                                policyList.add(policyMap.get(policyId));
 
-                                processedPolicies.add(xPol2.getId());
+                                processedPolicies.add(policyId);
                             }
                         }
                     }
@@ -5517,22 +5761,25 @@ private RangerPolicyList searchRangerPolicies(SearchFilter searchFilter) {
             for (String roleName : roleNames) {
                 searchFilter.setParam("role", roleName);
 
-                List<XXPolicy> xPolList3 = policyService.searchResources(searchFilter, policyService.searchFields, policyService.sortFields, retList);
+                List<Object[]> xPolList3 = policyService.searchPolicyAndServiceIds(searchFilter, retList);
 
                 if (!CollectionUtils.isEmpty(xPolList3)) {
-                    for (XXPolicy xPol3 : xPolList3) {
+                    for (Object[] xPol3 : xPolList3) {
                         if (xPol3 != null) {
-                            if (!processedPolicies.contains(xPol3.getId())) {
-                                if (!processedSvcIdsForRole.contains(xPol3.getService()) || !processedRoleName.contains(roleName)) {
-                                    loadRangerPolicies(xPol3.getService(), processedSvcIdsForRole, policyMap, searchFilter);
+                            Long policyId  = (Long) xPol3[0];
+                            Long serviceId = (Long) xPol3[1];
+
+                            if (!processedPolicies.contains(policyId)) {
+                                if (!processedSvcIdsForRole.contains(serviceId) || !processedRoleName.contains(roleName)) {
+                                    loadRangerPolicies(serviceId, processedSvcIdsForRole, policyMap, searchFilter);
 
                                     processedRoleName.add(roleName);
                                 }
 
-                                if (policyMap.containsKey(xPol3.getId())) {
-                                    policyList.add(policyMap.get(xPol3.getId()));
+                                if (policyMap.containsKey(policyId)) {
+                                    policyList.add(policyMap.get(policyId));
 
-                                    processedPolicies.add(xPol3.getId());
+                                    processedPolicies.add(policyId);
                                 }
                             }
                         }
@@ -5553,17 +5800,20 @@ private RangerPolicyList searchRangerPolicies(SearchFilter searchFilter) {
                     }
                 }
             } else {
-                for (XXPolicy xPol : xPolList) {
+                for (Object[] xPol : xPolList) {
                     if (xPol != null) {
-                        if (!processedPolicies.contains(xPol.getId())) {
-                            if (!processedServices.contains(xPol.getService())) {
-                                loadRangerPolicies(xPol.getService(), processedServices, policyMap, searchFilter);
+                        Long policyId  = (Long) xPol[0];
+                        Long serviceId = (Long) xPol[1];
+
+                        if (!processedPolicies.contains(policyId)) {
+                            if (!processedServices.contains(serviceId)) {
+                                loadRangerPolicies(serviceId, processedServices, policyMap, searchFilter);
                             }
 
-                            if (policyMap.containsKey(xPol.getId())) {
-                                policyList.add(policyMap.get(xPol.getId()));
+                            if (policyMap.containsKey(policyId)) {
+                                policyList.add(policyMap.get(policyId));
 
-                                processedPolicies.add(xPol.getId());
+                                processedPolicies.add(policyId);
                             }
                         }
                     }
@@ -5592,6 +5842,28 @@ private RangerPolicyList searchRangerPolicies(SearchFilter searchFilter) {
         return retList;
     }
 
+    // filter restricted to the given services; null if none of the services can match
+    private SearchFilter getPolicySearchFilterForServices(SearchFilter filter, Collection<Long> serviceIds) {
+        SearchFilter ret       = new SearchFilter(filter);
+        String       serviceId = filter.getParam(SearchFilter.SERVICE_ID);
+
+        if (serviceId != null) { // keep the requested service, if it is one of the given services
+            if (serviceIds.stream().noneMatch(id -> id.toString().equals(serviceId.trim()))) {
+                return null;
+            }
+        } else if (serviceIds.isEmpty()) {
+            return null;
+        } else {
+            ret.setMultiValueParam(SearchFilter.SERVICE_ID, serviceIds.toArray());
+        }
+
+        if (StringUtils.isBlank(filter.getParam(SearchFilter.ZONE_NAME))) { // same as getServicePolicies(): only unzoned policies, unless a zone is given
+            ret.setParam(SearchFilter.ZONE_ID, Long.toString(RangerSecurityZone.RANGER_UNZONED_SECURITY_ZONE_ID));
+        }
+
+        return ret;
+    }
+
     private boolean isSearchQuerybyResource(SearchFilter searchFilter) {
         boolean             ret                   = false;
         Map<String, String> filterResourcesPrefix = searchFilter.getParamsWithPrefix(SearchFilter.RESOURCE_PREFIX, true);
@@ -6632,6 +6904,7 @@ public static class ServiceVersionUpdater implements Runnable {
         final ServiceTags.TagsChangeType tagChangeType;
         final Long                       resourceId;
         final Long                       tagId;
+        final List<RangerPolicyDelta>    policyDeltas;
 
         long version = -1;
 
@@ -6649,6 +6922,23 @@ public ServiceVersionUpdater(RangerDaoManager daoManager, Long serviceId, VERSIO
             this.tagChangeType     = ServiceTags.TagsChangeType.NONE;
             this.resourceId        = null;
             this.tagId             = null;
+            this.policyDeltas      = null;
+        }
+
+        /*
+         * increments policy version once for all given changes
+         */
+        public ServiceVersionUpdater(RangerDaoManager daoManager, Long serviceId, List<RangerPolicyDelta> policyDeltas) {
+            this.serviceId         = serviceId;
+            this.daoManager        = daoManager;
+            this.versionType       = VERSION_TYPE.POLICY_VERSION;
+            this.zoneName          = null;
+            this.policyDeltaChange = null;
+            this.policy            = null;
+            this.tagChangeType     = ServiceTags.TagsChangeType.NONE;
+            this.resourceId        = null;
+            this.tagId             = null;
+            this.policyDeltas      = policyDeltas;
         }
 
         public ServiceVersionUpdater(RangerDaoManager daoManager, Long serviceId, VERSION_TYPE versionType, ServiceTags.TagsChangeType tagChangeType, Long resourceId, Long tagId) {
@@ -6661,6 +6951,7 @@ public ServiceVersionUpdater(RangerDaoManager daoManager, Long serviceId, VERSIO
             this.tagChangeType     = tagChangeType;
             this.resourceId        = resourceId;
             this.tagId             = tagId;
+            this.policyDeltas      = null;
         }
 
         @Override
@@ -6680,10 +6971,56 @@ public String toString() {
                     ", tagChangeType=" + tagChangeType +
                     ", resourceId=" + resourceId +
                     ", tagId=" + tagId +
+                    ", policyDeltaCount=" + (policyDeltas != null ? policyDeltas.size() : 0) +
                     " ]";
         }
     }
 
+    private static class BulkPolicyVersionChanges {
+        final Map<Long, List<RangerPolicyDelta>> policyDeltas          = new LinkedHashMap<>();
+        final Set<Long>                          roleVersionServiceIds = new HashSet<>();
+    }
+
+    // reads policies matching the filter in batches of filter.getMaxRows(), keyed on policy id
+    private class PolicyBatchIterator implements Iterator<RangerPolicy> {
+        private final SearchFilter           filter;
+        private       Iterator<RangerPolicy> batch        = Collections.emptyIterator();
+        private       Long                   lastPolicyId;
+        private       boolean                isLastBatch;
+
+        PolicyBatchIterator(SearchFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!batch.hasNext() && !isLastBatch) {
+                List<RangerPolicy> policies = policyService.searchPoliciesAfterId(filter, lastPolicyId);
+
+                LOG.debug("PolicyBatchIterator: read {} policies after id={}", policies.size(), lastPolicyId);
+
+                isLastBatch = policies.size() < filter.getMaxRows();
+
+                if (!policies.isEmpty()) {
+                    lastPolicyId = policies.get(policies.size() - 1).getId();
+                }
+
+                batch = policies.iterator();
+            }
+
+            return batch.hasNext();
+        }
+
+        @Override
+        public RangerPolicy next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return batch.next();
+        }
+    }
+
     private class AssociatePolicyLabel implements Runnable {
         private final String   policyLabel;
         private final XXPolicy xPolicy;
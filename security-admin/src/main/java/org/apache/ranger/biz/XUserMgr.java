@@ -149,6 +149,9 @@ public class XUserMgr extends XUserMgrBase {
     private static final int    MAX_DB_TRANSACTION_RETRIES = 5;
     private static final int    PASSWORD_LENGTH            = 16;
 
+    private static final String PROP_USERSYNC_TX_BATCH_SIZE    = "ranger.admin.usersync.tx.batch.size";
+    private static final int    DEFAULT_USERSYNC_TX_BATCH_SIZE = 100;
+
     @Autowired
     RangerBizUtil msBizUtil;
 
@@ -2238,18 +2241,7 @@ public void checkAdminAccess() {
     public void checkAccess(VXUser vxUser) {
         UserSessionBase session = ContextUtil.getCurrentUserSession();
 
-        if (session != null) {
-            if (!hasAccessToGetUserInfo(vxUser)) {
-                throw restErrorUtil.create403RESTException("Operation" + " denied. LoggedInUser=" + session.getXXPortalUser().getId() + " ,isn't permitted to perform the action.");
-            }
-        } else {
-            VXResponse vXResponse = new VXResponse();
-
-            vXResponse.setStatusCode(HttpServletResponse.SC_UNAUTHORIZED); // user is null
-            vXResponse.setMsgDesc("Bad Credentials");
-
-            throw restErrorUtil.generateRESTException(vXResponse);
-        }
+        checkAccess(vxUser, session, getLoggedInVXUser(session));
     }
 
     public void checkAccessRoles(List<String> stringRolesList) {
@@ -2807,15 +2799,19 @@ public Map<String, Set<String>> getUserGroups() {
     }
 
     public RangerUserStore getRangerUserStoreIfUpdated(Long lastKnownUserStoreVersion) {
-        logger.debug("==> XUserMgr.getRangerUserStoreIfUpdated(lastKnownUserStoreVersion={})", lastKnownUserStoreVersion);
+        return getRangerUserStoreIfUpdated(lastKnownUserStoreVersion, false);
+    }
+
+    public RangerUserStore getRangerUserStoreIfUpdated(Long lastKnownUserStoreVersion, boolean supportsUserStoreDeltas) {
+        logger.debug("==> XUserMgr.getRangerUserStoreIfUpdated(lastKnownUserStoreVersion={}, supportsUserStoreDeltas={})", lastKnownUserStoreVersion, supportsUserStoreDeltas);
 
-        RangerUserStore ret = RangerUserStoreCache.getInstance().getLatestRangerUserStoreOrCached(this);
+        RangerUserStore ret = RangerUserStoreCache.getInstance().getLatestRangerUserStoreOrCached(this, lastKnownUserStoreVersion, supportsUserStoreDeltas);
 
         if (ret != null && Objects.equals(ret.getUserStoreVersion(), lastKnownUserStoreVersion)) {
             ret = null;
         }
 
-        logger.debug("<== XUserMgr.getRangerUserStoreIfUpdated(lastKnownUserStoreVersion={}): ret={}", lastKnownUserStoreVersion, ret);
+        logger.debug("<== XUserMgr.getRangerUserStoreIfUpdated(lastKnownUserStoreVersion={}, supportsUserStoreDeltas={}): ret={}", lastKnownUserStoreVersion, supportsUserStoreDeltas, ret);
 
         return ret;
     }
@@ -2825,7 +2821,10 @@ public int createOrUpdateXUsers(VXUserList users) {
 
         xaBizUtil.blockAuditorRoleUser();
 
-        int ret = 0;
+        UserSessionBase session        = ContextUtil.getCurrentUserSession();
+        VXUser          loggedInVXUser = getLoggedInVXUser(session);
+        List<VXUser>    validUsers     = new ArrayList<>();
+        Set<String>     userNames      = new HashSet<>();
 
         for (VXUser vXUser : users.getList()) {
             final String userName  = vXUser == null ? null : vXUser.getName();
@@ -2843,34 +2842,54 @@ public int createOrUpdateXUsers(VXUserList users) {
                 continue;
             }
 
-            checkAccess(vXUser);
+            checkAccess(vXUser, session, loggedInVXUser);
 
-            TransactionTemplate txTemplate = new TransactionTemplate(txManager);
+            validUsers.add(vXUser);
+            userNames.add(userName);
+        }
 
-            txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-            try {
-                txTemplate.execute(status -> {
-                    VXPortalUser vXPortalUser = userMgr.getUserProfileByLoginId(userName);
+        int ret = 0;
 
-                    if (vXPortalUser == null) {
-                        logger.debug("create user {}", userName);
+        if (!validUsers.isEmpty()) {
+            // users that don't have a portal user yet are created without looking up their profile
+            Set<String> existingLoginIds = new HashSet<>(daoManager.getXXPortalUser().findLoginIdsByLoginIds(userNames));
+            int         batchSize        = Math.max(1, PropertiesUtil.getIntProperty(PROP_USERSYNC_TX_BATCH_SIZE, DEFAULT_USERSYNC_TX_BATCH_SIZE));
 
-                        createXUser(vXUser, userName);
-                    } else {
-                        logger.debug("Update user {}", userName);
+            for (int fromIndex = 0; fromIndex < validUsers.size(); fromIndex += batchSize) {
+                final List<VXUser> batch = validUsers.subList(fromIndex, Math.min(fromIndex + batchSize, validUsers.size()));
 
-                        updateXUser(vXUser, vXPortalUser);
-                    }
+                TransactionTemplate txTemplate = new TransactionTemplate(txManager);
 
-                    return null;
-                });
-            } catch (Throwable ex) {
-                logger.error("XUserMgr.createOrUpdateXUsers(): Failed to update DB for users: ", ex);
+                txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                try {
+                    txTemplate.execute(status -> {
+                        for (VXUser vXUser : batch) {
+                            String       userName     = vXUser.getName();
+                            VXPortalUser vXPortalUser = existingLoginIds.contains(userName) ? userMgr.getUserProfileByLoginId(userName) : null;
 
-                throw restErrorUtil.createRESTException("Failed to create or update users ", MessageEnums.ERROR_CREATING_OBJECT);
-            }
+                            if (vXPortalUser == null) {
+                                logger.debug("create user {}", userName);
+
+                                createXUser(vXUser, userName);
 
-            ret++;
+                                existingLoginIds.add(userName); // repeated entries for the same user are updated
+                            } else {
+                                logger.debug("Update user {}", userName);
+
+                                updateXUser(vXUser, vXPortalUser);
+                            }
+                        }
+
+                        return null;
+                    });
+                } catch (Throwable ex) {
+                    logger.error("XUserMgr.createOrUpdateXUsers(): Failed to update DB for users: ", ex);
+
+                    throw restErrorUtil.createRESTException("Failed to create or update users ", MessageEnums.ERROR_CREATING_OBJECT);
+                }
+
+                ret += batch.size();
+            }
         }
 
         if (ret == 0) {
@@ -2922,6 +2941,8 @@ public int createOrUpdateXUsers(VXUserList users) {
 
     @Transactional(readOnly = false, propagation = Propagation.REQUIRED)
     public int createOrUpdateXGroups(VXGroupList groups) {
+        List<VXGroup> validGroups = new ArrayList<>();
+
         for (VXGroup vXGroup : groups.getList()) {
             if (vXGroup == null || vXGroup.getName() == null || "null".equalsIgnoreCase(vXGroup.getName()) || vXGroup.getName().trim().isEmpty()) {
                 logger.warn("Ignoring invalid groupname {}", vXGroup == null ? null : vXGroup.getName());
@@ -2929,7 +2950,15 @@ public int createOrUpdateXGroups(VXGroupList groups) {
                 continue;
             }
 
-            createXGroupWithoutLogin(vXGroup);
+            validGroups.add(vXGroup);
+        }
+
+        if (!validGroups.isEmpty()) {
+            checkAdminAccess();
+
+            xaBizUtil.blockAuditorRoleUser();
+
+            xGroupService.createOrUpdateXGroupsWithOutLogin(validGroups);
         }
 
         updateUserStoreVersion("createOrUpdateXGroups(groupsCount=" + groups.getListSize() + ")");
@@ -3271,12 +3300,33 @@ private List<XXTrxLogV2> createOrDelGrpUserWithUpdatedGrpId(VXUser vXUser, Colle
         return trxLogList;
     }
 
+    private void checkAccess(VXUser vxUser, UserSessionBase session, VXUser loggedInVXUser) {
+        if (session != null) {
+            if (!hasAccessToGetUserInfo(vxUser, session, loggedInVXUser)) {
+                throw restErrorUtil.create403RESTException("Operation" + " denied. LoggedInUser=" + session.getXXPortalUser().getId() + " ,isn't permitted to perform the action.");
+            }
+        } else {
+            VXResponse vXResponse = new VXResponse();
+
+            vXResponse.setStatusCode(HttpServletResponse.SC_UNAUTHORIZED); // user is null
+            vXResponse.setMsgDesc("Bad Credentials");
+
+            throw restErrorUtil.generateRESTException(vXResponse);
+        }
+    }
+
+    private VXUser getLoggedInVXUser(UserSessionBase userSession) {
+        return userSession != null && userSession.getLoginId() != null ? xUserService.getXUserByUserName(userSession.getLoginId()) : null;
+    }
+
     private boolean hasAccessToGetUserInfo(VXUser requestedVXUser) {
         UserSessionBase userSession = ContextUtil.getCurrentUserSession();
 
-        if (userSession != null && userSession.getLoginId() != null) {
-            VXUser loggedInVXUser = xUserService.getXUserByUserName(userSession.getLoginId());
+        return hasAccessToGetUserInfo(requestedVXUser, userSession, getLoggedInVXUser(userSession));
+    }
 
+    private boolean hasAccessToGetUserInfo(VXUser requestedVXUser, UserSessionBase userSession, VXUser loggedInVXUser) {
+        if (userSession != null && userSession.getLoginId() != null) {
             if (requestedVXUser != null && CollectionUtils.isNotEmpty(requestedVXUser.getUserRoleList()) && loggedInVXUser != null && loggedInVXUser.getUserRoleList().size() == 1) {
                 if (loggedInVXUser.getUserRoleList().contains(RangerConstants.ROLE_USER)) {
                     return requestedVXUser.getId().equals(loggedInVXUser.getId());
@@ -25,41 +25,52 @@
 import org.apache.ranger.authorization.utils.JsonUtils;
 import org.apache.ranger.plugin.model.RangerPolicy;
 import org.apache.ranger.plugin.store.ServiceStore;
+import org.apache.ranger.plugin.util.JsonUtilsV2;
 import org.apache.ranger.plugin.util.RangerPolicyDeltaUtil;
 import org.apache.ranger.plugin.util.ServicePolicies;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
 
 public class RangerServicePoliciesCache {
     private static final Logger LOG = LoggerFactory.getLogger(RangerServicePoliciesCache.class);
 
-    private static final int MAX_WAIT_TIME_FOR_UPDATE = 10;
+    private static final int MAX_WAIT_TIME_FOR_UPDATE          = 10;
+    private static final int MAX_CACHED_RESPONSES_PER_SERVICE = 16;
 
     public static volatile RangerServicePoliciesCache sInstance;
 
     private final int                                 waitTimeInSeconds;
     private final boolean                             dedupStrings;
+    private final boolean                             responseCacheEnabled;
+    private final int                                 maxCachedResponsesPerService;
     private final Map<String, ServicePoliciesWrapper> servicePoliciesMap = new HashMap<>();
 
     private RangerServicePoliciesCache() {
         RangerAdminConfig config = RangerAdminConfig.getInstance();
 
-        waitTimeInSeconds = config.getInt("ranger.admin.policy.download.cache.max.waittime.for.update", MAX_WAIT_TIME_FOR_UPDATE);
-        dedupStrings      = config.getBoolean("ranger.admin.policy.dedup.strings", Boolean.TRUE);
+        waitTimeInSeconds            = config.getInt("ranger.admin.policy.download.cache.max.waittime.for.update", MAX_WAIT_TIME_FOR_UPDATE);
+        dedupStrings                 = config.getBoolean("ranger.admin.policy.dedup.strings", Boolean.TRUE);
+        responseCacheEnabled         = config.getBoolean("ranger.admin.policy.download.response.cache.enabled", Boolean.TRUE);
+        maxCachedResponsesPerService = config.getInt("ranger.admin.policy.download.response.cache.max.entries.per.service", MAX_CACHED_RESPONSES_PER_SERVICE);
     }
 
     public static RangerServicePoliciesCache getInstance() {
@@ -146,6 +157,62 @@ public ServicePolicies getServicePolicies(String serviceName, Long serviceId, Lo
         return ret;
     }
 
+    /*
+     * Identifies a download response of the given policy version. Responses for the same version differ in:
+     * policies vs deltas (and from which version), whether disabled policies were filtered out for older plugins,
+     * whether the service is disabled and whether the associated tag-service is active.
+     */
+    public static String getResponseKey(Long policyVersion, Long deltasFromVersion, boolean isFiltered, boolean isServiceEnabled, boolean isTagServiceActive) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(policyVersion);
+
+        if (deltasFromVersion != null) {
+            sb.append("-deltas.").append(deltasFromVersion);
+        } else {
+            sb.append("-policies");
+        }
+
+        sb.append(isFiltered ? "-filtered" : "-all");
+        sb.append(isServiceEnabled ? "-enabled" : "-disabled");
+        sb.append(isTagServiceActive ? "-tags" : "-notags");
+
+        return sb.toString();
+    }
+
+    public ServicePolicies getResponse(String serviceName, String responseKey) {
+        ServicePolicies        ret     = null;
+        ServicePoliciesWrapper wrapper = responseCacheEnabled ? getServicePoliciesWrapper(serviceName) : null;
+
+        if (wrapper != null) {
+            SerializedResponse response = wrapper.getResponse(responseKey);
+
+            ret = response != null ? response.getServicePolicies() : null;
+        }
+
+        LOG.debug("RangerServicePoliciesCache.getResponse({}, {}): found={}", serviceName, responseKey, ret != null);
+
+        return ret;
+    }
+
+    public void putResponse(String serviceName, String responseKey, ServicePolicies servicePolicies) {
+        ServicePoliciesWrapper wrapper = responseCacheEnabled && servicePolicies != null ? getServicePoliciesWrapper(serviceName) : null;
+
+        if (wrapper != null) {
+            wrapper.putResponse(new SerializedResponse(responseKey, servicePolicies));
+        }
+    }
+
+    /*
+     * Returns the cached response for the given object, if it was returned from getResponse()/putResponse()
+     * and has not been updated since. Used to write the response without serializing it again.
+     */
+    public SerializedResponse getSerializedResponse(ServicePolicies servicePolicies) {
+        ServicePoliciesWrapper wrapper = responseCacheEnabled && servicePolicies != null ? getServicePoliciesWrapper(servicePolicies.getServiceName()) : null;
+
+        return wrapper != null ? wrapper.getResponse(servicePolicies) : null;
+    }
+
     /**
      * Reset policy cache using serviceName if provided.
      * If serviceName is empty, reset everything.
@@ -284,6 +351,114 @@ public void saveToCache(ServicePolicies policies) {
         LOG.debug("<== RangerServicePoliciesCache(serviceName={}).saveToCache()", policies != null ? policies.getServiceName() : "<null>");
     }
 
+    private ServicePoliciesWrapper getServicePoliciesWrapper(String serviceName) {
+        if (StringUtils.isBlank(serviceName)) {
+            return null;
+        }
+
+        synchronized (this) {
+            return servicePoliciesMap.get(serviceName);
+        }
+    }
+
+    public static final class SerializedResponse {
+        private final String          responseKey;
+        private final Long            policyVersion;
+        private final ServicePolicies servicePolicies;
+        private final String          eTag;
+        private volatile byte[]       bytes;
+        private volatile byte[]       gzippedBytes;
+
+        SerializedResponse(String responseKey, ServicePolicies servicePolicies) {
+            this.responseKey     = responseKey;
+            this.policyVersion   = servicePolicies.getPolicyVersion();
+            this.servicePolicies = servicePolicies;
+            this.eTag            = "W/\"" + servicePolicies.getServiceId() + "-" + responseKey + "\"";
+        }
+
+        public String getResponseKey() {
+            return responseKey;
+        }
+
+        public Long getPolicyVersion() {
+            return policyVersion;
+        }
+
+        public ServicePolicies getServicePolicies() {
+            return servicePolicies;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public boolean isNotModified(String ifNoneMatch) {
+            if (StringUtils.isNotBlank(ifNoneMatch)) {
+                String eTagValue = StringUtils.removeStart(eTag, "W/");
+
+                for (String value : ifNoneMatch.split(",")) {
+                    value = StringUtils.removeStart(value.trim(), "W/");
+
+                    if (value.equals("*") || value.equals(eTagValue)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        /*
+         * serialized once, on first download; concurrent downloads of the same response wait for it instead of
+         * serializing the same policies again
+         */
+        public byte[] getBytes() throws IOException {
+            byte[] ret = bytes;
+
+            if (ret == null) {
+                synchronized (this) {
+                    ret = bytes;
+
+                    if (ret == null) {
+                        ret   = JsonUtilsV2.getMapper().writeValueAsBytes(servicePolicies);
+                        bytes = ret;
+
+                        LOG.debug("SerializedResponse(eTag={}): serialized {} bytes", eTag, ret.length);
+                    }
+                }
+            }
+
+            return ret;
+        }
+
+        public byte[] getGzippedBytes() throws IOException {
+            byte[] ret = gzippedBytes;
+
+            if (ret == null) {
+                byte[] plain = getBytes();
+
+                synchronized (this) {
+                    ret = gzippedBytes;
+
+                    if (ret == null) {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(plain.length / 8, 512));
+
+                        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                            gzip.write(plain);
+                        }
+
+                        ret          = out.toByteArray();
+                        gzippedBytes = ret;
+
+                        LOG.debug("SerializedResponse(eTag={}): compressed {} bytes to {} bytes", eTag, plain.length, ret.length);
+                    }
+                }
+            }
+
+            return ret;
+        }
+    }
+
     private class ServicePoliciesWrapper {
         final Long               serviceId;
         final ReentrantLock      lock                  = new ReentrantLock();
@@ -292,6 +467,14 @@ private class ServicePoliciesWrapper {
         long                     longestDbLoadTimeInMs = -1;
         ServicePolicyDeltasCache deltaCache;
 
+        // responses of the latest policy version, in access order
+        final Map<String, SerializedResponse> responses = new LinkedHashMap<String, SerializedResponse>(MAX_CACHED_RESPONSES_PER_SERVICE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SerializedResponse> eldest) {
+                return size() > maxCachedResponsesPerService;
+            }
+        };
+
         ServicePoliciesWrapper(Long serviceId) {
             this.serviceId  = serviceId;
             servicePolicies = null;
@@ -318,6 +501,39 @@ Date getUpdateTime() {
             return updateTime;
         }
 
+        SerializedResponse getResponse(String responseKey) {
+            synchronized (responses) {
+                return responses.get(responseKey);
+            }
+        }
+
+        SerializedResponse getResponse(ServicePolicies servicePolicies) {
+            synchronized (responses) {
+                for (SerializedResponse response : responses.values()) {
+                    // the cached object could have been updated in place with later deltas
+                    if (response.getServicePolicies() == servicePolicies && Objects.equals(response.getPolicyVersion(), servicePolicies.getPolicyVersion())) {
+                        return response;
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        void putResponse(SerializedResponse response) {
+            synchronized (responses) {
+                for (Iterator<SerializedResponse> iter = responses.values().iterator(); iter.hasNext(); ) {
+                    if (!Objects.equals(iter.next().getPolicyVersion(), response.getPolicyVersion())) {
+                        iter.remove();
+                    }
+                }
+
+                responses.put(response.getResponseKey(), response);
+
+                LOG.debug("RangerServicePoliciesCache.putResponse(serviceId={}, key={}): cachedResponses={}", serviceId, response.getResponseKey(), responses.size());
+            }
+        }
+
         ServicePolicies getLatestOrCached(String serviceName, ServiceStore serviceStore, Long lastKnownVersion, boolean needsBackwardCompatibility) throws Exception {
             LOG.debug("==> RangerServicePoliciesCache.getLatestOrCached(lastKnownVersion={}, {})", lastKnownVersion, needsBackwardCompatibility);
 
@@ -498,6 +714,10 @@ StringBuilder toString(StringBuilder sb) {
                     .append(", Number-Of-Policies:").append(servicePolicies != null && servicePolicies.getPolicies() != null ? servicePolicies.getPolicies().size() : 0)
                     .append(", Number-Of-Policy-Deltas:").append(servicePolicies != null && servicePolicies.getPolicyDeltas() != null ? servicePolicies.getPolicyDeltas().size() : 0);
 
+            synchronized (responses) {
+                sb.append(", Cached-Responses:").append(responses.keySet());
+            }
+
             sb.append("} ");
 
             return sb;
@@ -24,9 +24,13 @@
 import org.apache.ranger.plugin.model.GroupInfo;
 import org.apache.ranger.plugin.model.UserInfo;
 import org.apache.ranger.plugin.util.RangerUserStore;
+import org.apache.ranger.plugin.util.RangerUserStoreDeltaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -36,20 +40,24 @@
 public class RangerUserStoreCache {
     private static final Logger LOG = LoggerFactory.getLogger(RangerUserStoreCache.class);
 
-    private static final int MAX_WAIT_TIME_FOR_UPDATE = 10;
+    private static final int MAX_WAIT_TIME_FOR_UPDATE  = 10;
+    private static final int DEFAULT_MAX_DELTA_VERSIONS = 10;
 
     public static volatile RangerUserStoreCache sInstance;
 
-    private final int             waitTimeInSeconds;
-    private final boolean         dedupStrings;
-    private final ReentrantLock   lock = new ReentrantLock();
-    private       RangerUserStore rangerUserStore;
+    private final int                       waitTimeInSeconds;
+    private final boolean                   dedupStrings;
+    private final int                       maxDeltaVersions;
+    private final ReentrantLock             lock   = new ReentrantLock();
+    private final Map<Long, UserStoreDelta> deltas = new LinkedHashMap<>(); // keyed by the version the delta applies to; guarded by lock
+    private       RangerUserStore           rangerUserStore;
 
     private RangerUserStoreCache() {
         RangerAdminConfig config = RangerAdminConfig.getInstance();
 
         this.waitTimeInSeconds = config.getInt("ranger.admin.userstore.download.cache.max.waittime.for.update", MAX_WAIT_TIME_FOR_UPDATE);
         this.dedupStrings      = config.getBoolean("ranger.admin.userstore.dedup.strings", Boolean.TRUE);
+        this.maxDeltaVersions  = config.getInt("ranger.admin.userstore.delta.max.versions", DEFAULT_MAX_DELTA_VERSIONS);
         this.rangerUserStore   = new RangerUserStore();
     }
 
@@ -75,7 +83,15 @@ public RangerUserStore getRangerUserStore() {
     }
 
     public RangerUserStore getLatestRangerUserStoreOrCached(XUserMgr xUserMgr) {
-        LOG.debug("==> RangerUserStoreCache.getLatestRangerUserStoreOrCached()");
+        return getLatestRangerUserStoreOrCached(xUserMgr, null, false);
+    }
+
+    /*
+    Returns a delta from lastKnownUserStoreVersion to the latest version, when supportsDeltas is true and the changes since
+    lastKnownUserStoreVersion are known; otherwise returns the complete userstore.
+     */
+    public RangerUserStore getLatestRangerUserStoreOrCached(XUserMgr xUserMgr, Long lastKnownUserStoreVersion, boolean supportsDeltas) {
+        LOG.debug("==> RangerUserStoreCache.getLatestRangerUserStoreOrCached(lastKnownUserStoreVersion={}, supportsDeltas={})", lastKnownUserStoreVersion, supportsDeltas);
 
         RangerUserStore ret;
         boolean         lockResult = false;
@@ -108,6 +124,8 @@ public RangerUserStore getLatestRangerUserStoreOrCached(XUserMgr xUserMgr) {
                         rangerUserStore.dedupStrings();
                     }
 
+                    updateDeltas(this.rangerUserStore, rangerUserStore);
+
                     this.rangerUserStore = rangerUserStore;
 
                     LOG.info("RangerUserStoreCache refreshed from version {} to {}: users={}, groups={}, userGroupMappings={}", cachedUserStoreVersion, dbUserStoreVersion, rangerUsersInDB.size(), rangerGroupsInDB.size(), userGroups.size());
@@ -121,12 +139,86 @@ public RangerUserStore getLatestRangerUserStoreOrCached(XUserMgr xUserMgr) {
             ret = rangerUserStore;
 
             if (lockResult) {
+                if (supportsDeltas && lastKnownUserStoreVersion != null) {
+                    UserStoreDelta delta = deltas.get(lastKnownUserStoreVersion);
+
+                    if (delta != null) {
+                        ret = delta.getDelta(rangerUserStore);
+
+                        LOG.debug("RangerUserStoreCache: returning delta from version {} to {}: updatedUsers={}, updatedGroups={}", lastKnownUserStoreVersion, ret.getUserStoreVersion(), delta.updatedUsers.size(), delta.updatedGroups.size());
+                    }
+                }
+
                 lock.unlock();
             }
         }
 
-        LOG.debug("<== RangerUserStoreCache.getLatestRangerUserStoreOrCached(): ret={}", ret);
+        LOG.debug("<== RangerUserStoreCache.getLatestRangerUserStoreOrCached(lastKnownUserStoreVersion={}, supportsDeltas={}): ret={}", lastKnownUserStoreVersion, supportsDeltas, ret);
 
         return ret;
     }
+
+    private void updateDeltas(RangerUserStore oldUserStore, RangerUserStore newUserStore) {
+        Long oldVersion = oldUserStore.getUserStoreVersion();
+
+        if (maxDeltaVersions <= 0 || oldVersion == null || oldVersion == -1L) {
+            deltas.clear();
+
+            return;
+        }
+
+        Set<String> updatedUsers  = new HashSet<>();
+        Set<String> updatedGroups = new HashSet<>();
+
+        RangerUserStoreDeltaUtil.addUpdatedUsers(oldUserStore, newUserStore, updatedUsers);
+        RangerUserStoreDeltaUtil.addUpdatedGroups(oldUserStore, newUserStore, updatedGroups);
+
+        for (UserStoreDelta delta : deltas.values()) {
+            delta.add(updatedUsers, updatedGroups);
+        }
+
+        deltas.put(oldVersion, new UserStoreDelta(updatedUsers, updatedGroups));
+
+        int userCount  = newUserStore.getUserGroupMapping() != null ? newUserStore.getUserGroupMapping().size() : 0;
+        int groupCount = newUserStore.getGroupAttrMapping() != null ? newUserStore.getGroupAttrMapping().size() : 0;
+
+        for (Iterator<UserStoreDelta> iter = deltas.values().iterator(); iter.hasNext(); ) {
+            UserStoreDelta delta = iter.next();
+
+            // drop the oldest deltas beyond the configured count, and deltas that aren't much smaller than the complete userstore
+            if (deltas.size() > maxDeltaVersions || delta.size() > (userCount + groupCount) / 2) {
+                iter.remove();
+            }
+        }
+    }
+
+    private static class UserStoreDelta {
+        final Set<String> updatedUsers;
+        final Set<String> updatedGroups;
+        RangerUserStore   delta;
+
+        UserStoreDelta(Set<String> updatedUsers, Set<String> updatedGroups) {
+            this.updatedUsers  = new HashSet<>(updatedUsers);
+            this.updatedGroups = new HashSet<>(updatedGroups);
+        }
+
+        void add(Set<String> users, Set<String> groups) {
+            updatedUsers.addAll(users);
+            updatedGroups.addAll(groups);
+
+            delta = null;
+        }
+
+        int size() {
+            return updatedUsers.size() + updatedGroups.size();
+        }
+
+        RangerUserStore getDelta(RangerUserStore userStore) {
+            if (delta == null || !Objects.equals(delta.getUserStoreVersion(), userStore.getUserStoreVersion())) {
+                delta = RangerUserStoreDeltaUtil.createDelta(userStore, updatedUsers, updatedGroups);
+            }
+
+            return delta;
+        }
+    }
 }
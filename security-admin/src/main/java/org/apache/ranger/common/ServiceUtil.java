@@ -22,6 +22,8 @@
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.authorization.utils.StringUtil;
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
+import org.apache.ranger.biz.RangerServiceVersionRegistry.ServiceVersions;
 import org.apache.ranger.biz.ServiceDBStore;
 import org.apache.ranger.db.RangerDaoManager;
 import org.apache.ranger.entity.XXGroup;
@@ -92,6 +94,9 @@ public class ServiceUtil {
     @Autowired
     ServiceDBStore svcStore;
 
+    @Autowired
+    RangerServiceVersionRegistry serviceVersionRegistry;
+
     public static String toAccessType(int permType) {
         String ret = null;
 
@@ -950,6 +955,19 @@ public boolean isValidateHttpsAuthentication(String serviceName, HttpServletRequ
             throw restErrorUtil.createRESTException("Unauthorized access.", MessageEnums.OPER_NOT_ALLOWED_FOR_ENTITY);
         }
 
+        // service configs are needed only to validate the client certificate
+        ServiceVersions registeredService = httpEnabled ? getRegisteredService(serviceName, false) : null;
+
+        if (registeredService != null) {
+            if (!registeredService.isServiceEnabled()) {
+                LOG.error("Requested Service is disabled. serviceName={}", serviceName);
+
+                throw restErrorUtil.createRESTException("Unauthorized access.", MessageEnums.OPER_NOT_ALLOWED_FOR_STATE);
+            }
+
+            return true;
+        }
+
         RangerService service;
 
         try {
@@ -1087,10 +1105,23 @@ public boolean isValidService(String serviceName, HttpServletRequest request) {
             throw restErrorUtil.createRESTException("Unauthorized access.", MessageEnums.OPER_NOT_ALLOWED_FOR_ENTITY);
         }
 
+        boolean         isSecureDownload  = null != request.getAttribute("downloadPolicy") && StringUtils.equalsIgnoreCase(request.getAttribute("downloadPolicy").toString(), "secure");
+        ServiceVersions registeredService = getRegisteredService(serviceName, isSecureDownload);
+
+        if (registeredService != null) {
+            if (!registeredService.isServiceEnabled()) {
+                LOG.error("Requested Service is disabled. serviceName={}", serviceName);
+
+                throw restErrorUtil.createRESTException("Unauthorized access.", MessageEnums.OPER_NOT_ALLOWED_FOR_STATE);
+            }
+
+            return isValid;
+        }
+
         RangerService service;
 
         try {
-            if (null != request.getAttribute("downloadPolicy") && StringUtils.equalsIgnoreCase(request.getAttribute("downloadPolicy").toString(), "secure")) {
+            if (isSecureDownload) {
                 service = svcStore.getServiceByNameForDP(serviceName);
             } else {
                 service = svcStore.getServiceByName(serviceName);
@@ -1186,6 +1217,19 @@ protected VXDataObject publicDataObjectTovXDataObject(VXDataObject publicDataObj
         return ret;
     }
 
+    /*
+     * Returns the service as known to the version registry, to validate the service without reading it from the database
+     * on each download by plugins. Returns null when the service is not in the registry, or when the service must be read
+     * by svcStore.getServiceByName() to check the logged-in user's access to the service.
+     */
+    private ServiceVersions getRegisteredService(String serviceName, boolean skipAccessCheck) {
+        if (!skipAccessCheck && ContextUtil.getCurrentUserSession() != null) {
+            return null;
+        }
+
+        return serviceVersionRegistry.getServiceVersions(serviceName);
+    }
+
     private void toRangerResourceList(String resourceString, String resourceType, Boolean isExcludes, Boolean isRecursive, RangerPolicy policy) {
         if (StringUtils.isNotBlank(resourceString)) {
             RangerPolicyResource resource = policy.getResources().get(resourceType);
@@ -32,6 +32,7 @@
 import javax.persistence.NoResultException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +44,8 @@
 public class XXGroupDao extends BaseDao<XXGroup> {
     private static final Logger logger = LoggerFactory.getLogger(XXGroupDao.class);
 
+    private static final int FIND_BY_GROUP_NAMES_BATCH_SIZE = 1000;
+
     public XXGroupDao(RangerDaoManagerBase daoManager) {
         super(daoManager);
     }
@@ -78,6 +81,26 @@ public XXGroup findByGroupName(String groupName) {
         }
     }
 
+    public Map<String, XXGroup> findByGroupNames(Collection<String> groupNames) {
+        Map<String, XXGroup> ret = new HashMap<>();
+
+        if (groupNames == null || groupNames.isEmpty()) {
+            return ret;
+        }
+
+        List<String> names = new ArrayList<>(groupNames);
+
+        for (int fromIndex = 0; fromIndex < names.size(); fromIndex += FIND_BY_GROUP_NAMES_BATCH_SIZE) {
+            List<String> batch = names.subList(fromIndex, Math.min(fromIndex + FIND_BY_GROUP_NAMES_BATCH_SIZE, names.size()));
+
+            for (XXGroup xxGroup : getEntityManager().createNamedQuery("XXGroup.findByGroupNames", tClass).setParameter("names", batch).getResultList()) {
+                ret.put(xxGroup.getName(), xxGroup);
+            }
+        }
+
+        return ret;
+    }
+
     public Map<Long, String> getAllGroupIdNames() {
         Map<Long, String> groups = new HashMap<>();
 
@@ -43,6 +43,12 @@ public XXGroupUserDao(RangerDaoManagerBase daoManager) {
         super(daoManager);
     }
 
+    public void deleteByIds(List<Long> ids) {
+        if (ids != null && !ids.isEmpty()) {
+            batchDeleteByIds("XXGroupUser.deleteByIds", ids, "ids");
+        }
+    }
+
     public void deleteByGroupIdAndUserId(Long groupId, Long userId) {
         getEntityManager().createNamedQuery("XXGroupUser.deleteByGroupIdAndUserId").setParameter("userId", userId).setParameter("parentGroupId", groupId).executeUpdate();
     }
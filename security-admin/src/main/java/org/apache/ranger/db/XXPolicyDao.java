@@ -101,6 +101,27 @@ public List<XXPolicy> findByServiceId(Long serviceId) {
         }
     }
 
+    /*
+     * returns up to maxRows policies of the service with id greater than afterPolicyId, in the order of id; to be used
+     * to fetch policies of a large service in batches
+     */
+    public List<XXPolicy> findByServiceId(Long serviceId, Long afterPolicyId, int maxRows) {
+        if (serviceId == null) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return getEntityManager()
+                    .createNamedQuery("XXPolicy.findByServiceIdAfterPolicyId", tClass)
+                    .setParameter("serviceId", serviceId)
+                    .setParameter("afterPolicyId", afterPolicyId != null ? afterPolicyId : Long.valueOf(0L))
+                    .setMaxResults(maxRows)
+                    .getResultList();
+        } catch (NoResultException e) {
+            return new ArrayList<>();
+        }
+    }
+
     public List<Long> findPolicyIdsByServiceId(Long serviceId) {
         List<Long> ret;
 
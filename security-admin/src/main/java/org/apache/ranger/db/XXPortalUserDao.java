@@ -27,14 +27,20 @@
 
 import javax.persistence.NoResultException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class XXPortalUserDao extends BaseDao<XXPortalUser> {
+    private static final int FIND_BY_LOGIN_IDS_BATCH_SIZE = 1000;
+
     public XXPortalUserDao(RangerDaoManagerBase daoManager) {
         super(daoManager);
     }
@@ -55,6 +61,27 @@ public XXPortalUser findByLoginId(String loginId) {
         return null;
     }
 
+    public Set<String> findLoginIdsByLoginIds(Collection<String> loginIds) {
+        Set<String> ret = new HashSet<>();
+
+        if (loginIds == null || loginIds.isEmpty()) {
+            return ret;
+        }
+
+        List<String> ids = new ArrayList<>(loginIds);
+
+        for (int fromIndex = 0; fromIndex < ids.size(); fromIndex += FIND_BY_LOGIN_IDS_BATCH_SIZE) {
+            List<String> batch = ids.subList(fromIndex, Math.min(fromIndex + FIND_BY_LOGIN_IDS_BATCH_SIZE, ids.size()));
+
+            ret.addAll(getEntityManager()
+                    .createNamedQuery("XXPortalUser.findLoginIdsByLoginIds", String.class)
+                    .setParameter("loginIds", batch)
+                    .getResultList());
+        }
+
+        return ret;
+    }
+
     public XXPortalUser findByEmailAddress(String emailAddress) {
         if (daoManager.getStringUtil().isEmpty(emailAddress)) {
             return null;
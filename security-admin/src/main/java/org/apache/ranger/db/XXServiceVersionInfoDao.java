@@ -77,6 +77,15 @@ public List<Object[]> getAllWithServiceNames() {
                 .getResultList();
     }
 
+    /**
+     * @return rows of {XXServiceVersionInfo, service name, service type, service isEnabled, service-def impl class name}
+     */
+    public List<Object[]> getAllWithServiceInfo() {
+        return getEntityManager()
+                .createNamedQuery("XXServiceVersionInfo.getAllWithServiceInfo", Object[].class)
+                .getResultList();
+    }
+
     public void updateServiceVersionInfoForTagResourceMapCreate(Long resourceId, Long tagId) {
         if (resourceId == null || tagId == null) {
             LOG.warn("Unexpected null value for resourceId and/or tagId");
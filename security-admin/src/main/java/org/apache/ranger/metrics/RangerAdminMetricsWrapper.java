@@ -21,6 +21,7 @@
 
 import org.apache.ranger.metrics.source.RangerAdminMetricsSourceContextEnricher;
 import org.apache.ranger.metrics.source.RangerAdminMetricsSourceDenyConditions;
+import org.apache.ranger.metrics.source.RangerAdminMetricsSourcePolicyAdminCache;
 import org.apache.ranger.metrics.source.RangerAdminMetricsSourcePolicyMasking;
 import org.apache.ranger.metrics.source.RangerAdminMetricsSourcePolicyResourceAccess;
 import org.apache.ranger.metrics.source.RangerAdminMetricsSourcePolicyRowFiltering;
@@ -68,6 +69,9 @@ public class RangerAdminMetricsWrapper {
     @Autowired
     private RangerAdminMetricsSourceDenyConditions denyConditionSource;
 
+    @Autowired
+    private RangerAdminMetricsSourcePolicyAdminCache policyAdminCacheSource;
+
     @PostConstruct
     public void init() {
         LOG.info("===>> RangerAdminMetricsWrapper.init()");
@@ -93,6 +97,9 @@ public void init() {
             //Source: DenyConditionService
             sourceWrappers.add(new RangerMetricsSourceWrapper("RangerAdminMetricsSourceDenyConditionService", "Deny Condition in Ranger Admin", context, denyConditionSource));
 
+            //Source: PolicyAdminCache
+            sourceWrappers.add(new RangerMetricsSourceWrapper("RangerAdminMetricsSourcePolicyAdminCache", "Policy-admin cache rebuild and delta-apply metrics in Ranger Admin", context, policyAdminCacheSource));
+
             rangerMetricsSystemWrapper.init(context, sourceWrappers, Collections.emptyList());
         } catch (Exception e) {
             LOG.error("RangerAdminMetricsWrapper: Exception occured while initializing Metric Starter:", e);
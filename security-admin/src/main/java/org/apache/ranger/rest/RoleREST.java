@@ -28,6 +28,7 @@
 import org.apache.ranger.authorization.utils.StringUtil;
 import org.apache.ranger.biz.AssetMgr;
 import org.apache.ranger.biz.RangerBizUtil;
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
 import org.apache.ranger.biz.RoleDBStore;
 import org.apache.ranger.biz.ServiceDBStore;
 import org.apache.ranger.biz.ServiceDBStore.JSON_FILE_NAME_TYPE;
@@ -122,6 +123,9 @@ public class RoleREST {
     @Autowired
     RoleDBStore roleStore;
 
+    @Autowired
+    RangerServiceVersionRegistry serviceVersionRegistry;
+
     @Autowired
     RangerRoleService roleService;
 
@@ -985,7 +989,7 @@ public RangerRoles getRangerRolesIfUpdated(@PathParam("serviceName") String serv
 
         if (isValid) {
             try {
-                RangerRoles roles = roleStore.getRoles(serviceName, lastKnownRoleVersion);
+                RangerRoles roles = serviceVersionRegistry.isRoleVersionCurrent(serviceName, lastKnownRoleVersion) ? null : roleStore.getRoles(serviceName, lastKnownRoleVersion);
 
                 if (roles == null) {
                     downloadedVersion = lastKnownRoleVersion;
@@ -1073,7 +1077,7 @@ public RangerRoles getSecureRangerRolesIfUpdated(@PathParam("serviceName") Strin
                 }
 
                 if (isAllowed) {
-                    RangerRoles roles = roleStore.getRoles(serviceName, lastKnownRoleVersion);
+                    RangerRoles roles = serviceVersionRegistry.isRoleVersionCurrent(serviceName, lastKnownRoleVersion) ? null : roleStore.getRoles(serviceName, lastKnownRoleVersion);
                     if (roles == null) {
                         downloadedVersion = lastKnownRoleVersion;
                         httpCode          = HttpServletResponse.SC_NOT_MODIFIED;
@@ -24,7 +24,6 @@
 import com.sun.jersey.multipart.FormDataParam;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.RandomStringUtils;
 import org.apache.commons.lang.StringUtils;
@@ -34,8 +33,11 @@
 import org.apache.ranger.biz.AssetMgr;
 import org.apache.ranger.biz.PolicyRefUpdater;
 import org.apache.ranger.biz.RangerBizUtil;
+import org.apache.ranger.biz.RangerPluginChangeNotifier;
 import org.apache.ranger.biz.RangerPolicyAdmin;
 import org.apache.ranger.biz.RangerPolicyAdminCacheForEngineOptions;
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
+import org.apache.ranger.biz.RangerServiceVersionRegistry.ServiceVersions;
 import org.apache.ranger.biz.RoleDBStore;
 import org.apache.ranger.biz.SecurityZoneDBStore;
 import org.apache.ranger.biz.ServiceDBStore;
@@ -51,6 +53,7 @@
 import org.apache.ranger.common.RESTErrorUtil;
 import org.apache.ranger.common.RangerConstants;
 import org.apache.ranger.common.RangerSearchUtil;
+import org.apache.ranger.common.RangerServicePoliciesCache;
 import org.apache.ranger.common.RangerValidatorFactory;
 import org.apache.ranger.common.ServiceUtil;
 import org.apache.ranger.common.SortField.SORT_ORDER;
@@ -75,6 +78,7 @@
 import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
 import org.apache.ranger.plugin.model.RangerPolicyDelta;
 import org.apache.ranger.plugin.model.RangerPolicyResourceSignature;
+import org.apache.ranger.plugin.model.RangerSecurityZone;
 import org.apache.ranger.plugin.model.RangerService;
 import org.apache.ranger.plugin.model.RangerServiceDef;
 import org.apache.ranger.plugin.model.RangerServiceHeaderInfo;
@@ -93,7 +97,10 @@
 import org.apache.ranger.plugin.store.ServiceStore;
 import org.apache.ranger.plugin.util.GrantRevokeRequest;
 import org.apache.ranger.plugin.util.JsonUtilsV2;
+import org.apache.ranger.plugin.util.RangerBulkPolicyRequest;
+import org.apache.ranger.plugin.util.RangerBulkPolicyResult;
 import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.apache.ranger.plugin.util.RangerChangeWatcher;
 import org.apache.ranger.plugin.util.RangerPerfTracer;
 import org.apache.ranger.plugin.util.RangerPurgeResult;
 import org.apache.ranger.plugin.util.SearchFilter;
@@ -143,16 +150,22 @@
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
@@ -173,6 +186,8 @@ public class ServiceREST {
     private static final Logger LOG      = LoggerFactory.getLogger(ServiceREST.class);
     private static final Logger PERF_LOG = RangerPerfTracer.getPerfLogger("rest.ServiceREST");
 
+    private static final List<String> PLUGIN_CHANGE_TYPES = Arrays.asList(RangerChangeWatcher.CHANGE_TYPE_POLICIES, RangerChangeWatcher.CHANGE_TYPE_TAGS, RangerChangeWatcher.CHANGE_TYPE_ROLES, RangerChangeWatcher.CHANGE_TYPE_USERSTORE);
+
     public static final String PARAM_SERVICE_NAME                   = "serviceName";
     public static final String PARAM_SERVICE_TYPE                   = "serviceType";
     public static final String PARAM_POLICY_NAME                    = "policyName";
@@ -198,6 +213,7 @@ public class ServiceREST {
     private final RangerAdminConfig config                              = RangerAdminConfig.getInstance();
     private final int               maxPolicyNameLength                 = config.getInt("ranger.policyname.maxlength", 255);
     private final boolean           isPolicyNameLengthValidationEnabled = config.getBoolean("ranger.policyname.maxlength.validation.enabled", true);
+    private final int               maxBulkPolicyRequestSize            = config.getInt("ranger.admin.policy.bulk.request.max.size", 10000);
 
     @Autowired
     RESTErrorUtil restErrorUtil;
@@ -259,6 +275,12 @@ public class ServiceREST {
     @Autowired
     TagDBStore tagStore;
 
+    @Autowired
+    RangerPluginChangeNotifier pluginChangeNotifier;
+
+    @Autowired
+    RangerServiceVersionRegistry serviceVersionRegistry;
+
     @Autowired
     RangerTransactionSynchronizationAdapter rangerTransactionSynchronizationAdapter;
 
@@ -1762,6 +1784,204 @@ public RangerPolicy updatePolicy(RangerPolicy policy, @PathParam("id") Long id)
         return ret;
     }
 
+    /*
+     * long-poll by plugins: returns versions of policies/tags/roles/userstore of the service as soon as any of the given
+     * versions changes, or after timeoutMs. Runs outside a transaction to avoid holding a DB connection while waiting.
+     */
+    @GET
+    @Path("/download/changes/{serviceName}")
+    @Produces("application/json")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Long> waitForChanges(@PathParam("serviceName") String serviceName, @DefaultValue("60000") @QueryParam("timeoutMs") Long timeoutMs, @QueryParam("pluginId") String pluginId, @Context HttpServletRequest request) {
+        LOG.debug("==> ServiceREST.waitForChanges({}, {}, {})", serviceName, timeoutMs, pluginId);
+
+        int    httpCode = HttpServletResponse.SC_OK;
+        String logMsg   = null;
+
+        try {
+            bizUtil.failUnauthenticatedDownloadIfNotAllowed();
+
+            if (!serviceUtil.isValidateHttpsAuthentication(serviceName, request)) {
+                httpCode = HttpServletResponse.SC_BAD_REQUEST;
+                logMsg   = "Invalid service: " + serviceName;
+            }
+        } catch (WebApplicationException webException) {
+            throw webException;
+        } catch (Exception e) {
+            httpCode = HttpServletResponse.SC_BAD_REQUEST;
+            logMsg   = e.getMessage();
+        }
+
+        if (httpCode != HttpServletResponse.SC_OK) {
+            throw restErrorUtil.createRESTException(httpCode, logMsg, true);
+        }
+
+        Map<String, Long> ret = waitForChanges(serviceName, timeoutMs, request);
+
+        LOG.debug("<== ServiceREST.waitForChanges({}, {}, {}): ret={}", serviceName, timeoutMs, pluginId, ret);
+
+        return ret;
+    }
+
+    @GET
+    @Path("/secure/download/changes/{serviceName}")
+    @Produces("application/json")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Long> waitForChangesSecure(@PathParam("serviceName") String serviceName, @DefaultValue("60000") @QueryParam("timeoutMs") Long timeoutMs, @QueryParam("pluginId") String pluginId, @Context HttpServletRequest request) {
+        LOG.debug("==> ServiceREST.waitForChangesSecure({}, {}, {})", serviceName, timeoutMs, pluginId);
+
+        int    httpCode = HttpServletResponse.SC_OK;
+        String logMsg   = null;
+
+        try {
+            if (!serviceUtil.isValidService(serviceName, request)) {
+                httpCode = HttpServletResponse.SC_BAD_REQUEST;
+                logMsg   = "Invalid service: " + serviceName;
+            } else if (!isSecureDownloadAllowed(serviceName, bizUtil.isAdmin(), bizUtil.isKeyAdmin())) {
+                httpCode = HttpServletResponse.SC_FORBIDDEN;
+                logMsg   = "User doesn't have permission to download policy";
+            }
+        } catch (WebApplicationException webException) {
+            throw webException;
+        } catch (Exception e) {
+            httpCode = HttpServletResponse.SC_BAD_REQUEST;
+            logMsg   = e.getMessage();
+        }
+
+        if (httpCode != HttpServletResponse.SC_OK) {
+            throw restErrorUtil.createRESTException(httpCode, logMsg, true);
+        }
+
+        Map<String, Long> ret = waitForChanges(serviceName, timeoutMs, request);
+
+        LOG.debug("<== ServiceREST.waitForChangesSecure({}, {}, {}): ret={}", serviceName, timeoutMs, pluginId, ret);
+
+        return ret;
+    }
+
+    /*
+     * creates, updates and deletes policies in a single transaction. All items are validated before any change is saved;
+     * if validation of any item fails, no change is saved and the result has the error for each failed item.
+     */
+    @POST
+    @Path("/policies/bulk")
+    @Consumes("application/json")
+    @Produces("application/json")
+    public RangerBulkPolicyResult bulkUpdatePolicies(RangerBulkPolicyRequest bulkRequest) {
+        LOG.debug("==> ServiceREST.bulkUpdatePolicies({})", bulkRequest);
+
+        if (bulkRequest == null || bulkRequest.getSize() == 0) {
+            throw restErrorUtil.createRESTException(HttpServletResponse.SC_BAD_REQUEST, "no policies to create, update or delete", true);
+        } else if (bulkRequest.getSize() > maxBulkPolicyRequestSize) {
+            throw restErrorUtil.createRESTException(HttpServletResponse.SC_BAD_REQUEST, "too many policies in the request: " + bulkRequest.getSize() + ". Maximum allowed is " + maxBulkPolicyRequestSize, true);
+        }
+
+        RangerBulkPolicyResult ret;
+        RangerPerfTracer       perf = null;
+
+        try {
+            if (RangerPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = RangerPerfTracer.getPerfTracer(PERF_LOG, "ServiceREST.bulkUpdatePolicies(create=" + bulkRequest.getPoliciesToCreate().size() + ",update=" + bulkRequest.getPoliciesToUpdate().size() + ",delete=" + bulkRequest.getPolicyIdsToDelete().size() + ")");
+            }
+
+            bizUtil.blockAuditorRoleUser();
+
+            RangerBulkPolicyResult validationResult = new RangerBulkPolicyResult();
+            RangerPolicyValidator  validator        = validatorFactory.getPolicyValidator(svcStore);
+            List<RangerPolicy>     policiesToDelete = new ArrayList<>();
+            Set<String>            policyNames      = new HashSet<>();
+            Set<String>            policySignatures = new HashSet<>();
+            Set<Long>              policyIds        = new HashSet<>();
+            boolean                isValid          = true;
+
+            for (int i = 0; i < bulkRequest.getPoliciesToCreate().size(); i++) {
+                RangerPolicy policy = bulkRequest.getPoliciesToCreate().get(i);
+
+                try {
+                    ensurePolicyName(policy);
+                    ensureUniquePolicyName(policy, policyNames);
+
+                    validator.validate(policy, Action.CREATE, bizUtil.isAdmin() || isServiceAdmin(policy.getService()) || isZoneAdmin(policy.getZoneName()));
+
+                    ensureUniquePolicyResources(policy, policySignatures);
+                    ensureAdminAccess(policy);
+
+                    validationResult.addItemResult(new RangerBulkPolicyResult.ItemResult(RangerBulkPolicyResult.Operation.CREATE, i, null, policy.getName(), RangerBulkPolicyResult.Status.NOT_APPLIED, null));
+                } catch (Throwable excp) {
+                    isValid = false;
+
+                    validationResult.addItemResult(new RangerBulkPolicyResult.ItemResult(RangerBulkPolicyResult.Operation.CREATE, i, null, policy != null ? policy.getName() : null, RangerBulkPolicyResult.Status.FAILED, getErrorMessage(excp)));
+                }
+            }
+
+            for (int i = 0; i < bulkRequest.getPoliciesToUpdate().size(); i++) {
+                RangerPolicy policy = bulkRequest.getPoliciesToUpdate().get(i);
+
+                try {
+                    if (isPolicyNameLengthValidationEnabled && policy.getName() != null && policy.getName().length() > maxPolicyNameLength) {
+                        throw new Exception("Policy name should not be longer than " + maxPolicyNameLength + " characters");
+                    }
+
+                    ensureUniquePolicyId(policy.getId(), policyIds);
+                    ensureUniquePolicyName(policy, policyNames);
+
+                    validator.validate(policy, Action.UPDATE, bizUtil.isAdmin() || isServiceAdmin(policy.getService()) || isZoneAdmin(policy.getZoneName()));
+
+                    ensureUniquePolicyResources(policy, policySignatures);
+                    ensureAdminAccess(policy);
+
+                    validationResult.addItemResult(new RangerBulkPolicyResult.ItemResult(RangerBulkPolicyResult.Operation.UPDATE, i, policy.getId(), policy.getName(), RangerBulkPolicyResult.Status.NOT_APPLIED, null));
+                } catch (Throwable excp) {
+                    isValid = false;
+
+                    validationResult.addItemResult(new RangerBulkPolicyResult.ItemResult(RangerBulkPolicyResult.Operation.UPDATE, i, policy != null ? policy.getId() : null, policy != null ? policy.getName() : null, RangerBulkPolicyResult.Status.FAILED, getErrorMessage(excp)));
+                }
+            }
+
+            for (int i = 0; i < bulkRequest.getPolicyIdsToDelete().size(); i++) {
+                Long policyId = bulkRequest.getPolicyIdsToDelete().get(i);
+
+                try {
+                    ensureUniquePolicyId(policyId, policyIds);
+
+                    validator.validate(policyId, Action.DELETE);
+
+                    RangerPolicy policy = svcStore.getPolicy(policyId);
+
+                    ensureAdminAccess(policy);
+
+                    policiesToDelete.add(policy);
+
+                    validationResult.addItemResult(new RangerBulkPolicyResult.ItemResult(RangerBulkPolicyResult.Operation.DELETE, i, policyId, policy.getName(), RangerBulkPolicyResult.Status.NOT_APPLIED, null));
+                } catch (Throwable excp) {
+                    isValid = false;
+
+                    validationResult.addItemResult(new RangerBulkPolicyResult.ItemResult(RangerBulkPolicyResult.Operation.DELETE, i, policyId, null, RangerBulkPolicyResult.Status.FAILED, getErrorMessage(excp)));
+                }
+            }
+
+            if (isValid) {
+                ret = svcStore.bulkUpdatePolicies(bulkRequest.getPoliciesToCreate(), bulkRequest.getPoliciesToUpdate(), policiesToDelete);
+            } else {
+                LOG.warn("bulkUpdatePolicies(): validation failed. No changes saved. {}", validationResult);
+
+                ret = validationResult;
+            }
+        } catch (WebApplicationException excp) {
+            throw excp;
+        } catch (Throwable excp) {
+            LOG.error("bulkUpdatePolicies({}) failed", bulkRequest, excp);
+
+            throw restErrorUtil.createRESTException(excp.getMessage());
+        } finally {
+            RangerPerfTracer.log(perf);
+        }
+
+        LOG.debug("<== ServiceREST.bulkUpdatePolicies({}): {}", bulkRequest, ret);
+
+        return ret;
+    }
+
     @DELETE
     @Path("/policies/{id}")
     public void deletePolicy(@PathParam("id") Long id) {
@@ -1883,20 +2103,26 @@ public RangerPolicyList getPolicies(@Context HttpServletRequest request) {
                 perf = RangerPerfTracer.getPerfTracer(PERF_LOG, "ServiceREST.getPolicies()");
             }
 
-            // get all policies from the store; pick the page to return after applying filter
-            final int savedStartIndex = filter.getStartIndex();
-            final int savedMaxRows    = filter.getMaxRows();
+            List<Long> serviceIds = ServiceDBStore.isPolicySearchInDatabase(filter) ? getServiceIdsWithAllPoliciesReadable() : null;
 
-            filter.setStartIndex(0);
-            filter.setMaxRows(Integer.MAX_VALUE);
+            if (serviceIds != null) { // filter, sort and page in the database; only policies in the page are loaded
+                ret = svcStore.searchPoliciesInServices(filter, serviceIds);
+            } else {
+                // get all policies from the store; pick the page to return after applying filter
+                final int savedStartIndex = filter.getStartIndex();
+                final int savedMaxRows    = filter.getMaxRows();
+
+                filter.setStartIndex(0);
+                filter.setMaxRows(Integer.MAX_VALUE);
 
-            List<RangerPolicy> policies = svcStore.getPolicies(filter);
+                List<RangerPolicy> policies = svcStore.getPolicies(filter);
 
-            filter.setStartIndex(savedStartIndex);
-            filter.setMaxRows(savedMaxRows);
+                filter.setStartIndex(savedStartIndex);
+                filter.setMaxRows(savedMaxRows);
 
-            policies = applyAdminAccessFilter(policies);
-            ret      = toRangerPolicyList(policies, filter);
+                policies = applyAdminAccessFilter(policies);
+                ret      = toRangerPolicyList(policies, filter);
+            }
         } catch (WebApplicationException excp) {
             throw excp;
         } catch (Throwable excp) {
@@ -2001,24 +2227,36 @@ public void getPoliciesInExcel(@Context HttpServletRequest request, @Context Htt
                 perf = RangerPerfTracer.getPerfTracer(PERF_LOG, "ServiceREST.getPoliciesInExcel()");
             }
 
-            List<RangerPolicy> policyLists = new ArrayList<>();
+            Iterator<RangerPolicy> policyIterator = getPolicyIteratorForExport(filter, request);
 
-            policyLists = getAllFilteredPolicyList(filter, request, policyLists);
+            if (policyIterator != null) {
+                if (policyIterator.hasNext()) {
+                    svcStore.getPoliciesInExcel(policyIterator, response);
+                } else {
+                    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
 
-            if (CollectionUtils.isNotEmpty(policyLists)) {
-                Map<String, String> mapServiceTypeAndImplClass = new HashMap<>();
+                    LOG.error("No policies found to download!");
+                }
+            } else {
+                List<RangerPolicy> policyLists = new ArrayList<>();
 
-                for (RangerPolicy rangerPolicy : policyLists) {
-                    if (rangerPolicy != null) {
-                        ensureAdminAndAuditAccess(rangerPolicy, mapServiceTypeAndImplClass);
+                policyLists = getAllFilteredPolicyList(filter, request, policyLists);
+
+                if (CollectionUtils.isNotEmpty(policyLists)) {
+                    Map<String, String> mapServiceTypeAndImplClass = new HashMap<>();
+
+                    for (RangerPolicy rangerPolicy : policyLists) {
+                        if (rangerPolicy != null) {
+                            ensureAdminAndAuditAccess(rangerPolicy, mapServiceTypeAndImplClass);
+                        }
                     }
-                }
 
-                svcStore.getPoliciesInExcel(policyLists, response);
-            } else {
-                response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+                    svcStore.getPoliciesInExcel(policyLists, response);
+                } else {
+                    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
 
-                LOG.error("No policies found to download!");
+                    LOG.error("No policies found to download!");
+                }
             }
 
             RangerExportPolicyList rangerExportPolicyList = new RangerExportPolicyList();
@@ -2054,24 +2292,36 @@ public void getPoliciesInCsv(@Context HttpServletRequest request, @Context HttpS
                 perf = RangerPerfTracer.getPerfTracer(PERF_LOG, "ServiceREST.getPoliciesInCsv()");
             }
 
-            List<RangerPolicy> policyLists = new ArrayList<>();
+            Iterator<RangerPolicy> policyIterator = getPolicyIteratorForExport(filter, request);
 
-            policyLists = getAllFilteredPolicyList(filter, request, policyLists);
+            if (policyIterator != null) {
+                if (policyIterator.hasNext()) {
+                    svcStore.getPoliciesInCSV(policyIterator, response);
+                } else {
+                    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
 
-            if (CollectionUtils.isNotEmpty(policyLists)) {
-                Map<String, String> mapServiceTypeAndImplClass = new HashMap<>();
+                    LOG.error("No policies found to download!");
+                }
+            } else {
+                List<RangerPolicy> policyLists = new ArrayList<>();
 
-                for (RangerPolicy rangerPolicy : policyLists) {
-                    if (rangerPolicy != null) {
-                        ensureAdminAndAuditAccess(rangerPolicy, mapServiceTypeAndImplClass);
+                policyLists = getAllFilteredPolicyList(filter, request, policyLists);
+
+                if (CollectionUtils.isNotEmpty(policyLists)) {
+                    Map<String, String> mapServiceTypeAndImplClass = new HashMap<>();
+
+                    for (RangerPolicy rangerPolicy : policyLists) {
+                        if (rangerPolicy != null) {
+                            ensureAdminAndAuditAccess(rangerPolicy, mapServiceTypeAndImplClass);
+                        }
                     }
-                }
 
-                svcStore.getPoliciesInCSV(policyLists, response);
-            } else {
-                response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+                    svcStore.getPoliciesInCSV(policyLists, response);
+                } else {
+                    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
 
-                LOG.error("No policies found to download!");
+                    LOG.error("No policies found to download!");
+                }
             }
 
             RangerExportPolicyList rangerExportPolicyList = new RangerExportPolicyList();
@@ -2112,28 +2362,44 @@ public void getPoliciesInJson(@Context HttpServletRequest request, @Context Http
                 checkPoliciesExists = false;
             }
 
-            List<RangerPolicy> policyLists = new ArrayList<>();
+            Iterator<RangerPolicy> policyIterator = getPolicyIteratorForExport(filter, request);
 
-            policyLists = getAllFilteredPolicyList(filter, request, policyLists);
+            if (policyIterator != null) {
+                if (policyIterator.hasNext()) {
+                    bizUtil.blockAuditorRoleUser();
 
-            if (CollectionUtils.isNotEmpty(policyLists)) {
-                Map<String, String> mapServiceTypeAndImplClass = new HashMap<>();
+                    svcStore.getPoliciesInJson(policyIterator, response);
+                } else {
+                    checkPoliciesExists = true;
 
-                for (RangerPolicy rangerPolicy : policyLists) {
-                    if (rangerPolicy != null) {
-                        ensureAdminAndAuditAccess(rangerPolicy, mapServiceTypeAndImplClass);
-                    }
+                    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+
+                    LOG.error("There is no Policy to Export!!");
                 }
+            } else {
+                List<RangerPolicy> policyLists = new ArrayList<>();
 
-                bizUtil.blockAuditorRoleUser();
+                policyLists = getAllFilteredPolicyList(filter, request, policyLists);
 
-                svcStore.getObjectInJson(policyLists, response, JSON_FILE_NAME_TYPE.POLICY);
-            } else {
-                checkPoliciesExists = true;
+                if (CollectionUtils.isNotEmpty(policyLists)) {
+                    Map<String, String> mapServiceTypeAndImplClass = new HashMap<>();
+
+                    for (RangerPolicy rangerPolicy : policyLists) {
+                        if (rangerPolicy != null) {
+                            ensureAdminAndAuditAccess(rangerPolicy, mapServiceTypeAndImplClass);
+                        }
+                    }
 
-                response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+                    bizUtil.blockAuditorRoleUser();
 
-                LOG.error("There is no Policy to Export!!");
+                    svcStore.getObjectInJson(policyLists, response, JSON_FILE_NAME_TYPE.POLICY);
+                } else {
+                    checkPoliciesExists = true;
+
+                    response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+
+                    LOG.error("There is no Policy to Export!!");
+                }
             }
 
             if (!checkPoliciesExists) {
@@ -2535,12 +2801,16 @@ public ServicePolicies getServicePoliciesIfUpdated(@PathParam("serviceName") Str
                     perf = RangerPerfTracer.getPerfTracer(PERF_LOG, "ServiceREST.getServicePoliciesIfUpdated(serviceName=" + serviceName + ",lastKnownVersion=" + lastKnownVersion + ",lastActivationTime=" + lastActivationTime + ")");
                 }
 
-                ret = svcStore.getServicePoliciesIfUpdated(serviceName, lastKnownVersion, !supportsPolicyDeltas);
+                ret = serviceVersionRegistry.isPolicyVersionCurrent(serviceName, lastKnownVersion) ? null : svcStore.getServicePoliciesIfUpdated(serviceName, lastKnownVersion, !supportsPolicyDeltas);
 
                 if (ret == null) {
                     downloadedVersion = lastKnownVersion;
                     httpCode          = HttpServletResponse.SC_NOT_MODIFIED;
                     logMsg            = "No change since last update";
+                } else if (isDownloadNotModified(ret, request)) {
+                    downloadedVersion = ret.getPolicyVersion();
+                    httpCode          = HttpServletResponse.SC_NOT_MODIFIED;
+                    logMsg            = "No change since last download. Policy version=" + ret.getPolicyVersion();
                 } else {
                     downloadedVersion = ret.getPolicyVersion();
                     logMsg            = "Returning " + (ret.getPolicies() != null ? ret.getPolicies().size() : (ret.getPolicyDeltas() != null ? ret.getPolicyDeltas().size() : 0)) + " policies. Policy version=" + ret.getPolicyVersion();
@@ -2602,47 +2872,19 @@ public ServicePolicies getSecureServicePoliciesIfUpdated(@PathParam("serviceName
                     perf = RangerPerfTracer.getPerfTracer(PERF_LOG, "ServiceREST.getSecureServicePoliciesIfUpdated(serviceName=" + serviceName + ",lastKnownVersion=" + lastKnownVersion + ",lastActivationTime=" + lastActivationTime + ")");
                 }
 
-                XXService     xService      = daoManager.getXXService().findByName(serviceName);
-                XXServiceDef  xServiceDef   = daoManager.getXXServiceDef().getById(xService.getType());
-                RangerService rangerService;
-
-                if (StringUtils.equals(xServiceDef.getImplclassname(), EmbeddedServiceDefsUtil.KMS_IMPL_CLASS_NAME)) {
-                    rangerService = svcStore.getServiceByNameForDP(serviceName);
-
-                    if (isKeyAdmin) {
-                        isAllowed = true;
-                    } else {
-                        if (rangerService != null) {
-                            isAllowed = bizUtil.isUserAllowed(rangerService, Allowed_User_List_For_Download);
-
-                            if (!isAllowed) {
-                                isAllowed = bizUtil.isUserAllowed(rangerService, Allowed_User_List_For_Grant_Revoke);
-                            }
-                        }
-                    }
-                } else {
-                    rangerService = svcStore.getServiceByName(serviceName);
-
-                    if (isAdmin) {
-                        isAllowed = true;
-                    } else {
-                        if (rangerService != null) {
-                            isAllowed = bizUtil.isUserAllowed(rangerService, Allowed_User_List_For_Download);
-
-                            if (!isAllowed) {
-                                isAllowed = bizUtil.isUserAllowed(rangerService, Allowed_User_List_For_Grant_Revoke);
-                            }
-                        }
-                    }
-                }
+                isAllowed = isSecureDownloadAllowed(serviceName, isAdmin, isKeyAdmin);
 
                 if (isAllowed) {
-                    ret = svcStore.getServicePoliciesIfUpdated(serviceName, lastKnownVersion, !supportsPolicyDeltas);
+                    ret = serviceVersionRegistry.isPolicyVersionCurrent(serviceName, lastKnownVersion) ? null : svcStore.getServicePoliciesIfUpdated(serviceName, lastKnownVersion, !supportsPolicyDeltas);
 
                     if (ret == null) {
                         downloadedVersion = lastKnownVersion;
                         httpCode          = HttpServletResponse.SC_NOT_MODIFIED;
                         logMsg            = "No change since last update";
+                    } else if (isDownloadNotModified(ret, request)) {
+                        downloadedVersion = ret.getPolicyVersion();
+                        httpCode          = HttpServletResponse.SC_NOT_MODIFIED;
+                        logMsg            = "No change since last download. Policy version=" + ret.getPolicyVersion();
                     } else {
                         downloadedVersion = ret.getPolicyVersion();
                         logMsg            = "Returning " + (ret.getPolicies() != null ? ret.getPolicies().size() : (ret.getPolicyDeltas() != null ? ret.getPolicyDeltas().size() : 0)) + " policies. Policy version=" + ret.getPolicyVersion();
@@ -3449,11 +3691,19 @@ private List<RangerPolicy> getPoliciesFromProvidedJson(RangerExportPolicyList ra
         return policies;
     }
 
-    private RangerExportPolicyList processPolicyInputJsonForMetaData(InputStream uploadedInputStream, RangerExportPolicyList rangerExportPolicyList) throws Exception {
-        String policiesString = IOUtils.toString(uploadedInputStream).trim();
+    RangerExportPolicyList processPolicyInputJsonForMetaData(InputStream uploadedInputStream, RangerExportPolicyList rangerExportPolicyList) throws Exception {
+        // parse from the stream, instead of first reading the entire file into a String
+        PushbackReader reader = new PushbackReader(new BufferedReader(new InputStreamReader(uploadedInputStream, StandardCharsets.UTF_8)));
+        int            chr    = reader.read();
+
+        while (chr != -1 && Character.isWhitespace(chr)) {
+            chr = reader.read();
+        }
+
+        if (chr != -1) {
+            reader.unread(chr);
 
-        if (StringUtils.isNotEmpty(policiesString)) {
-            rangerExportPolicyList = JsonUtilsV2.jsonToObj(policiesString, RangerExportPolicyList.class);
+            rangerExportPolicyList = JsonUtilsV2.readValue(reader, RangerExportPolicyList.class);
         } else {
             LOG.error("Provided json file is empty!!");
 
@@ -3592,6 +3842,80 @@ private void processZoneMapping(Map<String, String> zoneMappingMap, List<String>
         }
     }
 
+    /*
+     * Policies to export, read from the database in batches as they are written to the response; null if the policies
+     * must instead be collected by getAllFilteredPolicyList(), i.e. when a filter or the user's access needs policies
+     * to be evaluated in memory.
+     */
+    private Iterator<RangerPolicy> getPolicyIteratorForExport(SearchFilter filter, HttpServletRequest request) {
+        if (filter == null || StringUtils.isNotEmpty(request.getParameter("resourceMatch"))) {
+            return null;
+        }
+
+        SearchFilter dbFilter = new SearchFilter(filter);
+
+        if (dbFilter.getParams() != null) { // services to export are found below, from comma separated names/types
+            dbFilter.removeParam(PARAM_SERVICE_NAME);
+            dbFilter.removeParam(PARAM_SERVICE_TYPE);
+        }
+
+        if (!ServiceDBStore.isPolicySearchInDatabase(dbFilter)) {
+            return null;
+        }
+
+        List<Long> readableServiceIds = getServiceIdsWithAllPoliciesReadable();
+
+        if (readableServiceIds == null) {
+            return null;
+        }
+
+        Set<Long>         readableIds         = new HashSet<>(readableServiceIds);
+        List<String>      serviceNames        = toTrimmedList(request.getParameter(PARAM_SERVICE_NAME));
+        List<String>      serviceTypes        = toTrimmedList(request.getParameter(PARAM_SERVICE_TYPE));
+        boolean           isAdminOrAuditor    = bizUtil.isAdmin() || bizUtil.isAuditAdmin();
+        boolean           isKeyAdminOrAuditor = bizUtil.isKeyAdmin() || bizUtil.isAuditKeyAdmin();
+        Long              kmsServiceDefId     = EmbeddedServiceDefsUtil.instance().getKmsServiceDefId();
+        Map<Long, String> serviceDefNames     = new HashMap<>();
+        Set<String>       serviceNamesOfType  = new HashSet<>();
+        List<Long>        serviceIds          = new ArrayList<>();
+
+        for (XXService xService : daoManager.getXXService().getAll()) {
+            boolean isOfType = serviceTypes.isEmpty() || serviceTypes.contains(serviceDefNames.computeIfAbsent(xService.getType(), id -> daoManager.getXXServiceDef().getById(id).getName()));
+
+            if (isOfType) {
+                serviceNamesOfType.add(xService.getName());
+            }
+
+            if (isOfType && (serviceNames.isEmpty() || serviceNames.contains(xService.getName())) && readableIds.contains(xService.getId())) {
+                boolean isKmsService = xService.getType().equals(kmsServiceDefId);
+
+                if ((isAdminOrAuditor && isKmsService) || (isKeyAdminOrAuditor && !isKmsService)) { // ensureAdminAndAuditAccess() fails for policies of this service
+                    return null;
+                }
+
+                serviceIds.add(xService.getId());
+            }
+        }
+
+        if (!serviceTypes.isEmpty() && !serviceNamesOfType.containsAll(serviceNames)) { // same as getAllFilteredPolicyList()
+            serviceIds.clear();
+        }
+
+        return svcStore.getPolicyIterator(dbFilter, serviceIds);
+    }
+
+    private List<String> toTrimmedList(String commaSeparatedValues) {
+        List<String> ret = new ArrayList<>();
+
+        if (StringUtils.isNotEmpty(commaSeparatedValues)) {
+            for (String value : commaSeparatedValues.split(",")) {
+                ret.add(value.trim());
+            }
+        }
+
+        return ret;
+    }
+
     private List<RangerPolicy> getAllFilteredPolicyList(SearchFilter filter, HttpServletRequest request, List<RangerPolicy> policyLists) {
         String       serviceNames                 = null;
         String       serviceType                  = null;
@@ -3870,6 +4194,81 @@ private RangerPolicyList getServicePolicies(String serviceName, SearchFilter fil
         }
     }
 
+    private Map<String, Long> waitForChanges(String serviceName, Long timeoutMs, HttpServletRequest request) {
+        Map<String, Long> lastKnownVersions = new HashMap<>();
+
+        for (String changeType : PLUGIN_CHANGE_TYPES) {
+            String version = request.getParameter(changeType);
+
+            if (StringUtils.isNotBlank(version)) {
+                try {
+                    lastKnownVersions.put(changeType, Long.parseLong(version));
+                } catch (NumberFormatException excp) {
+                    throw restErrorUtil.createRESTException(HttpServletResponse.SC_BAD_REQUEST, "invalid version for " + changeType + ": " + version, true);
+                }
+            }
+        }
+
+        Map<String, Long> ret;
+
+        try {
+            ret = pluginChangeNotifier.waitForChanges(serviceName, lastKnownVersions, timeoutMs);
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            ret = null;
+        }
+
+        if (ret == null) { // plugin will continue with periodic downloads
+            throw restErrorUtil.createRESTException(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "change notification is not available", false);
+        }
+
+        return ret;
+    }
+
+    private boolean isSecureDownloadAllowed(String serviceName, boolean isAdmin, boolean isKeyAdmin) throws Exception {
+        ServiceVersions registeredService = serviceVersionRegistry.getServiceVersions(serviceName);
+        String          implClassName;
+
+        if (registeredService != null) {
+            implClassName = registeredService.getServiceDefImplClassName();
+        } else {
+            XXService    xService    = daoManager.getXXService().findByName(serviceName);
+            XXServiceDef xServiceDef = daoManager.getXXServiceDef().getById(xService.getType());
+
+            implClassName = xServiceDef.getImplclassname();
+        }
+
+        boolean isKmsService = StringUtils.equals(implClassName, EmbeddedServiceDefsUtil.KMS_IMPL_CLASS_NAME);
+        boolean ret          = isKmsService ? isKeyAdmin : isAdmin;
+
+        if (!ret) { // service configs are needed only to find users allowed to download
+            RangerService rangerService = isKmsService ? svcStore.getServiceByNameForDP(serviceName) : svcStore.getServiceByName(serviceName);
+
+            if (rangerService != null) {
+                ret = bizUtil.isUserAllowed(rangerService, Allowed_User_List_For_Download);
+
+                if (!ret) {
+                    ret = bizUtil.isUserAllowed(rangerService, Allowed_User_List_For_Grant_Revoke);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private boolean isDownloadNotModified(ServicePolicies policies, HttpServletRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        if (StringUtils.isNotBlank(ifNoneMatch)) {
+            RangerServicePoliciesCache.SerializedResponse response = RangerServicePoliciesCache.getInstance().getSerializedResponse(policies);
+
+            return response != null && response.isNotModified(ifNoneMatch);
+        }
+
+        return false;
+    }
+
     private void createPolicyDownloadAudit(String serviceName, Long lastKnownVersion, String pluginId, int httpRespCode, String clusterName, String zoneName, HttpServletRequest request) {
         try {
             String ipAddress = request.getHeader("X-FORWARDED-FOR");
@@ -3939,6 +4338,67 @@ private RangerPolicy getExactMatchPolicyForResource(RangerPolicy policy, String
         return ret;
     }
 
+    /*
+     * Ids of services in which the current user can read all policies, same as applyAdminAccessFilter(); services in
+     * which the user can't read any policy are left out. Returns null if policies of a service must be checked one by
+     * one, i.e. when the user is a delegated-admin in a service or is an admin/auditor of a security zone.
+     */
+    List<Long> getServiceIdsWithAllPoliciesReadable() {
+        boolean     isAdmin         = bizUtil.isAdmin();
+        boolean     isKeyAdmin      = bizUtil.isKeyAdmin();
+        String      userName        = bizUtil.getCurrentUserLoginId();
+        boolean     isAuditAdmin    = bizUtil.isAuditAdmin();
+        boolean     isAuditKeyAdmin = bizUtil.isAuditKeyAdmin();
+        Long        kmsServiceDefId = EmbeddedServiceDefsUtil.instance().getKmsServiceDefId();
+        List<Long>  ret             = new ArrayList<>();
+        Set<String> userGroups      = null;
+
+        for (XXService xService : daoManager.getXXService().getAll()) {
+            boolean isKmsService = xService.getType().equals(kmsServiceDefId);
+            boolean isReadable;
+
+            if (isAdmin || isAuditAdmin) {
+                isReadable = !isKmsService || svcStore.isServiceAdminUser(xService.getName(), userName);
+            } else if (isKeyAdmin || isAuditKeyAdmin) {
+                isReadable = isKmsService || svcStore.isServiceAdminUser(xService.getName(), userName);
+            } else {
+                isReadable = svcStore.isServiceAdminUser(xService.getName(), userName);
+            }
+
+            if (isReadable) {
+                ret.add(xService.getId());
+            } else if (!(isAdmin || isKeyAdmin || isAuditAdmin || isAuditKeyAdmin)) {
+                RangerPolicyAdmin policyAdmin = getPolicyAdminForDelegatedAdmin(xService.getName());
+
+                if (policyAdmin != null) {
+                    if (userGroups == null) {
+                        userGroups = daoManager.getXXGroupUser().findGroupNamesByUserName(userName);
+                    }
+
+                    if (policyAdmin.hasDelegatedAdminPolicyItems(userName, userGroups, policyAdmin.getRolesFromUserAndGroups(userName, userGroups))) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        if (!(isAdmin || isKeyAdmin || isAuditAdmin || isAuditKeyAdmin) && isZoneAdminOrAuditorOfAnyZone()) {
+            ret = null;
+        }
+
+        return ret;
+    }
+
+    private boolean isZoneAdminOrAuditorOfAnyZone() {
+        for (XXSecurityZone xZone : daoManager.getXXSecurityZoneDao().getAllZoneIdNames()) {
+            if (!xZone.getId().equals(RangerSecurityZone.RANGER_UNZONED_SECURITY_ZONE_ID) && (serviceMgr.isZoneAdmin(xZone.getName()) || serviceMgr.isZoneAuditor(xZone.getName()))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private List<RangerPolicy> applyAdminAccessFilter(List<RangerPolicy> policies) {
         List<RangerPolicy> ret  = new ArrayList<>();
         RangerPerfTracer   perf = null;
@@ -3957,6 +4417,7 @@ private List<RangerPolicy> applyAdminAccessFilter(List<RangerPolicy> policies) {
 
             Map<String, List<RangerPolicy>> servicePoliciesMap = new HashMap<>();
             Map<String, Object>             evalContext        = new HashMap<>();
+            Map<String, Boolean>            zoneAccessMap      = new HashMap<>(); // zone-name => is user zone-admin/auditor; to avoid reading the zone for each policy
 
             RangerAccessRequestUtil.setCurrentUserInContext(evalContext, userName);
 
@@ -4010,10 +4471,14 @@ private List<RangerPolicy> applyAdminAccessFilter(List<RangerPolicy> policies) {
                             userGroups = daoManager.getXXGroupUser().findGroupNamesByUserName(userName);
                         }
 
-                        Set<String> roles = policyAdmin.getRolesFromUserAndGroups(userName, userGroups);
+                        Set<String> roles               = policyAdmin.getRolesFromUserAndGroups(userName, userGroups);
+                        boolean     isDelegatedAdminAny = policyAdmin.hasDelegatedAdminPolicyItems(userName, userGroups, roles); // if false, no policy of the service is readable as delegated-admin
 
                         for (RangerPolicy policy : listToFilter) {
-                            if ((policyAdmin.isDelegatedAdminAccessAllowedForRead(policy, userName, userGroups, roles, evalContext)) || (!StringUtils.isEmpty(policy.getZoneName()) && (serviceMgr.isZoneAdmin(policy.getZoneName()) || serviceMgr.isZoneAuditor(policy.getZoneName())))) {
+                            String  zoneName             = policy.getZoneName();
+                            boolean isZoneAdminOrAuditor = !StringUtils.isEmpty(zoneName) && zoneAccessMap.computeIfAbsent(zoneName, z -> serviceMgr.isZoneAdmin(z) || serviceMgr.isZoneAuditor(z));
+
+                            if (isZoneAdminOrAuditor || (isDelegatedAdminAny && policyAdmin.isDelegatedAdminAccessAllowedForRead(policy, userName, userGroups, roles, evalContext))) {
                                 ret.add(policy);
                             }
                         }
@@ -4367,6 +4832,24 @@ private RangerPolicy createPolicyUnconditionally(RangerPolicy policy) throws Exc
 
         RangerPolicy ret;
 
+        ensurePolicyName(policy);
+
+        RangerPolicyValidator validator = validatorFactory.getPolicyValidator(svcStore);
+
+        validator.validate(policy, Action.CREATE, bizUtil.isAdmin() || isServiceAdmin(policy.getService()) || isZoneAdmin(policy.getZoneName()));
+
+        ensureAdminAccess(policy);
+
+        bizUtil.blockAuditorRoleUser();
+
+        ret = svcStore.createPolicy(policy);
+
+        LOG.debug("<== ServiceREST.createPolicyUnconditionally({})", ret);
+
+        return ret;
+    }
+
+    private void ensurePolicyName(RangerPolicy policy) {
         if (StringUtils.isBlank(policy.getName())) {
             String guid = policy.getGuid();
 
@@ -4388,20 +4871,51 @@ private RangerPolicy createPolicyUnconditionally(RangerPolicy policy) throws Exc
                 throw restErrorUtil.createRESTException("Policy name should not be longer than " + maxPolicyNameLength + " characters", MessageEnums.INPUT_DATA_OUT_OF_BOUND, null, "policy name", policy.getName());
             }
         }
+    }
 
-        RangerPolicyValidator validator = validatorFactory.getPolicyValidator(svcStore);
+    /*
+     * validator checks policy names only against policies in the database; this catches policies of a bulk request
+     * that would get the same name in a service/zone
+     */
+    private void ensureUniquePolicyName(RangerPolicy policy, Set<String> policyNames) throws Exception {
+        String policyNameKey = policy.getService() + "/" + StringUtils.defaultString(policy.getZoneName()) + "/" + policy.getName();
 
-        validator.validate(policy, Action.CREATE, bizUtil.isAdmin() || isServiceAdmin(policy.getService()) || isZoneAdmin(policy.getZoneName()));
+        if (!policyNames.add(policyNameKey)) {
+            throw new Exception("policy name '" + policy.getName() + "' is used by more than one policy in the request for service '" + policy.getService() + "'");
+        }
+    }
 
-        ensureAdminAccess(policy);
+    /*
+     * validator checks policy resources only against policies in the database; this catches policies of a bulk request
+     * that would have the same resources in a service, which would otherwise fail only on save, without an item result
+     */
+    private void ensureUniquePolicyResources(RangerPolicy policy, Set<String> policySignatures) throws Exception {
+        String signatureKey = policy.getService() + "/" + new RangerPolicyResourceSignature(policy).getSignature();
 
-        bizUtil.blockAuditorRoleUser();
+        if (!policySignatures.add(signatureKey)) {
+            throw new Exception("policy '" + policy.getName() + "' has the same resources as another policy in the request for service '" + policy.getService() + "'");
+        }
+    }
 
-        ret = svcStore.createPolicy(policy);
+    /*
+     * a policy can be updated or deleted only once in a bulk request
+     */
+    private void ensureUniquePolicyId(Long policyId, Set<Long> policyIds) throws Exception {
+        if (policyId != null && !policyIds.add(policyId)) {
+            throw new Exception("policy id " + policyId + " is updated or deleted more than once in the request");
+        }
+    }
 
-        LOG.debug("<== ServiceREST.createPolicyUnconditionally({})", ret);
+    private String getErrorMessage(Throwable excp) {
+        if (excp instanceof WebApplicationException) {
+            Object entity = ((WebApplicationException) excp).getResponse().getEntity();
 
-        return ret;
+            if (entity instanceof VXResponse) {
+                return ((VXResponse) entity).getMsgDesc();
+            }
+        }
+
+        return excp.getMessage();
     }
 
     private RangerPolicy getPolicyMatchByName(RangerPolicy policy, HttpServletRequest request) {
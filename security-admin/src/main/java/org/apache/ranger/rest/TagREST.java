@@ -23,6 +23,7 @@
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.biz.AssetMgr;
 import org.apache.ranger.biz.RangerBizUtil;
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
 import org.apache.ranger.biz.ServiceDBStore;
 import org.apache.ranger.biz.TagDBStore;
 import org.apache.ranger.common.MessageEnums;
@@ -99,6 +100,9 @@ public class TagREST {
     @Autowired
     TagDBStore tagStore;
 
+    @Autowired
+    RangerServiceVersionRegistry serviceVersionRegistry;
+
     @Autowired
     RangerDaoManager daoManager;
 
@@ -1260,7 +1264,7 @@ public ServiceTags getServiceTagsIfUpdated(@PathParam("serviceName") String serv
         try {
             bizUtil.failUnauthenticatedDownloadIfNotAllowed();
 
-            ret = tagStore.getServiceTagsIfUpdated(serviceName, lastKnownVersion, !supportsTagDeltas);
+            ret = serviceVersionRegistry.isTagVersionCurrent(serviceName, lastKnownVersion) ? null : tagStore.getServiceTagsIfUpdated(serviceName, lastKnownVersion, !supportsTagDeltas);
 
             if (ret == null) {
                 downloadedVersion = lastKnownVersion;
@@ -1346,7 +1350,7 @@ public ServiceTags getSecureServiceTagsIfUpdated(@PathParam("serviceName") Strin
                 }
             }
             if (isAllowed) {
-                ret = tagStore.getServiceTagsIfUpdated(serviceName, lastKnownVersion, !supportsTagDeltas);
+                ret = serviceVersionRegistry.isTagVersionCurrent(serviceName, lastKnownVersion) ? null : tagStore.getServiceTagsIfUpdated(serviceName, lastKnownVersion, !supportsTagDeltas);
 
                 if (ret == null) {
                     downloadedVersion = lastKnownVersion;
@@ -23,6 +23,7 @@
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.biz.AssetMgr;
 import org.apache.ranger.biz.RangerBizUtil;
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
 import org.apache.ranger.biz.ServiceDBStore;
 import org.apache.ranger.biz.SessionMgr;
 import org.apache.ranger.biz.XUserMgr;
@@ -189,6 +190,9 @@ public class XUserREST {
     @Autowired
     ServiceDBStore svcStore;
 
+    @Autowired
+    RangerServiceVersionRegistry serviceVersionRegistry;
+
     // Handle XGroup
     @GET
     @Path("/groups/{id}")
@@ -1375,8 +1379,8 @@ public void deleteSingleGroupByGroupId(@Context HttpServletRequest request, @Pat
     @GET
     @Path("/download/{serviceName}")
     @Produces("application/json")
-    public RangerUserStore getRangerUserStoreIfUpdated(@PathParam("serviceName") String serviceName, @DefaultValue("-1") @QueryParam("lastKnownUserStoreVersion") Long lastKnownUserStoreVersion, @DefaultValue("0") @QueryParam("lastActivationTime") Long lastActivationTime, @QueryParam("pluginId") String pluginId, @DefaultValue("") @QueryParam("clusterName") String clusterName, @DefaultValue("") @QueryParam(RangerRESTUtils.REST_PARAM_CAPABILITIES) String pluginCapabilities, @Context HttpServletRequest request) {
-        logger.debug("==> XUserREST.getRangerUserStoreIfUpdated(serviceName={}, lastKnownUserStoreVersion={}, lastActivationTime={})", serviceName, lastKnownUserStoreVersion, lastActivationTime);
+    public RangerUserStore getRangerUserStoreIfUpdated(@PathParam("serviceName") String serviceName, @DefaultValue("-1") @QueryParam("lastKnownUserStoreVersion") Long lastKnownUserStoreVersion, @DefaultValue("0") @QueryParam("lastActivationTime") Long lastActivationTime, @QueryParam("pluginId") String pluginId, @DefaultValue("") @QueryParam("clusterName") String clusterName, @DefaultValue("") @QueryParam(RangerRESTUtils.REST_PARAM_CAPABILITIES) String pluginCapabilities, @DefaultValue("false") @QueryParam(RangerRESTUtils.REST_PARAM_SUPPORTS_USERSTORE_DELTAS) Boolean supportsUserStoreDeltas, @Context HttpServletRequest request) {
+        logger.debug("==> XUserREST.getRangerUserStoreIfUpdated(serviceName={}, lastKnownUserStoreVersion={}, lastActivationTime={}, supportsUserStoreDeltas={})", serviceName, lastKnownUserStoreVersion, lastActivationTime, supportsUserStoreDeltas);
 
         RangerUserStore ret               = null;
         boolean         isValid           = false;
@@ -1401,7 +1405,7 @@ public RangerUserStore getRangerUserStoreIfUpdated(@PathParam("serviceName") Str
                 XXService xService = rangerDaoManager.getXXService().findByName(serviceName);
 
                 if (xService != null) {
-                    RangerUserStore rangerUserStore = xUserMgr.getRangerUserStoreIfUpdated(lastKnownUserStoreVersion);
+                    RangerUserStore rangerUserStore = serviceVersionRegistry.isUserStoreVersionCurrent(lastKnownUserStoreVersion) ? null : xUserMgr.getRangerUserStoreIfUpdated(lastKnownUserStoreVersion, Boolean.TRUE.equals(supportsUserStoreDeltas));
 
                     if (rangerUserStore == null) {
                         downloadedVersion = lastKnownUserStoreVersion;
@@ -1437,8 +1441,8 @@ public RangerUserStore getRangerUserStoreIfUpdated(@PathParam("serviceName") Str
     @GET
     @Path("/secure/download/{serviceName}")
     @Produces("application/json")
-    public RangerUserStore getSecureRangerUserStoreIfUpdated(@PathParam("serviceName") String serviceName, @DefaultValue("-1") @QueryParam("lastKnownUserStoreVersion") Long lastKnownUserStoreVersion, @DefaultValue("0") @QueryParam("lastActivationTime") Long lastActivationTime, @QueryParam("pluginId") String pluginId, @DefaultValue("") @QueryParam("clusterName") String clusterName, @DefaultValue("") @QueryParam(RangerRESTUtils.REST_PARAM_CAPABILITIES) String pluginCapabilities, @Context HttpServletRequest request) {
-        logger.debug("==> XUserREST.getSecureRangerUserStoreIfUpdated({}, {}, {})", serviceName, lastKnownUserStoreVersion, lastActivationTime);
+    public RangerUserStore getSecureRangerUserStoreIfUpdated(@PathParam("serviceName") String serviceName, @DefaultValue("-1") @QueryParam("lastKnownUserStoreVersion") Long lastKnownUserStoreVersion, @DefaultValue("0") @QueryParam("lastActivationTime") Long lastActivationTime, @QueryParam("pluginId") String pluginId, @DefaultValue("") @QueryParam("clusterName") String clusterName, @DefaultValue("") @QueryParam(RangerRESTUtils.REST_PARAM_CAPABILITIES) String pluginCapabilities, @DefaultValue("false") @QueryParam(RangerRESTUtils.REST_PARAM_SUPPORTS_USERSTORE_DELTAS) Boolean supportsUserStoreDeltas, @Context HttpServletRequest request) {
+        logger.debug("==> XUserREST.getSecureRangerUserStoreIfUpdated({}, {}, {}, {})", serviceName, lastKnownUserStoreVersion, lastActivationTime, supportsUserStoreDeltas);
 
         RangerUserStore ret               = null;
         int             httpCode          = HttpServletResponse.SC_OK;
@@ -1485,7 +1489,7 @@ public RangerUserStore getSecureRangerUserStoreIfUpdated(@PathParam("serviceName
                 }
 
                 if (isAllowed) {
-                    RangerUserStore rangerUserStore = xUserMgr.getRangerUserStoreIfUpdated(lastKnownUserStoreVersion);
+                    RangerUserStore rangerUserStore = serviceVersionRegistry.isUserStoreVersionCurrent(lastKnownUserStoreVersion) ? null : xUserMgr.getRangerUserStoreIfUpdated(lastKnownUserStoreVersion, Boolean.TRUE.equals(supportsUserStoreDeltas));
 
                     if (rangerUserStore == null) {
                         downloadedVersion = lastKnownUserStoreVersion;
@@ -18,14 +18,29 @@
 package org.apache.ranger.service;
 
 import org.apache.ranger.biz.RangerPolicyRetriever;
+import org.apache.ranger.common.SearchField;
+import org.apache.ranger.common.view.VList;
 import org.apache.ranger.entity.XXPolicy;
 import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.util.SearchFilter;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 @Service
 @Scope("singleton")
 public class RangerPolicyService extends RangerPolicyServiceBase<XXPolicy, RangerPolicy> {
+    // columns in sortFields are selected as well, since databases require ORDER BY columns of a DISTINCT query in the select list
+    private static final String POLICY_AND_SERVICE_ID_COLUMNS            = "obj.id, obj.service, obj.createTime, obj.updateTime, obj.name";
+    private static final String POLICY_AND_SERVICE_ID_QUERY_STR          = "SELECT " + POLICY_AND_SERVICE_ID_COLUMNS + " FROM XXPolicy obj ";
+    private static final String DISTINCT_POLICY_AND_SERVICE_ID_QUERY_STR = "SELECT DISTINCT " + POLICY_AND_SERVICE_ID_COLUMNS + " FROM XXPolicy obj ";
+    private static final String PARAM_AFTER_POLICY_ID                    = "afterPolicyId";
+
     public RangerPolicyService() {
         super();
     }
@@ -34,6 +49,110 @@ public RangerPolicy getPopulatedViewObject(XXPolicy xPolicy) {
         return this.populateViewBean(xPolicy);
     }
 
+    /*
+     * Same as searchResources(), but returns only {policyId, serviceId, ...} of matching policies - without loading
+     * policyText of every matching policy from the database.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> searchPolicyAndServiceIds(SearchFilter searchCriteria, VList vList) {
+        long count = -1;
+
+        if (searchCriteria.isGetCount()) {
+            count = getCountForSearchQuery(searchCriteria, searchFields);
+
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+        }
+
+        String         sortClause = searchUtil.constructSortClause(searchCriteria, sortFields);
+        String         q          = searchCriteria.isDistinct() ? DISTINCT_POLICY_AND_SERVICE_ID_QUERY_STR : POLICY_AND_SERVICE_ID_QUERY_STR;
+        Query          query      = createQuery(q, sortClause, searchCriteria, searchFields, false);
+        List<Object[]> resultList = query.getResultList();
+
+        if (vList != null) {
+            vList.setResultSize(resultList.size());
+            vList.setPageSize(query.getMaxResults());
+            vList.setSortBy(searchCriteria.getSortBy());
+            vList.setSortType(searchCriteria.getSortType());
+            vList.setStartIndex(query.getFirstResult());
+            vList.setTotalCount(count);
+        }
+
+        return resultList;
+    }
+
+    /*
+     * Page of policies matching the search criteria. Sorting and paging are done by the database, with policy id as the
+     * last sort key so that pages are stable; policyText is read and parsed only for policies in the page.
+     */
+    public List<RangerPolicy> searchPolicyPage(SearchFilter searchCriteria, VList vList) {
+        long count = -1;
+
+        if (searchCriteria.isGetCount()) {
+            count = getCountForSearchQuery(searchCriteria, searchFields);
+
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+        }
+
+        String sortClause = searchUtil.constructSortClause(searchCriteria, sortFields);
+
+        if (sortClause == null) {
+            sortClause = " ORDER BY obj.id";
+        } else if (!SearchFilter.POLICY_ID.equals(searchCriteria.getSortBy())) {
+            sortClause += ", obj.id";
+        }
+
+        Query              query      = createQuery(queryStr, sortClause, searchCriteria, searchFields, false);
+        List<XXPolicy>     xPolicies  = getDao().executeQueryInSecurityContext(tEntityClass, query);
+        List<RangerPolicy> resultList = new ArrayList<>(xPolicies.size());
+
+        for (XXPolicy xPolicy : xPolicies) {
+            resultList.add(populateViewBean(xPolicy));
+        }
+
+        if (vList != null) {
+            vList.setResultSize(resultList.size());
+            vList.setPageSize(query.getMaxResults());
+            vList.setSortBy(searchCriteria.getSortBy());
+            vList.setSortType(searchCriteria.getSortType());
+            vList.setStartIndex(query.getFirstResult());
+            vList.setTotalCount(count);
+        }
+
+        return resultList;
+    }
+
+    /*
+     * Up to searchCriteria.getMaxRows() policies matching the search criteria with id greater than afterPolicyId, in the
+     * order of id; to be used to read a large number of policies in batches. Entities are detached once populated, so
+     * that the persistence context doesn't grow with every batch read.
+     */
+    public List<RangerPolicy> searchPoliciesAfterId(SearchFilter searchCriteria, Long afterPolicyId) {
+        SearchFilter      filter = new SearchFilter(searchCriteria);
+        List<SearchField> fields = new ArrayList<>(searchFields);
+
+        fields.add(new SearchField(PARAM_AFTER_POLICY_ID, "obj.id", SearchField.DATA_TYPE.INTEGER, SearchField.SEARCH_TYPE.GREATER_THAN));
+
+        filter.setParam(PARAM_AFTER_POLICY_ID, afterPolicyId != null ? afterPolicyId.toString() : "0");
+        filter.setStartIndex(0);
+        filter.setGetCount(false);
+
+        Query              query      = createQuery(queryStr, " ORDER BY obj.id", filter, fields, false);
+        List<XXPolicy>     xPolicies  = getDao().executeQueryInSecurityContext(tEntityClass, query);
+        List<RangerPolicy> resultList = new ArrayList<>(xPolicies.size());
+
+        for (XXPolicy xPolicy : xPolicies) {
+            resultList.add(populateViewBean(xPolicy));
+
+            getDao().getEntityManager().detach(xPolicy);
+        }
+
+        return resultList;
+    }
+
     @Override
     protected XXPolicy mapViewToEntityBean(RangerPolicy vObj, XXPolicy xObj, int operationContext) {
         return super.mapViewToEntityBean(vObj, xObj, operationContext);
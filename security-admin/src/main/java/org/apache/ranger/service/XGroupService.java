@@ -31,8 +31,10 @@
 import org.springframework.util.CollectionUtils;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Scope("singleton")
@@ -91,6 +93,53 @@ public VXGroup createXGroupWithOutLogin(VXGroup vxGroup) {
         return vxGroup;
     }
 
+    public int createOrUpdateXGroupsWithOutLogin(List<VXGroup> vxGroups) {
+        if (CollectionUtils.isEmpty(vxGroups)) {
+            return 0;
+        }
+
+        Set<String> groupNames = new HashSet<>();
+
+        for (VXGroup vxGroup : vxGroups) {
+            groupNames.add(vxGroup.getName());
+        }
+
+        Map<String, XXGroup> existingGroups = daoManager.getXXGroup().findByGroupNames(groupNames);
+        XXPortalUser         xXPortalUser   = daoManager.getXXPortalUser().getById(createdByUserId);
+        int                  ret            = 0;
+
+        for (VXGroup vxGroup : vxGroups) {
+            XXGroup xxGroup     = existingGroups.get(vxGroup.getName());
+            boolean groupExists = xxGroup != null;
+
+            if (!groupExists) {
+                xxGroup = new XXGroup();
+            }
+
+            xxGroup = mapViewToEntityBean(vxGroup, xxGroup, 0);
+
+            if (xXPortalUser != null) {
+                xxGroup.setAddedByUserId(createdByUserId);
+                xxGroup.setUpdatedByUserId(createdByUserId);
+            }
+
+            // flush once at the end, so that inserts/updates are sent to the database in JDBC batches
+            if (groupExists) {
+                getDao().update(xxGroup, false);
+            } else {
+                getDao().create(xxGroup, false);
+
+                existingGroups.put(xxGroup.getName(), xxGroup);
+            }
+
+            ret++;
+        }
+
+        getDao().flush();
+
+        return ret;
+    }
+
     public VXGroup readResourceWithOutLogin(Long id) {
         XXGroup resource = getDao().getById(id);
 
@@ -33,6 +33,9 @@
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -113,7 +116,9 @@ public void createOrDeleteXGroupUsers(GroupUserInfo groupUserInfo, Map<String, L
             Return Map has username as key and XXGroupUser object as value.
          */
 
-        Map<String, XXGroupUser> groupUsers = daoManager.getXXGroupUser().findUsersByGroupName(groupName);
+        Map<String, XXGroupUser> groupUsers  = daoManager.getXXGroupUser().findUsersByGroupName(groupName);
+        Map<String, Long>        usersToAdd  = new HashMap<>();
+        List<Long>               idsToDelete = new ArrayList<>();
 
         if (CollectionUtils.isNotEmpty(groupUserInfo.getAddUsers())) {
             Set<String> addUsers = groupUserInfo.getAddUsers();
@@ -121,9 +126,9 @@ public void createOrDeleteXGroupUsers(GroupUserInfo groupUserInfo, Map<String, L
             logger.debug("No. of new users in group {} : {}", groupName, addUsers.size());
 
             for (String username : addUsers) {
-                if (usersFromDB.containsKey(username)) {
-                    // Add or update group user mapping only if the user exists in x_user table.
-                    transactionSynchronizationAdapter.executeOnTransactionCommit(new GroupUserMappingUpdator(groupName, xxGroup.getId(), username, usersFromDB.get(username), groupUsers.get(username), false));
+                // Add group user mapping only if the user exists in x_user table and isn't already a member of the group
+                if (usersFromDB.containsKey(username) && !groupUsers.containsKey(username)) {
+                    usersToAdd.put(username, usersFromDB.get(username));
                 }
             }
         }
@@ -134,13 +139,19 @@ public void createOrDeleteXGroupUsers(GroupUserInfo groupUserInfo, Map<String, L
             logger.debug("No. of deleted users in group {} : {}", groupName, delUsers.size());
 
             for (String username : delUsers) {
-                if (usersFromDB.containsKey(username)) {
-                    // delete group user mapping only if the user exists in x_user table..
-                    transactionSynchronizationAdapter.executeOnTransactionCommit(new GroupUserMappingUpdator(groupName, xxGroup.getId(), username, usersFromDB.get(username), groupUsers.get(username), true));
+                XXGroupUser xxGroupUser = groupUsers.get(username);
+
+                // delete group user mapping only if the user exists in x_user table and is a member of the group
+                if (usersFromDB.containsKey(username) && xxGroupUser != null) {
+                    idsToDelete.add(xxGroupUser.getId());
                 }
             }
         }
 
+        if (!usersToAdd.isEmpty() || !idsToDelete.isEmpty()) {
+            transactionSynchronizationAdapter.executeOnTransactionCommit(new GroupUserMappingUpdator(groupName, xxGroup.getId(), usersToAdd, idsToDelete));
+        }
+
         if (logger.isDebugEnabled()) {
             logger.debug("<<== createOrDeleteXGroupUsers for {}", groupUserInfo.getGroupName());
 
@@ -170,20 +181,16 @@ protected void validateForUpdate(VXGroupUser vObj, XXGroupUser mObj) {
     }
 
     private class GroupUserMappingUpdator implements Runnable {
-        private final String      groupName;
-        private final Long        groupId;
-        private final String      userName;
-        private final Long        userId;
-        private final boolean     isDelete;
-        private       XXGroupUser xxGroupUser;
-
-        GroupUserMappingUpdator(String groupName, Long groupId, String userName, Long userId, XXGroupUser xxGroupUser, boolean isDelete) {
+        private final String            groupName;
+        private final Long              groupId;
+        private final Map<String, Long> usersToAdd;
+        private final List<Long>        idsToDelete;
+
+        GroupUserMappingUpdator(String groupName, Long groupId, Map<String, Long> usersToAdd, List<Long> idsToDelete) {
             this.groupName   = groupName;
             this.groupId     = groupId;
-            this.userName    = userName;
-            this.userId      = userId;
-            this.xxGroupUser = xxGroupUser;
-            this.isDelete    = isDelete;
+            this.usersToAdd  = usersToAdd;
+            this.idsToDelete = idsToDelete;
         }
 
         @Override
@@ -192,46 +199,41 @@ public void run() {
         }
 
         private void updateGroupUserMappings() {
-            logger.debug("==> GroupUserMappingUpdater.updateGroupUserMappings({}, {})", groupName, userName);
+            logger.debug("==> GroupUserMappingUpdater.updateGroupUserMappings({}, usersToAdd={}, idsToDelete={})", groupName, usersToAdd.size(), idsToDelete.size());
 
-            if (isDelete) {
-                if (xxGroupUser != null) {
-                    getDao().remove(xxGroupUser.getId());
+            if (!idsToDelete.isEmpty()) {
+                daoManager.getXXGroupUser().deleteByIds(idsToDelete);
 
-                    logger.debug("createOrDeleteXGroupUsers(): deleted group user mapping with groupname =  {} username = {}", groupName, userName);
-                }
-            } else {
-                boolean groupUserMappingExists = true;
-
-                if (xxGroupUser == null) {
-                    xxGroupUser            = new XXGroupUser();
-                    groupUserMappingExists = false;
-                }
-
-                XXPortalUser xXPortalUser = daoManager.getXXPortalUser().getById(createdByUserId);
+                logger.debug("createOrDeleteXGroupUsers(): deleted {} group user mappings for groupname = {}", idsToDelete.size(), groupName);
+            }
 
-                if (xXPortalUser != null) {
-                    xxGroupUser.setAddedByUserId(createdByUserId);
-                    xxGroupUser.setUpdatedByUserId(createdByUserId);
-                }
+            if (!usersToAdd.isEmpty()) {
+                XXPortalUser      xXPortalUser = daoManager.getXXPortalUser().getById(createdByUserId);
+                List<XXGroupUser> xxGroupUsers = new ArrayList<>(usersToAdd.size());
 
-                if (groupUserMappingExists) {
-                    xxGroupUser = getDao().update(xxGroupUser);
-                } else {
+                for (Long userId : usersToAdd.values()) {
                     VXGroupUser vXGroupUser = new VXGroupUser();
 
                     vXGroupUser.setUserId(userId);
                     vXGroupUser.setName(groupName);
                     vXGroupUser.setParentGroupId(groupId);
 
-                    xxGroupUser = mapViewToEntityBean(vXGroupUser, xxGroupUser, 0);
-                    xxGroupUser = getDao().create(xxGroupUser);
+                    XXGroupUser xxGroupUser = mapViewToEntityBean(vXGroupUser, new XXGroupUser(), 0);
+
+                    if (xXPortalUser != null) {
+                        xxGroupUser.setAddedByUserId(createdByUserId);
+                        xxGroupUser.setUpdatedByUserId(createdByUserId);
+                    }
+
+                    xxGroupUsers.add(xxGroupUser);
                 }
 
-                logger.debug("createOrDeleteXGroupUsers(): Create or update group user mapping with groupname = {}, username = {}, userId = {}", groupName, userName, xxGroupUser.getUserId());
+                getDao().batchCreate(xxGroupUsers);
+
+                logger.debug("createOrDeleteXGroupUsers(): created {} group user mappings for groupname = {}", xxGroupUsers.size(), groupName);
             }
 
-            logger.debug("<== GroupUserMappingUpdater.updateGroupUserMappings({}, {})", groupName, userName);
+            logger.debug("<== GroupUserMappingUpdater.updateGroupUserMappings({})", groupName);
         }
     }
 }
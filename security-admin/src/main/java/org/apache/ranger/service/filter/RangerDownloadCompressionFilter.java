@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.service.filter;
+
+import com.sun.jersey.api.container.filter.GZIPContentEncodingFilter;
+import com.sun.jersey.spi.container.ContainerRequest;
+import com.sun.jersey.spi.container.ContainerResponse;
+import org.apache.ranger.common.PropertiesUtil;
+import org.apache.ranger.common.RangerServicePoliciesCache;
+import org.apache.ranger.common.RangerServicePoliciesCache.SerializedResponse;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import java.io.IOException;
+
+/*
+ * gzip-encodes responses of download APIs (policies, tags, roles, userstore, gds) used by plugins, when
+ * the client sends "Accept-Encoding: gzip". Plugins that don't send the header continue to receive plain JSON.
+ *
+ * Policy downloads cached in RangerServicePoliciesCache are written from their cached (plain or gzip) bytes, along
+ * with an ETag, instead of being serialized and compressed for every plugin.
+ */
+public class RangerDownloadCompressionFilter extends GZIPContentEncodingFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerDownloadCompressionFilter.class);
+
+    public static final String PROP_DOWNLOAD_COMPRESSION_ENABLED = "ranger.admin.download.compression.enabled";
+
+    private static final String DOWNLOAD_PATH_SEGMENT = "/download/";
+
+    private final boolean isEnabled;
+
+    public RangerDownloadCompressionFilter() {
+        this(PropertiesUtil.getBooleanProperty(PROP_DOWNLOAD_COMPRESSION_ENABLED, true));
+    }
+
+    RangerDownloadCompressionFilter(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+
+    @Override
+    public ContainerRequest filter(ContainerRequest request) {
+        return request; // request bodies of download APIs are not compressed
+    }
+
+    @Override
+    public ContainerResponse filter(ContainerRequest request, ContainerResponse response) {
+        if (isDownloadRequest(request)) {
+            SerializedResponse cached = response.getEntity() instanceof ServicePolicies ? RangerServicePoliciesCache.getInstance().getSerializedResponse((ServicePolicies) response.getEntity()) : null;
+
+            if (cached != null && setCachedEntity(request, response, cached)) {
+                return response;
+            }
+
+            if (isEnabled) {
+                response = super.filter(request, response);
+            }
+        }
+
+        return response;
+    }
+
+    private boolean setCachedEntity(ContainerRequest request, ContainerResponse response, SerializedResponse cached) {
+        boolean ret = false;
+
+        try {
+            String acceptEncoding = request.getRequestHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+
+            if (isEnabled && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                response.setEntity(cached.getGzippedBytes());
+                response.getHttpHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+            } else {
+                response.setEntity(cached.getBytes());
+            }
+
+            if (!response.getHttpHeaders().containsKey(HttpHeaders.CONTENT_TYPE)) {
+                response.getHttpHeaders().putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_TYPE);
+            }
+
+            response.getHttpHeaders().putSingle(HttpHeaders.ETAG, cached.getETag());
+
+            ret = true;
+        } catch (IOException excp) {
+            LOG.warn("failed to write cached response {}; serializing the response again", cached.getETag(), excp);
+        }
+
+        return ret;
+    }
+
+    static boolean isDownloadRequest(ContainerRequest request) {
+        String path = request.getPath();
+
+        return path != null && ("/" + path).contains(DOWNLOAD_PATH_SEGMENT);
+    }
+}
@@ -36,6 +36,7 @@
 import org.apache.ranger.audit.queue.AuditBatchQueue;
 import org.apache.ranger.audit.queue.AuditFileSpool;
 import org.apache.ranger.audit.queue.AuditQueue;
+import org.apache.ranger.audit.queue.AuditRingBufferQueue;
 import org.apache.ranger.audit.queue.AuditSummaryQueue;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -111,6 +112,88 @@ public void testAuditSummaryQueue() {
         commonTestSummary(testConsumer, queue);
     }
 
+    @Test
+    public void testAuditSummaryQueueKeysAndMaxEntries() {
+        logger.debug("testAuditSummaryQueueKeysAndMaxEntries()...");
+
+        // summarize by user only: events that differ in result are counted together
+        TestConsumer      testConsumer = new TestConsumer();
+        AuditSummaryQueue queue        = new AuditSummaryQueue(testConsumer);
+
+        Properties props = new Properties();
+        props.put(BaseAuditHandler.PROP_DEFAULT_PREFIX + "." + AuditSummaryQueue.PROP_SUMMARY_INTERVAL, "" + 300);
+        props.put(BaseAuditHandler.PROP_DEFAULT_PREFIX + "." + AuditSummaryQueue.PROP_SUMMARY_KEYS, "user, unknownKey");
+        queue.init(props, BaseAuditHandler.PROP_DEFAULT_PREFIX);
+        queue.start();
+
+        queue.log(createEvent("john", "select", "xademo/customer_details/imei", true));
+        queue.log(createEvent("john", "update", "xademo/customer_details/imei", false));
+        queue.log(createEvent("jane", "select", "xademo/customer_details/imei", true));
+
+        sleep(1000);
+        queue.waitToComplete();
+        queue.stop();
+        queue.waitToComplete();
+
+        assertEquals(3, testConsumer.getSumTotal());
+        assertEquals(2, testConsumer.getCountTotal());
+
+        // summary map holding only 1 entry: each new key sends the earlier summary
+        testConsumer = new TestConsumer();
+        queue        = new AuditSummaryQueue(testConsumer);
+
+        props = new Properties();
+        props.put(BaseAuditHandler.PROP_DEFAULT_PREFIX + "." + AuditSummaryQueue.PROP_SUMMARY_INTERVAL, "" + 300);
+        props.put(BaseAuditHandler.PROP_DEFAULT_PREFIX + "." + AuditSummaryQueue.PROP_SUMMARY_MAX_ENTRIES, "" + 1);
+        queue.init(props, BaseAuditHandler.PROP_DEFAULT_PREFIX);
+        queue.start();
+
+        queue.log(createEvent("john", "select", "xademo/customer_details/imei", true));
+        queue.log(createEvent("john", "select", "xademo/customer_details/imei", true));
+        queue.log(createEvent("jane", "select", "xademo/customer_details/imei", true));
+        queue.log(createEvent("john", "select", "xademo/customer_details/imei", true));
+
+        sleep(1000);
+        queue.waitToComplete();
+        queue.stop();
+        queue.waitToComplete();
+
+        assertEquals(4, testConsumer.getSumTotal());
+        assertEquals(3, testConsumer.getCountTotal());
+    }
+
+    @Test
+    public void testAuditSummaryQueueDrop() {
+        logger.debug("testAuditSummaryQueueDrop()...");
+        int queueSize     = 16;
+        int messageToSend = queueSize * 2;
+
+        String     basePropName = "testAuditSummaryQueueDrop_" + MiscUtil.generateUniqueId();
+        Properties props        = new Properties();
+        props.put(basePropName + "." + AuditQueue.PROP_QUEUE_SIZE, "" + queueSize);
+        props.put(basePropName + "." + AuditSummaryQueue.PROP_SUMMARY_INTERVAL, "" + 300);
+
+        TestConsumer      testConsumer = new TestConsumer();
+        AuditSummaryQueue queue        = new AuditSummaryQueue(testConsumer);
+        queue.init(props, basePropName);
+
+        // log before start, so that nothing is consumed until the queue is full
+        for (int i = 0; i < messageToSend; i++) {
+            assertEquals("log() result for event #" + i, i < queueSize, queue.log(createEvent()));
+        }
+
+        assertEquals("Dropped count", messageToSend - queueSize, queue.getDroppedCount());
+        assertEquals("Spilled count", 0, queue.getSpilledCount());
+
+        queue.start();
+        sleep(1000);
+        queue.waitToComplete();
+        queue.stop();
+        queue.waitToComplete();
+
+        assertEquals("Total count", queueSize, testConsumer.getSumTotal());
+    }
+
     @Test
     public void testAuditSummaryByInfra() {
         logger.debug("testAuditSummaryByInfra()...");
@@ -249,6 +332,102 @@ public void testAuditBatchQueueByTime() {
         assertNull("Event not in sequnce", testConsumer.isInSequence());
     }
 
+    @Test
+    public void testAuditRingBufferQueueBlock() throws InterruptedException {
+        logger.debug("testAuditRingBufferQueueBlock()...");
+        int producerCount    = 4;
+        int messagePerThread = 500;
+        int messageToSend    = producerCount * messagePerThread;
+
+        String     basePropName = "testAuditRingBufferQueueBlock_" + MiscUtil.generateUniqueId();
+        Properties props        = new Properties();
+        props.put(basePropName + "." + AuditQueue.PROP_BATCH_SIZE, "" + 50);
+        props.put(basePropName + "." + AuditQueue.PROP_QUEUE_SIZE, "" + 64); // deliberately smaller than messageToSend
+        props.put(basePropName + "." + AuditQueue.PROP_BATCH_INTERVAL, "" + 100);
+        props.put(basePropName + "." + AuditRingBufferQueue.PROP_BACKPRESSURE, AuditRingBufferQueue.BACKPRESSURE_BLOCK);
+
+        TestConsumer         testConsumer = new TestConsumer();
+        AuditRingBufferQueue queue        = new AuditRingBufferQueue(testConsumer);
+        queue.init(props, basePropName);
+        queue.start();
+
+        Thread[] producers = new Thread[producerCount];
+
+        for (int i = 0; i < producerCount; i++) {
+            producers[i] = new Thread(() -> {
+                for (int j = 0; j < messagePerThread; j++) {
+                    queue.log(new AuthzAuditEvent());
+                }
+            });
+            producers[i].start();
+        }
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        queue.waitToComplete();
+        queue.stop();
+        queue.waitToComplete();
+
+        assertEquals("Total count", messageToSend, testConsumer.getCountTotal());
+        assertEquals("Dropped count", 0, queue.getDroppedCount());
+        assertTrue("Max queue depth", queue.getMaxQueueDepth() <= 64);
+    }
+
+    @Test
+    public void testAuditRingBufferQueueDrop() {
+        logger.debug("testAuditRingBufferQueueDrop()...");
+        int queueSize     = 16;
+        int messageToSend = queueSize * 2;
+
+        String     basePropName = "testAuditRingBufferQueueDrop_" + MiscUtil.generateUniqueId();
+        Properties props        = new Properties();
+        props.put(basePropName + "." + AuditQueue.PROP_QUEUE_SIZE, "" + queueSize);
+        props.put(basePropName + "." + AuditQueue.PROP_BATCH_INTERVAL, "" + 100);
+
+        TestConsumer         testConsumer = new TestConsumer();
+        AuditRingBufferQueue queue        = new AuditRingBufferQueue(testConsumer);
+        queue.init(props, basePropName);
+
+        assertEquals("Backpressure", AuditRingBufferQueue.BACKPRESSURE_DROP, queue.getBackpressure());
+
+        // log before start, so that nothing is consumed until the queue is full
+        for (int i = 0; i < messageToSend; i++) {
+            assertEquals("log() result for event #" + i, i < queueSize, queue.log(createEvent()));
+        }
+
+        assertEquals("Queue depth", queueSize, queue.getQueueDepth());
+        assertEquals("Dropped count", messageToSend - queueSize, queue.getDroppedCount());
+
+        queue.start();
+        queue.waitToComplete();
+        queue.stop();
+        queue.waitToComplete();
+
+        assertEquals("Total count", queueSize, testConsumer.getCountTotal());
+        assertEquals("Queue depth", 0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void testAuditRingBufferQueueCapacity() {
+        logger.debug("testAuditRingBufferQueueCapacity()...");
+
+        String               basePropName = "testAuditRingBufferQueueCapacity_" + MiscUtil.generateUniqueId();
+        Properties           props        = new Properties();
+        AuditRingBufferQueue queue        = new AuditRingBufferQueue(new TestConsumer());
+        queue.init(props, basePropName);
+
+        assertEquals("Default capacity", AuditRingBufferQueue.RING_BUFFER_SIZE_DEFAULT, queue.getCapacity());
+
+        props.put(basePropName + "." + AuditQueue.PROP_QUEUE_SIZE, "1000");
+
+        queue = new AuditRingBufferQueue(new TestConsumer());
+        queue.init(props, basePropName);
+
+        assertEquals("Capacity rounded up to power of 2", 1024, queue.getCapacity());
+    }
+
     @Test
     public void testAuditBatchQueueDestDown() {
         logger.debug("testAuditBatchQueueDestDown()...");
@@ -43,6 +43,7 @@
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class TestPolicyAdmin {
@@ -64,6 +65,27 @@ public void testPolicyAdmin_additionalResources() {
         runTestsFromResourceFiles(testFile);
     }
 
+    @Test
+    public void testHasDelegatedAdminPolicyItemsForOtherResources() {
+        InputStreamReader   reader      = new InputStreamReader(this.getClass().getResourceAsStream("/biz/test_policyadmin_additional_resources.json"));
+        PolicyAdminTestCase testCase    = gsonBuilder.fromJson(reader, PolicyAdminTestCase.class);
+        RangerPolicyAdmin   policyAdmin = createPolicyAdmin(testCase.servicePolicies);
+        RangerPolicy        db2Policy   = null;
+
+        for (RangerPolicy policy : testCase.servicePolicies.getPolicies()) {
+            if (policy.getId() == 12L) { // db2.tbl2.*
+                db2Policy = policy;
+            }
+        }
+
+        // user1_1 is delegated-admin for db1.tbl1 only: not allowed on the db2 policy, yet has delegated-admin policy items
+        assertFalse(policyAdmin.isDelegatedAdminAccessAllowedForRead(db2Policy, "user1_1", Collections.emptySet(), null, null));
+        assertTrue(policyAdmin.hasDelegatedAdminPolicyItems("user1_1", Collections.emptySet(), null));
+
+        // user1_3 has policy items without delegated-admin
+        assertFalse(policyAdmin.hasDelegatedAdminPolicyItems("user1_3", Collections.emptySet(), null));
+    }
+
     private void runTestsFromResourceFiles(String[] resourceNames) {
         for (String resourceName : resourceNames) {
             InputStream       inStream = this.getClass().getResourceAsStream(resourceName);
@@ -78,16 +100,7 @@ private void runTests(InputStreamReader reader, String testName) {
 
         assertTrue("invalid input: " + testName, testCase != null && testCase.servicePolicies != null && testCase.tests != null && testCase.servicePolicies.getPolicies() != null);
 
-        RangerPolicyEngineOptions policyEngineOptions = new RangerPolicyEngineOptions();
-
-        policyEngineOptions.evaluatorType             = RangerPolicyEvaluator.EVALUATOR_TYPE_OPTIMIZED;
-        policyEngineOptions.cacheAuditResults         = false;
-        policyEngineOptions.disableContextEnrichers   = true;
-        policyEngineOptions.disableCustomConditions   = true;
-        policyEngineOptions.evaluateDelegateAdminOnly = true;
-
-        RangerPluginContext pluginContext = new RangerPluginContext(new RangerPluginConfig("hive", null, "test-policydb", "cl1", "on-prem", policyEngineOptions));
-        RangerPolicyAdmin   policyAdmin   = new RangerPolicyAdminImpl(testCase.servicePolicies, pluginContext, null);
+        RangerPolicyAdmin policyAdmin = createPolicyAdmin(testCase.servicePolicies);
 
         for (TestData test : testCase.tests) {
             if (test.userGroups == null) {
@@ -108,6 +121,11 @@ private void runTests(InputStreamReader reader, String testName) {
 
                 assertEquals("allowed-policy count mismatch! - " + test.name, test.allowedPolicies.size(), allowedPolicies.size());
                 assertEquals("allowed-policy list mismatch! - " + test.name, test.allowedPolicies, allowedPolicies);
+
+                // a user can have delegated-admin policy items without being allowed on any of these policies, but not the other way round
+                if (!test.isModifyAccess && !allowedPolicies.isEmpty()) {
+                    assertTrue("hasDelegatedAdminPolicyItems mismatch! - " + test.name, policyAdmin.hasDelegatedAdminPolicyItems(test.user, test.userGroups, null));
+                }
             } else {
                 RangerPolicy     policy     = new RangerPolicy();
                 RangerPolicyItem policyItem = new RangerPolicyItem();
@@ -137,6 +155,20 @@ private void runTests(InputStreamReader reader, String testName) {
         }
     }
 
+    private RangerPolicyAdmin createPolicyAdmin(ServicePolicies servicePolicies) {
+        RangerPolicyEngineOptions policyEngineOptions = new RangerPolicyEngineOptions();
+
+        policyEngineOptions.evaluatorType             = RangerPolicyEvaluator.EVALUATOR_TYPE_OPTIMIZED;
+        policyEngineOptions.cacheAuditResults         = false;
+        policyEngineOptions.disableContextEnrichers   = true;
+        policyEngineOptions.disableCustomConditions   = true;
+        policyEngineOptions.evaluateDelegateAdminOnly = true;
+
+        RangerPluginContext pluginContext = new RangerPluginContext(new RangerPluginConfig("hive", null, "test-policydb", "cl1", "on-prem", policyEngineOptions));
+
+        return new RangerPolicyAdminImpl(servicePolicies, pluginContext, null);
+    }
+
     static class PolicyAdminTestCase {
         public ServicePolicies servicePolicies;
         public List<TestData>  tests;
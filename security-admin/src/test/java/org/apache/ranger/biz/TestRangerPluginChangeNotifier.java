@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.biz;
+
+import org.apache.ranger.plugin.util.RangerChangeWatcher;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestRangerPluginChangeNotifier {
+    @Test
+    public void testMaxWaitersStayWellBelowConnectorThreads() {
+        assertEquals(20, RangerPluginChangeNotifier.getMaxWaiters(200, -1)); // default: a tenth of connector threads
+        assertEquals(1, RangerPluginChangeNotifier.getMaxWaiters(5, -1));
+        assertEquals(30, RangerPluginChangeNotifier.getMaxWaiters(200, 30));
+        assertEquals(100, RangerPluginChangeNotifier.getMaxWaiters(200, 150)); // never more than half of connector threads
+        assertEquals(0, RangerPluginChangeNotifier.getMaxWaiters(200, 0));
+    }
+
+    @Test
+    public void testIsChanged() {
+        Map<String, Long> lastKnown = new HashMap<>();
+
+        lastKnown.put(RangerChangeWatcher.CHANGE_TYPE_POLICIES, 5L);
+        lastKnown.put(RangerChangeWatcher.CHANGE_TYPE_TAGS, 2L);
+
+        Map<String, Long> latest = new HashMap<>(lastKnown);
+
+        assertFalse(RangerPluginChangeNotifier.isChanged(lastKnown, latest));
+        assertFalse(RangerPluginChangeNotifier.isChanged(lastKnown, Collections.emptyMap())); // unknown versions are not changes
+
+        latest.put(RangerChangeWatcher.CHANGE_TYPE_TAGS, 3L);
+
+        assertTrue(RangerPluginChangeNotifier.isChanged(lastKnown, latest));
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.biz;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicyDelta;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngineOptions;
+import org.apache.ranger.plugin.store.RoleStore;
+import org.apache.ranger.plugin.store.SecurityZoneStore;
+import org.apache.ranger.plugin.store.ServiceStore;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestRangerPolicyAdminCache {
+    private static final String POLICIES_FILE = "/biz/test_policyadmin_additional_resources.json";
+    private static final Gson   GSON          = new GsonBuilder().setDateFormat("yyyyMMdd-HH:mm:ss.SSS-Z").create();
+
+    @Mock
+    ServiceStore svcStore;
+
+    @Mock
+    RoleStore roleStore;
+
+    @Mock
+    SecurityZoneStore zoneStore;
+
+    private final RangerPolicyAdminCache    cache   = new RangerPolicyAdminCache();
+    private final RangerPolicyEngineOptions options = new RangerPolicyEngineOptions();
+
+    private ServicePolicies allPolicies;
+    private String          serviceName;
+
+    @Before
+    public void setUp() throws Exception {
+        allPolicies = loadServicePolicies(1L);
+        serviceName = allPolicies.getServiceName();
+
+        options.disableContextEnrichers   = true;
+        options.disableCustomConditions   = true;
+        options.evaluateDelegateAdminOnly = true;
+
+        Mockito.when(svcStore.serviceExists(serviceName)).thenReturn(true);
+    }
+
+    @Test
+    public void testPolicyDeltasApplied() throws Exception {
+        Mockito.when(svcStore.getServicePoliciesIfUpdated(Mockito.eq(serviceName), Mockito.eq(-1L), Mockito.anyBoolean())).thenReturn(allPolicies);
+        Mockito.when(svcStore.getServicePoliciesIfUpdated(Mockito.eq(serviceName), Mockito.eq(1L), Mockito.anyBoolean())).thenReturn(createPolicyDeltas(2L, allPolicies.getServiceDef().getName()));
+
+        RangerPolicyAdmin oldPolicyAdmin = cache.getServicePoliciesAdmin(serviceName, svcStore, roleStore, zoneStore, options);
+
+        assertEquals(1L, oldPolicyAdmin.getPolicyVersion());
+
+        Map<String, Long> before      = RangerPolicyAdminCache.getMetrics();
+        RangerPolicyAdmin policyAdmin = cache.getServicePoliciesAdmin(serviceName, svcStore, roleStore, zoneStore, options);
+        Map<String, Long> after       = RangerPolicyAdminCache.getMetrics();
+
+        assertNotNull(policyAdmin);
+        assertEquals(2L, policyAdmin.getPolicyVersion());
+        assertEquals(1L, getChange(before, after, RangerPolicyAdminCache.METRIC_DELTA_APPLY_COUNT));
+        assertEquals(0L, getChange(before, after, RangerPolicyAdminCache.METRIC_REBUILD_COUNT));
+    }
+
+    @Test
+    public void testRebuildWhenPolicyDeltasCannotBeApplied() throws Exception {
+        ServicePolicies updatedPolicies = loadServicePolicies(2L);
+
+        Mockito.when(svcStore.getServicePoliciesIfUpdated(Mockito.eq(serviceName), Mockito.eq(-1L), Mockito.anyBoolean())).thenReturn(allPolicies, updatedPolicies);
+        Mockito.when(svcStore.getServicePoliciesIfUpdated(Mockito.eq(serviceName), Mockito.eq(1L), Mockito.anyBoolean())).thenReturn(createPolicyDeltas(2L, "not-" + allPolicies.getServiceDef().getName())); // deltas of another service-type are rejected
+
+        RangerPolicyAdmin oldPolicyAdmin = cache.getServicePoliciesAdmin(serviceName, svcStore, roleStore, zoneStore, options);
+        Map<String, Long> before         = RangerPolicyAdminCache.getMetrics();
+        RangerPolicyAdmin policyAdmin    = cache.getServicePoliciesAdmin(serviceName, svcStore, roleStore, zoneStore, options);
+        Map<String, Long> after          = RangerPolicyAdminCache.getMetrics();
+
+        assertNotNull(policyAdmin);
+        assertNotSame(oldPolicyAdmin, policyAdmin);
+        assertEquals(2L, policyAdmin.getPolicyVersion());
+        assertEquals(0L, getChange(before, after, RangerPolicyAdminCache.METRIC_DELTA_APPLY_COUNT));
+        assertEquals(1L, getChange(before, after, RangerPolicyAdminCache.METRIC_REBUILD_COUNT));
+        Mockito.verify(svcStore, Mockito.times(2)).getServicePoliciesIfUpdated(Mockito.eq(serviceName), Mockito.eq(-1L), Mockito.anyBoolean());
+        Mockito.verify(svcStore, Mockito.atLeastOnce()).getServicePoliciesIfUpdated(serviceName, -1L, true); // rebuild needs all policies, not deltas
+    }
+
+    @Test
+    public void testConcurrentRefreshesBuildOneEngine() throws Exception {
+        CountDownLatch  refreshStarted = new CountDownLatch(1);
+        CountDownLatch  releaseRefresh = new CountDownLatch(1);
+        ExecutorService executor       = Executors.newFixedThreadPool(2);
+
+        Mockito.when(svcStore.getServicePoliciesIfUpdated(Mockito.eq(serviceName), Mockito.eq(-1L), Mockito.anyBoolean())).thenAnswer(invocation -> {
+            refreshStarted.countDown();
+            releaseRefresh.await(10, TimeUnit.SECONDS);
+
+            return allPolicies;
+        });
+
+        try {
+            long                      coalescedCount = RangerPolicyAdminCache.getMetrics().get(RangerPolicyAdminCache.METRIC_COALESCED_REFRESH_COUNT);
+            Future<RangerPolicyAdmin> first          = executor.submit(() -> cache.getServicePoliciesAdmin(serviceName, svcStore, roleStore, zoneStore, options));
+
+            assertTrue(refreshStarted.await(10, TimeUnit.SECONDS));
+
+            Future<RangerPolicyAdmin> second = executor.submit(() -> cache.getServicePoliciesAdmin(serviceName, svcStore, roleStore, zoneStore, options));
+
+            // second caller counts itself as coalesced just before it waits for the refresh-lock
+            for (int i = 0; i < 1000 && RangerPolicyAdminCache.getMetrics().get(RangerPolicyAdminCache.METRIC_COALESCED_REFRESH_COUNT) == coalescedCount; i++) {
+                Thread.sleep(10);
+            }
+
+            releaseRefresh.countDown();
+
+            RangerPolicyAdmin firstPolicyAdmin  = first.get(10, TimeUnit.SECONDS);
+            RangerPolicyAdmin secondPolicyAdmin = second.get(10, TimeUnit.SECONDS);
+
+            assertNotNull(firstPolicyAdmin);
+            assertSame(firstPolicyAdmin, secondPolicyAdmin);
+            assertEquals(coalescedCount + 1, (long) RangerPolicyAdminCache.getMetrics().get(RangerPolicyAdminCache.METRIC_COALESCED_REFRESH_COUNT));
+            Mockito.verify(svcStore, Mockito.times(1)).getServicePoliciesIfUpdated(Mockito.eq(serviceName), Mockito.eq(-1L), Mockito.anyBoolean());
+            Mockito.verify(svcStore, Mockito.times(1)).getServicePoliciesIfUpdated(Mockito.eq(serviceName), Mockito.eq(1L), Mockito.anyBoolean());
+        } finally {
+            releaseRefresh.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static long getChange(Map<String, Long> before, Map<String, Long> after, String metricName) {
+        return after.get(metricName) - before.get(metricName);
+    }
+
+    private ServicePolicies loadServicePolicies(long policyVersion) throws Exception {
+        try (InputStreamReader reader = new InputStreamReader(getClass().getResourceAsStream(POLICIES_FILE))) {
+            ServicePolicies ret = GSON.fromJson(reader, PolicyAdminTestCase.class).servicePolicies;
+
+            ret.setPolicyVersion(policyVersion);
+
+            return ret;
+        }
+    }
+
+    private ServicePolicies createPolicyDeltas(long policyVersion, String serviceType) {
+        RangerPolicy    policy = GSON.fromJson(GSON.toJson(allPolicies.getPolicies().get(0)), RangerPolicy.class);
+        ServicePolicies ret    = new ServicePolicies();
+
+        policy.setId(100L);
+        policy.setName("policy-100");
+        policy.setService(serviceName);
+        policy.setServiceType(serviceType);
+        policy.setPolicyType(RangerPolicy.POLICY_TYPE_ACCESS);
+
+        ret.setServiceName(serviceName);
+        ret.setServiceDef(allPolicies.getServiceDef());
+        ret.setPolicyVersion(policyVersion);
+        ret.setPolicyDeltas(Collections.singletonList(new RangerPolicyDelta(1L, RangerPolicyDelta.CHANGE_TYPE_POLICY_CREATE, policyVersion, policy)));
+
+        return ret;
+    }
+
+    static class PolicyAdminTestCase {
+        ServicePolicies servicePolicies;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.biz;
+
+import org.apache.ranger.authorization.utils.JsonUtils;
+import org.apache.ranger.db.RangerDaoManager;
+import org.apache.ranger.db.XXPolicyDao;
+import org.apache.ranger.entity.XXPolicy;
+import org.apache.ranger.entity.XXService;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestRangerPolicyRetriever {
+    private static final Long   SERVICE_ID   = 3L;
+    private static final String SERVICE_NAME = "cl1_hive";
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    RangerDaoManager daoMgr;
+
+    @Mock
+    XXPolicyDao xPolicyDao;
+
+    private final XXService xService = new XXService();
+
+    @Before
+    public void setUp() {
+        xService.setId(SERVICE_ID);
+        xService.setName(SERVICE_NAME);
+        xService.setType(1L);
+
+        Mockito.when(daoMgr.getXXPolicy()).thenReturn(xPolicyDao);
+    }
+
+    @Test
+    public void testPoliciesInExactMultipleOfBatchSize() {
+        int            batchSize   = RangerPolicyRetriever.getBatchSize();
+        List<XXPolicy> firstBatch  = createPolicies(1, batchSize);
+        List<XXPolicy> secondBatch = createPolicies(batchSize + 1, batchSize);
+
+        Mockito.when(xPolicyDao.findByServiceId(SERVICE_ID, null, batchSize)).thenReturn(firstBatch);
+        Mockito.when(xPolicyDao.findByServiceId(SERVICE_ID, (long) batchSize, batchSize)).thenReturn(secondBatch);
+        Mockito.when(xPolicyDao.findByServiceId(SERVICE_ID, (long) batchSize * 2, batchSize)).thenReturn(Collections.emptyList());
+
+        List<RangerPolicy> policies = new RangerPolicyRetriever(daoMgr).getServicePolicies(xService);
+
+        assertPolicies(concat(firstBatch, secondBatch), policies);
+        Mockito.verify(xPolicyDao, Mockito.times(3)).findByServiceId(Mockito.eq(SERVICE_ID), Mockito.any(), Mockito.eq(batchSize));
+    }
+
+    @Test
+    public void testPoliciesOneMoreThanBatchSize() {
+        int            batchSize   = RangerPolicyRetriever.getBatchSize();
+        List<XXPolicy> firstBatch  = createPolicies(1, batchSize);
+        List<XXPolicy> secondBatch = createPolicies(batchSize + 10, 1);
+
+        Mockito.when(xPolicyDao.findByServiceId(SERVICE_ID, null, batchSize)).thenReturn(firstBatch);
+        Mockito.when(xPolicyDao.findByServiceId(SERVICE_ID, (long) batchSize, batchSize)).thenReturn(secondBatch);
+
+        List<RangerPolicy> policies = new RangerPolicyRetriever(daoMgr).getServicePolicies(xService);
+
+        assertPolicies(concat(firstBatch, secondBatch), policies);
+        Mockito.verify(xPolicyDao, Mockito.times(2)).findByServiceId(Mockito.eq(SERVICE_ID), Mockito.any(), Mockito.eq(batchSize));
+    }
+
+    @Test
+    public void testNoPolicies() {
+        int batchSize = RangerPolicyRetriever.getBatchSize();
+
+        Mockito.when(xPolicyDao.findByServiceId(SERVICE_ID, null, batchSize)).thenReturn(Collections.emptyList());
+
+        List<RangerPolicy> policies = new RangerPolicyRetriever(daoMgr).getServicePolicies(xService);
+
+        assertEquals(0, policies.size());
+    }
+
+    private static void assertPolicies(List<XXPolicy> expected, List<RangerPolicy> actual) {
+        assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals("policy-" + expected.get(i).getId(), actual.get(i).getName()); // policy text parsed in parallel must stay with its row
+            assertEquals(SERVICE_NAME, actual.get(i).getService());
+        }
+    }
+
+    private static List<XXPolicy> createPolicies(int startId, int count) {
+        List<XXPolicy> ret = new ArrayList<>(count);
+
+        for (long id = startId; id < startId + count; id++) {
+            RangerPolicy policy  = new RangerPolicy();
+            XXPolicy     xPolicy = new XXPolicy();
+
+            policy.setName("policy-" + id);
+
+            xPolicy.setId(id);
+            xPolicy.setService(SERVICE_ID);
+            xPolicy.setPolicyText(JsonUtils.objectToJson(policy));
+
+            ret.add(xPolicy);
+        }
+
+        return ret;
+    }
+
+    private static List<XXPolicy> concat(List<XXPolicy> first, List<XXPolicy> second) {
+        List<XXPolicy> ret = new ArrayList<>(first);
+
+        ret.addAll(second);
+
+        return ret;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.biz;
+
+import org.apache.ranger.db.RangerDaoManager;
+import org.apache.ranger.db.XXGlobalStateDao;
+import org.apache.ranger.entity.XXServiceVersionInfo;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestRangerServiceVersionRegistry {
+    private static final String SERVICE_NAME = "cl1_hive";
+
+    @InjectMocks
+    RangerServiceVersionRegistry registry = new RangerServiceVersionRegistry();
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    RangerDaoManager daoMgr;
+
+    @Mock
+    PlatformTransactionManager txManager;
+
+    @Test
+    public void testVersionsAreCurrent() throws Exception {
+        List<Object[]> versionRows = new ArrayList<>();
+        CountDownLatch refreshed   = new CountDownLatch(1);
+
+        versionRows.add(new Object[] {createVersionInfo(5L, 3L), SERVICE_NAME, 3L, Boolean.FALSE, "org.apache.ranger.services.hive.RangerServiceHive"});
+
+        Mockito.when(daoMgr.getXXServiceVersionInfo().getAllWithServiceInfo()).thenReturn(versionRows);
+        Mockito.when(daoMgr.getXXGlobalState().getAppDataVersion(XXGlobalStateDao.RANGER_GLOBAL_STATE_NAME_ROLE)).thenReturn(2L);
+        Mockito.when(daoMgr.getXXGlobalState().getAppDataVersion(XXGlobalStateDao.RANGER_GLOBAL_STATE_NAME_USER_GROUP)).thenReturn(7L);
+
+        registry.addChangeListener(refreshed::countDown);
+
+        assertTrue(refreshed.await(10, TimeUnit.SECONDS));
+
+        assertTrue(registry.isPolicyVersionCurrent(SERVICE_NAME, 5L));
+        assertFalse(registry.isPolicyVersionCurrent(SERVICE_NAME, 4L));
+        assertFalse(registry.isPolicyVersionCurrent(SERVICE_NAME, null));
+        assertFalse(registry.isPolicyVersionCurrent("unknown_service", 5L));
+        assertTrue(registry.isTagVersionCurrent(SERVICE_NAME, 3L));
+        assertFalse(registry.isTagVersionCurrent(SERVICE_NAME, -1L));
+        assertTrue(registry.isUserStoreVersionCurrent(7L));
+        assertFalse(registry.isUserStoreVersionCurrent(6L));
+        assertNull(registry.getServiceVersions("unknown_service"));
+        assertEquals(Long.valueOf(5L), registry.getServiceVersions(SERVICE_NAME).getPolicyVersion());
+        assertEquals(Long.valueOf(1L), registry.getServiceVersions(SERVICE_NAME).getServiceId());
+        assertEquals(Long.valueOf(3L), registry.getServiceVersions(SERVICE_NAME).getServiceType());
+        assertFalse(registry.getServiceVersions(SERVICE_NAME).isServiceEnabled());
+        assertEquals("org.apache.ranger.services.hive.RangerServiceHive", registry.getServiceVersions(SERVICE_NAME).getServiceDefImplClassName());
+    }
+
+    @Test
+    public void testListenerIsCalledOnlyWhenVersionsChange() {
+        int[] callCount = {0};
+
+        Mockito.lenient().when(daoMgr.getXXServiceVersionInfo()).thenThrow(new RuntimeException("database not available")); // only versions set below are seen
+
+        registry.addChangeListener(() -> callCount[0]++);
+
+        registry.setVersions(createVersions(5L, 3L, 7L));
+
+        assertEquals(1, callCount[0]);
+
+        registry.setVersions(createVersions(5L, 3L, 7L)); // same versions, reloaded later
+
+        assertEquals(1, callCount[0]);
+
+        registry.setVersions(createVersions(6L, 3L, 7L));
+
+        assertEquals(2, callCount[0]);
+
+        registry.setVersions(createVersions(6L, 3L, 8L));
+
+        assertEquals(3, callCount[0]);
+    }
+
+    private static RangerServiceVersionRegistry.Versions createVersions(Long policyVersion, Long tagVersion, Long userStoreVersion) {
+        RangerServiceVersionRegistry.ServiceVersions serviceVersions = new RangerServiceVersionRegistry.ServiceVersions(1L, 3L, true, null, policyVersion, tagVersion, 2L, null);
+
+        return new RangerServiceVersionRegistry.Versions(Collections.singletonMap(SERVICE_NAME, serviceVersions), userStoreVersion, System.currentTimeMillis());
+    }
+
+    private static XXServiceVersionInfo createVersionInfo(Long policyVersion, Long tagVersion) {
+        XXServiceVersionInfo ret = new XXServiceVersionInfo();
+
+        ret.setServiceId(1L);
+        ret.setPolicyVersion(policyVersion);
+        ret.setTagVersion(tagVersion);
+        ret.setRoleVersion(1L);
+
+        return ret;
+    }
+}
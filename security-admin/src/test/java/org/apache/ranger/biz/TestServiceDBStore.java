@@ -18,6 +18,8 @@
 package org.apache.ranger.biz;
 
 import org.apache.commons.collections.ListUtils;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.ranger.common.ContextUtil;
 import org.apache.ranger.common.GUIDUtil;
 import org.apache.ranger.common.JSONUtil;
@@ -38,6 +40,7 @@
 import org.apache.ranger.db.XXEnumElementDefDao;
 import org.apache.ranger.db.XXGroupDao;
 import org.apache.ranger.db.XXGroupGroupDao;
+import org.apache.ranger.db.XXPolicyChangeLogDao;
 import org.apache.ranger.db.XXPolicyConditionDefDao;
 import org.apache.ranger.db.XXPolicyDao;
 import org.apache.ranger.db.XXPolicyLabelMapDao;
@@ -62,6 +65,7 @@
 import org.apache.ranger.entity.XXEnumElementDef;
 import org.apache.ranger.entity.XXGroup;
 import org.apache.ranger.entity.XXPolicy;
+import org.apache.ranger.entity.XXPolicyChangeLog;
 import org.apache.ranger.entity.XXPolicyConditionDef;
 import org.apache.ranger.entity.XXPolicyItem;
 import org.apache.ranger.entity.XXPolicyItemAccess;
@@ -86,6 +90,7 @@
 import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemAccess;
 import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemCondition;
 import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.model.RangerPolicyDelta;
 import org.apache.ranger.plugin.model.RangerPolicyResourceSignature;
 import org.apache.ranger.plugin.model.RangerService;
 import org.apache.ranger.plugin.model.RangerServiceDef;
@@ -97,6 +102,8 @@
 import org.apache.ranger.plugin.model.RangerServiceDef.RangerServiceConfigDef;
 import org.apache.ranger.plugin.store.PList;
 import org.apache.ranger.plugin.store.ServicePredicateUtil;
+import org.apache.ranger.plugin.util.JsonUtilsV2;
+import org.apache.ranger.plugin.util.RangerBulkPolicyResult;
 import org.apache.ranger.plugin.util.SearchFilter;
 import org.apache.ranger.plugin.util.ServicePolicies;
 import org.apache.ranger.security.context.RangerContextHolder;
@@ -109,6 +116,7 @@
 import org.apache.ranger.service.RangerServiceWithAssignedIdService;
 import org.apache.ranger.service.XGroupService;
 import org.apache.ranger.service.XUserService;
+import org.apache.ranger.view.RangerExportPolicyList;
 import org.apache.ranger.view.RangerPolicyList;
 import org.apache.ranger.view.RangerServiceDefList;
 import org.apache.ranger.view.RangerServiceList;
@@ -124,15 +132,26 @@
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.junit.runners.MethodSorters;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -2355,6 +2374,209 @@ public void test53GetPolicyByGUIDAndZoneName() throws Exception {
         Mockito.verify(policyService).getPopulatedViewObject(xPolicy);
     }
 
+    @Test
+    public void test54IsPolicySearchInDatabase() {
+        SearchFilter filter = new SearchFilter();
+        filter.setParam(SearchFilter.SERVICE_NAME, "HDFS_1");
+        filter.setParam(SearchFilter.POLICY_NAME_PARTIAL, "policy");
+        Assert.assertTrue(ServiceDBStore.isPolicySearchInDatabase(filter));
+
+        filter.setParam(SearchFilter.USER, "user1");
+        Assert.assertFalse(ServiceDBStore.isPolicySearchInDatabase(filter));
+
+        filter.removeParam(SearchFilter.USER);
+        filter.setMultiValueParam(SearchFilter.POLICY_LABELS_PARTIAL, new Object[] {"label1"});
+        Assert.assertFalse(ServiceDBStore.isPolicySearchInDatabase(filter));
+
+        SearchFilter allPagesFilter = new SearchFilter(SearchFilter.RETRIEVE_ALL_PAGES, "true");
+        Assert.assertFalse(ServiceDBStore.isPolicySearchInDatabase(allPagesFilter));
+    }
+
+    @Test
+    public void test55SearchPoliciesInServices() {
+        SearchFilter       filter     = new SearchFilter(SearchFilter.POLICY_NAME_PARTIAL, "policy");
+        List<RangerPolicy> policies   = Collections.singletonList(rangerPolicy());
+        List<Long>         serviceIds = Arrays.asList(1L, 2L);
+        Mockito.when(policyService.searchPolicyPage(Mockito.argThat(dbFilter -> dbFilter.getMultiValueParam(SearchFilter.SERVICE_ID) != null && "1".equals(dbFilter.getParam(SearchFilter.ZONE_ID))), Mockito.any(RangerPolicyList.class))).thenReturn(policies);
+
+        RangerPolicyList policyList = serviceDBStore.searchPoliciesInServices(filter, serviceIds);
+
+        Assert.assertEquals(policies, policyList.getPolicies());
+        Assert.assertNull(filter.getMultiValueParam(SearchFilter.SERVICE_ID));
+        Assert.assertNull(filter.getParam(SearchFilter.ZONE_ID));
+    }
+
+    @Test
+    public void test56SearchPoliciesInServicesNotVisible() {
+        SearchFilter filter = new SearchFilter(SearchFilter.SERVICE_ID, "3");
+
+        RangerPolicyList policyList = serviceDBStore.searchPoliciesInServices(filter, Arrays.asList(1L, 2L));
+
+        Assert.assertEquals(0, policyList.getListSize());
+        Mockito.verify(policyService, Mockito.never()).searchPolicyPage(Mockito.any(SearchFilter.class), Mockito.any(RangerPolicyList.class));
+    }
+
+    @Test
+    public void test57PolicyIteratorReadsInBatches() {
+        int                batchSize  = RangerPolicyRetriever.getBatchSize();
+        List<RangerPolicy> firstBatch = new ArrayList<>();
+
+        for (long id = 1; id <= batchSize; id++) {
+            firstBatch.add(exportPolicy(id));
+        }
+
+        Mockito.when(policyService.searchPoliciesAfterId(Mockito.any(SearchFilter.class), Mockito.isNull())).thenReturn(firstBatch);
+        Mockito.when(policyService.searchPoliciesAfterId(Mockito.any(SearchFilter.class), Mockito.eq((long) batchSize))).thenReturn(Collections.singletonList(exportPolicy(batchSize + 5L)));
+
+        Iterator<RangerPolicy> iter      = serviceDBStore.getPolicyIterator(new SearchFilter(), Arrays.asList(1L, 2L));
+        List<Long>             policyIds = new ArrayList<>();
+
+        while (iter.hasNext()) {
+            policyIds.add(iter.next().getId());
+        }
+
+        Assert.assertEquals(batchSize + 1, policyIds.size());
+        Assert.assertEquals(Long.valueOf(1L), policyIds.get(0));
+        Assert.assertEquals(Long.valueOf(batchSize), policyIds.get(batchSize - 1));
+        Assert.assertEquals(Long.valueOf(batchSize + 5L), policyIds.get(batchSize));
+        Mockito.verify(policyService, Mockito.times(2)).searchPoliciesAfterId(Mockito.argThat(dbFilter -> dbFilter.getMaxRows() == batchSize && dbFilter.getMultiValueParam(SearchFilter.SERVICE_ID) != null), Mockito.any());
+    }
+
+    @Test
+    public void test58PolicyIteratorNotVisible() {
+        Iterator<RangerPolicy> iter = serviceDBStore.getPolicyIterator(new SearchFilter(SearchFilter.SERVICE_ID, "3"), Arrays.asList(1L, 2L));
+
+        Assert.assertFalse(iter.hasNext());
+        Mockito.verify(policyService, Mockito.never()).searchPoliciesAfterId(Mockito.any(SearchFilter.class), Mockito.any());
+    }
+
+    @Test
+    public void test59GetPoliciesInJsonFromIterator() throws Exception {
+        ByteArrayOutputStream out      = new ByteArrayOutputStream();
+        HttpServletResponse   response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(out));
+
+        serviceDBStore.getPoliciesInJson(Arrays.asList(exportPolicy(1L), exportPolicy(2L)).iterator(), response);
+
+        RangerExportPolicyList exported = JsonUtilsV2.jsonToObj(new String(out.toByteArray(), StandardCharsets.UTF_8), RangerExportPolicyList.class);
+
+        Assert.assertEquals(2, exported.getPolicies().size());
+        Assert.assertEquals("policy-1", exported.getPolicies().get(0).getName());
+        Assert.assertEquals("policy-2", exported.getPolicies().get(1).getName());
+        Assert.assertNull(exported.getPolicies().get(0).getCreateTime());
+        Assert.assertEquals(2, exported.getTotalCount());
+        Assert.assertFalse(exported.getMetaDataInfo().isEmpty());
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    public void test60GetPoliciesInCSVFromIterator() throws Exception {
+        ByteArrayOutputStream out      = new ByteArrayOutputStream();
+        HttpServletResponse   response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(out));
+
+        serviceDBStore.getPoliciesInCSV(Arrays.asList(exportPolicy(1L), exportPolicy(2L)).iterator(), response);
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+
+        Assert.assertEquals(3, lines.length);
+        Assert.assertTrue(lines[0].startsWith("ID|Name|"));
+        Assert.assertTrue(lines[1].contains("policy-1"));
+        Assert.assertTrue(lines[2].contains("policy-2"));
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    public void test61GetPoliciesInExcelFromIterator() throws Exception {
+        ByteArrayOutputStream out      = new ByteArrayOutputStream();
+        HttpServletResponse   response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(out));
+
+        serviceDBStore.getPoliciesInExcel(Arrays.asList(exportPolicy(1L), exportPolicy(2L)).iterator(), response);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+
+            Assert.assertEquals(2, sheet.getLastRowNum());
+            Assert.assertEquals("policy-1", sheet.getRow(1).getCell(1).getStringCellValue());
+            Assert.assertEquals("policy-2", sheet.getRow(2).getCell(1).getStringCellValue());
+        }
+
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    public void test62BulkUpdatePoliciesUpdatesVersionOncePerService() throws Exception {
+        setup();
+        XXServiceDao            xServiceDao            = Mockito.mock(XXServiceDao.class);
+        XXPolicyLabelMapDao     xPolicyLabelMapDao     = Mockito.mock(XXPolicyLabelMapDao.class);
+        XXServiceVersionInfoDao xServiceVersionInfoDao = Mockito.mock(XXServiceVersionInfoDao.class);
+        XXPolicyChangeLogDao    xPolicyChangeLogDao    = Mockito.mock(XXPolicyChangeLogDao.class);
+        XXService               xService1              = bulkTestService(1L, "HDFS_1");
+        XXService               xService2              = bulkTestService(2L, "HDFS_2");
+        XXServiceVersionInfo    serviceVersionInfo     = new XXServiceVersionInfo();
+        List<RangerPolicy>      policiesToDelete       = Arrays.asList(bulkTestPolicy(11L, "HDFS_1"), bulkTestPolicy(12L, "HDFS_1"), bulkTestPolicy(13L, "HDFS_1"), bulkTestPolicy(21L, "HDFS_2"));
+        boolean                 supportsPolicyDeltas   = ServiceDBStore.SUPPORTS_POLICY_DELTAS;
+
+        serviceVersionInfo.setServiceId(1L);
+        serviceVersionInfo.setPolicyVersion(5L);
+
+        Mockito.when(daoManager.getXXService()).thenReturn(xServiceDao);
+        Mockito.when(daoManager.getXXPolicyLabelMap()).thenReturn(xPolicyLabelMapDao);
+        Mockito.when(daoManager.getXXServiceVersionInfo()).thenReturn(xServiceVersionInfoDao);
+        Mockito.when(daoManager.getXXPolicyChangeLog()).thenReturn(xPolicyChangeLogDao);
+        Mockito.when(xServiceVersionInfoDao.findByServiceId(1L)).thenReturn(serviceVersionInfo);
+
+        for (XXService xService : Arrays.asList(xService1, xService2)) {
+            RangerService rangerService = new RangerService();
+
+            rangerService.setId(xService.getId());
+            rangerService.setName(xService.getName());
+
+            Mockito.when(xServiceDao.findByName(xService.getName())).thenReturn(xService);
+            Mockito.when(xServiceDao.getById(xService.getId())).thenReturn(xService);
+            Mockito.when(bizUtil.hasAccess(xService, null)).thenReturn(true);
+            Mockito.when(svcService.getPopulatedViewObject(xService)).thenReturn(rangerService);
+        }
+
+        RangerBulkPolicyResult result = serviceDBStore.bulkUpdatePolicies(Collections.emptyList(), Collections.emptyList(), policiesToDelete);
+
+        Assert.assertTrue(result.isApplied());
+        Assert.assertEquals(policiesToDelete.size(), result.getItemResults().size());
+
+        ArgumentCaptor<Runnable> versionUpdaters = ArgumentCaptor.forClass(Runnable.class);
+
+        Mockito.verify(transactionSynchronizationAdapter, Mockito.times(2)).executeOnTransactionCommit(versionUpdaters.capture());
+
+        ServiceDBStore.ServiceVersionUpdater versionUpdater = (ServiceDBStore.ServiceVersionUpdater) versionUpdaters.getAllValues().get(0);
+
+        Assert.assertEquals(Long.valueOf(1L), versionUpdater.serviceId);
+        Assert.assertEquals(3, versionUpdater.policyDeltas.size());
+        Assert.assertEquals(1, ((ServiceDBStore.ServiceVersionUpdater) versionUpdaters.getAllValues().get(1)).policyDeltas.size());
+
+        ServiceDBStore.SUPPORTS_POLICY_DELTAS = true;
+
+        try {
+            versionUpdater.run();
+        } finally {
+            ServiceDBStore.SUPPORTS_POLICY_DELTAS = supportsPolicyDeltas;
+        }
+
+        ArgumentCaptor<XXPolicyChangeLog> changeLogs = ArgumentCaptor.forClass(XXPolicyChangeLog.class);
+
+        Mockito.verify(xServiceVersionInfoDao).update(serviceVersionInfo);
+        Mockito.verify(xPolicyChangeLogDao, Mockito.times(3)).create(changeLogs.capture());
+        Assert.assertEquals(Long.valueOf(6L), serviceVersionInfo.getPolicyVersion());
+
+        for (int i = 0; i < 3; i++) {
+            XXPolicyChangeLog changeLog = changeLogs.getAllValues().get(i);
+
+            Assert.assertEquals(policiesToDelete.get(i).getId(), changeLog.getPolicyId());
+            Assert.assertEquals(Long.valueOf(6L), changeLog.getPolicyVersion());
+            Assert.assertEquals(Integer.valueOf(RangerPolicyDelta.CHANGE_TYPE_POLICY_DELETE), changeLog.getChangeType());
+        }
+    }
+
     private VXGroup vxGroup() {
         VXGroup vXGroup = new VXGroup();
         vXGroup.setId(Id);
@@ -2513,6 +2735,37 @@ private RangerPolicy rangerPolicy() {
         return policy;
     }
 
+    private XXService bulkTestService(Long id, String name) {
+        XXService xService = new XXService();
+
+        xService.setId(id);
+        xService.setName(name);
+        xService.setType(Id);
+
+        return xService;
+    }
+
+    private RangerPolicy bulkTestPolicy(Long id, String serviceName) {
+        RangerPolicy policy = rangerPolicy();
+
+        policy.setId(id);
+        policy.setName("policy-" + id);
+        policy.setService(serviceName);
+        policy.setServiceType("hdfs");
+
+        return policy;
+    }
+
+    private RangerPolicy exportPolicy(Long id) {
+        RangerPolicy policy = rangerPolicy();
+
+        policy.setId(id);
+        policy.setName("policy-" + id);
+        policy.setServiceType("hdfs");
+
+        return policy;
+    }
+
     private XXServiceDef serviceDef() {
         XXServiceDef xServiceDef = new XXServiceDef();
         xServiceDef.setAddedByUserId(Id);
@@ -2548,4 +2801,26 @@ private XXService xService() {
 
         return xService;
     }
+
+    private static class ByteArrayServletOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream out;
+
+        ByteArrayServletOutputStream(ByteArrayOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) {
+            out.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
 }
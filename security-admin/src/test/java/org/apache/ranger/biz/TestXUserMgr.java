@@ -133,6 +133,7 @@
 import javax.ws.rs.WebApplicationException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -3614,6 +3615,11 @@ public void test113CreateOrUpdateXUsers() {
         vXPortalUser.setUserRoleList(lstRole);
         Mockito.when(userMgr.getUserProfileByLoginId(vXUser.getName())).thenReturn(vXPortalUser);
         Mockito.when(userMgr.updateUserWithPass(Mockito.any())).thenReturn(xXPortalUser);
+        XXPortalUserDao xXPortalUserDao  = Mockito.mock(XXPortalUserDao.class);
+        Set<String>     existingLoginIds = new HashSet<>();
+        existingLoginIds.add(vXUser.getName());
+        Mockito.when(daoManager.getXXPortalUser()).thenReturn(xXPortalUserDao);
+        Mockito.when(xXPortalUserDao.findLoginIdsByLoginIds(Mockito.any())).thenReturn(existingLoginIds);
         xUserMgr.createOrUpdateXUsers(users);
         vXUser.setPassword("*****");
         xUserMgr.createOrUpdateXUsers(users);
@@ -4316,6 +4322,27 @@ public void test132CreateExternalUser() {
         Assert.assertEquals(createdXUser.getName(), vXUser.getName());
     }
 
+    @Test
+    public void test133CreateOrUpdateXGroupsInSingleBatch() {
+        destroySession();
+        setup();
+        VXGroup       vXGroup1 = vxGroup();
+        VXGroup       vXGroup2 = vxGroup();
+        VXGroup       vXGroup3 = vxGroup();
+        List<VXGroup> vXGroups = new ArrayList<>();
+        vXGroup2.setName("group2");
+        vXGroup3.setName("null");
+        vXGroups.add(vXGroup1);
+        vXGroups.add(vXGroup2);
+        vXGroups.add(vXGroup3);
+        VXGroupList vXGroupList = new VXGroupList(vXGroups);
+
+        xUserMgr.createOrUpdateXGroups(vXGroupList);
+
+        Mockito.verify(xGroupService, Mockito.times(1)).createOrUpdateXGroupsWithOutLogin(Arrays.asList(vXGroup1, vXGroup2));
+        Mockito.verify(xGroupService, Mockito.never()).createXGroupWithOutLogin(Mockito.any());
+    }
+
     @Test
     public void test01CreateXUser_federated() {
         destroySession();
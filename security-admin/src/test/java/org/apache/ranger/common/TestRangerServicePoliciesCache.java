@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.common;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.ranger.common.RangerServicePoliciesCache.SerializedResponse;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.store.ServiceStore;
+import org.apache.ranger.plugin.util.JsonUtilsV2;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.zip.GZIPInputStream;
+
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestRangerServicePoliciesCache {
+    private static final String SERVICE_NAME = "dev_hive_response_cache";
+
+    @Mock
+    ServiceStore serviceStore;
+
+    @After
+    public void tearDown() {
+        RangerServicePoliciesCache.getInstance().resetCache(SERVICE_NAME);
+    }
+
+    @Test
+    public void testResponseKey() {
+        String fullKey = RangerServicePoliciesCache.getResponseKey(10L, null, true, true, true);
+
+        Assert.assertEquals(fullKey, RangerServicePoliciesCache.getResponseKey(10L, null, true, true, true));
+        Assert.assertNotEquals(fullKey, RangerServicePoliciesCache.getResponseKey(11L, null, true, true, true));
+        Assert.assertNotEquals(fullKey, RangerServicePoliciesCache.getResponseKey(10L, null, false, true, true));
+        Assert.assertNotEquals(fullKey, RangerServicePoliciesCache.getResponseKey(10L, null, true, false, false));
+        Assert.assertNotEquals(fullKey, RangerServicePoliciesCache.getResponseKey(10L, null, true, true, false));
+        Assert.assertNotEquals(RangerServicePoliciesCache.getResponseKey(10L, 8L, false, true, true), RangerServicePoliciesCache.getResponseKey(10L, 9L, false, true, true));
+    }
+
+    @Test
+    public void testCachedResponse() throws Exception {
+        RangerServicePoliciesCache cache       = RangerServicePoliciesCache.getInstance();
+        ServicePolicies            policies    = loadPolicies(1L);
+        String                     responseKey = RangerServicePoliciesCache.getResponseKey(1L, null, true, true, true);
+
+        Assert.assertNull(cache.getResponse(SERVICE_NAME, responseKey));
+        Assert.assertNull(cache.getSerializedResponse(policies));
+
+        cache.putResponse(SERVICE_NAME, responseKey, policies);
+
+        Assert.assertSame(policies, cache.getResponse(SERVICE_NAME, responseKey));
+
+        SerializedResponse response = cache.getSerializedResponse(policies);
+
+        Assert.assertNotNull(response);
+        Assert.assertArrayEquals(JsonUtilsV2.getMapper().writeValueAsBytes(policies), response.getBytes());
+        Assert.assertSame(response.getBytes(), response.getBytes());
+        Assert.assertArrayEquals(response.getBytes(), IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(response.getGzippedBytes()))));
+
+        Assert.assertTrue(response.isNotModified(response.getETag()));
+        Assert.assertTrue(response.isNotModified("\"other\", " + response.getETag().substring(2)));
+        Assert.assertTrue(response.isNotModified("*"));
+        Assert.assertFalse(response.isNotModified("\"other\""));
+        Assert.assertFalse(response.isNotModified(null));
+    }
+
+    @Test
+    public void testResponsesOfOlderVersionsAreDropped() throws Exception {
+        RangerServicePoliciesCache cache     = RangerServicePoliciesCache.getInstance();
+        ServicePolicies            policies  = loadPolicies(1L);
+        String                     v1Key     = RangerServicePoliciesCache.getResponseKey(1L, null, true, true, true);
+        String                     v2Key     = RangerServicePoliciesCache.getResponseKey(2L, null, true, true, true);
+        ServicePolicies            policies2 = createPolicies(2L);
+
+        cache.putResponse(SERVICE_NAME, v1Key, policies);
+
+        // cached object updated in place, for example with policy-deltas, must not be written from stale bytes
+        policies.setPolicyVersion(2L);
+
+        Assert.assertNull(cache.getSerializedResponse(policies));
+
+        cache.putResponse(SERVICE_NAME, v2Key, policies2);
+
+        Assert.assertNull(cache.getResponse(SERVICE_NAME, v1Key));
+        Assert.assertSame(policies2, cache.getResponse(SERVICE_NAME, v2Key));
+    }
+
+    private ServicePolicies loadPolicies(Long version) throws Exception {
+        ServicePolicies policies = createPolicies(version);
+
+        when(serviceStore.getServicePolicyVersion(SERVICE_NAME)).thenReturn(version);
+        when(serviceStore.getServicePolicyDeltasOrPolicies(SERVICE_NAME, -1L)).thenReturn(policies);
+
+        Assert.assertSame(policies, RangerServicePoliciesCache.getInstance().getServicePolicies(SERVICE_NAME, 1L, -1L, true, serviceStore));
+
+        return policies;
+    }
+
+    private static ServicePolicies createPolicies(Long version) {
+        ServicePolicies ret    = new ServicePolicies();
+        RangerPolicy    policy = new RangerPolicy();
+
+        policy.setId(1L);
+        policy.setName("db1-policy");
+        policy.setService(SERVICE_NAME);
+
+        ret.setServiceId(1L);
+        ret.setServiceName(SERVICE_NAME);
+        ret.setPolicyVersion(version);
+        ret.setPolicies(new ArrayList<>());
+        ret.getPolicies().add(policy);
+
+        return ret;
+    }
+}
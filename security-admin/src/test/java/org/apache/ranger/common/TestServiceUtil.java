@@ -19,6 +19,8 @@
 
 package org.apache.ranger.common;
 
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
+import org.apache.ranger.biz.RangerServiceVersionRegistry.ServiceVersions;
 import org.apache.ranger.biz.ServiceDBStore;
 import org.apache.ranger.db.RangerDaoManager;
 import org.apache.ranger.db.XXGroupDao;
@@ -48,6 +50,7 @@
 import org.mockito.junit.MockitoJUnitRunner;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.WebApplicationException;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -75,6 +78,12 @@ public class TestServiceUtil {
     @Mock
     XXGroupDao xxGroupDao;
 
+    @Mock
+    RESTErrorUtil restErrorUtil;
+
+    @Mock
+    RangerServiceVersionRegistry serviceVersionRegistry;
+
     @Test
     public void testGetServiceByName() throws Exception {
         RangerService expectedRangerService = new RangerService();
@@ -1559,6 +1568,30 @@ public void testIsValidateHttpsAuthentication() throws Exception {
         Assert.assertTrue(isValidAuthentication);
     }
 
+    @Test
+    public void testIsValidServiceFromVersionRegistry() throws Exception {
+        HttpServletRequest request     = Mockito.mock(HttpServletRequest.class);
+        String             serviceName = "hiveService";
+
+        Mockito.when(serviceVersionRegistry.getServiceVersions(serviceName)).thenReturn(new ServiceVersions(1L, 3L, true, null, 5L, 3L, 2L, null));
+
+        Assert.assertTrue(serviceUtil.isValidService(serviceName, request));
+        Assert.assertTrue(serviceUtil.isValidateHttpsAuthentication(serviceName, request));
+
+        Mockito.verify(svcStore, Mockito.never()).getServiceByName(serviceName);
+    }
+
+    @Test(expected = WebApplicationException.class)
+    public void testIsValidServiceDisabledInVersionRegistry() throws Exception {
+        HttpServletRequest request     = Mockito.mock(HttpServletRequest.class);
+        String             serviceName = "hiveService";
+
+        Mockito.when(serviceVersionRegistry.getServiceVersions(serviceName)).thenReturn(new ServiceVersions(1L, 3L, false, null, 5L, 3L, 2L, null));
+        Mockito.when(restErrorUtil.createRESTException("Unauthorized access.", MessageEnums.OPER_NOT_ALLOWED_FOR_STATE)).thenReturn(new WebApplicationException());
+
+        serviceUtil.isValidService(serviceName, request);
+    }
+
     @Test
     public void testToGrantRevokeRequestForHive() throws Exception {
         GrantRevokeRequest expectedGrantRevokeRequest = new GrantRevokeRequest();
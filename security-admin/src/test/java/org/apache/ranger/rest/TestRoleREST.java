@@ -20,6 +20,7 @@
 import org.apache.ranger.admin.client.datatype.RESTResponse;
 import org.apache.ranger.biz.AssetMgr;
 import org.apache.ranger.biz.RangerBizUtil;
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
 import org.apache.ranger.biz.RoleDBStore;
 import org.apache.ranger.biz.RoleRefUpdater;
 import org.apache.ranger.biz.ServiceDBStore;
@@ -107,6 +108,8 @@ public class TestRoleREST {
     @Mock
     RoleDBStore       roleStore;
     @Mock
+    RangerServiceVersionRegistry serviceVersionRegistry;
+    @Mock
     RangerRoleService roleService;
 
     @Mock
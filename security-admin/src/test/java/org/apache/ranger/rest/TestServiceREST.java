@@ -25,6 +25,8 @@
 import org.apache.ranger.biz.AssetMgr;
 import org.apache.ranger.biz.RangerBizUtil;
 import org.apache.ranger.biz.RangerPolicyAdmin;
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
+import org.apache.ranger.biz.RangerServiceVersionRegistry.ServiceVersions;
 import org.apache.ranger.biz.SecurityZoneDBStore;
 import org.apache.ranger.biz.ServiceDBStore;
 import org.apache.ranger.biz.ServiceDBStore.JSON_FILE_NAME_TYPE;
@@ -73,6 +75,7 @@
 import org.apache.ranger.plugin.model.validation.RangerPolicyValidator;
 import org.apache.ranger.plugin.model.validation.RangerServiceDefValidator;
 import org.apache.ranger.plugin.model.validation.RangerServiceValidator;
+import org.apache.ranger.plugin.model.validation.RangerValidator.Action;
 import org.apache.ranger.plugin.policyengine.RangerAccessResource;
 import org.apache.ranger.plugin.policyengine.RangerAccessResourceImpl;
 import org.apache.ranger.plugin.policyengine.RangerPolicyEngineImpl;
@@ -80,6 +83,8 @@
 import org.apache.ranger.plugin.store.EmbeddedServiceDefsUtil;
 import org.apache.ranger.plugin.store.PList;
 import org.apache.ranger.plugin.util.GrantRevokeRequest;
+import org.apache.ranger.plugin.util.RangerBulkPolicyRequest;
+import org.apache.ranger.plugin.util.RangerBulkPolicyResult;
 import org.apache.ranger.plugin.util.RangerPluginCapability;
 import org.apache.ranger.plugin.util.SearchFilter;
 import org.apache.ranger.plugin.util.ServicePolicies;
@@ -127,10 +132,12 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -158,6 +165,8 @@ public class TestServiceREST {
     @Mock
     ServiceDBStore svcStore;
     @Mock
+    RangerServiceVersionRegistry serviceVersionRegistry;
+    @Mock
     SecurityZoneDBStore zoneStore;
     @Mock
     TagDBStore tagStore;
@@ -852,6 +861,7 @@ public void test20getPolicies() {
         SearchFilter       filter  = new SearchFilter();
         filter.setParam(SearchFilter.POLICY_NAME, "policyName");
         filter.setParam(SearchFilter.SERVICE_NAME, "serviceName");
+        filter.setParam(SearchFilter.USER, "test-user-1"); // not searchable in database: policies are filtered in memory
         Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
         RangerPolicyList dbRangerPolicy = serviceREST.getPolicies(request);
         Assert.assertNotNull(dbRangerPolicy);
@@ -952,6 +962,7 @@ public void test27getPoliciesWithoutServiceAdmin() throws Exception {
         policies.add(rangerPolicy());
         filter.setParam(SearchFilter.POLICY_NAME, "policyName");
         filter.setParam(SearchFilter.SERVICE_NAME, "serviceName");
+        filter.setParam(SearchFilter.USER, "test-user-1"); // not searchable in database: policies are filtered in memory
         Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
         Mockito.when(svcStore.getPolicies(filter)).thenReturn(policies);
         RangerPolicyList dbRangerPolicy = serviceREST.getPolicies(request);
@@ -976,6 +987,7 @@ public void test28getPoliciesWithServiceAdmin() throws Exception {
         policies.add(rPol);
         filter.setParam(SearchFilter.POLICY_NAME, "policyName");
         filter.setParam(SearchFilter.SERVICE_NAME, "serviceName");
+        filter.setParam(SearchFilter.USER, "test-user-1"); // not searchable in database: policies are filtered in memory
         Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
         Mockito.when(svcStore.getPolicies(filter)).thenReturn(policies);
 
@@ -1442,6 +1454,7 @@ public void test45exportPoliciesInJSON() throws Exception {
         HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
         SearchFilter        filter   = new SearchFilter();
         filter.setParam("zoneName", "zone1");
+        filter.setParam(SearchFilter.USER, "test-user-1"); // not searchable in database: policies are collected in memory
         Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
         Mockito.when(svcStore.getPolicies(filter)).thenReturn(rangerPolicyList);
         Mockito.when(bizUtil.isAdmin()).thenReturn(true);
@@ -1476,6 +1489,7 @@ public void test46exportPoliciesInCSV() throws Exception {
         request.setAttribute("serviceType", "hdfs,hbase,hive,yarn,knox,storm,solr,kafka,nifi,atlas,sqoop");
         HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
         SearchFilter        filter   = new SearchFilter();
+        filter.setParam(SearchFilter.USER, "test-user-1"); // not searchable in database: policies are collected in memory
 
         Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
         Mockito.when(svcStore.getPolicies(filter)).thenReturn(rangerPolicyList);
@@ -1511,6 +1525,7 @@ public void test48exportPoliciesInExcel() throws Exception {
         request.setAttribute("serviceType", "hdfs,hbase,hive,yarn,knox,storm,solr,kafka,nifi,atlas,sqoop");
         HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
         SearchFilter        filter   = new SearchFilter();
+        filter.setParam(SearchFilter.USER, "test-user-1"); // not searchable in database: policies are collected in memory
 
         Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
         Mockito.when(svcStore.getPolicies(filter)).thenReturn(rangerPolicyList);
@@ -2478,6 +2493,265 @@ public void test81GetPolicyByNameAndServiceNameWithZoneNameIsNull() {
         Assert.assertEquals(dbRangerPolicy.getName(), rangerPolicy.getName());
     }
 
+    @Test
+    public void test82BulkUpdatePoliciesNotAppliedOnValidationFailure() throws Exception {
+        RangerPolicy    rangerPolicy   = rangerPolicy();
+        Long            invalidId      = 999L;
+        XXServiceDef    xServiceDef    = serviceDef();
+        XXService       xService       = xService();
+        XXServiceDefDao xServiceDefDao = Mockito.mock(XXServiceDefDao.class);
+        XXServiceDao    xServiceDao    = Mockito.mock(XXServiceDao.class);
+        Mockito.when(validatorFactory.getPolicyValidator(svcStore)).thenReturn(policyValidator);
+        Mockito.when(bizUtil.isAdmin()).thenReturn(true);
+        Mockito.when(bizUtil.getCurrentUserLoginId()).thenReturn("admin");
+        Mockito.when(daoManager.getXXService()).thenReturn(xServiceDao);
+        Mockito.when(xServiceDao.findByName(Mockito.anyString())).thenReturn(xService);
+        Mockito.when(daoManager.getXXServiceDef()).thenReturn(xServiceDefDao);
+        Mockito.when(xServiceDefDao.getById(xService.getType())).thenReturn(xServiceDef);
+        Mockito.doThrow(new Exception("no policy exists with ID=" + invalidId)).when(policyValidator).validate(invalidId, Action.DELETE);
+
+        RangerBulkPolicyRequest bulkRequest = new RangerBulkPolicyRequest(Collections.singletonList(rangerPolicy), null, Collections.singletonList(invalidId));
+        RangerBulkPolicyResult  result      = serviceREST.bulkUpdatePolicies(bulkRequest);
+
+        Assert.assertFalse(result.isApplied());
+        Assert.assertEquals(2, result.getItemResults().size());
+        Assert.assertEquals(RangerBulkPolicyResult.Status.NOT_APPLIED, result.getItemResults().get(0).getStatus());
+        Assert.assertEquals(RangerBulkPolicyResult.Status.FAILED, result.getItemResults().get(1).getStatus());
+        Assert.assertEquals(invalidId, result.getItemResults().get(1).getPolicyId());
+        Mockito.verify(svcStore, Mockito.never()).bulkUpdatePolicies(Mockito.anyList(), Mockito.anyList(), Mockito.anyList());
+    }
+
+    @Test
+    public void test83getServicePoliciesIfUpdatedNotModifiedFromVersionRegistry() throws Exception {
+        HttpServletRequest request          = Mockito.mock(HttpServletRequest.class);
+        String             serviceName      = "HDFS_1";
+        Long               lastKnownVersion = 1L;
+        String             pluginId         = "1";
+        Mockito.when(serviceUtil.isValidateHttpsAuthentication(serviceName, request)).thenReturn(true);
+        Mockito.when(serviceVersionRegistry.isPolicyVersionCurrent(serviceName, lastKnownVersion)).thenReturn(true);
+        Mockito.when(restErrorUtil.createRESTException(Mockito.eq(HttpServletResponse.SC_NOT_MODIFIED), Mockito.anyString(), Mockito.eq(false))).thenThrow(new WebApplicationException(HttpServletResponse.SC_NOT_MODIFIED));
+
+        try {
+            serviceREST.getServicePoliciesIfUpdated(serviceName, lastKnownVersion, 0L, pluginId, "", "", false, capabilityVector, request);
+
+            Assert.fail("expected 304 response");
+        } catch (WebApplicationException excp) {
+            Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, excp.getResponse().getStatus());
+        }
+
+        Mockito.verify(svcStore, Mockito.never()).getServicePoliciesIfUpdated(Mockito.anyString(), Mockito.anyLong(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void test84getPoliciesSearchedInDatabaseForAdmin() {
+        HttpServletRequest request    = Mockito.mock(HttpServletRequest.class);
+        SearchFilter       filter     = new SearchFilter();
+        XXService          hdfsSvc    = xService();
+        XXService          kmsSvc     = xService();
+        RangerPolicyList   policyList = new RangerPolicyList();
+        kmsSvc.setId(2L);
+        kmsSvc.setName("kms_1");
+        kmsSvc.setType(EmbeddedServiceDefsUtil.instance().getKmsServiceDefId());
+        filter.setParam(SearchFilter.POLICY_NAME_PARTIAL, "policy");
+        filter.setStartIndex(25);
+        filter.setMaxRows(25);
+        Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
+        Mockito.when(bizUtil.isAdmin()).thenReturn(true);
+        Mockito.when(bizUtil.getCurrentUserLoginId()).thenReturn("admin");
+        Mockito.when(daoManager.getXXService().getAll()).thenReturn(Arrays.asList(hdfsSvc, kmsSvc));
+        Mockito.when(svcStore.searchPoliciesInServices(filter, Collections.singletonList(hdfsSvc.getId()))).thenReturn(policyList);
+
+        RangerPolicyList dbRangerPolicy = serviceREST.getPolicies(request);
+
+        Assert.assertSame(policyList, dbRangerPolicy);
+        Mockito.verify(svcStore).isServiceAdminUser(kmsSvc.getName(), "admin");
+        Mockito.verify(svcStore, Mockito.never()).isServiceAdminUser(hdfsSvc.getName(), "admin");
+        Mockito.verify(svcStore, Mockito.never()).getPolicies(Mockito.any(SearchFilter.class));
+    }
+
+    @Test
+    public void test85getPoliciesFilteredInMemoryForDelegatedAdmin() throws Exception {
+        HttpServletRequest request    = Mockito.mock(HttpServletRequest.class);
+        SearchFilter       filter     = new SearchFilter();
+        XXService          xService   = xService();
+        ServiceREST        spySVCRest = Mockito.spy(serviceREST);
+        filter.setParam(SearchFilter.SERVICE_NAME, xService.getName());
+        Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
+        Mockito.when(bizUtil.getCurrentUserLoginId()).thenReturn("user1");
+        Mockito.when(daoManager.getXXService().getAll()).thenReturn(Collections.singletonList(xService));
+        Mockito.when(daoManager.getXXGroupUser().findGroupNamesByUserName("user1")).thenReturn(Collections.singleton("group1"));
+        Mockito.doReturn(policyAdmin).when(spySVCRest).getPolicyAdminForDelegatedAdmin(xService.getName());
+        Mockito.when(policyAdmin.hasDelegatedAdminPolicyItems(Mockito.eq("user1"), Mockito.anySet(), Mockito.any())).thenReturn(true);
+        Mockito.when(svcStore.getPolicies(filter)).thenReturn(new ArrayList<>());
+
+        RangerPolicyList dbRangerPolicy = spySVCRest.getPolicies(request);
+
+        Assert.assertNotNull(dbRangerPolicy);
+        Assert.assertEquals(0, dbRangerPolicy.getListSize());
+        Mockito.verify(svcStore).getPolicies(filter);
+        Mockito.verify(svcStore, Mockito.never()).searchPoliciesInServices(Mockito.any(SearchFilter.class), Mockito.anyCollection());
+    }
+
+    @Test
+    public void test86exportPoliciesInCSVStreamedFromDatabase() throws Exception {
+        HttpServletRequest     request        = Mockito.mock(HttpServletRequest.class);
+        HttpServletResponse    response       = Mockito.mock(HttpServletResponse.class);
+        SearchFilter           filter         = new SearchFilter();
+        XXService              xService       = xService();
+        XXServiceDef           xServiceDef    = serviceDef();
+        Iterator<RangerPolicy> policyIterator = Collections.singletonList(rangerPolicy()).iterator();
+        xServiceDef.setName("hdfs");
+        filter.setParam(SearchFilter.SERVICE_TYPE, "hdfs,hive");
+        Mockito.when(request.getParameter(ServiceREST.PARAM_SERVICE_TYPE)).thenReturn("hdfs,hive");
+        Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
+        Mockito.when(bizUtil.isAdmin()).thenReturn(true);
+        Mockito.when(bizUtil.getCurrentUserLoginId()).thenReturn("admin");
+        Mockito.when(daoManager.getXXService().getAll()).thenReturn(Collections.singletonList(xService));
+        Mockito.when(daoManager.getXXServiceDef().getById(xService.getType())).thenReturn(xServiceDef);
+        Mockito.when(svcStore.getPolicyIterator(Mockito.argThat(dbFilter -> dbFilter.getParam(SearchFilter.SERVICE_TYPE) == null), Mockito.eq(Collections.singletonList(xService.getId())))).thenReturn(policyIterator);
+
+        serviceREST.getPoliciesInCsv(request, response);
+
+        Mockito.verify(svcStore).getPoliciesInCSV(policyIterator, response);
+        Mockito.verify(svcStore, Mockito.never()).getPolicies(Mockito.any(SearchFilter.class));
+    }
+
+    @Test
+    public void test87exportPoliciesInJsonNoContent() throws Exception {
+        HttpServletRequest  request  = Mockito.mock(HttpServletRequest.class);
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        SearchFilter        filter   = new SearchFilter();
+        XXService           xService = xService();
+        Mockito.when(request.getParameter(ServiceREST.PARAM_SERVICE_NAME)).thenReturn(xService.getName());
+        Mockito.when(searchUtil.getSearchFilter(request, policyService.sortFields)).thenReturn(filter);
+        Mockito.when(bizUtil.isAdmin()).thenReturn(true);
+        Mockito.when(bizUtil.getCurrentUserLoginId()).thenReturn("admin");
+        Mockito.when(daoManager.getXXService().getAll()).thenReturn(Collections.singletonList(xService));
+        Mockito.when(svcStore.getPolicyIterator(Mockito.any(SearchFilter.class), Mockito.eq(Collections.singletonList(xService.getId())))).thenReturn(Collections.emptyIterator());
+
+        serviceREST.getPoliciesInJson(request, response, true);
+
+        Mockito.verify(response).setStatus(HttpServletResponse.SC_NO_CONTENT);
+        Mockito.verify(svcStore, Mockito.never()).getPoliciesInJson(Mockito.any(), Mockito.any(HttpServletResponse.class));
+    }
+
+    @Test
+    public void test88processPolicyInputJsonWithLeadingWhitespace() throws Exception {
+        String      json        = "\n  \t{\"metaDataInfo\": {\"Exported by\": \"admin\"}, \"policies\": [{\"id\": 1, \"name\": \"policy-1\", \"service\": \"HDFS_1\"}]}";
+        InputStream inputStream = IOUtils.toInputStream(json, "UTF-8");
+
+        RangerExportPolicyList policyList = serviceREST.processPolicyInputJsonForMetaData(inputStream, null);
+
+        Assert.assertEquals(1, policyList.getPolicies().size());
+        Assert.assertEquals("policy-1", policyList.getPolicies().get(0).getName());
+        Assert.assertEquals("admin", policyList.getMetaDataInfo().get("Exported by"));
+    }
+
+    @Test
+    public void test89processPolicyInputJsonEmptyFile() throws Exception {
+        InputStream inputStream = IOUtils.toInputStream(" \n\t ", "UTF-8");
+        Mockito.when(restErrorUtil.createRESTException("Provided json file is empty!!")).thenReturn(new WebApplicationException());
+
+        thrown.expect(WebApplicationException.class);
+
+        serviceREST.processPolicyInputJsonForMetaData(inputStream, null);
+    }
+
+    @Test
+    public void test90BulkUpdatePoliciesNotAppliedOnDuplicatePolicyName() throws Exception {
+        RangerPolicy    policy1        = rangerPolicy();
+        RangerPolicy    policy2        = rangerPolicy();
+        RangerPolicy    zonePolicy     = rangerPolicy();
+        XXServiceDef    xServiceDef    = serviceDef();
+        XXService       xService       = xService();
+        XXServiceDefDao xServiceDefDao = Mockito.mock(XXServiceDefDao.class);
+        XXServiceDao    xServiceDao    = Mockito.mock(XXServiceDao.class);
+        zonePolicy.setZoneName("zone1"); // same name in another zone is allowed
+        Mockito.when(validatorFactory.getPolicyValidator(svcStore)).thenReturn(policyValidator);
+        Mockito.when(bizUtil.isAdmin()).thenReturn(true);
+        Mockito.when(bizUtil.getCurrentUserLoginId()).thenReturn("admin");
+        Mockito.when(daoManager.getXXService()).thenReturn(xServiceDao);
+        Mockito.when(xServiceDao.findByName(Mockito.anyString())).thenReturn(xService);
+        Mockito.when(daoManager.getXXServiceDef()).thenReturn(xServiceDefDao);
+        Mockito.when(xServiceDefDao.getById(xService.getType())).thenReturn(xServiceDef);
+
+        RangerBulkPolicyRequest bulkRequest = new RangerBulkPolicyRequest(Arrays.asList(policy1, zonePolicy), Collections.singletonList(policy2), null);
+        RangerBulkPolicyResult  result      = serviceREST.bulkUpdatePolicies(bulkRequest);
+
+        Assert.assertFalse(result.isApplied());
+        Assert.assertEquals(3, result.getItemResults().size());
+        Assert.assertEquals(RangerBulkPolicyResult.Status.NOT_APPLIED, result.getItemResults().get(0).getStatus());
+        Assert.assertEquals(RangerBulkPolicyResult.Status.NOT_APPLIED, result.getItemResults().get(1).getStatus());
+        Assert.assertEquals(RangerBulkPolicyResult.Operation.UPDATE, result.getItemResults().get(2).getOperation());
+        Assert.assertEquals(RangerBulkPolicyResult.Status.FAILED, result.getItemResults().get(2).getStatus());
+        Assert.assertTrue(result.getItemResults().get(2).getMessage().contains(policy2.getName()));
+        Mockito.verify(policyValidator, Mockito.never()).validate(policy2, Action.UPDATE, true);
+        Mockito.verify(svcStore, Mockito.never()).bulkUpdatePolicies(Mockito.anyList(), Mockito.anyList(), Mockito.anyList());
+    }
+
+    @Test
+    public void test91BulkUpdatePoliciesNotAppliedOnDuplicateResourcesOrIds() throws Exception {
+        RangerPolicy    createPolicy1  = rangerPolicy();
+        RangerPolicy    createPolicy2  = rangerPolicy();
+        RangerPolicy    updatePolicy1  = rangerPolicy();
+        RangerPolicy    updatePolicy2  = rangerPolicy();
+        XXServiceDef    xServiceDef    = serviceDef();
+        XXService       xService       = xService();
+        XXServiceDefDao xServiceDefDao = Mockito.mock(XXServiceDefDao.class);
+        XXServiceDao    xServiceDao    = Mockito.mock(XXServiceDao.class);
+        createPolicy1.setName("policy-create-1");
+        createPolicy2.setName("policy-create-2"); // same resources as createPolicy1
+        updatePolicy1.setName("policy-update-1");
+        updatePolicy1.getResources().put("path", new RangerPolicyResource("/update-1"));
+        updatePolicy2.setName("policy-update-2"); // same id as updatePolicy1
+        updatePolicy2.getResources().put("path", new RangerPolicyResource("/update-2"));
+        Mockito.when(validatorFactory.getPolicyValidator(svcStore)).thenReturn(policyValidator);
+        Mockito.when(bizUtil.isAdmin()).thenReturn(true);
+        Mockito.when(bizUtil.getCurrentUserLoginId()).thenReturn("admin");
+        Mockito.when(daoManager.getXXService()).thenReturn(xServiceDao);
+        Mockito.when(xServiceDao.findByName(Mockito.anyString())).thenReturn(xService);
+        Mockito.when(daoManager.getXXServiceDef()).thenReturn(xServiceDefDao);
+        Mockito.when(xServiceDefDao.getById(xService.getType())).thenReturn(xServiceDef);
+
+        RangerBulkPolicyRequest bulkRequest = new RangerBulkPolicyRequest(Arrays.asList(createPolicy1, createPolicy2), Arrays.asList(updatePolicy1, updatePolicy2), Collections.singletonList(updatePolicy1.getId()));
+        RangerBulkPolicyResult  result      = serviceREST.bulkUpdatePolicies(bulkRequest);
+
+        Assert.assertFalse(result.isApplied());
+        Assert.assertEquals(5, result.getItemResults().size());
+        Assert.assertEquals(RangerBulkPolicyResult.Status.NOT_APPLIED, result.getItemResults().get(0).getStatus());
+        Assert.assertEquals(RangerBulkPolicyResult.Status.FAILED, result.getItemResults().get(1).getStatus());
+        Assert.assertTrue(result.getItemResults().get(1).getMessage().contains("same resources"));
+        Assert.assertEquals(RangerBulkPolicyResult.Status.NOT_APPLIED, result.getItemResults().get(2).getStatus());
+        Assert.assertEquals(RangerBulkPolicyResult.Status.FAILED, result.getItemResults().get(3).getStatus());
+        Assert.assertTrue(result.getItemResults().get(3).getMessage().contains("more than once"));
+        Assert.assertEquals(RangerBulkPolicyResult.Operation.DELETE, result.getItemResults().get(4).getOperation());
+        Assert.assertEquals(RangerBulkPolicyResult.Status.FAILED, result.getItemResults().get(4).getStatus());
+        Assert.assertTrue(result.getItemResults().get(4).getMessage().contains("more than once"));
+        Mockito.verify(policyValidator, Mockito.never()).validate(updatePolicy1.getId(), Action.DELETE);
+        Mockito.verify(svcStore, Mockito.never()).bulkUpdatePolicies(Mockito.anyList(), Mockito.anyList(), Mockito.anyList());
+    }
+
+    @Test
+    public void test92getSecureServicePoliciesIfUpdatedForKeyAdminFromVersionRegistry() throws Exception {
+        HttpServletRequest request          = Mockito.mock(HttpServletRequest.class);
+        Long               lastKnownVersion = 1L;
+        String             pluginId         = "1";
+        String             serviceName      = xService().getName();
+        ServicePolicies    sp               = servicePolicies();
+
+        Mockito.when(bizUtil.isKeyAdmin()).thenReturn(true);
+        Mockito.when(serviceUtil.isValidService(serviceName, request)).thenReturn(true);
+        Mockito.when(serviceVersionRegistry.getServiceVersions(serviceName)).thenReturn(new ServiceVersions(1L, 7L, true, "org.apache.ranger.services.kms.RangerServiceKMS", 2L, null, null, null));
+        Mockito.when(svcStore.getServicePoliciesIfUpdated(serviceName, lastKnownVersion, false)).thenReturn(sp);
+
+        ServicePolicies dbServiceSecurePolicies = serviceREST.getSecureServicePoliciesIfUpdated(serviceName, lastKnownVersion, 0L, pluginId, "", "", true, capabilityVector, request);
+
+        Assert.assertNotNull(dbServiceSecurePolicies);
+        Mockito.verify(xServiceDao, Mockito.never()).findByName(serviceName);
+        Mockito.verify(svcStore, Mockito.never()).getServiceByNameForDP(serviceName);
+        Mockito.verify(svcStore, Mockito.never()).getServiceByName(serviceName);
+    }
+
     RangerPolicy rangerPolicy() {
         List<RangerPolicyItemAccess>    accesses         = new ArrayList<>();
         List<String>                    users            = new ArrayList<>();
@@ -18,6 +18,7 @@
 
 import org.apache.ranger.biz.AssetMgr;
 import org.apache.ranger.biz.RangerBizUtil;
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
 import org.apache.ranger.biz.ServiceDBStore;
 import org.apache.ranger.biz.TagDBStore;
 import org.apache.ranger.common.RESTErrorUtil;
@@ -86,6 +87,8 @@ public class TestTagREST {
     @Mock
     TagDBStore tagStore;
     @Mock
+    RangerServiceVersionRegistry serviceVersionRegistry;
+    @Mock
     RESTErrorUtil restErrorUtil;
     @Mock
     RangerBizUtil bizUtil;
@@ -17,6 +17,7 @@
 package org.apache.ranger.rest;
 
 import org.apache.ranger.biz.RangerBizUtil;
+import org.apache.ranger.biz.RangerServiceVersionRegistry;
 import org.apache.ranger.biz.SessionMgr;
 import org.apache.ranger.biz.XUserMgr;
 import org.apache.ranger.common.AppConstants;
@@ -192,6 +193,7 @@ public class TestXUserREST {
     @Mock RangerPolicyItem          rangerPolicyItem;
     @Mock RangerDataMaskPolicyItem  rangerDataMaskPolicyItem;
     @Mock RangerRowFilterPolicyItem rangerRowFilterPolicyItem;
+    @Mock RangerServiceVersionRegistry serviceVersionRegistry;
 
     @Test
     public void test1getXGroup() {
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.service.filter;
+
+import com.sun.jersey.spi.container.ContainerRequest;
+import com.sun.jersey.core.header.InBoundHeaders;
+import com.sun.jersey.core.header.OutBoundHeaders;
+import com.sun.jersey.spi.container.ContainerResponse;
+import org.apache.ranger.common.RangerServicePoliciesCache;
+import org.apache.ranger.common.RangerServicePoliciesCache.SerializedResponse;
+import org.apache.ranger.plugin.store.ServiceStore;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestRangerDownloadCompressionFilter {
+    @Mock
+    ContainerRequest request;
+
+    @Mock
+    ContainerResponse response;
+
+    @Test
+    public void testIsDownloadRequest() {
+        when(request.getPath()).thenReturn("plugins/policies/download/dev_hive");
+        Assert.assertTrue(RangerDownloadCompressionFilter.isDownloadRequest(request));
+
+        when(request.getPath()).thenReturn("plugins/secure/policies/download/dev_hive");
+        Assert.assertTrue(RangerDownloadCompressionFilter.isDownloadRequest(request));
+
+        when(request.getPath()).thenReturn("roles/download/dev_hive");
+        Assert.assertTrue(RangerDownloadCompressionFilter.isDownloadRequest(request));
+
+        when(request.getPath()).thenReturn("plugins/policies/1");
+        Assert.assertFalse(RangerDownloadCompressionFilter.isDownloadRequest(request));
+
+        when(request.getPath()).thenReturn("plugins/services/downloads");
+        Assert.assertFalse(RangerDownloadCompressionFilter.isDownloadRequest(request));
+    }
+
+    @Test
+    public void testNonDownloadResponseIsNotEncoded() {
+        when(request.getPath()).thenReturn("plugins/policies/1");
+
+        RangerDownloadCompressionFilter filter = new RangerDownloadCompressionFilter(true);
+
+        Assert.assertSame(response, filter.filter(request, response));
+        verifyZeroInteractions(response);
+    }
+
+    @Test
+    public void testDisabledFilterDoesNotEncode() {
+        RangerDownloadCompressionFilter filter = new RangerDownloadCompressionFilter(false);
+
+        Assert.assertSame(response, filter.filter(request, response));
+        Assert.assertSame(request, filter.filter(request));
+        verifyZeroInteractions(response);
+    }
+
+    @Test
+    public void testCachedPoliciesAreWrittenFromCachedBytes() throws Exception {
+        String                     serviceName = "dev_hive_filter_test";
+        RangerServicePoliciesCache cache       = RangerServicePoliciesCache.getInstance();
+        ServicePolicies            policies    = new ServicePolicies();
+        ServiceStore               store       = mock(ServiceStore.class);
+        InBoundHeaders             reqHeaders  = new InBoundHeaders();
+        OutBoundHeaders            respHeaders = new OutBoundHeaders();
+
+        policies.setServiceId(1L);
+        policies.setServiceName(serviceName);
+        policies.setPolicyVersion(5L);
+
+        when(store.getServicePolicyVersion(serviceName)).thenReturn(5L);
+        when(store.getServicePolicyDeltasOrPolicies(serviceName, -1L)).thenReturn(policies);
+
+        try {
+            cache.getServicePolicies(serviceName, 1L, -1L, true, store);
+            cache.putResponse(serviceName, RangerServicePoliciesCache.getResponseKey(5L, null, true, true, true), policies);
+
+            SerializedResponse cached = cache.getSerializedResponse(policies);
+
+            reqHeaders.putSingle(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+            when(request.getPath()).thenReturn("plugins/policies/download/" + serviceName);
+            when(request.getRequestHeaders()).thenReturn(reqHeaders);
+            when(response.getEntity()).thenReturn(policies);
+            when(response.getHttpHeaders()).thenReturn(respHeaders);
+
+            Assert.assertSame(response, new RangerDownloadCompressionFilter(true).filter(request, response));
+            verify(response).setEntity(cached.getGzippedBytes());
+            Assert.assertEquals("gzip", respHeaders.getFirst(HttpHeaders.CONTENT_ENCODING));
+            Assert.assertEquals(cached.getETag(), respHeaders.getFirst(HttpHeaders.ETAG));
+
+            // compression disabled: cached plain bytes are written
+            respHeaders.clear();
+
+            new RangerDownloadCompressionFilter(false).filter(request, response);
+            verify(response).setEntity(cached.getBytes());
+            Assert.assertNull(respHeaders.getFirst(HttpHeaders.CONTENT_ENCODING));
+        } finally {
+            cache.resetCache(serviceName);
+        }
+    }
+}
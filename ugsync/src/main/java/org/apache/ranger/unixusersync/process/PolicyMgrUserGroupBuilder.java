@@ -36,6 +36,7 @@
 import org.apache.ranger.unixusersync.model.GetXUserListResponse;
 import org.apache.ranger.usergroupsync.AbstractUserGroupSource;
 import org.apache.ranger.usergroupsync.UserGroupSink;
+import org.apache.ranger.usergroupsync.UserSyncMetricsProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -1058,12 +1059,15 @@ private int getUsers(GetXUserListResponse xUserList) throws Throwable {
                 return 1;
             }
 
-            String response = getDataFromLdap(PM_ADD_USERS_URI, pagedXUserList);
+            long   startTimeMs = System.currentTimeMillis();
+            String response    = getDataFromLdap(PM_ADD_USERS_URI, pagedXUserList);
 
             if (StringUtils.isNotEmpty(response)) {
                 try {
                     ret            = Integer.parseInt(response);
                     uploadedCount += pageSize;
+
+                    UserSyncMetricsProducer.recordUpload(UserSyncMetricsProducer.UPLOAD_TYPE_USERS, pagedXUserList.getXuserInfoList().size(), System.currentTimeMillis() - startTimeMs);
                 } catch (NumberFormatException e) {
                     LOG.error("Failed to addOrUpdateUsers {}", uploadedCount, e);
                     throw e;
@@ -1156,12 +1160,15 @@ private int getGroups(GetXGroupListResponse xGroupList) throws Throwable {
             pagedXGroupList.setXgroupInfoList(xGroupList.getXgroupInfoList().subList(uploadedCount, pagedXGroupListLen > totalCount ? totalCount : pagedXGroupListLen));
             pagedXGroupList.setTotalCount(pageSize);
 
-            String response = getDataFromLdap(PM_ADD_GROUPS_URI, pagedXGroupList);
+            long   startTimeMs = System.currentTimeMillis();
+            String response    = getDataFromLdap(PM_ADD_GROUPS_URI, pagedXGroupList);
 
             if (StringUtils.isNotEmpty(response)) {
                 try {
                     ret            = Integer.parseInt(response);
                     uploadedCount += pageSize;
+
+                    UserSyncMetricsProducer.recordUpload(UserSyncMetricsProducer.UPLOAD_TYPE_GROUPS, pagedXGroupList.getXgroupInfoList().size(), System.currentTimeMillis() - startTimeMs);
                 } catch (NumberFormatException e) {
                     LOG.error("Failed to addOrUpdateGroups {}", uploadedCount, e);
                     throw e;
@@ -1224,12 +1231,15 @@ private int getGroupUsers(List<GroupUserInfo> groupUserInfoList) throws Throwabl
 
             int pagedGroupUserInfoListLen              = uploadedCount + pageSize;
             List<GroupUserInfo> pagedGroupUserInfoList = groupUserInfoList.subList(uploadedCount, pagedGroupUserInfoListLen > totalCount ? totalCount : pagedGroupUserInfoListLen);
+            long   startTimeMs                         = System.currentTimeMillis();
             String response                            = getDataFromLdap(PM_ADD_GROUP_USER_LIST_URI, pagedGroupUserInfoList);
 
             if (StringUtils.isNotEmpty(response)) {
                 try {
                     ret            = Integer.parseInt(response);
                     uploadedCount += pageSize;
+
+                    UserSyncMetricsProducer.recordUpload(UserSyncMetricsProducer.UPLOAD_TYPE_GROUP_USERS, getMembershipCount(pagedGroupUserInfoList), System.currentTimeMillis() - startTimeMs);
                 } catch (NumberFormatException e) {
                     LOG.error("Failed to addOrUpdateGroupUsers {}", uploadedCount, e);
                     throw e;
@@ -1247,6 +1257,22 @@ private int getGroupUsers(List<GroupUserInfo> groupUserInfoList) throws Throwabl
         return ret;
     }
 
+    private static int getMembershipCount(List<GroupUserInfo> groupUserInfoList) {
+        int ret = 0;
+
+        for (GroupUserInfo groupUserInfo : groupUserInfoList) {
+            if (groupUserInfo.getAddUsers() != null) {
+                ret += groupUserInfo.getAddUsers().size();
+            }
+
+            if (groupUserInfo.getDelUsers() != null) {
+                ret += groupUserInfo.getDelUsers().size();
+            }
+        }
+
+        return ret;
+    }
+
     private String updateRoles(UsersGroupRoleAssignments ugRoleAssignments) {
         LOG.debug("==> PolicyMgrUserGroupBuilder.updateUserRole({})", ugRoleAssignments.getUsers());
 
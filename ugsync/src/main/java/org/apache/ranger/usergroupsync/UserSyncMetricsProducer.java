@@ -26,10 +26,21 @@
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class UserSyncMetricsProducer implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(UserSyncMetricsProducer.class);
 
+    public static final String UPLOAD_TYPE_USERS       = "users";
+    public static final String UPLOAD_TYPE_GROUPS      = "groups";
+    public static final String UPLOAD_TYPE_GROUP_USERS = "groupUsers";
+
+    private static final Map<String, UploadStats> UPLOAD_STATS = new ConcurrentHashMap<>();
+
     private boolean shutdownFlag;
 
     public static void main(String[] args) {
@@ -41,6 +52,23 @@ public static void main(String[] args) {
          */
     }
 
+    /**
+     * Records one page of users/groups/memberships uploaded to Ranger admin, to report the upload throughput in the metrics file.
+     */
+    public static void recordUpload(String uploadType, int rowCount, long elapsedTimeMs) {
+        UPLOAD_STATS.computeIfAbsent(uploadType, k -> new UploadStats()).record(rowCount, elapsedTimeMs);
+    }
+
+    static Map<String, Object> getUploadMetrics() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+
+        for (Map.Entry<String, UploadStats> entry : UPLOAD_STATS.entrySet()) {
+            ret.put(entry.getKey(), entry.getValue().toMap());
+        }
+
+        return ret;
+    }
+
     @Override
     public void run() {
         try {
@@ -96,10 +124,44 @@ private void writeJVMMetrics(String logFileNameWithPath) throws Throwable {
                 }
             }
 
-            rangerMetricsUtil.writeMetricsToFile(userMetricFile);
+            Map<String, Object> usersyncMetrics = new LinkedHashMap<>();
+
+            usersyncMetrics.put("upload", getUploadMetrics());
+
+            rangerMetricsUtil.writeMetricsToFile(userMetricFile, Collections.singletonMap("usersync", usersyncMetrics));
         } catch (Throwable t) {
             LOG.error("UserSyncMetricsProducer.writeJVMMetrics() failed to write metrics into file. Error details: ", t);
             throw t;
         }
     }
+
+    private static class UploadStats {
+        private final LongAdder rowCount      = new LongAdder();
+        private final LongAdder elapsedTimeMs = new LongAdder();
+        private volatile long   lastRowsPerSec;
+
+        void record(int rows, long timeMs) {
+            rowCount.add(rows);
+            elapsedTimeMs.add(timeMs);
+
+            lastRowsPerSec = getRowsPerSec(rows, timeMs);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> ret    = new LinkedHashMap<>();
+            long                rows   = rowCount.sum();
+            long                timeMs = elapsedTimeMs.sum();
+
+            ret.put("rowCount", rows);
+            ret.put("elapsedTimeMs", timeMs);
+            ret.put("rowsPerSec", getRowsPerSec(rows, timeMs));
+            ret.put("lastRowsPerSec", lastRowsPerSec);
+
+            return ret;
+        }
+
+        private static long getRowsPerSec(long rows, long timeMs) {
+            return timeMs > 0 ? (rows * 1000L) / timeMs : rows;
+        }
+    }
 }